@@ -0,0 +1,112 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.core.MediaType;
+import org.onap.aai.restclient.client.OperationResult;
+import org.onap.aai.restclient.client.RestClient;
+import org.onap.aai.restclient.enums.RestAuthenticationMode;
+import org.onap.aai.restclient.stub.AaiStubServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the cost of a small GET in each authentication mode, plain HTTP against HTTPS with basic credentials and
+ * HTTPS with a client certificate, from one thread and from many threads sharing the client:
+ *
+ * <pre>
+ * mvn -P benchmarks test-compile exec:exec -Djmh.args="AuthenticationModeBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AuthenticationModeBenchmark {
+
+    private static final Map<String, List<String>> HEADERS = Collections.emptyMap();
+    private static final String PNFS_PATH = "/aai/v14/network/pnfs";
+    private static final int BODY_SIZE = 1024;
+    private static final int CONTENDED_THREADS = 16;
+
+    @Param({"HTTP_NOAUTH", "SSL_BASIC", "SSL_CERT"})
+    private RestAuthenticationMode mode;
+
+    private AaiStubServer server;
+    private RestClient client;
+    private String url;
+
+    @Setup
+    public void setUp() throws Exception {
+        server = new AaiStubServer().document(PNFS_PATH,
+                new String(InMemoryTransport.jsonBody(BODY_SIZE), StandardCharsets.UTF_8));
+        if (mode != RestAuthenticationMode.HTTP_NOAUTH) {
+            server.secure();
+        }
+        server.start();
+        url = server.url(PNFS_PATH);
+
+        // The client reads its trust store through the JSSE system properties, which need the password to open it.
+        System.setProperty("javax.net.ssl.trustStorePassword", AaiStubServer.KEYSTORE_PASSWORD);
+        client = new RestClient(ClientBuilder.newBuilder()).authenticationMode(mode);
+        if (mode == RestAuthenticationMode.SSL_BASIC) {
+            client.trustStore(server.getKeystore()).basicAuthUsername("aai").basicAuthPassword("aai");
+        } else if (mode == RestAuthenticationMode.SSL_CERT) {
+            client.trustStore(server.getKeystore()).clientCertFile(server.getKeystore())
+                    .clientCertPassword(AaiStubServer.KEYSTORE_PASSWORD);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    public OperationResult get() {
+        return client.get(url, HEADERS, MediaType.APPLICATION_JSON_TYPE);
+    }
+
+    @Benchmark
+    @Threads(CONTENDED_THREADS)
+    public OperationResult contendedGet() {
+        return client.get(url, HEADERS, MediaType.APPLICATION_JSON_TYPE);
+    }
+}
@@ -0,0 +1,139 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.core.MediaType;
+import org.onap.aai.restclient.client.OperationResult;
+import org.onap.aai.restclient.client.RestClient;
+import org.onap.aai.restclient.enums.RestAuthenticationMode;
+import org.onap.aai.restclient.resilience.ExponentialBackoffRetryPolicy;
+import org.onap.aai.restclient.stub.AaiStubServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Sends GET, PUT and POST requests with small and large payloads to a local {@link AaiStubServer}, from one thread
+ * and from many threads sharing the client, and GETs which are retried once after a 503. Each benchmark reports its
+ * throughput and its latency percentiles, and the default GC profiler adds the allocation per request:
+ *
+ * <pre>
+ * mvn -P benchmarks test-compile exec:exec -Djmh.args="HttpRequestBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class HttpRequestBenchmark {
+
+    private static final Map<String, List<String>> HEADERS = Collections.emptyMap();
+    private static final String PNFS_PATH = "/aai/v14/network/pnfs";
+    private static final int CONTENDED_THREADS = 16;
+
+    @Param({"1024", "1048576"})
+    private int payloadSize;
+
+    private AaiStubServer server;
+    private AaiStubServer retryServer;
+    private RestClient client;
+    private RestClient retryingClient;
+    private String url;
+    private String retryUrl;
+    private String payload;
+
+    @Setup
+    public void setUp() throws Exception {
+        payload = new String(InMemoryTransport.jsonBody(payloadSize), StandardCharsets.UTF_8);
+        server = new AaiStubServer().document(PNFS_PATH, payload).start();
+        url = server.url(PNFS_PATH);
+        // Fails every other request, so each request through it is retried once
+        retryServer = new AaiStubServer().document(PNFS_PATH, payload).errorInterval(2, 503).start();
+        retryUrl = retryServer.url(PNFS_PATH);
+
+        client = new RestClient(ClientBuilder.newBuilder()).authenticationMode(RestAuthenticationMode.HTTP_NOAUTH);
+        // The shortest delay the policy allows, so that the benchmark measures the retry path rather than the wait.
+        retryingClient = new RestClient(ClientBuilder.newBuilder())
+                .authenticationMode(RestAuthenticationMode.HTTP_NOAUTH)
+                .retryPolicy(new ExponentialBackoffRetryPolicy().maxAttempts(2).baseDelay(Duration.ofMillis(1))
+                        .maxDelay(Duration.ofMillis(1)));
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.close();
+        retryServer.close();
+    }
+
+    @Benchmark
+    public OperationResult get() {
+        return client.get(url, HEADERS, MediaType.APPLICATION_JSON_TYPE);
+    }
+
+    @Benchmark
+    public OperationResult put() {
+        return client.put(url, payload, HEADERS, MediaType.APPLICATION_JSON_TYPE, MediaType.APPLICATION_JSON_TYPE);
+    }
+
+    @Benchmark
+    public OperationResult post() {
+        return client.post(url, payload, HEADERS, MediaType.APPLICATION_JSON_TYPE, MediaType.APPLICATION_JSON_TYPE);
+    }
+
+    @Benchmark
+    @Threads(CONTENDED_THREADS)
+    public OperationResult contendedGet() {
+        return client.get(url, HEADERS, MediaType.APPLICATION_JSON_TYPE);
+    }
+
+    @Benchmark
+    @Threads(CONTENDED_THREADS)
+    public OperationResult contendedPut() {
+        return client.put(url, payload, HEADERS, MediaType.APPLICATION_JSON_TYPE, MediaType.APPLICATION_JSON_TYPE);
+    }
+
+    /**
+     * Runs on a single thread, as the server fails every other request and so retries each request exactly once.
+     */
+    @Benchmark
+    public OperationResult retriedGet() {
+        return retryingClient.get(retryUrl, HEADERS, MediaType.APPLICATION_JSON_TYPE);
+    }
+}
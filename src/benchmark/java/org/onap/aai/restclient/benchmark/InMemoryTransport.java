@@ -0,0 +1,110 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import org.onap.aai.restclient.transport.ResponseHeaders;
+import org.onap.aai.restclient.transport.RestTransport;
+import org.onap.aai.restclient.transport.TransportRequest;
+import org.onap.aai.restclient.transport.TransportResponse;
+
+/**
+ * A {@link RestTransport} which answers every request with the same canned response, so that benchmarks measure the
+ * client rather than the network. Each response hands out a fresh copy of the body, as a real transport reading it off
+ * a connection would.
+ */
+public class InMemoryTransport implements RestTransport {
+
+    private final int status;
+    private final byte[] body;
+
+    public InMemoryTransport(int status, byte[] body) {
+        this.status = status;
+        this.body = body;
+    }
+
+    /**
+     * Builds a JSON document of roughly the given size, shaped like an A&AI query result.
+     */
+    public static byte[] jsonBody(int size) {
+        StringBuilder json = new StringBuilder(size + 128).append("{\"pnf\":[");
+        for (int i = 0; json.length() < size; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"pnf-name\":\"pnf-").append(i).append("\",\"in-maint\":false,\"resource-version\":\"")
+                    .append(1500000000000L + i).append("\"}");
+        }
+        return json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public TransportResponse execute(TransportRequest request) {
+        return new InMemoryResponse();
+    }
+
+    @Override
+    public CompletionStage<TransportResponse> executeAsync(TransportRequest request) {
+        return CompletableFuture.completedFuture(new InMemoryResponse());
+    }
+
+    private class InMemoryResponse implements TransportResponse {
+
+        @Override
+        public int getStatus() {
+            return status;
+        }
+
+        @Override
+        public MultivaluedMap<String, String> getHeaders() {
+            MultivaluedMap<String, String> headers = new ResponseHeaders();
+            headers.putSingle("Content-Type", MediaType.APPLICATION_JSON);
+            return headers;
+        }
+
+        @Override
+        public String readEntity() {
+            return new String(body, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public byte[] readEntityBytes() {
+            return Arrays.copyOf(body, body.length);
+        }
+
+        @Override
+        public InputStream getEntityStream() {
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public void close() {
+            // Nothing to release
+        }
+    }
+}
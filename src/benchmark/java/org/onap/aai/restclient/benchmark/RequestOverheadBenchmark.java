@@ -0,0 +1,100 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.benchmark;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.core.MediaType;
+import org.onap.aai.restclient.client.RestClient;
+import org.onap.aai.restclient.enums.RequestType;
+import org.onap.aai.restclient.enums.RestAuthenticationMode;
+import org.onap.aai.restclient.transport.TransportRequest;
+import org.onap.aai.restclient.transport.TransportResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+
+/**
+ * Measures what the client itself costs on top of the transport for a small GET, with logging at WARN as it is in
+ * production. The transport benchmark reads the same response straight off the transport, so the difference between
+ * the gc.alloc.rate.norm of the two is the allocation the client adds to each request:
+ *
+ * <pre>
+ * mvn -P benchmarks test-compile exec:exec -Djmh.args="RequestOverheadBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RequestOverheadBenchmark {
+
+    private static final String URL = "http://localhost/aai/v14/network/pnfs";
+    private static final Map<String, List<String>> HEADERS = Collections.emptyMap();
+    private static final int BODY_SIZE = 256;
+
+    private InMemoryTransport transport;
+    private TransportRequest request;
+    private RestClient client;
+
+    @Setup
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        transport = new InMemoryTransport(200, InMemoryTransport.jsonBody(BODY_SIZE));
+        request = new TransportRequest(RequestType.GET, URL, null, HEADERS, null, MediaType.APPLICATION_JSON_TYPE,
+                null);
+        client = new RestClient(ClientBuilder.newBuilder()).authenticationMode(RestAuthenticationMode.HTTP_NOAUTH)
+                .transport(transport);
+    }
+
+    @Benchmark
+    public String transport() {
+        TransportResponse response = transport.execute(request);
+        try {
+            response.getHeaders();
+            return response.readEntity();
+        } finally {
+            response.close();
+        }
+    }
+
+    @Benchmark
+    public String client() {
+        return client.get(URL, HEADERS, MediaType.APPLICATION_JSON_TYPE).getResult();
+    }
+}
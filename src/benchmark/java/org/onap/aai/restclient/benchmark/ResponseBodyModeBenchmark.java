@@ -0,0 +1,89 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.benchmark;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.core.MediaType;
+import org.onap.aai.restclient.client.RestClient;
+import org.onap.aai.restclient.enums.ResponseBodyMode;
+import org.onap.aai.restclient.enums.RestAuthenticationMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the cost of a request in the two response body modes. Run with the GC profiler to see the allocation per
+ * request, which is reported as gc.alloc.rate.norm:
+ *
+ * <pre>
+ * mvn -P benchmarks test-compile exec:exec -Djmh.args="ResponseBodyModeBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ResponseBodyModeBenchmark {
+
+    private static final String URL = "http://localhost/aai/v14/network/pnfs";
+    private static final Map<String, List<String>> HEADERS = Collections.emptyMap();
+
+    @Param({"1024", "65536", "1048576"})
+    private int bodySize;
+
+    private RestClient stringClient;
+    private RestClient bytesClient;
+
+    @Setup
+    public void setUp() {
+        InMemoryTransport transport = new InMemoryTransport(200, InMemoryTransport.jsonBody(bodySize));
+
+        stringClient = new RestClient(ClientBuilder.newBuilder()).authenticationMode(RestAuthenticationMode.HTTP_NOAUTH)
+                .transport(transport);
+        bytesClient = new RestClient(ClientBuilder.newBuilder()).authenticationMode(RestAuthenticationMode.HTTP_NOAUTH)
+                .transport(transport).responseBodyMode(ResponseBodyMode.BYTES);
+    }
+
+    @Benchmark
+    public String stringMode() {
+        return stringClient.get(URL, HEADERS, MediaType.APPLICATION_JSON_TYPE).getResult();
+    }
+
+    @Benchmark
+    public ByteBuffer bytesMode() {
+        return bytesClient.get(URL, HEADERS, MediaType.APPLICATION_JSON_TYPE).getResultBuffer();
+    }
+}
@@ -0,0 +1,181 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.onap.aai.restclient.cache.CachedResponse;
+import org.onap.aai.restclient.cache.ResponseCache;
+import org.onap.aai.restclient.cache.ResponseCacheConfig;
+import org.onap.aai.restclient.transport.ResponseHeaders;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the response caches with an unbounded {@link ConcurrentHashMap}, under a skewed stream of lookups where a
+ * miss stores the response. The URLs follow a Zipf distribution over ten times as many objects as the bounded caches
+ * have room for. The hits and misses of each cache are reported as secondary results, which gives its hit ratio; the
+ * map holds every object it has seen, so its hit ratio is the best possible and its memory use is unbounded. Run with
+ * the GC profiler to see the allocation per lookup:
+ *
+ * <pre>
+ * mvn -P benchmarks test-compile exec:exec -Djmh.args="ResponseCacheBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+public class ResponseCacheBenchmark {
+
+    private static final int CACHED_OBJECTS = 10000;
+    private static final int OBJECTS = 10 * CACHED_OBJECTS;
+    private static final int LOOKUPS = 1 << 20;
+
+    @Param({"2048", "32768"})
+    private int bodySize;
+
+    private String[] lookups;
+    private CachedResponse response;
+    private ResponseCache lruCache;
+    private ResponseCache tinyLfuCache;
+    private ResponseCache compressedTinyLfuCache;
+    private ConcurrentHashMap<String, CachedResponse> map;
+
+    @Setup
+    public void setUp() {
+        ResponseHeaders headers = new ResponseHeaders();
+        headers.putSingle("Content-Type", "application/json");
+        headers.putSingle("ETag", "\"1500000000000\"");
+        String body = new String(InMemoryTransport.jsonBody(bodySize), StandardCharsets.UTF_8);
+        response = CachedResponse.of("application/json", body, null, null, headers, 0);
+
+        // Size the caches by bytes to hold as many uncompressed responses as the LRU cache holds entries
+        long maxBytes = (long) CACHED_OBJECTS * (response.getWeight() + 64);
+        lruCache = new ResponseCache(CACHED_OBJECTS);
+        tinyLfuCache = new ResponseCache(new ResponseCacheConfig().maxBytes(maxBytes)
+                .compressionThreshold(ResponseCacheConfig.NO_COMPRESSION));
+        compressedTinyLfuCache = new ResponseCache(new ResponseCacheConfig().maxBytes(maxBytes));
+        map = new ConcurrentHashMap<>();
+
+        lookups = zipf(OBJECTS, LOOKUPS, new Random(42));
+    }
+
+    @Benchmark
+    public Object lru(Lookups state) {
+        return lookup(lruCache, state);
+    }
+
+    @Benchmark
+    public Object tinyLfu(Lookups state) {
+        return lookup(tinyLfuCache, state);
+    }
+
+    @Benchmark
+    public Object compressedTinyLfu(Lookups state) {
+        return lookup(compressedTinyLfuCache, state);
+    }
+
+    @Benchmark
+    public Object concurrentHashMap(Lookups state) {
+        String url = lookups[state.next()];
+        CachedResponse cached = map.get(url);
+        if (cached != null) {
+            state.hits++;
+            return cached.getResult();
+        }
+        state.misses++;
+        map.put(url, response);
+        return response;
+    }
+
+    private Object lookup(ResponseCache cache, Lookups state) {
+        String url = lookups[state.next()];
+        CachedResponse cached = cache.get(url);
+        if (cached != null) {
+            state.hits++;
+            return cached.getResult();
+        }
+        state.misses++;
+        cache.put(url, response);
+        return response;
+    }
+
+    /**
+     * Draws URLs of objects numbered from 0, the object numbered k being drawn with a probability proportional to
+     * 1 / (k + 1).
+     */
+    private static String[] zipf(int objects, int count, Random random) {
+        double[] cumulative = new double[objects];
+        double total = 0;
+        for (int k = 0; k < objects; k++) {
+            total += 1.0 / (k + 1);
+            cumulative[k] = total;
+        }
+        String[] urls = new String[count];
+        for (int i = 0; i < count; i++) {
+            int k = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+            urls[i] = "https://aai:8443/aai/v14/network/pnfs/pnf/pnf-" + (k < 0 ? -k - 1 : k);
+        }
+        return urls;
+    }
+
+    /**
+     * The position of a thread in the lookup stream, and its hits and misses.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Lookups {
+        public long hits;
+        public long misses;
+        private int position;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            position = new Random().nextInt(LOOKUPS);
+            hits = 0;
+            misses = 0;
+        }
+
+        int next() {
+            position = (position + 1) & (LOOKUPS - 1);
+            return position;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.balancer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.onap.aai.restclient.enums.EndpointState;
+
+/**
+ * One endpoint of a {@link LoadBalancer}, with the load and health the balancer picks endpoints by. Its state is
+ * changed by the balancer; requests only read it.
+ */
+public final class Endpoint {
+
+    private final String url;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    private volatile EndpointState state = EndpointState.HEALTHY;
+    private volatile long ejectedUntilNanos;
+    private volatile double averageLatencyNanos;
+    private volatile int samples;
+
+    // Guarded by this endpoint
+    private long lastSampleNanos;
+    private int consecutiveFailures;
+    private int probationSuccesses;
+    private int ejectionCount;
+    private long ejections;
+
+    Endpoint(String url) {
+        this.url = url;
+    }
+
+    /**
+     * Returns the scheme, host and port of the endpoint, as configured.
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Returns the URL of the given service path on this endpoint.
+     */
+    public String resolve(String path) {
+        return url + path;
+    }
+
+    EndpointState getState() {
+        return state;
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    void acquire() {
+        inFlight.incrementAndGet();
+    }
+
+    void releaseUnused() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Returns true if the endpoint is ejected and its ejection time is up.
+     */
+    boolean isDueForReadmission(long now) {
+        return state == EndpointState.EJECTED && now - ejectedUntilNanos >= 0;
+    }
+
+    /**
+     * Returns the cost of sending the next request here for the EWMA strategy: the average latency weighted by the
+     * requests in flight. An endpoint without a latency sample gets one request at a time until it has one.
+     */
+    double getLatencyCost() {
+        int pending = inFlight.get();
+        if (samples == 0) {
+            return pending == 0 ? 0 : Double.MAX_VALUE / 2;
+        }
+        return averageLatencyNanos * (pending + 1);
+    }
+
+    /**
+     * Records a completed request.
+     *
+     * @return The reason to eject the endpoint, or null if the request gives no reason to.
+     */
+    synchronized String record(long latencyNanos, boolean failed, long now, double decayNanos,
+            int maxConsecutiveFailures, int probationRequests) {
+        inFlight.decrementAndGet();
+        requests.increment();
+
+        // A failure may be quick, and must not make the endpoint look faster than it is.
+        double sample = failed ? Math.max(latencyNanos, averageLatencyNanos) : latencyNanos;
+        if (samples == 0) {
+            averageLatencyNanos = sample;
+        } else {
+            double weight = Math.exp(-Math.max(now - lastSampleNanos, 0) / decayNanos);
+            averageLatencyNanos = averageLatencyNanos * weight + sample * (1 - weight);
+        }
+        lastSampleNanos = now;
+        samples++;
+
+        if (failed) {
+            failures.increment();
+            probationSuccesses = 0;
+            consecutiveFailures++;
+            if (state == EndpointState.PROBATION) {
+                return "failed on probation";
+            }
+            return consecutiveFailures >= maxConsecutiveFailures ? consecutiveFailures + " failures in a row" : null;
+        }
+
+        consecutiveFailures = 0;
+        if (state == EndpointState.PROBATION && ++probationSuccesses >= probationRequests) {
+            state = EndpointState.HEALTHY;
+            ejectionCount = 0;
+        }
+        return null;
+    }
+
+    int getSamples() {
+        return samples;
+    }
+
+    double getAverageLatencyNanos() {
+        return averageLatencyNanos;
+    }
+
+    /**
+     * Ejects the endpoint for the base ejection time times the number of ejections since it was last healthy.
+     *
+     * @return The ejection time in ms.
+     */
+    synchronized long eject(long now, long baseEjectionNanos, long maxEjectionNanos) {
+        ejectionCount++;
+        ejections++;
+        long ejectionNanos = Math.min(baseEjectionNanos * ejectionCount, maxEjectionNanos);
+        ejectedUntilNanos = now + ejectionNanos;
+        consecutiveFailures = 0;
+        state = EndpointState.EJECTED;
+        return ejectionNanos / 1000000;
+    }
+
+    /**
+     * Puts the endpoint on probation, forgetting the latency it had, which is out of date.
+     */
+    synchronized void readmit() {
+        probationSuccesses = 0;
+        samples = 0;
+        averageLatencyNanos = 0;
+        state = EndpointState.PROBATION;
+    }
+
+    synchronized EndpointStats getStats() {
+        return new EndpointStats(url, state, inFlight.get(), averageLatencyNanos / 1000000, requests.sum(),
+                failures.sum(), ejections);
+    }
+}
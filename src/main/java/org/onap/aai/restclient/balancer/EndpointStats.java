@@ -0,0 +1,102 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.balancer;
+
+import org.onap.aai.restclient.enums.EndpointState;
+
+/**
+ * A point-in-time snapshot of one endpoint of a {@link LoadBalancer}.
+ */
+public class EndpointStats {
+
+    private final String url;
+    private final EndpointState state;
+    private final int inFlight;
+    private final double averageLatencyMs;
+    private final long requests;
+    private final long failures;
+    private final long ejections;
+
+    public EndpointStats(String url, EndpointState state, int inFlight, double averageLatencyMs, long requests,
+            long failures, long ejections) {
+        this.url = url;
+        this.state = state;
+        this.inFlight = inFlight;
+        this.averageLatencyMs = averageLatencyMs;
+        this.requests = requests;
+        this.failures = failures;
+        this.ejections = ejections;
+    }
+
+    /**
+     * Returns the scheme, host and port of the endpoint, as configured.
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    public EndpointState getState() {
+        return state;
+    }
+
+    /**
+     * Returns the number of requests sent to the endpoint which have not completed yet.
+     */
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * Returns the exponentially weighted moving average of the latency of the endpoint, or 0 if it has had no requests
+     * since it was last admitted.
+     */
+    public double getAverageLatencyMs() {
+        return averageLatencyMs;
+    }
+
+    /**
+     * Returns the number of requests the endpoint has completed.
+     */
+    public long getRequests() {
+        return requests;
+    }
+
+    /**
+     * Returns the number of completed requests which got no response or a server error.
+     */
+    public long getFailures() {
+        return failures;
+    }
+
+    /**
+     * Returns the number of times the endpoint has been ejected.
+     */
+    public long getEjections() {
+        return ejections;
+    }
+
+    @Override
+    public String toString() {
+        return "EndpointStats [url=" + url + ", state=" + state + ", inFlight=" + inFlight + ", averageLatencyMs="
+                + averageLatencyMs + ", requests=" + requests + ", failures=" + failures + ", ejections=" + ejections
+                + "]";
+    }
+}
@@ -0,0 +1,243 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.balancer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import org.onap.aai.restclient.enums.EndpointState;
+import org.onap.aai.restclient.enums.LoadBalancingStrategy;
+import org.onap.aai.restclient.logging.RestClientMsgs;
+
+import com.att.eelf.configuration.EELFLogger;
+import com.att.eelf.configuration.EELFManager;
+
+/**
+ * Picks the endpoint of each request to a service path from a list of A&AI replicas, by the power of two choices: two
+ * endpoints are picked at random and the less loaded of them is used. This spreads the load almost as well as always
+ * using the least loaded endpoint, without every client sending its requests to the same one.
+ *
+ * <p>Endpoints are ejected passively, from the outcome of the requests sent to them, as set out in
+ * {@link LoadBalancerConfig}. An ejected endpoint is left out of the picks until its ejection time is up. If every
+ * endpoint is ejected, requests are spread across all of them rather than failed.
+ */
+public class LoadBalancer {
+
+    private static EELFLogger logger = EELFManager.getLogger(LoadBalancer.class.getName());
+
+    private final LoadBalancerConfig config;
+    private final Endpoint[] endpoints;
+    private final boolean leastOutstanding;
+    private final double decayNanos;
+    private final long baseEjectionNanos;
+    private final long maxEjectionNanos;
+    private final long minOutlierLatencyNanos;
+    private final int maxEjected;
+
+    /** The number of endpoints currently ejected, guarded by this balancer. */
+    private int ejected;
+
+    public LoadBalancer(LoadBalancerConfig config) {
+        this.config = config;
+        List<String> urls = config.getEndpoints();
+        this.endpoints = new Endpoint[urls.size()];
+        for (int i = 0; i < endpoints.length; i++) {
+            endpoints[i] = new Endpoint(urls.get(i));
+        }
+        this.leastOutstanding = config.getStrategy() == LoadBalancingStrategy.LEAST_OUTSTANDING;
+        this.decayNanos = config.getLatencyDecay().toNanos();
+        this.baseEjectionNanos = config.getBaseEjectionTime().toNanos();
+        this.maxEjectionNanos = config.getMaxEjectionTime().toNanos();
+        this.minOutlierLatencyNanos = config.getMinOutlierLatency().toNanos();
+        this.maxEjected = endpoints.length * config.getMaxEjectionPercent() / 100;
+    }
+
+    /**
+     * Returns true if the URL is a path relative to the service, which is sent to one of the endpoints.
+     */
+    public static boolean isServicePath(String url) {
+        return url != null && url.startsWith("/");
+    }
+
+    public LoadBalancerConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Returns the endpoints, in the order they were configured.
+     */
+    public List<Endpoint> getEndpoints() {
+        return Arrays.asList(endpoints.clone());
+    }
+
+    /**
+     * Picks the endpoint for a request, and counts the request as in flight to it. The caller must hand the endpoint
+     * back through {@link #release} or {@link #releaseUnused} once the request has completed.
+     */
+    public Endpoint select() {
+        long now = System.nanoTime();
+        int available = 0;
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.isDueForReadmission(now)) {
+                readmit(endpoint);
+            }
+            if (endpoint.getState() != EndpointState.EJECTED) {
+                available++;
+            }
+        }
+        // With every endpoint ejected, pick from all of them rather than fail the request
+        boolean skipEjected = available > 0;
+        int count = skipEjected ? available : endpoints.length;
+
+        Endpoint chosen;
+        if (count == 1) {
+            chosen = candidate(0, skipEjected);
+        } else {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int first = random.nextInt(count);
+            int second = random.nextInt(count - 1);
+            if (second >= first) {
+                second++;
+            }
+            Endpoint firstCandidate = candidate(first, skipEjected);
+            Endpoint secondCandidate = candidate(second, skipEjected);
+            chosen = isLessLoaded(secondCandidate, firstCandidate) ? secondCandidate : firstCandidate;
+        }
+        chosen.acquire();
+        return chosen;
+    }
+
+    /**
+     * Returns the endpoint at a position among the endpoints which are not ejected, or among all of them. An endpoint
+     * ejected by another request since they were counted can leave the position past the last one, in which case the
+     * endpoint at that position among all of them is returned.
+     */
+    private Endpoint candidate(int position, boolean skipEjected) {
+        if (skipEjected) {
+            int remaining = position;
+            for (Endpoint endpoint : endpoints) {
+                if (endpoint.getState() != EndpointState.EJECTED && remaining-- == 0) {
+                    return endpoint;
+                }
+            }
+        }
+        return endpoints[position];
+    }
+
+    /**
+     * Records the outcome of a request sent to an endpoint, ejecting the endpoint if it has now failed too often in a
+     * row or has become a latency outlier.
+     *
+     * @param endpoint - The endpoint returned by {@link #select()}.
+     * @param latencyNanos - The time the request took.
+     * @param failed - True if the request got no response or a server error.
+     */
+    public void release(Endpoint endpoint, long latencyNanos, boolean failed) {
+        long now = System.nanoTime();
+        String reason = endpoint.record(latencyNanos, failed, now, decayNanos, config.getConsecutiveFailures(),
+                config.getProbationRequests());
+        if (reason == null && !failed) {
+            reason = latencyOutlier(endpoint);
+        }
+        if (reason != null) {
+            eject(endpoint, reason, now);
+        }
+    }
+
+    /**
+     * Hands back an endpoint whose request was cancelled, without counting the request for or against it.
+     */
+    public void releaseUnused(Endpoint endpoint) {
+        endpoint.releaseUnused();
+    }
+
+    /**
+     * Returns a snapshot of every endpoint, in the order they were configured.
+     */
+    public List<EndpointStats> getStats() {
+        List<EndpointStats> stats = new ArrayList<>(endpoints.length);
+        for (Endpoint endpoint : endpoints) {
+            stats.add(endpoint.getStats());
+        }
+        return stats;
+    }
+
+    private boolean isLessLoaded(Endpoint candidate, Endpoint other) {
+        if (leastOutstanding) {
+            return candidate.getInFlight() < other.getInFlight();
+        }
+        return candidate.getLatencyCost() < other.getLatencyCost();
+    }
+
+    /**
+     * Returns the reason to eject a healthy endpoint whose average latency is above the outlier factor times the
+     * median of the other endpoints, or null if it is not an outlier.
+     */
+    private String latencyOutlier(Endpoint endpoint) {
+        double latency = endpoint.getAverageLatencyNanos();
+        if (latency < minOutlierLatencyNanos || endpoint.getState() != EndpointState.HEALTHY
+                || endpoint.getSamples() < config.getOutlierMinRequests()) {
+            return null;
+        }
+        double[] others = new double[endpoints.length - 1];
+        int count = 0;
+        for (Endpoint other : endpoints) {
+            if (other != endpoint && other.getState() != EndpointState.EJECTED
+                    && other.getSamples() >= config.getOutlierMinRequests()) {
+                others[count++] = other.getAverageLatencyNanos();
+            }
+        }
+        if (count == 0) {
+            return null;
+        }
+        Arrays.sort(others, 0, count);
+        double median = count % 2 == 1 ? others[count / 2] : (others[count / 2 - 1] + others[count / 2]) / 2;
+        if (latency <= median * config.getLatencyOutlierFactor()) {
+            return null;
+        }
+        return String.format("average latency %.1f ms against a median of %.1f ms", latency / 1000000,
+                median / 1000000);
+    }
+
+    private synchronized void eject(Endpoint endpoint, String reason, long now) {
+        if (endpoint.getState() == EndpointState.EJECTED) {
+            return;
+        }
+        if (ejected >= maxEjected) {
+            logger.debug("Not ejecting " + endpoint.getUrl() + " (" + reason + "), as " + ejected
+                    + " endpoints are already ejected");
+            return;
+        }
+        long ejectionMs = endpoint.eject(now, baseEjectionNanos, maxEjectionNanos);
+        ejected++;
+        logger.warn(RestClientMsgs.ENDPOINT_EJECTED, endpoint.getUrl(), Long.toString(ejectionMs), reason);
+    }
+
+    private synchronized void readmit(Endpoint endpoint) {
+        if (!endpoint.isDueForReadmission(System.nanoTime())) {
+            return;
+        }
+        endpoint.readmit();
+        ejected--;
+        logger.info(RestClientMsgs.ENDPOINT_READMITTED, endpoint.getUrl());
+    }
+}
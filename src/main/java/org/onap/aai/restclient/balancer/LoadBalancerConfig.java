@@ -0,0 +1,244 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.balancer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.onap.aai.restclient.enums.LoadBalancingStrategy;
+
+/**
+ * Settings for spreading requests across replicas of A&AI. Each request to a path relative to the service, such as
+ * {@code /aai/v14/network/pnfs}, is sent to one of the endpoints, which are given as scheme, host and port.
+ *
+ * <p>An endpoint is ejected, and gets no requests for the ejection time, after a run of failed requests, or when its
+ * average latency is far above that of the other endpoints. The ejection time grows each time the same endpoint is
+ * ejected again. Once it is up the endpoint is on probation: one failure ejects it again, while a run of successful
+ * requests makes it healthy and resets its ejection time.
+ */
+public class LoadBalancerConfig {
+
+    public static final LoadBalancingStrategy DEFAULT_STRATEGY = LoadBalancingStrategy.LEAST_OUTSTANDING;
+    public static final Duration DEFAULT_LATENCY_DECAY = Duration.ofSeconds(10);
+    public static final int DEFAULT_CONSECUTIVE_FAILURES = 5;
+    public static final double DEFAULT_LATENCY_OUTLIER_FACTOR = 3;
+    public static final Duration DEFAULT_MIN_OUTLIER_LATENCY = Duration.ofMillis(100);
+    public static final int DEFAULT_OUTLIER_MIN_REQUESTS = 20;
+    public static final Duration DEFAULT_BASE_EJECTION_TIME = Duration.ofSeconds(30);
+    public static final Duration DEFAULT_MAX_EJECTION_TIME = Duration.ofMinutes(5);
+    /** By default at most half of the endpoints are ejected at once. */
+    public static final int DEFAULT_MAX_EJECTION_PERCENT = 50;
+    public static final int DEFAULT_PROBATION_REQUESTS = 5;
+
+    private final List<String> endpoints;
+    private LoadBalancingStrategy strategy = DEFAULT_STRATEGY;
+    private Duration latencyDecay = DEFAULT_LATENCY_DECAY;
+    private int consecutiveFailures = DEFAULT_CONSECUTIVE_FAILURES;
+    private double latencyOutlierFactor = DEFAULT_LATENCY_OUTLIER_FACTOR;
+    private Duration minOutlierLatency = DEFAULT_MIN_OUTLIER_LATENCY;
+    private int outlierMinRequests = DEFAULT_OUTLIER_MIN_REQUESTS;
+    private Duration baseEjectionTime = DEFAULT_BASE_EJECTION_TIME;
+    private Duration maxEjectionTime = DEFAULT_MAX_EJECTION_TIME;
+    private int maxEjectionPercent = DEFAULT_MAX_EJECTION_PERCENT;
+    private int probationRequests = DEFAULT_PROBATION_REQUESTS;
+
+    /**
+     * Creates the settings for the given endpoints, such as {@code https://aai-0.aai:8443}.
+     */
+    public LoadBalancerConfig(List<String> endpoints) {
+        if (endpoints == null || endpoints.isEmpty()) {
+            throw new IllegalArgumentException("At least one endpoint must be given");
+        }
+        List<String> bases = new ArrayList<>(endpoints.size());
+        for (String endpoint : endpoints) {
+            if (endpoint == null || !endpoint.contains("://")) {
+                throw new IllegalArgumentException("Endpoint must be an absolute URL: " + endpoint);
+            }
+            bases.add(endpoint.endsWith("/") ? endpoint.substring(0, endpoint.length() - 1) : endpoint);
+        }
+        this.endpoints = Collections.unmodifiableList(bases);
+    }
+
+    /**
+     * Sets how the endpoint of each request is picked, {@link LoadBalancingStrategy#LEAST_OUTSTANDING} by default.
+     */
+    public LoadBalancerConfig strategy(LoadBalancingStrategy strategy) {
+        if (strategy == null) {
+            throw new IllegalArgumentException("The strategy must be set");
+        }
+        this.strategy = strategy;
+        return this;
+    }
+
+    /**
+     * Sets the time over which the weight of a latency sample in the average falls to about a third.
+     */
+    public LoadBalancerConfig latencyDecay(Duration decay) {
+        if (decay == null || decay.isNegative() || decay.isZero()) {
+            throw new IllegalArgumentException("The latency decay must be positive");
+        }
+        this.latencyDecay = decay;
+        return this;
+    }
+
+    /**
+     * Sets the number of failed requests in a row which ejects an endpoint. A request fails if it gets no response or
+     * a server error.
+     */
+    public LoadBalancerConfig consecutiveFailures(int failures) {
+        if (failures < 1) {
+            throw new IllegalArgumentException("The consecutive failures must be at least 1");
+        }
+        this.consecutiveFailures = failures;
+        return this;
+    }
+
+    /**
+     * Ejects an endpoint whose average latency is more than the given factor times the median of the others.
+     */
+    public LoadBalancerConfig latencyOutlierFactor(double factor) {
+        if (!(factor > 1)) {
+            throw new IllegalArgumentException("The latency outlier factor must be above 1");
+        }
+        this.latencyOutlierFactor = factor;
+        return this;
+    }
+
+    /**
+     * Sets the average latency below which an endpoint is never a latency outlier, however slow compared to the others.
+     */
+    public LoadBalancerConfig minOutlierLatency(Duration latency) {
+        if (latency == null || latency.isNegative()) {
+            throw new IllegalArgumentException("The minimum outlier latency must not be negative");
+        }
+        this.minOutlierLatency = latency;
+        return this;
+    }
+
+    /**
+     * Sets the number of requests an endpoint must have completed before its latency is compared with the others.
+     */
+    public LoadBalancerConfig outlierMinRequests(int requests) {
+        if (requests < 1) {
+            throw new IllegalArgumentException("The outlier minimum requests must be at least 1");
+        }
+        this.outlierMinRequests = requests;
+        return this;
+    }
+
+    /**
+     * Sets the time an endpoint is ejected for the first time. Each further ejection adds the same again, up to the
+     * maximum ejection time.
+     */
+    public LoadBalancerConfig baseEjectionTime(Duration time) {
+        if (time == null || time.isNegative() || time.isZero()) {
+            throw new IllegalArgumentException("The base ejection time must be positive");
+        }
+        this.baseEjectionTime = time;
+        return this;
+    }
+
+    public LoadBalancerConfig maxEjectionTime(Duration time) {
+        if (time == null || time.isNegative() || time.isZero()) {
+            throw new IllegalArgumentException("The maximum ejection time must be positive");
+        }
+        this.maxEjectionTime = time;
+        return this;
+    }
+
+    /**
+     * Sets the share of the endpoints which may be ejected at the same time, so that a fault on the client side does
+     * not eject them all.
+     */
+    public LoadBalancerConfig maxEjectionPercent(int percent) {
+        if (percent < 0 || percent > 100) {
+            throw new IllegalArgumentException("The maximum ejection percent must be between 0 and 100");
+        }
+        this.maxEjectionPercent = percent;
+        return this;
+    }
+
+    /**
+     * Sets the number of successful requests in a row which takes an endpoint off probation.
+     */
+    public LoadBalancerConfig probationRequests(int requests) {
+        if (requests < 1) {
+            throw new IllegalArgumentException("The probation requests must be at least 1");
+        }
+        this.probationRequests = requests;
+        return this;
+    }
+
+    public List<String> getEndpoints() {
+        return endpoints;
+    }
+
+    public LoadBalancingStrategy getStrategy() {
+        return strategy;
+    }
+
+    public Duration getLatencyDecay() {
+        return latencyDecay;
+    }
+
+    public int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    public double getLatencyOutlierFactor() {
+        return latencyOutlierFactor;
+    }
+
+    public Duration getMinOutlierLatency() {
+        return minOutlierLatency;
+    }
+
+    public int getOutlierMinRequests() {
+        return outlierMinRequests;
+    }
+
+    public Duration getBaseEjectionTime() {
+        return baseEjectionTime;
+    }
+
+    public Duration getMaxEjectionTime() {
+        return maxEjectionTime;
+    }
+
+    public int getMaxEjectionPercent() {
+        return maxEjectionPercent;
+    }
+
+    public int getProbationRequests() {
+        return probationRequests;
+    }
+
+    @Override
+    public String toString() {
+        return "LoadBalancerConfig [endpoints=" + endpoints + ", strategy=" + strategy + ", latencyDecay="
+                + latencyDecay + ", consecutiveFailures=" + consecutiveFailures + ", latencyOutlierFactor="
+                + latencyOutlierFactor + ", minOutlierLatency=" + minOutlierLatency + ", outlierMinRequests="
+                + outlierMinRequests + ", baseEjectionTime=" + baseEjectionTime + ", maxEjectionTime="
+                + maxEjectionTime + ", maxEjectionPercent=" + maxEjectionPercent + ", probationRequests="
+                + probationRequests + "]";
+    }
+}
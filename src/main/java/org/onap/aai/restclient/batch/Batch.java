@@ -0,0 +1,349 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.batch;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.onap.aai.restclient.client.OperationResult;
+import org.onap.aai.restclient.client.RestClient;
+import org.onap.aai.restclient.client.VirtualThreads;
+import org.onap.aai.restclient.enums.BatchOrder;
+import org.onap.aai.restclient.logging.RestClientMsgs;
+
+import com.att.eelf.configuration.EELFLogger;
+import com.att.eelf.configuration.EELFManager;
+
+/**
+ * A batch of independent requests running through a {@link RestClient}, with a bounded number in flight at once. The
+ * requests are read lazily, so they may come from a stream too large to hold in memory, and the results are returned
+ * as the requests complete, either in the order of the requests or in the order they complete.
+ *
+ * <p>The batch does not run ahead of its reader: at most as many results as its parallelism are held waiting to be
+ * read, after which no more requests are sent until they are. A batch whose results are not wanted is run to the end
+ * with {@link #awaitCompletion()}, and one which is no longer wanted is stopped with {@link #close()}.
+ *
+ * <p>Each request is sent with the blocking request methods of the client, so it goes through the retries, circuit
+ * breakers, concurrency limits and cache of the client. An exception thrown by the client is turned into a result
+ * with a 500 result code.
+ */
+public class Batch implements Iterable<BatchResult>, AutoCloseable {
+
+    private static EELFLogger logger = EELFManager.getLogger(Batch.class.getName());
+
+    /** Marks the end of the results. */
+    private static final CompletableFuture<BatchResult> END = new CompletableFuture<>();
+
+    private final RestClient client;
+    private final Iterator<BatchRequest> requests;
+    private final BatchConfig config;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+
+    /** A permit for each request in flight, and in completion order for each result waiting to be read. */
+    private final Semaphore permits;
+    private final BlockingQueue<CompletableFuture<BatchResult>> results;
+
+    private final long startTimeInMs = System.currentTimeMillis();
+    private volatile long endTimeInMs;
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong succeeded = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicBoolean aborted = new AtomicBoolean();
+    private final AtomicBoolean iterated = new AtomicBoolean();
+    private volatile boolean cancelled;
+    private volatile boolean endReached;
+    private volatile RuntimeException requestsFailure;
+
+    private Batch(RestClient client, Iterator<BatchRequest> requests, BatchConfig config) {
+        this.client = client;
+        this.requests = requests;
+        this.config = config;
+        ExecutorService configured =
+                config.getExecutorService() != null ? config.getExecutorService() : client.getExecutorService();
+        this.ownsExecutor = configured == null;
+        this.executor = configured != null ? configured : VirtualThreads.newThreadPerTaskExecutor();
+        this.permits = new Semaphore(config.getParallelism());
+        this.results = new LinkedBlockingQueue<>(config.getParallelism() + 1);
+    }
+
+    /**
+     * Starts sending a batch of requests. Use {@link RestClient#executeBatch} rather than calling this directly.
+     */
+    public static Batch start(RestClient client, Iterator<BatchRequest> requests, BatchConfig config) {
+        Batch batch = new Batch(client, requests, config);
+        // The dispatcher waits for permits for the whole batch, so it gets a thread of its own rather than one of the
+        // executor, which could otherwise be left with no thread to send the requests on.
+        Thread dispatcher = new Thread(batch::dispatch, "rest-client-batch-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+        return batch;
+    }
+
+    /**
+     * Reads the requests and sends each one once a permit is free, until they run out or the batch is stopped.
+     */
+    private void dispatch() {
+        long index = 0;
+        try {
+            while (!isStopped() && requests.hasNext()) {
+                BatchRequest request = requests.next();
+                permits.acquire();
+                if (isStopped()) {
+                    permits.release();
+                    break;
+                }
+                submit(index++, request);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelled = true;
+        } catch (RuntimeException e) {
+            requestsFailure = e;
+        } finally {
+            // Once every request in flight has completed, mark the end of the results
+            permits.acquireUninterruptibly(config.getParallelism());
+            endTimeInMs = System.currentTimeMillis();
+            putUninterruptibly(END);
+            if (ownsExecutor) {
+                executor.shutdown();
+            }
+        }
+    }
+
+    private void submit(long index, BatchRequest request) throws InterruptedException {
+        submitted.incrementAndGet();
+        CompletableFuture<BatchResult> future;
+        try {
+            future = CompletableFuture.supplyAsync(() -> execute(index, request), executor);
+        } catch (RejectedExecutionException e) {
+            future = CompletableFuture.completedFuture(failedResult(index, request, e));
+        }
+
+        if (config.getOrder() == BatchOrder.ORDERED) {
+            future.whenComplete((result, error) -> permits.release());
+            results.put(future);
+        } else {
+            CompletableFuture<BatchResult> completed = future;
+            future.whenComplete((result, error) -> {
+                putUninterruptibly(completed);
+                permits.release();
+            });
+        }
+    }
+
+    private BatchResult execute(long index, BatchRequest request) {
+        try {
+            OperationResult result = request.send(client);
+            record(result.wasSuccessful());
+            return new BatchResult(index, request, result);
+        } catch (RuntimeException e) {
+            return failedResult(index, request, e);
+        }
+    }
+
+    private BatchResult failedResult(long index, BatchRequest request, RuntimeException e) {
+        OperationResult result = new OperationResult();
+        result.setRequestedLink(request.getUrl());
+        result.setFailureCause(500, "Error during " + request.getRequestType() + " operation to AAI with message = "
+                + e.getLocalizedMessage());
+        record(false);
+        return new BatchResult(index, request, result);
+    }
+
+    private void record(boolean success) {
+        if (success) {
+            succeeded.incrementAndGet();
+            return;
+        }
+        long failures = failed.incrementAndGet();
+        double abortFailureRate = config.getAbortFailureRate();
+        if (abortFailureRate < 0 || aborted.get()) {
+            return;
+        }
+        long completed = succeeded.get() + failures;
+        if (completed >= config.getMinRequestsBeforeAbort() && failures > abortFailureRate * completed
+                && aborted.compareAndSet(false, true)) {
+            logger.warn(RestClientMsgs.BATCH_ABORTED, Long.toString(completed),
+                    Float.toString(failures * 100.0f / completed));
+        }
+    }
+
+    private boolean isStopped() {
+        return cancelled || aborted.get();
+    }
+
+    private void putUninterruptibly(CompletableFuture<BatchResult> result) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                results.put(result);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns the results of the batch, blocking until each is available. The results may only be read once, by one
+     * thread.
+     *
+     * <p>If reading the requests throws, no more requests are sent, and the exception is rethrown once the results of
+     * the requests already sent have been returned.
+     */
+    @Override
+    public Iterator<BatchResult> iterator() {
+        if (!iterated.compareAndSet(false, true)) {
+            throw new IllegalStateException("The results of a batch may only be read once");
+        }
+        return new ResultIterator();
+    }
+
+    /**
+     * Returns the results of the batch as a sequential stream, blocking until each is available.
+     *
+     * @see #iterator()
+     */
+    public Stream<BatchResult> results() {
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Waits for the batch to finish, discarding any results which have not been read.
+     *
+     * @return The final statistics of the batch.
+     */
+    public BatchStats awaitCompletion() {
+        drain();
+        return getStats();
+    }
+
+    /**
+     * Stops sending requests. Requests already in flight still complete, and their results may still be read.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Stops sending requests and waits for the requests in flight to complete, discarding any results which have not
+     * been read.
+     */
+    @Override
+    public void close() {
+        cancel();
+        drain();
+    }
+
+    private void drain() {
+        boolean interrupted = false;
+        while (!endReached) {
+            try {
+                if (results.take() == END) {
+                    endReached = true;
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns a snapshot of the progress of the batch.
+     */
+    public BatchStats getStats() {
+        long endTime = endTimeInMs;
+        long elapsedMs = (endTime > 0 ? endTime : System.currentTimeMillis()) - startTimeInMs;
+        return new BatchStats(submitted.get(), succeeded.get(), failed.get(), elapsedMs, aborted.get(), endTime > 0);
+    }
+
+    public boolean isAborted() {
+        return aborted.get();
+    }
+
+    @Override
+    public String toString() {
+        return "Batch [config=" + config + ", stats=" + getStats() + "]";
+    }
+
+    private class ResultIterator implements Iterator<BatchResult> {
+        private CompletableFuture<BatchResult> next;
+
+        @Override
+        public boolean hasNext() {
+            if (endReached) {
+                return false;
+            }
+            if (next == null) {
+                next = take();
+            }
+            if (next == END) {
+                next = null;
+                endReached = true;
+                RuntimeException failure = requestsFailure;
+                if (failure != null) {
+                    throw failure;
+                }
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public BatchResult next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            CompletableFuture<BatchResult> result = next;
+            next = null;
+            return result.join();
+        }
+
+        private CompletableFuture<BatchResult> take() {
+            try {
+                return results.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the results of a batch", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.batch;
+
+import java.util.concurrent.ExecutorService;
+import org.onap.aai.restclient.enums.BatchOrder;
+
+/**
+ * Settings for running a batch of requests.
+ */
+public class BatchConfig {
+
+    public static final int DEFAULT_PARALLELISM = 16;
+    /** By default the failure rate is only judged once this many requests have completed. */
+    public static final int DEFAULT_MIN_REQUESTS_BEFORE_ABORT = 100;
+
+    private int parallelism = DEFAULT_PARALLELISM;
+    private BatchOrder order = BatchOrder.COMPLETION;
+    private double abortFailureRate = -1;
+    private int minRequestsBeforeAbort = DEFAULT_MIN_REQUESTS_BEFORE_ABORT;
+    private ExecutorService executorService;
+
+    /**
+     * Sets the number of requests the batch keeps in flight at once, 16 by default.
+     */
+    public BatchConfig parallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism must be at least 1");
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Sets the order the results are returned in, the order the requests complete in by default.
+     */
+    public BatchConfig order(BatchOrder order) {
+        if (order == null) {
+            throw new IllegalArgumentException("The order must not be null");
+        }
+        this.order = order;
+        return this;
+    }
+
+    /**
+     * Stops sending requests once more than the given share of the completed requests have failed, 0.1 aborting the
+     * batch when more than 10% fail. A request fails if it throws or its result code is not a 2xx. Requests already
+     * in flight still complete. The rate is only judged once some requests have completed, 100 by default.
+     *
+     * @param failureRate - The failure rate above which the batch is aborted, between 0 and 1.
+     * @param minRequests - The number of requests which must have completed before the batch may be aborted.
+     */
+    public BatchConfig abortOnFailureRate(double failureRate, int minRequests) {
+        if (!(failureRate >= 0 && failureRate <= 1)) {
+            throw new IllegalArgumentException("The failure rate must be between 0 and 1");
+        }
+        if (minRequests < 1) {
+            throw new IllegalArgumentException("The minimum number of requests must be at least 1");
+        }
+        this.abortFailureRate = failureRate;
+        this.minRequestsBeforeAbort = minRequests;
+        return this;
+    }
+
+    /**
+     * Sets the executor the requests are sent from. By default the executor of the client is used, or if it has none a
+     * new virtual thread per request. The requests are read on a thread of the batch's own, so every thread of the
+     * executor is available to send them, and no more than the number of its threads are in flight at once.
+     */
+    public BatchConfig executorService(ExecutorService executorService) {
+        this.executorService = executorService;
+        return this;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public BatchOrder getOrder() {
+        return order;
+    }
+
+    /**
+     * Returns the failure rate above which the batch is aborted, or -1 if it is never aborted.
+     */
+    public double getAbortFailureRate() {
+        return abortFailureRate;
+    }
+
+    public int getMinRequestsBeforeAbort() {
+        return minRequestsBeforeAbort;
+    }
+
+    public ExecutorService getExecutorService() {
+        return executorService;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchConfig [parallelism=" + parallelism + ", order=" + order + ", abortFailureRate="
+                + abortFailureRate + ", minRequestsBeforeAbort=" + minRequestsBeforeAbort + "]";
+    }
+}
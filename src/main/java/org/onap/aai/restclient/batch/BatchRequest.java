@@ -0,0 +1,129 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.batch;
+
+import java.util.List;
+import java.util.Map;
+import javax.ws.rs.core.MediaType;
+import org.onap.aai.restclient.client.OperationResult;
+import org.onap.aai.restclient.client.RestClient;
+import org.onap.aai.restclient.enums.RequestType;
+
+/**
+ * Describes one request of a batch. Instances are immutable.
+ */
+public final class BatchRequest {
+
+    private final RequestType requestType;
+    private final String url;
+    private final String payload;
+    private final Map<String, List<String>> headers;
+    private final MediaType contentType;
+    private final MediaType responseType;
+
+    private BatchRequest(RequestType requestType, String url, String payload, Map<String, List<String>> headers,
+            MediaType contentType, MediaType responseType) {
+        this.requestType = requestType;
+        this.url = url;
+        this.payload = payload;
+        this.headers = headers;
+        this.contentType = contentType;
+        this.responseType = responseType;
+    }
+
+    public static BatchRequest get(String url, Map<String, List<String>> headers, MediaType responseType) {
+        return new BatchRequest(RequestType.GET, url, null, headers, null, responseType);
+    }
+
+    public static BatchRequest head(String url, Map<String, List<String>> headers, MediaType responseType) {
+        return new BatchRequest(RequestType.HEAD, url, null, headers, null, responseType);
+    }
+
+    public static BatchRequest delete(String url, Map<String, List<String>> headers, MediaType responseType) {
+        return new BatchRequest(RequestType.DELETE, url, null, headers, null, responseType);
+    }
+
+    public static BatchRequest put(String url, String payload, Map<String, List<String>> headers,
+            MediaType contentType, MediaType responseType) {
+        return new BatchRequest(RequestType.PUT, url, payload, headers, contentType, responseType);
+    }
+
+    public static BatchRequest post(String url, String payload, Map<String, List<String>> headers,
+            MediaType contentType, MediaType responseType) {
+        return new BatchRequest(RequestType.POST, url, payload, headers, contentType, responseType);
+    }
+
+    public static BatchRequest patch(String url, String payload, Map<String, List<String>> headers,
+            MediaType contentType, MediaType responseType) {
+        return new BatchRequest(RequestType.PATCH, url, payload, headers, contentType, responseType);
+    }
+
+    /**
+     * Sends the request with the blocking request method of the client matching its type.
+     */
+    OperationResult send(RestClient client) {
+        switch (requestType) {
+            case GET:
+                return client.get(url, headers, responseType);
+            case HEAD:
+                return client.head(url, headers, responseType);
+            case DELETE:
+                return client.delete(url, headers, responseType);
+            case PUT:
+                return client.put(url, payload, headers, contentType, responseType);
+            case POST:
+                return client.post(url, payload, headers, contentType, responseType);
+            case PATCH:
+                return client.patch(url, payload, headers, contentType, responseType);
+            default:
+                throw new IllegalArgumentException("Unsupported request type " + requestType);
+        }
+    }
+
+    public RequestType getRequestType() {
+        return requestType;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public Map<String, List<String>> getHeaders() {
+        return headers;
+    }
+
+    public MediaType getContentType() {
+        return contentType;
+    }
+
+    public MediaType getResponseType() {
+        return responseType;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchRequest [requestType=" + requestType + ", url=" + url + "]";
+    }
+}
@@ -0,0 +1,59 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.batch;
+
+import org.onap.aai.restclient.client.OperationResult;
+
+/**
+ * The result of one request of a batch, along with the request and its position in the batch.
+ */
+public final class BatchResult {
+
+    private final long index;
+    private final BatchRequest request;
+    private final OperationResult result;
+
+    BatchResult(long index, BatchRequest request, OperationResult result) {
+        this.index = index;
+        this.request = request;
+        this.result = result;
+    }
+
+    /**
+     * Returns the position of the request in the batch, counting from 0.
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    public BatchRequest getRequest() {
+        return request;
+    }
+
+    public OperationResult getResult() {
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchResult [index=" + index + ", request=" + request + ", resultCode=" + result.getResultCode() + "]";
+    }
+}
@@ -0,0 +1,117 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.batch;
+
+/**
+ * A snapshot of the progress of a batch.
+ */
+public class BatchStats {
+
+    private final long submitted;
+    private final long succeeded;
+    private final long failed;
+    private final long elapsedMs;
+    private final boolean aborted;
+    private final boolean done;
+
+    public BatchStats(long submitted, long succeeded, long failed, long elapsedMs, boolean aborted, boolean done) {
+        this.submitted = submitted;
+        this.succeeded = succeeded;
+        this.failed = failed;
+        this.elapsedMs = elapsedMs;
+        this.aborted = aborted;
+        this.done = done;
+    }
+
+    /**
+     * Returns the number of requests sent so far.
+     */
+    public long getSubmitted() {
+        return submitted;
+    }
+
+    /**
+     * Returns the number of requests which completed with a 2xx result code.
+     */
+    public long getSucceeded() {
+        return succeeded;
+    }
+
+    /**
+     * Returns the number of requests which threw or completed with any other result code.
+     */
+    public long getFailed() {
+        return failed;
+    }
+
+    public long getCompleted() {
+        return succeeded + failed;
+    }
+
+    /**
+     * Returns the number of requests sent which have not completed yet.
+     */
+    public long getInFlight() {
+        return submitted - getCompleted();
+    }
+
+    /**
+     * Returns the time since the batch started, or the time it took if it is done.
+     */
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    /**
+     * Returns the number of requests completed per second.
+     */
+    public double getThroughput() {
+        return elapsedMs > 0 ? getCompleted() * 1000.0 / elapsedMs : 0;
+    }
+
+    /**
+     * Returns the share of the completed requests which failed, between 0 and 1.
+     */
+    public double getFailureRate() {
+        long completed = getCompleted();
+        return completed > 0 ? (double) failed / completed : 0;
+    }
+
+    /**
+     * Returns true if the batch stopped sending requests because too many failed.
+     */
+    public boolean isAborted() {
+        return aborted;
+    }
+
+    /**
+     * Returns true if no more requests will be sent and every request sent has completed.
+     */
+    public boolean isDone() {
+        return done;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchStats [submitted=" + submitted + ", succeeded=" + succeeded + ", failed=" + failed
+                + ", elapsedMs=" + elapsedMs + ", aborted=" + aborted + ", done=" + done + "]";
+    }
+}
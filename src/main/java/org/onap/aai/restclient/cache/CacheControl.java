@@ -0,0 +1,112 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.cache;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The directives of a Cache-Control response header which matter to a private client-side cache.
+ */
+public final class CacheControl {
+
+    private static final CacheControl NONE = new CacheControl(-1, false, false);
+
+    private final long maxAgeSeconds;
+    private final boolean noCache;
+    private final boolean noStore;
+
+    private CacheControl(long maxAgeSeconds, boolean noCache, boolean noStore) {
+        this.maxAgeSeconds = maxAgeSeconds;
+        this.noCache = noCache;
+        this.noStore = noStore;
+    }
+
+    /**
+     * Parses the values of a Cache-Control header. Unknown directives, and values which cannot be parsed, are
+     * ignored.
+     *
+     * @param values - The header values, may be null.
+     */
+    public static CacheControl parse(List<String> values) {
+        if (values == null || values.isEmpty()) {
+            return NONE;
+        }
+        long maxAge = -1;
+        boolean noCache = false;
+        boolean noStore = false;
+        for (String value : values) {
+            for (String directive : value.split(",")) {
+                String name = directive.trim().toLowerCase(Locale.ROOT);
+                if (name.equals("no-store")) {
+                    noStore = true;
+                } else if (name.startsWith("no-cache")) {
+                    noCache = true;
+                } else if (name.startsWith("max-age=")) {
+                    maxAge = parseSeconds(name.substring("max-age=".length()));
+                }
+            }
+        }
+        return new CacheControl(maxAge, noCache, noStore);
+    }
+
+    /**
+     * Parses a number of seconds, returning -1 if it is not a valid number.
+     */
+    static long parseSeconds(String value) {
+        String seconds = value.trim();
+        if (seconds.startsWith("\"") && seconds.endsWith("\"") && seconds.length() > 1) {
+            seconds = seconds.substring(1, seconds.length() - 1);
+        }
+        try {
+            long parsed = Long.parseLong(seconds);
+            return parsed >= 0 ? parsed : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Returns the max-age directive in seconds, or -1 if there is none.
+     */
+    public long getMaxAgeSeconds() {
+        return maxAgeSeconds;
+    }
+
+    /**
+     * Returns true if a stored response must be revalidated before every use.
+     */
+    public boolean isNoCache() {
+        return noCache;
+    }
+
+    /**
+     * Returns true if the response must not be stored.
+     */
+    public boolean isNoStore() {
+        return noStore;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheControl [maxAgeSeconds=" + maxAgeSeconds + ", noCache=" + noCache + ", noStore=" + noStore + "]";
+    }
+}
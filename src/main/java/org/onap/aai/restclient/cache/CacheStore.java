@@ -0,0 +1,49 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.cache;
+
+/**
+ * The storage behind a {@link ResponseCache}, which decides which responses to keep when it is full.
+ */
+interface CacheStore {
+
+    CachedResponse get(String url);
+
+    void put(String url, CachedResponse response);
+
+    void remove(String url);
+
+    void clear();
+
+    int size();
+
+    /**
+     * Returns the approximate number of bytes of heap held by the stored responses.
+     */
+    long weightedSize();
+
+    /**
+     * Returns the weight an entry is counted at, which is that of the response plus its key.
+     */
+    static long weigh(String url, CachedResponse response) {
+        return (long) response.getWeight() + url.length();
+    }
+}
@@ -0,0 +1,297 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import javax.ws.rs.core.MultivaluedMap;
+import org.onap.aai.restclient.client.Headers;
+import org.onap.aai.restclient.transport.ResponseHeaders;
+
+/**
+ * A successful GET response held in a {@link ResponseCache}, with the validators needed to revalidate it and the time
+ * until which it may be used without asking the server. Instances are immutable.
+ */
+public final class CachedResponse {
+
+    /** A rough allowance for the entry object, its header map and the dates held in it. */
+    private static final int ENTRY_OVERHEAD = 256;
+
+    private final String accept;
+    private final String result;
+    private final byte[] resultBytes;
+    private final Charset charset;
+    private final Body compressedBody;
+    private final MultivaluedMap<String, String> headers;
+    private final String etag;
+    private final String lastModified;
+    private final long expiresAtMs;
+    private final int weight;
+
+    private CachedResponse(String accept, String result, byte[] resultBytes, Charset charset, Body compressedBody,
+            MultivaluedMap<String, String> headers, long expiresAtMs) {
+        this.accept = accept;
+        this.result = result;
+        this.resultBytes = resultBytes;
+        this.charset = charset;
+        this.compressedBody = compressedBody;
+        this.headers = headers;
+        this.etag = headers.getFirst(Headers.ETAG);
+        this.lastModified = headers.getFirst(Headers.LAST_MODIFIED);
+        this.expiresAtMs = expiresAtMs;
+        this.weight = weigh();
+    }
+
+    /**
+     * Creates an entry for a response with a 200 status code, if the response may be stored and can be reused.
+     *
+     * @param accept - The media type the response was requested as.
+     * @param result - The body of the response as a String, or null if it is held as bytes.
+     * @param resultBytes - The body of the response as bytes, or null if it is held as a String.
+     * @param charset - The charset of a body held as bytes.
+     * @param headers - The response headers.
+     * @param nowMs - The time the response was received.
+     *
+     * @return The entry, or null if the response forbids storing it or has neither a max-age nor a validator.
+     */
+    public static CachedResponse of(String accept, String result, byte[] resultBytes, Charset charset,
+            MultivaluedMap<String, String> headers, long nowMs) {
+        if (headers == null) {
+            return null;
+        }
+        CacheControl cacheControl = CacheControl.parse(headers.get(Headers.CACHE_CONTROL));
+        if (cacheControl.isNoStore()) {
+            return null;
+        }
+        CachedResponse response = new CachedResponse(accept, result, resultBytes, charset, null,
+                new ResponseHeaders(headers), expiresAt(cacheControl, headers, nowMs));
+        if (response.expiresAtMs <= nowMs && !response.hasValidator()) {
+            return null;
+        }
+        return response;
+    }
+
+    /**
+     * Returns a copy of this entry updated with the headers of a 304 (Not Modified) response, which may carry new
+     * validators and a new max-age.
+     */
+    public CachedResponse revalidated(MultivaluedMap<String, String> notModifiedHeaders, long nowMs) {
+        MultivaluedMap<String, String> updated = new ResponseHeaders(headers);
+        if (notModifiedHeaders != null) {
+            for (Entry<String, List<String>> header : notModifiedHeaders.entrySet()) {
+                updated.put(header.getKey(), header.getValue());
+            }
+        }
+        CacheControl cacheControl = CacheControl.parse(updated.get(Headers.CACHE_CONTROL));
+        return new CachedResponse(accept, result, resultBytes, charset, compressedBody, updated,
+                expiresAt(cacheControl, updated, nowMs));
+    }
+
+    /**
+     * Returns a copy of this entry with its body deflated, if the body is at least the given number of bytes long and
+     * compresses to less than its original size. Otherwise, or if the body is already compressed, returns this entry.
+     * The body of a compressed entry is inflated again each time it is read.
+     *
+     * @param threshold - The smallest body length worth compressing, or -1 to never compress.
+     */
+    public CachedResponse compressed(int threshold) {
+        if (threshold < 0 || compressedBody != null || bodyLength() < threshold) {
+            return this;
+        }
+        byte[] body = result != null ? result.getBytes(StandardCharsets.UTF_8) : resultBytes;
+        Body deflated = Body.deflate(body, result != null);
+        if (deflated.data.length >= body.length) {
+            return this;
+        }
+        return new CachedResponse(accept, null, null, charset, deflated, headers, expiresAtMs);
+    }
+
+    private static long expiresAt(CacheControl cacheControl, MultivaluedMap<String, String> headers, long nowMs) {
+        if (cacheControl.isNoCache() || cacheControl.getMaxAgeSeconds() < 0) {
+            return 0;
+        }
+        String age = headers.getFirst(Headers.AGE);
+        long ageSeconds = age != null ? Math.max(0, CacheControl.parseSeconds(age)) : 0;
+        return nowMs + TimeUnit.SECONDS.toMillis(cacheControl.getMaxAgeSeconds() - ageSeconds);
+    }
+
+    /**
+     * Returns true if the entry may be used without revalidating it.
+     */
+    public boolean isFresh(long nowMs) {
+        return nowMs < expiresAtMs;
+    }
+
+    /**
+     * Returns true if the entry was requested as the given media type.
+     */
+    public boolean matches(String accept) {
+        return this.accept == null ? accept == null : this.accept.equals(accept);
+    }
+
+    public boolean hasValidator() {
+        return etag != null || lastModified != null;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public String getLastModified() {
+        return lastModified;
+    }
+
+    public long getExpiresAtMs() {
+        return expiresAtMs;
+    }
+
+    /**
+     * Returns true if the body is held deflated.
+     */
+    public boolean isCompressed() {
+        return compressedBody != null;
+    }
+
+    /**
+     * Returns the approximate number of bytes of heap the entry occupies, which is what a cache bounded by size
+     * counts. Bodies held as Strings are counted at one byte per character, as the compact Strings of an ASCII JSON
+     * document are.
+     */
+    public int getWeight() {
+        return weight;
+    }
+
+    /**
+     * Returns the body as a String, or null if it is held as bytes.
+     */
+    public String getResult() {
+        if (compressedBody != null) {
+            return compressedBody.string ? new String(compressedBody.inflate(), StandardCharsets.UTF_8) : null;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the body as bytes, or null if it is held as a String. Unless the entry is compressed the array is shared,
+     * so it must not be modified.
+     */
+    public byte[] getResultBytes() {
+        if (compressedBody != null) {
+            return compressedBody.string ? null : compressedBody.inflate();
+        }
+        return resultBytes;
+    }
+
+    public Charset getCharset() {
+        return charset;
+    }
+
+    /**
+     * Returns a copy of the response headers.
+     */
+    public MultivaluedMap<String, String> getHeaders() {
+        return new ResponseHeaders(headers);
+    }
+
+    private int bodyLength() {
+        if (compressedBody != null) {
+            return compressedBody.length;
+        }
+        return result != null ? result.length() : resultBytes != null ? resultBytes.length : 0;
+    }
+
+    private int weigh() {
+        int size = ENTRY_OVERHEAD + (compressedBody != null ? compressedBody.data.length : bodyLength());
+        for (Entry<String, List<String>> header : headers.entrySet()) {
+            size += header.getKey().length();
+            for (String value : header.getValue()) {
+                size += 32 + (value != null ? value.length() : 0);
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "CachedResponse [accept=" + accept + ", etag=" + etag + ", lastModified=" + lastModified
+                + ", expiresAtMs=" + expiresAtMs + ", compressed=" + isCompressed() + ", weight=" + weight + "]";
+    }
+
+    /**
+     * A deflated body, along with its inflated length and whether it was held as a String (encoded as UTF-8) or as
+     * bytes.
+     */
+    private static final class Body {
+        private final byte[] data;
+        private final int length;
+        private final boolean string;
+
+        private Body(byte[] data, int length, boolean string) {
+            this.data = data;
+            this.length = length;
+            this.string = string;
+        }
+
+        static Body deflate(byte[] body, boolean string) {
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try {
+                deflater.setInput(body);
+                deflater.finish();
+                ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+                byte[] buffer = new byte[8192];
+                while (!deflater.finished()) {
+                    out.write(buffer, 0, deflater.deflate(buffer));
+                }
+                return new Body(out.toByteArray(), body.length, string);
+            } finally {
+                deflater.end();
+            }
+        }
+
+        byte[] inflate() {
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(data);
+                byte[] body = new byte[length];
+                int read = 0;
+                while (read < length && !inflater.finished()) {
+                    int inflated = inflater.inflate(body, read, length - read);
+                    if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        throw new DataFormatException("Truncated body");
+                    }
+                    read += inflated;
+                }
+                return body;
+            } catch (DataFormatException e) {
+                throw new IllegalStateException("Stored response body is corrupt", e);
+            } finally {
+                inflater.end();
+            }
+        }
+    }
+}
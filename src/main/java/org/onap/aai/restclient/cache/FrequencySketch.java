@@ -0,0 +1,118 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.cache;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A count-min sketch estimating how often each key was requested recently, with 4-bit counters packed sixteen to a
+ * long. Each key maps to four counters, all in the same long, and its frequency is the smallest of them. Once the
+ * number of increments reaches ten times the width of the table every counter is halved, so that the estimate follows
+ * the recent popularity of a key rather than its popularity since the cache was created.
+ *
+ * <p>Counters are updated with compare-and-set, so the sketch may be read and incremented without holding a lock.
+ */
+final class FrequencySketch {
+
+    private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL,
+            0xcbf29ce484222325L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int MAX_COUNT = 15;
+
+    private final AtomicLongArray table;
+    private final int tableMask;
+    private final int sampleSize;
+    private final AtomicInteger additions = new AtomicInteger();
+
+    /**
+     * Creates a sketch sized for the given number of distinct keys.
+     */
+    FrequencySketch(int expectedKeys) {
+        int length = Integer.highestOneBit(Math.max(64, expectedKeys) - 1) << 1;
+        this.table = new AtomicLongArray(length);
+        this.tableMask = length - 1;
+        this.sampleSize = 10 * length;
+    }
+
+    /**
+     * Returns the estimated number of recent requests for a key, up to 15.
+     */
+    int frequency(int hash) {
+        int index = indexOf(hash);
+        long counters = table.get(index);
+        int frequency = MAX_COUNT;
+        for (int i = 0; i < SEEDS.length; i++) {
+            frequency = Math.min(frequency, (int) ((counters >>> offsetOf(hash, i)) & MAX_COUNT));
+        }
+        return frequency;
+    }
+
+    /**
+     * Records a request for a key.
+     */
+    void increment(int hash) {
+        int index = indexOf(hash);
+        boolean added = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            added |= incrementAt(index, offsetOf(hash, i));
+        }
+        if (added && additions.incrementAndGet() == sampleSize) {
+            reset();
+        }
+    }
+
+    private boolean incrementAt(int index, int offset) {
+        while (true) {
+            long counters = table.get(index);
+            if (((counters >>> offset) & MAX_COUNT) == MAX_COUNT) {
+                return false;
+            }
+            if (table.compareAndSet(index, counters, counters + (1L << offset))) {
+                return true;
+            }
+        }
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length(); i++) {
+            long counters;
+            do {
+                counters = table.get(i);
+            } while (!table.compareAndSet(i, counters, (counters >>> 1) & RESET_MASK));
+        }
+        additions.addAndGet(-sampleSize / 2);
+    }
+
+    private int indexOf(int hash) {
+        long h = (hash + SEEDS[0]) * SEEDS[0];
+        return (int) (h ^ (h >>> 32)) & tableMask;
+    }
+
+    /**
+     * Returns the bit offset of the i-th counter of a key. Each of the four hash functions picks one of its own group
+     * of four counters within the long.
+     */
+    private static int offsetOf(int hash, int i) {
+        int h = (int) (((hash + SEEDS[i]) * SEEDS[i]) >>> 32);
+        return ((i << 2) + (h & 3)) << 2;
+    }
+}
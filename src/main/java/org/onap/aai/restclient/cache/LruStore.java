@@ -0,0 +1,175 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds up to a fixed number of responses, evicting the least recently used. The entries are spread over segments
+ * with a lock each, so the bound is applied per segment.
+ */
+class LruStore implements CacheStore {
+
+    private static final int SEGMENT_COUNT = 16;
+
+    private final Segment[] segments = new Segment[SEGMENT_COUNT];
+    private final LongAdder evictions;
+
+    LruStore(int maxEntries, LongAdder evictions) {
+        this.evictions = evictions;
+        int segmentCapacity = (maxEntries + SEGMENT_COUNT - 1) / SEGMENT_COUNT;
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+    }
+
+    @Override
+    public CachedResponse get(String url) {
+        return segmentFor(url).get(url);
+    }
+
+    @Override
+    public void put(String url, CachedResponse response) {
+        segmentFor(url).put(url, response);
+    }
+
+    @Override
+    public void remove(String url) {
+        segmentFor(url).remove(url);
+    }
+
+    @Override
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    @Override
+    public long weightedSize() {
+        long weightedSize = 0;
+        for (Segment segment : segments) {
+            weightedSize += segment.weightedSize();
+        }
+        return weightedSize;
+    }
+
+    private Segment segmentFor(String url) {
+        int hash = url.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENT_COUNT - 1)];
+    }
+
+    private class Segment {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<String, CachedResponse> entries;
+        private long weightedSize;
+
+        Segment(int capacity) {
+            this.entries = new LinkedHashMap<String, CachedResponse>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                    if (size() > capacity) {
+                        weightedSize -= CacheStore.weigh(eldest.getKey(), eldest.getValue());
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        CachedResponse get(String url) {
+            lock.lock();
+            try {
+                return entries.get(url);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void put(String url, CachedResponse response) {
+            lock.lock();
+            try {
+                weightedSize += CacheStore.weigh(url, response);
+                CachedResponse previous = entries.put(url, response);
+                if (previous != null) {
+                    weightedSize -= CacheStore.weigh(url, previous);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void remove(String url) {
+            lock.lock();
+            try {
+                CachedResponse previous = entries.remove(url);
+                if (previous != null) {
+                    weightedSize -= CacheStore.weigh(url, previous);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void clear() {
+            lock.lock();
+            try {
+                entries.clear();
+                weightedSize = 0;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int size() {
+            lock.lock();
+            try {
+                return entries.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long weightedSize() {
+            lock.lock();
+            try {
+                return weightedSize;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
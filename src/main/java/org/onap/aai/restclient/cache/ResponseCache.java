@@ -0,0 +1,160 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded store of GET responses, keyed by URL, which lets a client serve a fresh response without a request and
+ * revalidate a stale one with a conditional request.
+ *
+ * <p>A cache bounded by the number of entries is split into segments, each holding its share of the entries in least
+ * recently used order behind its own lock, so lookups of different URLs rarely contend. When a segment is full its
+ * least recently used entry is evicted.
+ *
+ * <p>A cache bounded by size in bytes uses the W-TinyLFU policy instead: a response is only kept in place of another
+ * if it has been requested more often recently, so scanning many objects once does not evict the ones in constant use.
+ * Lookups in it do not take a lock. See {@link ResponseCacheConfig}.
+ */
+public class ResponseCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = ResponseCacheConfig.DEFAULT_MAX_ENTRIES;
+
+    private final ResponseCacheConfig config;
+    private final CacheStore store;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a cache holding up to 1000 responses.
+     */
+    public ResponseCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Creates a cache holding uncompressed responses.
+     *
+     * @param maxEntries - The number of responses the cache holds before it evicts the least recently used ones.
+     */
+    public ResponseCache(int maxEntries) {
+        this(new ResponseCacheConfig().maxEntries(maxEntries)
+                .compressionThreshold(ResponseCacheConfig.NO_COMPRESSION));
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param config - The bound of the cache and how its responses are stored.
+     */
+    public ResponseCache(ResponseCacheConfig config) {
+        this.config = config;
+        if (config.getMaxBytes() > 0) {
+            this.store = new TinyLfuStore(config.getMaxBytes(), evictions);
+        } else {
+            this.store = new LruStore(config.getMaxEntries(), evictions);
+        }
+    }
+
+    /**
+     * Returns the maximum number of entries, which applies if the cache is not bounded by size.
+     */
+    public int getMaxEntries() {
+        return config.getMaxEntries();
+    }
+
+    public ResponseCacheConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Returns the response stored for a URL, or null if there is none.
+     */
+    public CachedResponse get(String url) {
+        return store.get(url);
+    }
+
+    /**
+     * Stores the response for a URL, replacing any response stored for it before. The body is compressed first if
+     * it is long enough.
+     */
+    public void put(String url, CachedResponse response) {
+        store.put(url, response.compressed(config.getCompressionThreshold()));
+    }
+
+    /**
+     * Removes the response stored for a URL, if there is one.
+     */
+    public void remove(String url) {
+        store.remove(url);
+    }
+
+    /**
+     * Removes every stored response.
+     */
+    public void clear() {
+        store.clear();
+    }
+
+    /**
+     * Returns the number of stored responses.
+     */
+    public int size() {
+        return store.size();
+    }
+
+    /**
+     * Records a request answered with a fresh stored response, without contacting the server.
+     */
+    public void recordHit() {
+        hits.increment();
+    }
+
+    /**
+     * Records a request answered with a stored response after the server confirmed it was not modified.
+     */
+    public void recordRevalidation() {
+        revalidations.increment();
+    }
+
+    /**
+     * Records a request for which the server sent a full response.
+     */
+    public void recordMiss() {
+        misses.increment();
+    }
+
+    /**
+     * Returns a snapshot of the use of the cache.
+     */
+    public ResponseCacheStats getStats() {
+        return new ResponseCacheStats(hits.sum(), revalidations.sum(), misses.sum(), evictions.sum(), size(),
+                store.weightedSize());
+    }
+
+    @Override
+    public String toString() {
+        return "ResponseCache [config=" + config + ", size=" + size() + "]";
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.cache;
+
+/**
+ * Settings for a {@link ResponseCache}. The cache is bounded either by the number of responses, evicting the least
+ * recently used, or by their approximate size in bytes, choosing what to keep with the W-TinyLFU policy so that the
+ * responses read most often survive a scan over many others.
+ */
+public class ResponseCacheConfig {
+
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+    /** By default bodies of 1 KB or more are stored deflated. */
+    public static final int DEFAULT_COMPRESSION_THRESHOLD = 1024;
+    public static final int NO_COMPRESSION = -1;
+
+    private int maxEntries = DEFAULT_MAX_ENTRIES;
+    private long maxBytes = -1;
+    private int compressionThreshold = DEFAULT_COMPRESSION_THRESHOLD;
+
+    /**
+     * Bounds the cache by the number of responses it holds, evicting the least recently used.
+     */
+    public ResponseCacheConfig maxEntries(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("The maximum number of entries must be at least 1");
+        }
+        this.maxEntries = maxEntries;
+        this.maxBytes = -1;
+        return this;
+    }
+
+    /**
+     * Bounds the cache by the approximate number of bytes of heap its responses occupy, admitting and evicting them
+     * by how often they are requested.
+     */
+    public ResponseCacheConfig maxBytes(long maxBytes) {
+        if (maxBytes < 1) {
+            throw new IllegalArgumentException("The maximum size must be at least 1 byte");
+        }
+        this.maxBytes = maxBytes;
+        return this;
+    }
+
+    /**
+     * Sets the body length from which bodies are stored deflated, or {@link #NO_COMPRESSION} to store them as they
+     * are. Compressed bodies take a fraction of the memory, as A&AI JSON deflates well, but are inflated again on each
+     * read.
+     */
+    public ResponseCacheConfig compressionThreshold(int bytes) {
+        if (bytes < NO_COMPRESSION) {
+            throw new IllegalArgumentException("The compression threshold must not be negative");
+        }
+        this.compressionThreshold = bytes;
+        return this;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Returns the maximum size of the cache in bytes, or -1 if it is bounded by the number of entries.
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public int getCompressionThreshold() {
+        return compressionThreshold;
+    }
+
+    @Override
+    public String toString() {
+        return "ResponseCacheConfig [maxEntries=" + maxEntries + ", maxBytes=" + maxBytes + ", compressionThreshold="
+                + compressionThreshold + "]";
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.cache;
+
+/**
+ * A point-in-time snapshot of the use of a {@link ResponseCache}.
+ */
+public class ResponseCacheStats {
+
+    private final long hits;
+    private final long revalidations;
+    private final long misses;
+    private final long evictions;
+    private final int size;
+    private final long byteSize;
+
+    public ResponseCacheStats(long hits, long revalidations, long misses, long evictions, int size, long byteSize) {
+        this.hits = hits;
+        this.revalidations = revalidations;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.size = size;
+        this.byteSize = byteSize;
+    }
+
+    /**
+     * Returns the number of requests answered with a fresh stored response, without contacting the server.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of requests answered with a stored response after a 304 (Not Modified) from the server.
+     */
+    public long getRevalidations() {
+        return revalidations;
+    }
+
+    /**
+     * Returns the number of requests for which the server sent a full response.
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the number of responses evicted to make room for others.
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Returns the number of stored responses.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the approximate number of bytes of heap the stored responses occupy, counting compressed bodies at their
+     * compressed size.
+     */
+    public long getByteSize() {
+        return byteSize;
+    }
+
+    @Override
+    public String toString() {
+        return "ResponseCacheStats [hits=" + hits + ", revalidations=" + revalidations + ", misses=" + misses
+                + ", evictions=" + evictions + ", size=" + size + ", byteSize=" + byteSize + "]";
+    }
+}
@@ -0,0 +1,365 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds responses up to a total weight in bytes, choosing which to keep with the W-TinyLFU policy.
+ *
+ * <p>New entries go into a small admission window, 1% of the capacity, ordered by recency. An entry pushed out of the
+ * window is only let into the main region if it has been requested more often recently than the entry it would
+ * displace, as estimated by a {@link FrequencySketch}, so a scan over many URLs which are each read once cannot flush
+ * out the entries which are read all the time. The main region is split into a probation segment and a protected
+ * segment of up to 80% of the capacity; an entry is promoted to the protected segment when it is read while on
+ * probation.
+ *
+ * <p>Lookups do not block: the entries are held in a {@link ConcurrentHashMap} and a read only reorders the policy
+ * lists if their lock is free, so under contention some reads are not counted towards recency. They are always counted
+ * towards frequency.
+ */
+class TinyLfuStore implements CacheStore {
+
+    private static final int WINDOW_PERCENT = 1;
+    private static final int PROTECTED_PERCENT = 80;
+
+    /** The entry size assumed when sizing the frequency sketch. */
+    private static final int EXPECTED_ENTRY_BYTES = 2048;
+    private static final int MAX_SKETCH_KEYS = 1 << 20;
+
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+    private static final int REMOVED = 3;
+
+    private final long maxBytes;
+    private final long windowMaxBytes;
+    private final long protectedMaxBytes;
+    private final LongAdder evictions;
+
+    private final ConcurrentHashMap<String, Node> entries = new ConcurrentHashMap<>();
+    private final FrequencySketch sketch;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AccessOrder window = new AccessOrder();
+    private final AccessOrder probation = new AccessOrder();
+    private final AccessOrder protectedSegment = new AccessOrder();
+
+    // Guarded by lock
+    private long windowBytes;
+    private long protectedBytes;
+    private volatile long weightedSize;
+
+    TinyLfuStore(long maxBytes, LongAdder evictions) {
+        this.maxBytes = maxBytes;
+        this.windowMaxBytes = Math.max(1, maxBytes * WINDOW_PERCENT / 100);
+        this.protectedMaxBytes = (maxBytes - windowMaxBytes) * PROTECTED_PERCENT / 100;
+        this.evictions = evictions;
+        this.sketch = new FrequencySketch((int) Math.min(MAX_SKETCH_KEYS, maxBytes / EXPECTED_ENTRY_BYTES));
+    }
+
+    @Override
+    public CachedResponse get(String url) {
+        Node node = entries.get(url);
+        sketch.increment(hash(url));
+        if (node == null) {
+            return null;
+        }
+        if (lock.tryLock()) {
+            try {
+                onAccess(node);
+            } finally {
+                lock.unlock();
+            }
+        }
+        return node.response;
+    }
+
+    @Override
+    public void put(String url, CachedResponse response) {
+        long weight = CacheStore.weigh(url, response);
+        lock.lock();
+        try {
+            Node node = entries.get(url);
+            if (weight > maxBytes) {
+                // Too large to ever hold; drop any older response rather than serve it
+                if (node != null) {
+                    entries.remove(url, node);
+                    unlink(node);
+                }
+                return;
+            }
+            if (node != null) {
+                resize(node, weight);
+                node.response = response;
+                onAccess(node);
+            } else {
+                node = new Node(url, hash(url), response, weight);
+                entries.put(url, node);
+                node.region = WINDOW;
+                window.addLast(node);
+                windowBytes += weight;
+                weightedSize += weight;
+            }
+            evict();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void remove(String url) {
+        lock.lock();
+        try {
+            Node node = entries.remove(url);
+            if (node != null) {
+                unlink(node);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.lock();
+        try {
+            for (Node node : entries.values()) {
+                node.region = REMOVED;
+            }
+            entries.clear();
+            window.clear();
+            probation.clear();
+            protectedSegment.clear();
+            windowBytes = 0;
+            protectedBytes = 0;
+            weightedSize = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public long weightedSize() {
+        return weightedSize;
+    }
+
+    private void onAccess(Node node) {
+        switch (node.region) {
+            case WINDOW:
+                window.moveToLast(node);
+                break;
+            case PROBATION:
+                probation.remove(node);
+                protectedSegment.addLast(node);
+                node.region = PROTECTED;
+                protectedBytes += node.weight;
+                demoteProtected();
+                break;
+            case PROTECTED:
+                protectedSegment.moveToLast(node);
+                break;
+            default:
+                // Removed by another thread since it was looked up
+                break;
+        }
+    }
+
+    private void resize(Node node, long weight) {
+        long delta = weight - node.weight;
+        node.weight = weight;
+        weightedSize += delta;
+        if (node.region == WINDOW) {
+            windowBytes += delta;
+        } else if (node.region == PROTECTED) {
+            protectedBytes += delta;
+        }
+    }
+
+    /**
+     * Moves the least recently used protected entries back to probation until the protected segment is within its
+     * bound.
+     */
+    private void demoteProtected() {
+        while (protectedBytes > protectedMaxBytes) {
+            Node demoted = protectedSegment.removeFirst();
+            protectedBytes -= demoted.weight;
+            demoted.region = PROBATION;
+            probation.addLast(demoted);
+        }
+    }
+
+    private void evict() {
+        while (windowBytes > windowMaxBytes) {
+            Node candidate = window.removeFirst();
+            windowBytes -= candidate.weight;
+            admit(candidate);
+        }
+        // Only reached if an entry larger than the main region was admitted
+        while (weightedSize > maxBytes) {
+            Node victim = probation.peekFirst();
+            if (victim == null) {
+                victim = protectedSegment.peekFirst() != null ? protectedSegment.peekFirst() : window.peekFirst();
+            }
+            evict(victim);
+        }
+    }
+
+    /**
+     * Lets an entry leaving the window into the main region if it is requested more often than each of the entries
+     * which have to be evicted to make room for it, and evicts it otherwise.
+     */
+    private void admit(Node candidate) {
+        candidate.region = PROBATION;
+        probation.addLast(candidate);
+        long mainMaxBytes = maxBytes - windowMaxBytes;
+        while (weightedSize - windowBytes > mainMaxBytes) {
+            Node victim = probation.peekFirst();
+            if (victim == candidate) {
+                victim = protectedSegment.peekFirst();
+            }
+            if (victim == null) {
+                return;
+            }
+            if (sketch.frequency(candidate.hash) > sketch.frequency(victim.hash)) {
+                evict(victim);
+            } else {
+                evict(candidate);
+                return;
+            }
+        }
+    }
+
+    private void evict(Node node) {
+        entries.remove(node.url, node);
+        unlink(node);
+        evictions.increment();
+    }
+
+    private void unlink(Node node) {
+        switch (node.region) {
+            case WINDOW:
+                window.remove(node);
+                windowBytes -= node.weight;
+                break;
+            case PROBATION:
+                probation.remove(node);
+                break;
+            case PROTECTED:
+                protectedSegment.remove(node);
+                protectedBytes -= node.weight;
+                break;
+            default:
+                return;
+        }
+        node.region = REMOVED;
+        weightedSize -= node.weight;
+    }
+
+    private static int hash(String url) {
+        int hash = url.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    @Override
+    public String toString() {
+        return "TinyLfuStore [maxBytes=" + maxBytes + ", weightedSize=" + weightedSize + ", size=" + size() + "]";
+    }
+
+    private static final class Node {
+        private final String url;
+        private final int hash;
+        private volatile CachedResponse response;
+        private long weight;
+        private int region;
+        private Node previous;
+        private Node next;
+
+        Node(String url, int hash, CachedResponse response, long weight) {
+            this.url = url;
+            this.hash = hash;
+            this.response = response;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * A doubly linked list of nodes, least recently used first.
+     */
+    private static final class AccessOrder {
+        private Node first;
+        private Node last;
+
+        Node peekFirst() {
+            return first;
+        }
+
+        void addLast(Node node) {
+            node.previous = last;
+            node.next = null;
+            if (last == null) {
+                first = node;
+            } else {
+                last.next = node;
+            }
+            last = node;
+        }
+
+        Node removeFirst() {
+            Node node = first;
+            remove(node);
+            return node;
+        }
+
+        void moveToLast(Node node) {
+            if (node != last) {
+                remove(node);
+                addLast(node);
+            }
+        }
+
+        void remove(Node node) {
+            if (node.previous == null) {
+                first = node.next;
+            } else {
+                node.previous.next = node.next;
+            }
+            if (node.next == null) {
+                last = node.previous;
+            } else {
+                node.next.previous = node.previous;
+            }
+            node.previous = null;
+            node.next = null;
+        }
+
+        void clear() {
+            first = null;
+            last = null;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.client;
+
+/**
+ * A snapshot of the requests sent and shared through a {@link RequestCoalescer}.
+ */
+public class CoalescingStats {
+
+    private final long requests;
+    private final long coalesced;
+    private final int inFlight;
+
+    public CoalescingStats(long requests, long coalesced, int inFlight) {
+        this.requests = requests;
+        this.coalesced = coalesced;
+        this.inFlight = inFlight;
+    }
+
+    /**
+     * Returns the number of requests sent to the server.
+     */
+    public long getRequests() {
+        return requests;
+    }
+
+    /**
+     * Returns the number of requests answered with the result of an identical request already in flight.
+     */
+    public long getCoalesced() {
+        return coalesced;
+    }
+
+    /**
+     * Returns the number of requests currently in flight which identical requests may join.
+     */
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    @Override
+    public String toString() {
+        return "CoalescingStats [requests=" + requests + ", coalesced=" + coalesced + ", inFlight=" + inFlight + "]";
+    }
+}
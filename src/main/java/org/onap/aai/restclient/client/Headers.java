@@ -28,6 +28,10 @@ public final class Headers {
   public static final String ETAG = "ETag";
   public static final String IF_MATCH = "If-Match";
   public static final String IF_NONE_MATCH = "If-None-Match";
+  public static final String IF_MODIFIED_SINCE = "If-Modified-Since";
+  public static final String LAST_MODIFIED = "Last-Modified";
+  public static final String CACHE_CONTROL = "Cache-Control";
+  public static final String AGE = "Age";
   public static final String ACCEPT = "Accept";
   public static final String AUTHORIZATION = "Authorization";
 }
@@ -20,16 +20,26 @@
  */
 package org.onap.aai.restclient.client;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import javax.ws.rs.core.MultivaluedMap;
+import org.onap.aai.restclient.transport.ResponseHeaders;
 
 public class OperationResult {
 
   private String requestedLink;
   private String result;
+  private byte[] resultBytes;
+  private Charset resultCharset;
   private String failureCause;
+  private Throwable failureException;
   private boolean fromCache;
   private int resultCode;
   private int numRetries;
+  private boolean hedged;
+  private boolean hedgeWon;
+  private boolean coalesced;
   private MultivaluedMap<String, String> responseHeaders;
 
 
@@ -73,12 +83,71 @@ public class OperationResult {
     this.responseHeaders = headers;
   }
 
+  /**
+   * Returns the result as a String. A result held as bytes is decoded on the first call.
+   *
+   * @return the result
+   */
   public String getResult() {
+    if (result == null && resultBytes != null) {
+      result = new String(resultBytes, resultCharset);
+    }
+    return result;
+  }
+
+  /**
+   * Returns the result as a String if it is held as one, without decoding a result held as bytes.
+   */
+  String peekResult() {
     return result;
   }
 
+  /**
+   * Returns the charset of a result held as bytes.
+   */
+  Charset getResultCharset() {
+    return resultCharset;
+  }
+
   public void setResult(String result) {
     this.result = result;
+    this.resultBytes = null;
+  }
+
+  /**
+   * Sets the result to the raw bytes of the response body. They are only decoded if the result is asked for as a
+   * String.
+   *
+   * @param resultBytes the response body
+   * @param charset the charset to decode the response body with
+   */
+  public void setResult(byte[] resultBytes, Charset charset) {
+    this.resultBytes = resultBytes;
+    this.resultCharset = charset != null ? charset : StandardCharsets.UTF_8;
+    this.result = null;
+  }
+
+  /**
+   * Returns the result as bytes. A result held as a String is encoded in UTF-8. The array is not copied, so it must
+   * not be modified.
+   *
+   * @return the result, or null if there is none
+   */
+  public byte[] getResultBytes() {
+    if (resultBytes == null && result != null) {
+      return result.getBytes(StandardCharsets.UTF_8);
+    }
+    return resultBytes;
+  }
+
+  /**
+   * Returns the result as a read-only buffer over the bytes of the response body.
+   *
+   * @return the result, or null if there is none
+   */
+  public ByteBuffer getResultBuffer() {
+    byte[] bytes = getResultBytes();
+    return bytes != null ? ByteBuffer.wrap(bytes).asReadOnlyBuffer() : null;
   }
 
   public int getResultCode() {
@@ -97,13 +166,24 @@ public class OperationResult {
    */
   public void setResult(int resultCode, String result) {
     this.resultCode = resultCode;
-    this.result = result;
+    setResult(result);
   }
   
   public void setFailureCause(String failureCause) {
     this.failureCause = failureCause;
   }
 
+  /**
+   * Returns the exception which prevented a response from being received, if there was one.
+   */
+  Throwable getFailureException() {
+    return failureException;
+  }
+
+  void setFailureException(Throwable failureException) {
+    this.failureException = failureException;
+  }
+
   /**
    * Sets the failure cause.
    *
@@ -144,9 +224,70 @@ public class OperationResult {
     this.numRetries = numRetries;
   }
 
+  /**
+   * Returns true if a hedge was sent because the request took too long to answer.
+   *
+   * @return true, if the request was hedged
+   */
+  public boolean isHedged() {
+    return hedged;
+  }
+
+  public void setHedged(boolean hedged) {
+    this.hedged = hedged;
+  }
+
+  /**
+   * Returns true if this result came from the hedge rather than the request it hedged.
+   *
+   * @return true, if the hedge answered first
+   */
+  public boolean isHedgeWon() {
+    return hedgeWon;
+  }
+
+  public void setHedgeWon(boolean hedgeWon) {
+    this.hedgeWon = hedgeWon;
+  }
+
+  /**
+   * Returns true if this result was shared from an identical request which was already in flight, rather than
+   * requested on its own.
+   *
+   * @return true, if the request was coalesced
+   */
+  public boolean isCoalesced() {
+    return coalesced;
+  }
+
+  public void setCoalesced(boolean coalesced) {
+    this.coalesced = coalesced;
+  }
+
+  /**
+   * Returns a copy of this result with its own headers. The body is shared rather than copied.
+   */
+  OperationResult copy() {
+    OperationResult copy = new OperationResult();
+    copy.requestedLink = requestedLink;
+    copy.result = result;
+    copy.resultBytes = resultBytes;
+    copy.resultCharset = resultCharset;
+    copy.failureCause = failureCause;
+    copy.failureException = failureException;
+    copy.fromCache = fromCache;
+    copy.resultCode = resultCode;
+    copy.numRetries = numRetries;
+    copy.hedged = hedged;
+    copy.hedgeWon = hedgeWon;
+    copy.coalesced = coalesced;
+    copy.responseHeaders = responseHeaders != null ? new ResponseHeaders(responseHeaders) : null;
+    return copy;
+  }
+
   @Override
   public String toString() {
-    return "OperationResult [result=" + result + ", requestedLink=" + requestedLink
+    return "OperationResult [result=" + getResult() + ", requestedLink=" + requestedLink
         + ", failureCause=" + failureCause + ", resultCode=" + resultCode + ", numRetries="
         + numRetries + ", responseHeaders=" + responseHeaders + "]";
   }
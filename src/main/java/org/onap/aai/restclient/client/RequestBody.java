@@ -0,0 +1,243 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A request payload which is streamed to the connection as the request is sent, rather than being held in memory as a
+ * String. Payloads of a known length are sent with a Content-Length header where the transport supports it, others
+ * with chunked transfer encoding.
+ */
+public abstract class RequestBody {
+
+    /** The content length reported for a payload whose length is not known up front. */
+    public static final long UNKNOWN_LENGTH = -1;
+
+    /**
+     * Writes a payload to the request output stream.
+     */
+    @FunctionalInterface
+    public interface Writer {
+
+        /**
+         * Writes the payload. The stream must not be closed.
+         *
+         * @param out - The request output stream.
+         *
+         * @throws IOException if the payload cannot be written, which fails the request.
+         */
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Creates a payload which is read from the supplied stream and sent with chunked transfer encoding. The stream is
+     * closed once it has been sent.
+     */
+    public static RequestBody of(InputStream in) {
+        return of(in, UNKNOWN_LENGTH);
+    }
+
+    /**
+     * Creates a payload of the given length which is read from the supplied stream. The stream is closed once it has
+     * been sent.
+     */
+    public static RequestBody of(InputStream in, long contentLength) {
+        return new StreamBody(in, contentLength);
+    }
+
+    /**
+     * Creates a payload which is read from the supplied file. The file is transferred through its channel rather than
+     * copied through a Java heap buffer where the transport allows it.
+     */
+    public static RequestBody of(Path file) {
+        return new FileBody(file);
+    }
+
+    /**
+     * Creates a payload which is produced by the supplied writer as the request is sent, and sent with chunked transfer
+     * encoding. The writer is called only once, so the request is not retried.
+     */
+    public static RequestBody of(Writer writer) {
+        return of(writer, false);
+    }
+
+    /**
+     * Creates a payload which is produced by the supplied writer as the request is sent, and sent with chunked transfer
+     * encoding.
+     *
+     * @param repeatable - true if the writer produces the same payload each time it is called, so that the request may
+     *        be retried. A writer draining a cursor or a queue is not repeatable.
+     */
+    public static RequestBody of(Writer writer, boolean repeatable) {
+        return new WriterBody(writer, repeatable);
+    }
+
+    /**
+     * Returns the length of the payload in bytes, or {@link #UNKNOWN_LENGTH} if it is not known.
+     */
+    public abstract long getContentLength() throws IOException;
+
+    /**
+     * Returns true if the payload can be sent more than once, so that the request can be retried.
+     */
+    public abstract boolean isRepeatable();
+
+    /**
+     * Writes the payload to the supplied stream, without closing it.
+     */
+    public abstract void writeTo(OutputStream out) throws IOException;
+
+    /**
+     * Returns the file the payload is read from, or null if it is not read from a file. This lets a transport hand the
+     * file to its own means of sending files.
+     */
+    public Path getFile() {
+        return null;
+    }
+
+    /**
+     * Returns the stream the payload is read from, or null if it is not read from a stream. The stream is handed over
+     * as it is, so it is consumed by whoever reads it.
+     */
+    public InputStream getInputStream() {
+        return null;
+    }
+
+    private static class StreamBody extends RequestBody {
+
+        private final InputStream in;
+        private final long contentLength;
+
+        StreamBody(InputStream in, long contentLength) {
+            this.in = in;
+            this.contentLength = contentLength;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return in;
+        }
+
+        @Override
+        public long getContentLength() {
+            return contentLength;
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return false;
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException {
+            try (InputStream payload = in) {
+                payload.transferTo(out);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "RequestBody [stream, contentLength=" + contentLength + "]";
+        }
+    }
+
+    private static class FileBody extends RequestBody {
+
+        private final Path file;
+
+        FileBody(Path file) {
+            this.file = file;
+        }
+
+        @Override
+        public Path getFile() {
+            return file;
+        }
+
+        @Override
+        public long getContentLength() throws IOException {
+            return Files.size(file);
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return true;
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                // Deliberately not closed, as that would close the request stream
+                WritableByteChannel target = Channels.newChannel(out);
+                long size = channel.size();
+                long position = 0;
+                while (position < size) {
+                    position += channel.transferTo(position, size - position, target);
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "RequestBody [file=" + file + "]";
+        }
+    }
+
+    private static class WriterBody extends RequestBody {
+
+        private final Writer writer;
+        private final boolean repeatable;
+
+        WriterBody(Writer writer, boolean repeatable) {
+            this.writer = writer;
+            this.repeatable = repeatable;
+        }
+
+        @Override
+        public long getContentLength() {
+            return UNKNOWN_LENGTH;
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return repeatable;
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException {
+            writer.writeTo(out);
+        }
+
+        @Override
+        public String toString() {
+            return "RequestBody [writer, repeatable=" + repeatable + "]";
+        }
+    }
+}
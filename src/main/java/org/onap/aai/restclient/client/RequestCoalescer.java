@@ -0,0 +1,162 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.client;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import javax.ws.rs.core.MediaType;
+import org.onap.aai.restclient.enums.RequestType;
+
+/**
+ * Lets identical requests made at the same time share a single request to the server. The first caller sends the
+ * request; any caller making an identical request before it completes waits for it and gets a copy of its result,
+ * marked as coalesced. Requests are identical if they have the same method, URL and Accept media type, and the same
+ * values for each of the key headers of the coalescer. Headers which differ on every request, such as the
+ * transaction id, must not be key headers, while headers which change the response, such as the credentials of the
+ * caller, should be.
+ *
+ * <p>A request which fails with an exception fails all the callers waiting on it, and is then forgotten, so the next
+ * identical request is sent to the server again.
+ */
+public class RequestCoalescer {
+
+    private final List<String> keyHeaders;
+    private final ConcurrentHashMap<String, CompletableFuture<OperationResult>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Creates a coalescer.
+     *
+     * @param keyHeaders - The names of the headers whose values must also match for requests to be shared.
+     */
+    public RequestCoalescer(String... keyHeaders) {
+        List<String> names = new ArrayList<>();
+        for (String name : keyHeaders) {
+            names.add(name.toLowerCase(Locale.ROOT));
+        }
+        Collections.sort(names);
+        this.keyHeaders = Collections.unmodifiableList(names);
+    }
+
+    public List<String> getKeyHeaders() {
+        return keyHeaders;
+    }
+
+    /**
+     * Returns the key identical requests share.
+     */
+    public String keyFor(RequestType requestType, String url, MediaType responseType,
+            Map<String, List<String>> headers) {
+        StringBuilder key = new StringBuilder(url.length() + 64).append(requestType).append(' ').append(url)
+                .append('\n').append(responseType);
+        for (String name : keyHeaders) {
+            key.append('\n').append(name).append(':');
+            List<String> values = valuesOf(headers, name);
+            if (values != null) {
+                key.append(values);
+            }
+        }
+        return key.toString();
+    }
+
+    private static List<String> valuesOf(Map<String, List<String>> headers, String name) {
+        if (headers != null) {
+            for (Entry<String, List<String>> header : headers.entrySet()) {
+                if (name.equalsIgnoreCase(header.getKey())) {
+                    return header.getValue();
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Sends a request unless an identical one is already in flight, in which case its result is waited for and
+     * copied.
+     *
+     * @param key - The key of the request, from {@link #keyFor}.
+     * @param request - Sends the request.
+     *
+     * @return The result of the request, or a copy of the result of the identical request in flight.
+     */
+    public OperationResult execute(String key, Supplier<OperationResult> request) {
+        CompletableFuture<OperationResult> call = new CompletableFuture<>();
+        CompletableFuture<OperationResult> leader = inFlight.putIfAbsent(key, call);
+        if (leader != null) {
+            coalesced.increment();
+            return shared(leader);
+        }
+
+        requests.increment();
+        try {
+            OperationResult result = request.get();
+            // Waiting callers copy a snapshot, so they are not affected by what the caller does with its own result
+            call.complete(result.copy());
+            return result;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    private static OperationResult shared(CompletableFuture<OperationResult> leader) {
+        OperationResult result;
+        try {
+            result = leader.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+        OperationResult copy = result.copy();
+        copy.setCoalesced(true);
+        return copy;
+    }
+
+    /**
+     * Returns a snapshot of the requests sent and shared through the coalescer.
+     */
+    public CoalescingStats getStats() {
+        return new CoalescingStats(requests.sum(), coalesced.sum(), inFlight.size());
+    }
+
+    @Override
+    public String toString() {
+        return "RequestCoalescer [keyHeaders=" + keyHeaders + "]";
+    }
+}
@@ -0,0 +1,206 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.client;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.ws.rs.core.MediaType;
+
+/**
+ * A request URL with path variables, such as {@code https://aai:8443/aai/v14/network/pnfs/pnf/{pnf-name}}, together
+ * with the headers and media types sent with every request made from it.
+ *
+ * <p>The URL is split into its literal parts and variables when the template is created, and the headers are held
+ * ready to send, so that each request only has to fill in the variables. Each value is percent-encoded as a path
+ * segment. A template is set up once and may then be shared by any number of threads.
+ *
+ * <pre>
+ * RequestTemplate pnf = new RequestTemplate(aaiUrl + "/aai/v14/network/pnfs/pnf/{pnf-name}")
+ *     .header(Headers.FROM_APP_ID, "my-app")
+ *     .responseType(MediaType.APPLICATION_JSON_TYPE);
+ *
+ * OperationResult result = restClient.get(pnf, "pnf1");
+ * </pre>
+ */
+public class RequestTemplate {
+
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    private final String uriTemplate;
+    /** The literal parts of the URL, one more than there are variables. */
+    private final String[] literals;
+    private final String[] variables;
+    private final int literalLength;
+
+    private volatile Map<String, List<String>> headers = Collections.emptyMap();
+    private volatile MediaType contentType = MediaType.APPLICATION_JSON_TYPE;
+    private volatile MediaType responseType = MediaType.APPLICATION_JSON_TYPE;
+
+    /**
+     * Creates a template for the given URL, in which each variable is a name in braces.
+     *
+     * @throws IllegalArgumentException if a brace is not closed.
+     */
+    public RequestTemplate(String uriTemplate) {
+        this.uriTemplate = uriTemplate;
+        List<String> literalParts = new ArrayList<>();
+        List<String> variableNames = new ArrayList<>();
+        int length = 0;
+        int start = 0;
+        int open;
+        while ((open = uriTemplate.indexOf('{', start)) >= 0) {
+            int close = uriTemplate.indexOf('}', open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed variable in URI template " + uriTemplate);
+            }
+            literalParts.add(uriTemplate.substring(start, open));
+            variableNames.add(uriTemplate.substring(open + 1, close));
+            length += open - start;
+            start = close + 1;
+        }
+        literalParts.add(uriTemplate.substring(start));
+        length += uriTemplate.length() - start;
+
+        this.literals = literalParts.toArray(new String[0]);
+        this.variables = variableNames.toArray(new String[0]);
+        this.literalLength = length;
+    }
+
+    /**
+     * Adds a header sent with every request made from this template. Multiple values are joined with semi-colons
+     * here rather than on each request.
+     */
+    public RequestTemplate header(String name, String... values) {
+        Map<String, List<String>> updated = new LinkedHashMap<>(headers);
+        updated.put(name, Collections.singletonList(String.join(";", values)));
+        headers = Collections.unmodifiableMap(updated);
+        return this;
+    }
+
+    /**
+     * Sets the content type of the payloads sent with this template, JSON by default.
+     */
+    public RequestTemplate contentType(MediaType contentType) {
+        this.contentType = contentType;
+        return this;
+    }
+
+    /**
+     * Sets the expected format of the responses, JSON by default.
+     */
+    public RequestTemplate responseType(MediaType responseType) {
+        this.responseType = responseType;
+        return this;
+    }
+
+    /**
+     * Returns the URL with the given values filled in for its variables, in the order the variables appear.
+     *
+     * @throws IllegalArgumentException if the number of values does not match the number of variables.
+     */
+    public String expand(String... values) {
+        if (values.length != variables.length) {
+            throw new IllegalArgumentException("URI template " + uriTemplate + " has " + variables.length
+                    + " variables but " + values.length + " values were given");
+        }
+        if (values.length == 0) {
+            return literals[0];
+        }
+
+        int length = literalLength;
+        for (String value : values) {
+            length += value.length();
+        }
+        StringBuilder url = new StringBuilder(length + 16).append(literals[0]);
+        for (int i = 0; i < values.length; i++) {
+            appendPathSegment(url, values[i]);
+            url.append(literals[i + 1]);
+        }
+        return url.toString();
+    }
+
+    public String getUriTemplate() {
+        return uriTemplate;
+    }
+
+    /**
+     * Returns the names of the variables in the order they appear in the URL.
+     */
+    public List<String> getVariables() {
+        return Collections.unmodifiableList(Arrays.asList(variables));
+    }
+
+    /**
+     * Returns the headers sent with every request made from this template, which may not be modified.
+     */
+    public Map<String, List<String>> getHeaders() {
+        return headers;
+    }
+
+    public MediaType getContentType() {
+        return contentType;
+    }
+
+    public MediaType getResponseType() {
+        return responseType;
+    }
+
+    /**
+     * Appends a value percent-encoding everything but the unreserved characters of RFC 3986, so that a value can not
+     * change the structure of the URL. Most A&AI keys need no encoding, and are appended as they are.
+     */
+    private static void appendPathSegment(StringBuilder url, String value) {
+        int i = 0;
+        while (i < value.length() && isUnreserved(value.charAt(i))) {
+            i++;
+        }
+        if (i == value.length()) {
+            url.append(value);
+            return;
+        }
+
+        url.append(value, 0, i);
+        for (byte b : value.substring(i).getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xff);
+            if (isUnreserved(c)) {
+                url.append(c);
+            } else {
+                url.append('%').append(HEX_DIGITS[c >> 4]).append(HEX_DIGITS[c & 0xf]);
+            }
+        }
+    }
+
+    private static boolean isUnreserved(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '-' || c == '.'
+                || c == '_' || c == '~';
+    }
+
+    @Override
+    public String toString() {
+        return "RequestTemplate [uriTemplate=" + uriTemplate + ", headers=" + headers.keySet() + ", contentType="
+                + contentType + ", responseType=" + responseType + "]";
+    }
+}
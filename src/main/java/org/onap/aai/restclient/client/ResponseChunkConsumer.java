@@ -0,0 +1,41 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.client;
+
+import java.io.IOException;
+
+/**
+ * Receives the body of a response in chunks as it is read from the connection. The same buffer is handed over for
+ * every chunk, so a consumer which needs to hold on to the bytes must copy them.
+ */
+@FunctionalInterface
+public interface ResponseChunkConsumer {
+
+    /**
+     * Accepts the next chunk of the response body.
+     *
+     * @param buffer - The buffer holding the chunk.
+     * @param length - The number of bytes of the chunk, starting at the beginning of the buffer.
+     *
+     * @throws IOException if the chunk cannot be processed, which aborts reading the response.
+     */
+    void accept(byte[] buffer, int length) throws IOException;
+}
@@ -20,34 +20,83 @@
  */
 package org.onap.aai.restclient.client;
 
-import java.io.ByteArrayOutputStream;
-import java.text.SimpleDateFormat;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.ClientBuilder;
-import javax.ws.rs.client.Entity;
-import javax.ws.rs.client.Invocation.Builder;
-import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.MediaType;
-import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
 
 import org.onap.aai.cl.api.LogLine;
-import org.onap.aai.cl.mdc.MdcContext;
-import org.onap.aai.cl.mdc.MdcOverride;
+import org.onap.aai.restclient.balancer.Endpoint;
+import org.onap.aai.restclient.balancer.EndpointStats;
+import org.onap.aai.restclient.balancer.LoadBalancer;
+import org.onap.aai.restclient.balancer.LoadBalancerConfig;
+import org.onap.aai.restclient.batch.Batch;
+import org.onap.aai.restclient.batch.BatchConfig;
+import org.onap.aai.restclient.batch.BatchRequest;
+import org.onap.aai.restclient.cache.CachedResponse;
+import org.onap.aai.restclient.cache.ResponseCache;
+import org.onap.aai.restclient.enums.RequestType;
+import org.onap.aai.restclient.enums.ResponseBodyMode;
 import org.onap.aai.restclient.enums.RestAuthenticationMode;
+import org.onap.aai.restclient.enums.TransportEngine;
 import org.onap.aai.restclient.logging.RestClientMsgs;
+import org.onap.aai.restclient.metrics.RequestMetrics;
+import org.onap.aai.restclient.rest.ConnectionPoolStats;
+import org.onap.aai.restclient.resilience.AdaptiveConcurrencyLimiter;
+import org.onap.aai.restclient.resilience.CircuitBreaker;
+import org.onap.aai.restclient.resilience.CircuitBreakerRegistry;
+import org.onap.aai.restclient.resilience.ConcurrencyLimiterRegistry;
+import org.onap.aai.restclient.resilience.ExponentialBackoffRetryPolicy;
+import org.onap.aai.restclient.resilience.HedgingConfig;
+import org.onap.aai.restclient.resilience.HedgingStats;
+import org.onap.aai.restclient.resilience.RequestHedger;
+import org.onap.aai.restclient.resilience.RetryAttempt;
+import org.onap.aai.restclient.resilience.RetryBudget;
+import org.onap.aai.restclient.resilience.RetryBudgetStats;
+import org.onap.aai.restclient.resilience.RetryPolicy;
 import org.onap.aai.restclient.rest.RestClientBuilder;
+import org.onap.aai.restclient.transport.JavaHttpClientTransport;
+import org.onap.aai.restclient.transport.JerseyTransport;
+import org.onap.aai.restclient.transport.RestTransport;
+import org.onap.aai.restclient.transport.TransportRequest;
+import org.onap.aai.restclient.transport.TransportResponse;
+import org.slf4j.MDC;
 
 import com.att.eelf.configuration.EELFLogger;
 import com.att.eelf.configuration.EELFManager;
@@ -68,33 +117,92 @@ public class RestClient {
      */
     private RestClientBuilder clientBuilder;
 
+    /** A transport supplied by the caller, which takes the place of the one built from the client settings. */
+    private RestTransport customTransport;
+
+    /** Size of the buffer the body of a response is read through when it is handed to a chunk consumer. */
+    private int streamBufferSize = DEFAULT_STREAM_BUFFER_SIZE;
+
+    /** Whether response bodies are decoded into Strings as they are read, or kept as bytes. */
+    private ResponseBodyMode responseBodyMode = ResponseBodyMode.STRING;
+
+    /** Decides whether failed requests are retried, null if they are only retried when the caller asks. */
+    private RetryPolicy retryPolicy;
+
+    /** Limits the retries made to a share of the requests sent, null if retries are not limited. */
+    private RetryBudget retryBudget;
+
+    /** Circuit breakers for the endpoints the client talks to, null if requests are always sent. */
+    private CircuitBreakerRegistry circuitBreakers;
+
+    /** Limits on the requests in flight to each endpoint, null if they are not limited. */
+    private ConcurrencyLimiterRegistry concurrencyLimiters;
+
+    /** Hedges slow GET requests, null if requests are never hedged. */
+    private RequestHedger hedger;
+
+    /** Stores GET responses for reuse and revalidation, null if responses are not cached. */
+    private ResponseCache responseCache;
+
+    /** Records the latency of each request sent, null if no metrics are kept. */
+    private RequestMetrics requestMetrics;
+
+    /** Shares the result of a GET with identical GETs made while it is in flight, null if GETs are not shared. */
+    private RequestCoalescer requestCoalescer;
+
+    /** Picks the endpoint of requests to service paths, null if the client only takes absolute URLs. */
+    private LoadBalancer loadBalancer;
+
     private final ConcurrentMap<String, InitializedClient> CLIENT_CACHE = new ConcurrentHashMap<>();
     private static final String REST_CLIENT_INSTANCE = "REST_CLIENT_INSTANCE";
 
-    /** Standard logger for producing log statements. */
-    private static EELFLogger logger = EELFManager.getLogger(RestClient.class.getName());
+    /** Shares the underlying client with other clients of the same settings, null if this client has its own. */
+    private RestClientRegistry clientRegistry;
 
-    /** Standard logger for producing metric statements. */
-    private static EELFLogger metricsLogger = EELFManager.getMetricsLogger();
-    private SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSXXX");
+    /** The fingerprint of the settings the shared client was looked up by, worked out on the first request. */
+    private volatile String clientFingerprint;
 
-    /** Reusable function call for GET REST operations. */
-    private final RestOperation getOp = new GetRestOperation();
+    private final Supplier<InitializedClient> clientFactory = this::loggedClientInitialization;
 
-    /** Reusable function call for PUT REST operations. */
-    private final RestOperation putOp = new PutRestOperation();
+    /** Delay before the underlying client is built again after failing, doubled for each failure in a row. */
+    public static final long DEFAULT_INITIALIZATION_RETRY_MIN_DELAY_MS = 1000;
+    public static final long DEFAULT_INITIALIZATION_RETRY_MAX_DELAY_MS = 60000;
 
-    /** Reusable function call for POST REST operations. */
-    private final RestOperation postOp = new PostRestOperation();
+    private long initializationRetryMinDelayMs = DEFAULT_INITIALIZATION_RETRY_MIN_DELAY_MS;
+    private long initializationRetryMaxDelayMs = DEFAULT_INITIALIZATION_RETRY_MAX_DELAY_MS;
 
-    /** Reusable function call for DELETE REST operations. */
-    private final RestOperation deleteOp = new DeleteRestOperation();
+    /** The last failed initialization, reported to requests until the retry time, null once the client is built. */
+    private volatile InitializedClient failedInitialization;
+    private volatile long initializationRetryNanos;
+    private int initializationFailures;
 
-    /** Reusable function call for HEAD REST operations. */
-    private final RestOperation headOp = new HeadRestOperation();
+    /** Default size of the buffer the body of a streamed response is read through. */
+    public static final int DEFAULT_STREAM_BUFFER_SIZE = 8192;
 
-    /** Reusable function call for PATCH REST operations. */
-    private final RestOperation patchOp = new PatchRestOperation();
+    /** The pause between the attempts of the variants of the verbs which take a number of retries. */
+    private static final Duration LEGACY_RETRY_DELAY = Duration.ofMillis(50);
+
+    /**
+     * Policy for the variants of the verbs which take a number of retries, used when the client has no policy of its
+     * own. As before retry policies were introduced, the number of attempts is limited only by the caller and the
+     * attempts are a fixed 50 ms apart, with no elapsed time budget and no regard for Retry-After.
+     */
+    private static final RetryPolicy DEFAULT_RETRY_POLICY = new ExponentialBackoffRetryPolicy()
+            .maxAttempts(Integer.MAX_VALUE).baseDelay(LEGACY_RETRY_DELAY).maxDelay(LEGACY_RETRY_DELAY)
+            .maxElapsedTime(Duration.ofMillis(Long.MAX_VALUE)).honorRetryAfter(false);
+
+    /** Standard logger for producing log statements. */
+    private static EELFLogger logger = EELFManager.getLogger(RestClient.class.getName());
+
+    /** Standard logger for producing metric statements. */
+    private static EELFLogger metricsLogger = EELFManager.getMetricsLogger();
+
+    /**
+     * Formatter for request start times. Unlike SimpleDateFormat it is immutable, so it can be shared by every thread
+     * issuing requests without locking.
+     */
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSXXX").withZone(ZoneId.systemDefault());
 
     /**
      * Creates a new instance of the {@link RestClient}.
@@ -236,276 +344,2304 @@ public class RestClient {
         return this;
     }
 
-    private boolean shouldRetry(OperationResult operationResult) {
+    /**
+     * Enables or disables the pool of persistent connections. When enabled the client keeps connections to each
+     * target server alive for reuse instead of opening a new connection, and TLS session, for every request.
+     *
+     * @param enabled - Set to true to enable connection pooling, false to disable.
+     *
+     * @return The AAIRESTClient instance. This is useful for chaining parameter assignments.
+     */
+    public RestClient connectionPooling(boolean enabled) {
+        logger.debug("Set connection pooling = " + enabled);
+        clientBuilder.setConnectionPoolingEnabled(enabled);
+        return this;
+    }
+
+    /**
+     * Assigns the maximum number of pooled connections across all target servers.
+     *
+     * @param maxConnections - The maximum number of connections.
+     *
+     * @return The AAIRESTClient instance. This is useful for chaining parameter assignments.
+     */
+    public RestClient maxConnectionsTotal(int maxConnections) {
+        logger.debug("Set max connections total = " + maxConnections);
+        clientBuilder.setMaxConnectionsTotal(maxConnections);
+        return this;
+    }
 
-        if (operationResult == null) {
-            return true;
-        }
+    /**
+     * Assigns the maximum number of pooled connections to any one target server.
+     *
+     * @param maxConnections - The maximum number of connections per route.
+     *
+     * @return The AAIRESTClient instance. This is useful for chaining parameter assignments.
+     */
+    public RestClient maxConnectionsPerRoute(int maxConnections) {
+        logger.debug("Set max connections per route = " + maxConnections);
+        clientBuilder.setMaxConnectionsPerRoute(maxConnections);
+        return this;
+    }
 
-        int resultCode = operationResult.getResultCode();
+    /**
+     * Assigns the time (in ms) a pooled connection may sit idle before it is closed.
+     *
+     * @param timeout - The idle timeout in milliseconds.
+     *
+     * @return The AAIRESTClient instance. This is useful for chaining parameter assignments.
+     */
+    public RestClient connectionIdleTimeoutMs(int timeout) {
+        logger.debug("Set connection idle timeout = " + timeout + " ms");
+        clientBuilder.setConnectionIdleTimeoutInMs(timeout);
+        return this;
+    }
 
-        if (resultCode == 200) {
-            return false;
+    /**
+     * Assigns the time (in ms) a pooled connection may sit idle before it is checked for staleness on its next use.
+     *
+     * @param inactivity - The period of inactivity in milliseconds.
+     *
+     * @return The AAIRESTClient instance. This is useful for chaining parameter assignments.
+     */
+    public RestClient validateAfterInactivityMs(int inactivity) {
+        logger.debug("Set validate after inactivity = " + inactivity + " ms");
+        clientBuilder.setValidateAfterInactivityInMs(inactivity);
+        return this;
+    }
+
+    /**
+     * Assigns the maximum lifetime (in ms) of a pooled connection.
+     *
+     * @param timeToLive - The connection time to live in milliseconds.
+     *
+     * @return The AAIRESTClient instance. This is useful for chaining parameter assignments.
+     */
+    public RestClient connectionTimeToLiveMs(long timeToLive) {
+        logger.debug("Set connection time to live = " + timeToLive + " ms");
+        clientBuilder.setConnectionTimeToLiveInMs(timeToLive);
+        return this;
+    }
+
+    /**
+     * Returns a snapshot of the leased, available and pending connections in the connection pool.
+     *
+     * @return The pool statistics, or null if connection pooling is disabled or no request has been made yet.
+     */
+    public ConnectionPoolStats getConnectionPoolStats() {
+        RestClientRegistry registry = clientRegistry;
+        String fingerprint = clientFingerprint;
+        if (registry != null && fingerprint != null) {
+            InitializedClient shared = registry.peek(fingerprint);
+            return shared != null ? shared.getConnectionPoolStats() : null;
         }
+        return clientBuilder.getConnectionPoolStats();
+    }
 
-        if (resultCode == 404) {
-            return false;
+    /**
+     * Shares the underlying HTTP client, with its SSL context and connection pool, with every other client of the
+     * registry whose connection settings are the same. The settings are matched when the first request is sent, and
+     * changes to them after that have no effect, as is the case for a client of its own. A client with a custom
+     * transport does not use the registry.
+     *
+     * @param clientRegistry - The registry to share clients through, such as {@link RestClientRegistry#shared()}, or
+     *        null for the client to build its own.
+     *
+     * @return The AAIRESTClient instance. This is useful for chaining parameter assignments.
+     */
+    public RestClient clientRegistry(RestClientRegistry clientRegistry) {
+        logger.debug("Set client registry = " + clientRegistry);
+        this.clientRegistry = clientRegistry;
+        return this;
+    }
+
+    public RestClientRegistry getClientRegistry() {
+        return clientRegistry;
+    }
+
+    /**
+     * Assigns the executor service the client uses for asynchronous work, such as dispatching the requests submitted
+     * through the Jersey reactive invoker by the *Async methods. It is also a convenient executor to hand to those
+     * methods for processing the responses. On the JDK engine, writers feeding {@link RequestBody} payloads run on it
+     * too, each for as long as its request is being sent, so a bounded pool must leave room for them.
+     *
+     * @param executorService - The executor service to use.
+     *
+     * @return The AAIRESTClient instance. This is useful for chaining parameter assignments.
+     */
+    public RestClient executorService(ExecutorService executorService) {
+        logger.debug("Set executor service = " + executorService);
+        clientBuilder.setExecutorService(executorService);
+        return this;
+    }
+
+    /**
+     * Configures the client to run its asynchronous work on a new virtual thread per request. On a JVM without virtual
+     * thread support a cached pool of daemon platform threads is used instead.
+     *
+     * @return The AAIRESTClient instance. This is useful for chaining parameter assignments.
+     *
+     * @see VirtualThreads#newThreadPerTaskExecutor()
+     */
+    public RestClient useVirtualThreads() {
+        return executorService(VirtualThreads.newThreadPerTaskExecutor());
+    }
+
+    /**
+     * Returns the executor service assigned to this client, or null if Jersey's default is in use.
+     */
+    public ExecutorService getExecutorService() {
+        return clientBuilder.getExecutorService();
+    }
+
+    /**
+     * Selects the HTTP stack requests are sent with. The default is the Jersey client; the JDK HTTP client negotiates
+     * HTTP/2 with servers that support it and multiplexes concurrent requests over a single connection.
+     *
+     * @param engine - The transport engine to use.
+     *
+     * @return The AAIRESTClient instance. This is useful for chaining parameter assignments.
+     */
+    public RestClient transportEngine(TransportEngine engine) {
+        logger.debug("Set transport engine = " + engine);
+        clientBuilder.setTransportEngine(engine);
+        return this;
+    }
+
+    /**
+     * Assigns a transport to send requests with in place of the one built from the client settings. The client still
+     * takes care of headers, authentication, retries, logging and building the {@link OperationResult}.
+     *
+     * @param transport - The transport to use.
+     *
+     * @return The AAIRESTClient instance. This is useful for chaining parameter assignments.
+     */
+    public RestClient transport(RestTransport transport) {
+        logger.debug("Set transport = " + transport);
+        this.customTransport = transport;
+        return this;
+    }
+
+    /**
+     * Assigns the size of the buffer through which streamed responses are handed to a {@link ResponseChunkConsumer}.
+     * This bounds the memory used to read each response, however large its body.
+     *
+     * @param bufferSize - The buffer size in bytes.
+     *
+     * @return The AAIRESTClient instance. This is useful for chaining parameter assignments.
+     */
+    public RestClient streamBufferSize(int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Stream buffer size must be positive: " + bufferSize);
         }
+        logger.debug("Set stream buffer size = " + bufferSize);
+        this.streamBufferSize = bufferSize;
+        return this;
+    }
+
+    /**
+     * Selects how the bodies of successful responses are held in the {@link OperationResult}. In
+     * {@link ResponseBodyMode#BYTES} mode the bytes read off the connection are kept as they are, for callers which
+     * parse them directly with {@link OperationResult#getResultBytes()} or {@link OperationResult#getResultBuffer()},
+     * and they are only decoded if {@link OperationResult#getResult()} is called.
+     *
+     * @param mode - The response body mode to use.
+     *
+     * @return The AAIRESTClient instance. This is useful for chaining parameter assignments.
+     */
+    public RestClient responseBodyMode(ResponseBodyMode mode) {
+        logger.debug("Set response body mode = " + mode);
+        this.responseBodyMode = mode;
+        return this;
+    }
+
+    /**
+     * Sets the policy which decides whether failed requests are retried, and how long to wait between attempts. The
+     * policy applies to every verb apart from the streaming ones. Without a policy a request is only retried when the
+     * caller asks for a number of retries.
+     *
+     * @param retryPolicy - The retry policy to use, or null to stop retrying requests.
+     *
+     * @return The AAIRESTClient instance. This is useful for chaining parameter assignments.
+     */
+    public RestClient retryPolicy(RetryPolicy retryPolicy) {
+        logger.debug("Set retry policy = " + retryPolicy);
+        this.retryPolicy = retryPolicy;
+        return this;
+    }
+
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * Sets a budget which limits the retries made to a share of the requests sent. When the budget is exhausted a
+     * failed request is reported straight away rather than retried. A budget may be shared by several clients talking
+     * to the same server.
+     *
+     * @param retryBudget - The retry budget to use, or null to stop limiting retries.
+     *
+     * @return The AAIRESTClient instance. This is useful for chaining parameter assignments.
+     */
+    public RestClient retryBudget(RetryBudget retryBudget) {
+        logger.debug("Set retry budget = " + retryBudget);
+        this.retryBudget = retryBudget;
+        return this;
+    }
+
+    public RetryBudget getRetryBudget() {
+        return retryBudget;
+    }
+
+    /**
+     * Returns a snapshot of the state of the retry budget.
+     *
+     * @return The retry budget statistics, or null if the client has no retry budget.
+     */
+    public RetryBudgetStats getRetryBudgetStats() {
+        RetryBudget budget = retryBudget;
+        return budget != null ? budget.getStats() : null;
+    }
+
+    /**
+     * Sets the circuit breakers consulted before each request is sent, one for each scheme, host and port. While the
+     * breaker for an endpoint is open its requests fail straight away with a 503 result rather than waiting for a
+     * connection or read timeout. Rejected requests are not retried.
+     *
+     * @param circuitBreakers - The circuit breaker registry to use, or null to always send requests.
+     *
+     * @return The AAIRESTClient instance. This is useful for chaining parameter assignments.
+     */
+    public RestClient circuitBreakers(CircuitBreakerRegistry circuitBreakers) {
+        logger.debug("Set circuit breaker config = " + (circuitBreakers != null ? circuitBreakers.getConfig() : null));
+        this.circuitBreakers = circuitBreakers;
+        return this;
+    }
+
+    public CircuitBreakerRegistry getCircuitBreakers() {
+        return circuitBreakers;
+    }
+
+    /**
+     * Sets the limiters which cap the number of requests in flight to each scheme, host and port. The limit for each
+     * endpoint adapts to the latency it shows. Depending on the limiter settings a request over the limit either waits
+     * for another request to finish or fails straight away with a 503 result. Non-blocking requests never wait.
+     *
+     * @param concurrencyLimiters - The concurrency limiter registry to use, or null to stop limiting requests.
+     *
+     * @return The AAIRESTClient instance. This is useful for chaining parameter assignments.
+     */
+    public RestClient concurrencyLimiters(ConcurrencyLimiterRegistry concurrencyLimiters) {
+        logger.debug("Set concurrency limiter config = "
+                + (concurrencyLimiters != null ? concurrencyLimiters.getConfig() : null));
+        this.concurrencyLimiters = concurrencyLimiters;
+        return this;
+    }
+
+    public ConcurrencyLimiterRegistry getConcurrencyLimiters() {
+        return concurrencyLimiters;
+    }
+
+    /**
+     * Sets the cache GET responses are stored in. A stored response is reused without contacting the server while the
+     * max-age of its Cache-Control header allows, and is then revalidated with If-None-Match or If-Modified-Since. A
+     * result answered from the cache has a 200 result code and is marked as coming from the cache. Only responses
+     * which carry an ETag, a Last-Modified date or a max-age are stored, and a successful PUT, POST, PATCH or DELETE
+     * to a URL removes the response stored for it. Caching applies to the blocking and non-blocking request methods.
+     * Streamed GETs bypass the cache, though a successful streamed write still removes the stored response.
+     *
+     * @param responseCache - The cache to use, or null to stop caching responses.
+     *
+     * @return The AAIRESTClient instance. This is useful for chaining parameter assignments.
+     */
+    public RestClient responseCache(ResponseCache responseCache) {
+        logger.debug("Set response cache = " + responseCache);
+        this.responseCache = responseCache;
+        return this;
+    }
+
+    public ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    /**
+     * Sets the metrics the latency of each request sent is recorded in, by verb, endpoint and class of status code.
+     * Each attempt of a retried or hedged request is recorded on its own, while results answered from the response
+     * cache or shared by the request coalescer are not recorded.
+     *
+     * @param metrics - The metrics to record requests in, or null to stop recording them.
+     *
+     * @return The AAIRESTClient instance. This is useful for chaining parameter assignments.
+     */
+    public RestClient requestMetrics(RequestMetrics metrics) {
+        logger.debug("Set request metrics = " + metrics);
+        this.requestMetrics = metrics;
+        return this;
+    }
+
+    public RequestMetrics getRequestMetrics() {
+        return requestMetrics;
+    }
+
+    /**
+     * Sets the coalescer which lets identical GET requests made at the same time share one request to the server.
+     * Callers which join a request in flight get their own copy of its result, marked as coalesced. Conditional GETs
+     * are never shared. Coalescing applies to the blocking GET methods, apart from streamed responses.
+     *
+     * @param coalescer - The coalescer to use, or null to send every request on its own.
+     *
+     * @return The AAIRESTClient instance. This is useful for chaining parameter assignments.
+     */
+    public RestClient requestCoalescer(RequestCoalescer coalescer) {
+        logger.debug("Set request coalescer = " + coalescer);
+        this.requestCoalescer = coalescer;
+        return this;
+    }
+
+    public RequestCoalescer getRequestCoalescer() {
+        return requestCoalescer;
+    }
+
+    /**
+     * Returns a snapshot of the requests shared by the client.
+     *
+     * @return The coalescing statistics, or null if the client does not coalesce requests.
+     */
+    public CoalescingStats getCoalescingStats() {
+        RequestCoalescer coalescer = requestCoalescer;
+        return coalescer != null ? coalescer.getStats() : null;
+    }
+
+    /**
+     * Turns on hedging of GET requests. A GET which has had no response after the hedge delay is sent a second time,
+     * and the first of the two responses which is not a server error is used. The other request is cancelled. The
+     * result says whether the request was hedged and whether the hedge won. Hedging applies to the blocking GET
+     * methods, apart from streamed responses.
+     *
+     * @param config - The hedging settings to use, or null to stop hedging requests.
+     *
+     * @return The AAIRESTClient instance. This is useful for chaining parameter assignments.
+     */
+    public RestClient hedging(HedgingConfig config) {
+        logger.debug("Set hedging config = " + config);
+        this.hedger = config != null ? new RequestHedger(config) : null;
+        return this;
+    }
+
+    public RequestHedger getHedger() {
+        return hedger;
+    }
+
+    /**
+     * Returns a snapshot of the hedging done by the client.
+     *
+     * @return The hedging statistics, or null if the client does not hedge requests.
+     */
+    public HedgingStats getHedgingStats() {
+        RequestHedger requestHedger = hedger;
+        return requestHedger != null ? requestHedger.getStats() : null;
+    }
+
+    /**
+     * Turns on client-side load balancing. A request to a path relative to the service, such as
+     * {@code /aai/v14/network/pnfs}, is sent to one of the endpoints of the config, picked by the power of two
+     * choices. Endpoints which fail or are far slower than the others are ejected for a while. Requests to absolute
+     * URLs are sent as they are. Each attempt of a retried or hedged request picks its own endpoint, while the
+     * response cache and the request coalescer go by the service path.
+     *
+     * @param config - The endpoints and load balancing settings to use, or null to stop load balancing.
+     *
+     * @return The AAIRESTClient instance. This is useful for chaining parameter assignments.
+     */
+    public RestClient loadBalancing(LoadBalancerConfig config) {
+        logger.debug("Set load balancer config = " + config);
+        this.loadBalancer = config != null ? new LoadBalancer(config) : null;
+        return this;
+    }
+
+    public LoadBalancer getLoadBalancer() {
+        return loadBalancer;
+    }
 
-        return true;
+    /**
+     * Returns a snapshot of the load, latency and health of each load balanced endpoint.
+     *
+     * @return The endpoint statistics, or null if the client does not balance requests.
+     */
+    public List<EndpointStats> getEndpointStats() {
+        LoadBalancer balancer = loadBalancer;
+        return balancer != null ? balancer.getStats() : null;
+    }
 
+    /**
+     * Assigns the delay before the underlying client is built again after failing, for example because a key store
+     * could not be read. The delay doubles with each failure in a row, up to the maximum. Requests made in the meantime
+     * fail straight away with the cause of the last failure.
+     *
+     * @param minDelay - The delay after the first failure, in ms.
+     * @param maxDelay - The longest delay, in ms.
+     *
+     * @return The AAIRESTClient instance. This is useful for chaining parameter assignments.
+     */
+    public RestClient initializationRetryDelayMs(long minDelay, long maxDelay) {
+        if (minDelay < 0 || maxDelay < minDelay) {
+            throw new IllegalArgumentException("Retry delays must satisfy 0 <= minDelay <= maxDelay");
+        }
+        logger.debug("Set initialization retry delay = " + minDelay + " to " + maxDelay + " ms");
+        this.initializationRetryMinDelayMs = minDelay;
+        this.initializationRetryMaxDelayMs = maxDelay;
+        return this;
+    }
+
+    /**
+     * Builds the underlying client in the background and opens connections to each of the given URLs, so that the
+     * first requests after start-up do not pay for bootstrapping the client, loading key stores and TLS handshakes.
+     *
+     * <p>Each connection is opened with a HEAD request sent straight to the non-blocking API of the transport, so it is
+     * not retried, cached or counted in the metrics, and any response counts as an open connection whatever its status.
+     * The requests are all sent at once without holding a thread each, only the client is built on the executor of the
+     * client. The responses from a URL are held until all of them have arrived, so that each one is a connection of its
+     * own, and are then closed to return their connections to the pool. The pool keeps them only if it has room for
+     * them: without connection pooling, or with the JDK HTTP client, which multiplexes HTTP/2 requests over one
+     * connection, fewer connections are kept than are opened.
+     *
+     * @param urls - The URLs to connect to, typically one for each host. A service path is warmed up on every load
+     *        balanced endpoint.
+     * @param connectionsPerHost - The number of connections to open to each URL.
+     *
+     * @return A future which completes once every connection has been tried, with the outcome. It does not complete
+     *         exceptionally.
+     */
+    public CompletableFuture<WarmUpResult> warmUp(Collection<String> urls, int connectionsPerHost) {
+        if (connectionsPerHost < 1) {
+            throw new IllegalArgumentException("Connections per host must be at least 1");
+        }
+        List<String> targets = new ArrayList<>();
+        LoadBalancer balancer = loadBalancer;
+        for (String url : urls) {
+            if (balancer != null && LoadBalancer.isServicePath(url)) {
+                for (Endpoint endpoint : balancer.getEndpoints()) {
+                    targets.add(endpoint.resolve(url));
+                }
+            } else {
+                targets.add(url);
+            }
+        }
+        ExecutorService configured = getExecutorService();
+        ExecutorService executor = configured != null ? configured : VirtualThreads.newThreadPerTaskExecutor();
+        long startTimeInMs = System.currentTimeMillis();
+
+        CompletableFuture<WarmUpResult> result = CompletableFuture.supplyAsync(() -> {
+            try {
+                return getTransport();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, executor).thenCompose(transport -> openConnections(transport, targets, connectionsPerHost,
+                startTimeInMs)).exceptionally(error -> new WarmUpResult(unwrap(error), connectionsPerHost,
+                        Collections.emptyMap(), Collections.emptyMap(),
+                        System.currentTimeMillis() - startTimeInMs));
+        if (configured == null) {
+            result.whenComplete((warmUpResult, error) -> executor.shutdown());
+        }
+        return result;
+    }
+
+    /**
+     * Returns true once the underlying client has been built, by {@link #warmUp} or by a request. It never builds the
+     * client itself, so it is cheap enough for a readiness probe.
+     */
+    public boolean isReady() {
+        InitializedClient clientInstance;
+        RestClientRegistry registry = clientRegistry;
+        if (registry != null && customTransport == null) {
+            String fingerprint = clientFingerprint;
+            clientInstance = fingerprint != null ? registry.peek(fingerprint) : null;
+        } else {
+            clientInstance = CLIENT_CACHE.get(REST_CLIENT_INSTANCE);
+        }
+        return clientInstance != null && clientInstance.getCaughtException() == null;
+    }
+
+    /**
+     * This method operates on a REST endpoint by submitting an HTTP operation request against the supplied URL. This
+     * variant of the method will perform a requested number of retries in the event that the first request is
+     * unsuccessful. Whether a result is worth retrying, and the delay before the next attempt, are decided by the
+     * retry policy of the client, or by a default exponential backoff policy if the client has none.
+     *
+     * @param requestType - the REST operation type to send to the url
+     * @param url - The REST endpoint to submit the REST request to.
+     * @param payload - They payload to provide in the REST request, if applicable
+     * @param headers - The headers that should be passed in the request
+     * @param contentType - The content type of the payload
+     * @param responseType - The expected format of the response.
+     * @param numRetries - The maximum number of times to try submitting the request.
+     * 
+     * @return The result of the REST request.
+     */
+    protected OperationResult processRequest(RequestType requestType, String url, String payload,
+            Map<String, List<String>> headers, MediaType contentType, MediaType responseType, int numRetries) {
+        RequestCoalescer coalescer = requestCoalescer;
+        if (coalescer != null && isCoalescable(requestType, headers)) {
+            return coalescer.execute(coalescer.keyFor(requestType, url, responseType, headers),
+                    () -> processUncoalescedRequest(requestType, url, payload, headers, contentType, responseType,
+                            numRetries));
+        }
+        return processUncoalescedRequest(requestType, url, payload, headers, contentType, responseType, numRetries);
+    }
+
+    private OperationResult processUncoalescedRequest(RequestType requestType, String url, String payload,
+            Map<String, List<String>> headers, MediaType contentType, MediaType responseType, int numRetries) {
+        RetryPolicy policy = retryPolicy != null ? retryPolicy : DEFAULT_RETRY_POLICY;
+        ResponseCache cache = responseCache;
+        if (cache != null) {
+            return processCachedRequest(cache, requestType, url, headers, responseType,
+                    requestHeaders -> processRequest(requestType, url, payload, null, requestHeaders, contentType,
+                            responseType, policy, numRetries, true));
+        }
+        return processRequest(requestType, url, payload, null, headers, contentType, responseType, policy,
+                numRetries, true);
+    }
+
+    /**
+     * Submits a request through the request coalescer and the response cache if the client has them, retrying it
+     * according to the retry policy of the client if it has one.
+     */
+    private OperationResult submitRequest(RequestType requestType, String url, String payload, RequestBody body,
+            Map<String, List<String>> headers, MediaType contentType, MediaType responseType) {
+        RequestCoalescer coalescer = requestCoalescer;
+        if (coalescer != null && isCoalescable(requestType, headers)) {
+            return coalescer.execute(coalescer.keyFor(requestType, url, responseType, headers),
+                    () -> submitUncoalescedRequest(requestType, url, payload, body, headers, contentType,
+                            responseType));
+        }
+        return submitUncoalescedRequest(requestType, url, payload, body, headers, contentType, responseType);
+    }
+
+    private OperationResult submitUncoalescedRequest(RequestType requestType, String url, String payload,
+            RequestBody body, Map<String, List<String>> headers, MediaType contentType, MediaType responseType) {
+        ResponseCache cache = responseCache;
+        if (cache != null) {
+            return processCachedRequest(cache, requestType, url, headers, responseType,
+                    requestHeaders -> submitUncachedRequest(requestType, url, payload, body, requestHeaders,
+                            contentType, responseType));
+        }
+        return submitUncachedRequest(requestType, url, payload, body, headers, contentType, responseType);
+    }
+
+    private OperationResult submitUncachedRequest(RequestType requestType, String url, String payload,
+            RequestBody body, Map<String, List<String>> headers, MediaType contentType, MediaType responseType) {
+        RetryPolicy policy = retryPolicy;
+        if (policy == null) {
+            recordFirstAttempt();
+            return processAttempt(requestType, url, payload, body, headers, contentType, responseType);
+        }
+        return processRequest(requestType, url, payload, body, headers, contentType, responseType, policy,
+                Integer.MAX_VALUE, false);
+    }
+
+    /**
+     * Sends a request, retrying it according to the given policy.
+     *
+     * @param maxAttempts - The maximum number of attempts to make.
+     * @param legacyRetries - True if the request was made through one of the overloads taking a number of retries,
+     *        which report a request that never succeeded as a 504 (Gateway Timeout).
+     */
+    private OperationResult processRequest(RequestType requestType, String url, String payload, RequestBody body,
+            Map<String, List<String>> headers, MediaType contentType, MediaType responseType, RetryPolicy policy,
+            int maxAttempts, boolean legacyRetries) {
+
+        OperationResult result = null;
+
+        boolean repeatable = body == null || body.isRepeatable();
+        long previousDelayMs = 0;
+        int attemptNumber = 0;
+
+        long startTimeInMs = System.currentTimeMillis();
+        if (maxAttempts > 0) {
+            recordFirstAttempt();
+        }
+        while (attemptNumber < maxAttempts) {
+            attemptNumber++;
+
+            if (logger.isInfoEnabled()) {
+                logger.info(RestClientMsgs.HTTP_REQUEST_WITH_RETRIES, requestType.toString(), url,
+                        Integer.toString(attemptNumber));
+            }
+
+            // Submit our query to the AAI.
+            result = processAttempt(requestType, url, payload, body, headers, contentType, responseType);
+
+            // If the result is not a transient failure then we're done.
+            RetryAttempt attempt = newRetryAttempt(requestType, url, attemptNumber, startTimeInMs, previousDelayMs,
+                    repeatable, result);
+            if (!policy.isRetryable(attempt)) {
+                return attemptsCompleted(requestType, url, startTimeInMs, attemptNumber, result);
+            }
+
+            long delayMs = attemptNumber < maxAttempts ? policy.getRetryDelay(attempt) : RetryPolicy.NO_RETRY;
+            if (delayMs == RetryPolicy.NO_RETRY) {
+                break;
+            }
+            if (!acquireRetry(requestType, url, attemptNumber)) {
+                return retryBudgetExhausted(result, attemptNumber);
+            }
+
+            logger.info(RestClientMsgs.HTTP_REQUEST_RETRY_SCHEDULED, requestType.toString(), url,
+                    Integer.toString(attemptNumber), Integer.toString(result.getResultCode()), Long.toString(delayMs));
+            try {
+                // Back off between re-tries to be nice to the target system.
+                Thread.sleep(delayMs);
+
+            } catch (InterruptedException e) {
+                logger.error(RestClientMsgs.HTTP_REQUEST_INTERRUPTED, requestType.toString(), url,
+                        e.getLocalizedMessage());
+                Thread.currentThread().interrupt();
+                break;
+            }
+            previousDelayMs = delayMs;
+        }
+
+        // If we've gotten this far, then we failed all of our retries.
+        return attemptsExhausted(requestType, url, startTimeInMs, attemptNumber, result, legacyRetries);
+    }
+
+    private static RetryAttempt newRetryAttempt(RequestType requestType, String url, int attemptNumber,
+            long startTimeInMs, long previousDelayMs, boolean repeatable, OperationResult result) {
+        return new RetryAttempt(requestType, url, attemptNumber, System.currentTimeMillis() - startTimeInMs,
+                previousDelayMs, repeatable, result, result.getFailureException());
+    }
+
+    /**
+     * Reports the result of the last attempt of a request which needs no further attempts.
+     */
+    private static OperationResult attemptsCompleted(RequestType requestType, String url, long startTimeInMs,
+            int attemptNumber, OperationResult result) {
+        if (logger.isInfoEnabled()) {
+            logger.info(RestClientMsgs.HTTP_REQUEST_TIME_WITH_RETRIES, requestType.toString(), url,
+                    Long.toString(System.currentTimeMillis() - startTimeInMs), Integer.toString(attemptNumber - 1));
+        }
+        result.setNumRetries(attemptNumber - 1);
+        return result;
+    }
+
+    /**
+     * Counts the first attempt of a request towards the retry budget, if the client has one.
+     */
+    private void recordFirstAttempt() {
+        RetryBudget budget = retryBudget;
+        if (budget != null) {
+            budget.recordRequest();
+        }
+    }
+
+    /**
+     * Takes a retry from the retry budget, if the client has one.
+     *
+     * @return true if the request may be retried.
+     */
+    private boolean acquireRetry(RequestType requestType, String url, int attemptNumber) {
+        RetryBudget budget = retryBudget;
+        if (budget == null || budget.tryAcquireRetry()) {
+            return true;
+        }
+        logger.warn(RestClientMsgs.HTTP_REQUEST_RETRY_BUDGET_EXHAUSTED, requestType.toString(), url,
+                Integer.toString(attemptNumber));
+        return false;
+    }
+
+    /**
+     * Builds the result reported when a request is not retried because the retry budget is exhausted. The status code
+     * of the last attempt is kept, so the caller still sees the failure reported by the server.
+     *
+     * @param result - The result of the last attempt.
+     * @param attemptNumber - The number of attempts that were made.
+     *
+     * @return The result to hand back to the caller.
+     */
+    private static OperationResult retryBudgetExhausted(OperationResult result, int attemptNumber) {
+        result.setNumRetries(attemptNumber - 1);
+        result.setFailureCause("Retry budget exhausted, not retrying the request to target server after "
+                + attemptNumber + " attempts.");
+        return result;
+    }
+
+    /**
+     * Builds the result reported once the retry policy gives up on a request. A request made through the overloads
+     * taking a number of retries is reported as a 504 (Gateway Timeout), as it always has been. Otherwise the result of
+     * the last attempt is handed back unchanged, so the caller sees the failure reported by the server.
+     */
+    private OperationResult attemptsExhausted(RequestType requestType, String url, long startTimeInMs,
+            int attemptNumber, OperationResult result, boolean legacyRetries) {
+        if (legacyRetries || result == null) {
+            return retriesExhausted(result, attemptNumber);
+        }
+        return attemptsCompleted(requestType, url, startTimeInMs, attemptNumber, result);
+    }
+
+    /**
+     * Builds the result reported once every attempt allowed for a legacy request has been used up.
+     *
+     * @param result - The result of the last attempt, may be null.
+     * @param numRetries - The number of attempts that were made.
+     *
+     * @return The result to hand back to the caller.
+     */
+    private OperationResult retriesExhausted(OperationResult result, int numRetries) {
+        if (result == null) {
+            result = new OperationResult();
+        }
+
+        result.setNumRetries(numRetries);
+        result.setResultCode(504);
+        result.setFailureCause("Failed to get a successful result after multiple retries to target server.");
+
+        return result;
+    }
+
+    /**
+     * Sends a request through the response cache. A GET is answered from a fresh stored response if there is one, and
+     * a stale one is revalidated with a conditional request, a 304 (Not Modified) being answered from the stored
+     * response. Any other request which succeeds removes the response stored for its URL.
+     *
+     * @param sender - Sends the request with the given headers.
+     */
+    private OperationResult processCachedRequest(ResponseCache cache, RequestType requestType, String url,
+            Map<String, List<String>> headers, MediaType responseType,
+            Function<Map<String, List<String>>, OperationResult> sender) {
+        if (requestType != RequestType.GET) {
+            OperationResult result = sender.apply(headers);
+            invalidateCachedResponse(cache, requestType, url, result);
+            return result;
+        }
+        if (isConditional(headers)) {
+            // The caller is revalidating a response of its own
+            return sender.apply(headers);
+        }
+
+        String accept = responseType != null ? responseType.toString() : null;
+        CachedResponse cached = lookUpCachedResponse(cache, url, accept);
+        if (cached != null && cached.isFresh(System.currentTimeMillis())) {
+            cache.recordHit();
+            return cachedResult(cached);
+        }
+        OperationResult result = sender.apply(revalidationHeaders(headers, cached));
+        return storeCachedResponse(cache, url, accept, cached, result);
+    }
+
+    /**
+     * The non-blocking counterpart of {@link #processCachedRequest}.
+     *
+     * @param sender - Sends the request with the given headers without blocking.
+     */
+    private CompletableFuture<OperationResult> processCachedRequestAsync(ResponseCache cache,
+            RequestType requestType, String url, Map<String, List<String>> headers, MediaType responseType,
+            Function<Map<String, List<String>>, CompletableFuture<OperationResult>> sender) {
+        if (requestType != RequestType.GET) {
+            return sender.apply(headers).thenApply(result -> {
+                invalidateCachedResponse(cache, requestType, url, result);
+                return result;
+            });
+        }
+        if (isConditional(headers)) {
+            return sender.apply(headers);
+        }
+
+        String accept = responseType != null ? responseType.toString() : null;
+        CachedResponse cached = lookUpCachedResponse(cache, url, accept);
+        if (cached != null && cached.isFresh(System.currentTimeMillis())) {
+            cache.recordHit();
+            return CompletableFuture.completedFuture(cachedResult(cached));
+        }
+        return sender.apply(revalidationHeaders(headers, cached))
+                .thenApply(result -> storeCachedResponse(cache, url, accept, cached, result));
+    }
+
+    /**
+     * Removes the response stored for the URL of a request, other than a GET or a HEAD, which succeeded.
+     */
+    private static void invalidateCachedResponse(ResponseCache cache, RequestType requestType, String url,
+            OperationResult result) {
+        if (requestType != RequestType.GET && requestType != RequestType.HEAD && result != null
+                && result.wasSuccessful()) {
+            cache.remove(url);
+        }
+    }
+
+    /**
+     * Returns the response stored for a URL if it was stored for the given accepted media type.
+     */
+    private static CachedResponse lookUpCachedResponse(ResponseCache cache, String url, String accept) {
+        CachedResponse cached = cache.get(url);
+        return cached != null && cached.matches(accept) ? cached : null;
+    }
+
+    private static Map<String, List<String>> revalidationHeaders(Map<String, List<String>> headers,
+            CachedResponse cached) {
+        return cached != null && cached.hasValidator() ? conditionalHeaders(headers, cached) : headers;
+    }
+
+    /**
+     * Updates the cache with the response to a GET, answering a 304 (Not Modified) from the stored response.
+     *
+     * @param cached - The stored response which was revalidated, or null.
+     */
+    private static OperationResult storeCachedResponse(ResponseCache cache, String url, String accept,
+            CachedResponse cached, OperationResult result) {
+        long nowMs = System.currentTimeMillis();
+
+        if (cached != null && result.getResultCode() == Response.Status.NOT_MODIFIED.getStatusCode()) {
+            CachedResponse revalidated = cached.revalidated(result.getHeaders(), nowMs);
+            cache.put(url, revalidated);
+            cache.recordRevalidation();
+            OperationResult cachedResult = cachedResult(revalidated);
+            cachedResult.setNumRetries(result.getNumRetries());
+            return cachedResult;
+        }
+
+        cache.recordMiss();
+        if (result.getResultCode() == Response.Status.OK.getStatusCode()) {
+            String body = result.peekResult();
+            CachedResponse response = CachedResponse.of(accept, body, body == null ? result.getResultBytes() : null,
+                    result.getResultCharset(), result.getHeaders(), nowMs);
+            if (response != null) {
+                cache.put(url, response);
+            } else {
+                cache.remove(url);
+            }
+        } else if (result.getResultCode() == Response.Status.NOT_FOUND.getStatusCode()
+                || result.getResultCode() == Response.Status.GONE.getStatusCode()) {
+            cache.remove(url);
+        }
+        return result;
+    }
+
+    private static boolean isCoalescable(RequestType requestType, Map<String, List<String>> headers) {
+        return requestType == RequestType.GET && !isConditional(headers);
+    }
+
+    private static boolean isConditional(Map<String, List<String>> headers) {
+        if (headers != null) {
+            for (String name : headers.keySet()) {
+                if (Headers.IF_NONE_MATCH.equalsIgnoreCase(name) || Headers.IF_MODIFIED_SINCE.equalsIgnoreCase(name)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static Map<String, List<String>> conditionalHeaders(Map<String, List<String>> headers,
+            CachedResponse cached) {
+        Map<String, List<String>> conditional = headers != null ? new HashMap<>(headers) : new HashMap<>();
+        if (cached.getEtag() != null) {
+            conditional.put(Headers.IF_NONE_MATCH, Collections.singletonList(cached.getEtag()));
+        }
+        if (cached.getLastModified() != null) {
+            conditional.put(Headers.IF_MODIFIED_SINCE, Collections.singletonList(cached.getLastModified()));
+        }
+        return conditional;
+    }
+
+    /**
+     * Builds a result from a stored response. Each result gets its own copy of the headers, while the body is shared.
+     */
+    private static OperationResult cachedResult(CachedResponse cached) {
+        OperationResult result = new OperationResult();
+        result.setResultCode(Response.Status.OK.getStatusCode());
+        if (cached.getResultBytes() != null) {
+            result.setResult(cached.getResultBytes(), cached.getCharset());
+        } else {
+            result.setResult(cached.getResult());
+        }
+        result.setHeaders(cached.getHeaders());
+        result.setFromCache(true);
+        return result;
+    }
+
+    /**
+     * Makes a single attempt at a request, hedging it if it is a GET and the client hedges requests.
+     */
+    private OperationResult processAttempt(RequestType requestType, String url, String payload, RequestBody body,
+            Map<String, List<String>> headers, MediaType contentType, MediaType responseType) {
+        RequestHedger requestHedger = hedger;
+        if (requestHedger != null && requestType == RequestType.GET) {
+            return processHedgedRequest(requestHedger, url, headers, responseType);
+        }
+        return processRequest(requestType, url, payload, body, headers, contentType, responseType);
+    }
+
+    /**
+     * Sends a GET request and, if it has had no response after the hedge delay and the hedge budget allows, sends it
+     * again. The first response which is not a server error or a failure to get a response is used, and the other
+     * request is cancelled.
+     */
+    private OperationResult processHedgedRequest(RequestHedger requestHedger, String url,
+            Map<String, List<String>> headers, MediaType responseType) {
+        requestHedger.recordRequest();
+        long hedgeDelayNanos = requestHedger.getHedgeDelayNanos();
+
+        AtomicReference<CompletableFuture<TransportResponse>> primarySent = new AtomicReference<>();
+        AtomicReference<CompletableFuture<TransportResponse>> hedgeSent = new AtomicReference<>();
+        CompletableFuture<OperationResult> primary = sendHedgedAttempt(requestHedger, url, headers, responseType,
+                true, primarySent);
+        try {
+            try {
+                return primary.get(hedgeDelayNanos, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                // No response in time, so hedge the request if the budget allows
+            }
+            if (!requestHedger.tryAcquireHedge()) {
+                return primary.get();
+            }
+
+            logger.info(RestClientMsgs.HTTP_REQUEST_HEDGED, RequestType.GET.name(), url,
+                    Long.toString(TimeUnit.NANOSECONDS.toMillis(hedgeDelayNanos)));
+            CompletableFuture<OperationResult> hedge = sendHedgedAttempt(requestHedger, url, headers, responseType,
+                    false, hedgeSent);
+
+            OperationResult result = firstUsable(primary, hedge).get();
+            // The hedge may have failed, such as when its response could not be handed to the executor, and so must
+            // not be joined
+            boolean hedgeWon = !hedge.isCompletedExceptionally() && hedge.getNow(null) == result;
+            cancel(hedgeWon ? primarySent : hedgeSent);
+            if (hedgeWon) {
+                requestHedger.recordHedgeWon();
+            }
+            result.setHedged(true);
+            result.setHedgeWon(hedgeWon);
+            return result;
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel(primarySent);
+            cancel(hedgeSent);
+            OperationResult result = new OperationResult();
+            handleRequestError(RequestType.GET.name(), url, e, result);
+            return result;
+        } catch (ExecutionException e) {
+            OperationResult result = new OperationResult();
+            handleRequestError(RequestType.GET.name(), url, unwrap(e.getCause()), result);
+            return result;
+        }
+    }
+
+    /**
+     * Sends one copy of a hedged request, recording how long it takes to get a response. The response is processed on
+     * the client's executor rather than on the transport's I/O thread.
+     *
+     * @param waitForPermit - Whether the calling thread waits for a concurrency limiter permit, as it would for a
+     *        request which is not hedged. The hedge itself is optional, so it is not sent if no permit is free.
+     */
+    private CompletableFuture<OperationResult> sendHedgedAttempt(RequestHedger requestHedger, String url,
+            Map<String, List<String>> headers, MediaType responseType, boolean waitForPermit,
+            AtomicReference<CompletableFuture<TransportResponse>> sent) {
+        long startTimeInNanos = System.nanoTime();
+        CompletableFuture<OperationResult> attempt = sendRequestAsync(RequestType.GET, url, null, headers, null,
+                responseType, responseExecutor(), waitForPermit, sent);
+        attempt.thenAccept(result -> {
+            if (result.getFailureException() == null) {
+                requestHedger.recordLatency(System.nanoTime() - startTimeInNanos);
+            }
+        });
+        return attempt;
+    }
+
+    /**
+     * Returns a future which completes with the first of the two results which is not a server error or a failure to
+     * get a response, or with the last result if neither is usable.
+     */
+    private static CompletableFuture<OperationResult> firstUsable(CompletableFuture<OperationResult> primary,
+            CompletableFuture<OperationResult> hedge) {
+        CompletableFuture<OperationResult> first = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(2);
+        BiConsumer<OperationResult, Throwable> onResult = (result, error) -> {
+            boolean usable = result != null && result.getFailureException() == null && result.getResultCode() < 500;
+            if (usable || pending.decrementAndGet() == 0) {
+                if (result != null) {
+                    first.complete(result);
+                } else {
+                    first.completeExceptionally(error);
+                }
+            }
+        };
+        primary.whenComplete(onResult);
+        hedge.whenComplete(onResult);
+        return first;
+    }
+
+    /**
+     * Returns the executor on which the responses to hedged requests are processed.
+     */
+    private Executor responseExecutor() {
+        ExecutorService configured = getExecutorService();
+        return configured != null ? configured : ForkJoinPool.commonPool();
+    }
+
+    private static void cancel(AtomicReference<CompletableFuture<TransportResponse>> sent) {
+        CompletableFuture<TransportResponse> future = sent.get();
+        if (future != null) {
+            future.cancel(true);
+        }
+    }
+
+    /**
+     * This method operates on a REST endpoint by submitting an HTTP operation request against the supplied URL.
+     *
+     * @param requestType - the REST operation type to send to the url
+     * @param url - The REST endpoint to submit the REST request to.
+     * @param payload - They payload to provide in the REST request, if applicable
+     * @param headers - The headers that should be passed in the request
+     * @param contentType - The content type of the payload
+     * @param responseType - The expected format of the response.
+     *
+     * @return The result of the REST request.
+     */
+    protected OperationResult processRequest(RequestType requestType, String url, String payload,
+            Map<String, List<String>> headers, MediaType contentType, MediaType responseType) {
+        return processRequest(requestType, url, payload, null, headers, contentType, responseType);
+    }
+
+    /**
+     * This method operates on a REST endpoint by submitting an HTTP operation request against the supplied URL, with a
+     * payload which is either a String or streamed from a {@link RequestBody}.
+     *
+     * @param requestType - the REST operation type to send to the url
+     * @param url - The REST endpoint to submit the REST request to.
+     * @param payload - They payload to provide in the REST request, if applicable
+     * @param body - The streamed payload to provide in the REST request, if applicable
+     * @param headers - The headers that should be passed in the request
+     * @param contentType - The content type of the payload
+     * @param responseType - The expected format of the response.
+     *
+     * @return The result of the REST request.
+     */
+    protected OperationResult processRequest(RequestType requestType, String url, String payload, RequestBody body,
+            Map<String, List<String>> headers, MediaType contentType, MediaType responseType) {
+        LoadBalancer balancer = loadBalancer;
+        if (balancer == null || !LoadBalancer.isServicePath(url)) {
+            return sendRequest(requestType, url, payload, body, headers, contentType, responseType);
+        }
+        Endpoint endpoint = balancer.select();
+        long startTimeInNanos = System.nanoTime();
+        OperationResult operationResult = null;
+        try {
+            operationResult = sendRequest(requestType, endpoint.resolve(url), payload, body, headers, contentType,
+                    responseType);
+        } finally {
+            releaseEndpoint(balancer, endpoint, startTimeInNanos, operationResult);
+        }
+        return operationResult;
+    }
+
+    private OperationResult sendRequest(RequestType requestType, String url, String payload, RequestBody body,
+            Map<String, List<String>> headers, MediaType contentType, MediaType responseType) {
+
+        OperationResult operationResult = new OperationResult();
+
+        // Fail fast if the endpoint is known to be down.
+        CircuitBreaker circuitBreaker = circuitBreakerFor(url);
+        if (circuitBreaker != null && !circuitBreaker.tryAcquirePermission()) {
+            return rejectRequest(circuitBreaker.getOpenException(), operationResult);
+        }
+        AdaptiveConcurrencyLimiter limiter = concurrencyLimiterFor(url);
+        if (limiter != null && !limiter.tryAcquire()) {
+            return rejectRequest(limiter, circuitBreaker, operationResult);
+        }
+        long startTimeInNanos = System.nanoTime();
+
+        // Grab the current time so that we can log how long the
+        // query took once we are done.
+        long startTimeInMs = System.currentTimeMillis();
+
+        if (logger.isInfoEnabled()) {
+            logger.info(RestClientMsgs.HTTP_REQUEST, requestType.name(), url);
+        }
+
+        TransportResponse clientResponse = null;
+        try {
+
+            // Get a REST transport instance for our request.
+            RestTransport transport = getTransport();
+
+            // Debug log the request
+            debugRequest(url, body != null ? body.toString() : payload, headers, responseType);
+
+            // Submit our request.
+            clientResponse = transport.execute(
+                    newTransportRequest(requestType, url, payload, body, headers, contentType, responseType));
+
+            populateOperationResult(clientResponse, operationResult);
+
+            // Debug log the response
+            if (clientResponse != null) {
+                debugResponse(operationResult, operationResult.getHeaders());
+            }
+
+        } catch (Exception ex) {
+
+            handleRequestError(requestType.name(), url, ex, operationResult);
+
+        } finally {
+
+            closeQuietly(clientResponse);
+
+            recordOutcome(circuitBreaker, startTimeInMs, operationResult);
+            releasePermit(limiter, startTimeInNanos, operationResult);
+            recordMetrics(requestType, url, startTimeInNanos, operationResult);
+            logRequestMetrics(requestType.name(), url, startTimeInMs, operationResult);
+        }
+
+        return operationResult;
+    }
+
+    /**
+     * This method operates on a REST endpoint by submitting an HTTP operation request against the supplied URL, and
+     * leaves the body of a successful response on the connection for the caller to stream.
+     *
+     * @param requestType - the REST operation type to send to the url
+     * @param url - The REST endpoint to submit the REST request to.
+     * @param payload - They payload to provide in the REST request, if applicable
+     * @param headers - The headers that should be passed in the request
+     * @param contentType - The content type of the payload
+     * @param responseType - The expected format of the response.
+     *
+     * @return The result of the REST request, which must be closed by the caller.
+     */
+    protected StreamingOperationResult processStreamingRequest(RequestType requestType, String url, String payload,
+            Map<String, List<String>> headers, MediaType contentType, MediaType responseType) {
+        StreamingOperationResult operationResult =
+                processBalancedStreamingRequest(requestType, url, payload, headers, contentType, responseType);
+        // A streamed GET is never served from or stored in the cache, but a change still removes the stored response
+        ResponseCache cache = responseCache;
+        if (cache != null) {
+            invalidateCachedResponse(cache, requestType, url, operationResult);
+        }
+        return operationResult;
+    }
+
+    private StreamingOperationResult processBalancedStreamingRequest(RequestType requestType, String url,
+            String payload, Map<String, List<String>> headers, MediaType contentType, MediaType responseType) {
+        LoadBalancer balancer = loadBalancer;
+        if (balancer == null || !LoadBalancer.isServicePath(url)) {
+            return sendStreamingRequest(requestType, url, payload, headers, contentType, responseType);
+        }
+        // The latency recorded for the endpoint is the time until the response headers arrived.
+        Endpoint endpoint = balancer.select();
+        long startTimeInNanos = System.nanoTime();
+        StreamingOperationResult operationResult = null;
+        try {
+            operationResult = sendStreamingRequest(requestType, endpoint.resolve(url), payload, headers, contentType,
+                    responseType);
+        } finally {
+            releaseEndpoint(balancer, endpoint, startTimeInNanos, operationResult);
+        }
+        return operationResult;
+    }
+
+    private StreamingOperationResult sendStreamingRequest(RequestType requestType, String url, String payload,
+            Map<String, List<String>> headers, MediaType contentType, MediaType responseType) {
+
+        StreamingOperationResult operationResult = new StreamingOperationResult();
+
+        CircuitBreaker circuitBreaker = circuitBreakerFor(url);
+        if (circuitBreaker != null && !circuitBreaker.tryAcquirePermission()) {
+            rejectRequest(circuitBreaker.getOpenException(), operationResult);
+            return operationResult;
+        }
+        AdaptiveConcurrencyLimiter limiter = concurrencyLimiterFor(url);
+        if (limiter != null && !limiter.tryAcquire()) {
+            rejectRequest(limiter, circuitBreaker, operationResult);
+            return operationResult;
+        }
+        long startTimeInNanos = System.nanoTime();
+
+        long startTimeInMs = System.currentTimeMillis();
+
+        if (logger.isInfoEnabled()) {
+            logger.info(RestClientMsgs.HTTP_REQUEST, requestType.name(), url);
+        }
+
+        TransportResponse clientResponse = null;
+        try {
+
+            RestTransport transport = getTransport();
+
+            debugRequest(url, payload, headers, responseType);
+
+            clientResponse = transport.execute(
+                    newTransportRequest(requestType, url, payload, null, headers, contentType, responseType));
+
+            if (clientResponse == null) {
+                populateOperationResult(null, operationResult);
+            } else {
+                int statusCode = clientResponse.getStatus();
+                operationResult.setResultCode(statusCode);
+                operationResult.setHeaders(clientResponse.getHeaders());
+
+                if (!operationResult.wasSuccessful()) {
+                    operationResult.setFailureCause(clientResponse.readEntity());
+                } else if (statusCode != Response.Status.NO_CONTENT.getStatusCode()) {
+                    // The result takes over the response, so it must not be closed here.
+                    operationResult.setResponse(clientResponse, clientResponse.getEntityStream());
+                    clientResponse = null;
+                }
+
+                debugResponse(operationResult, operationResult.getHeaders());
+            }
+
+        } catch (Exception ex) {
+
+            handleRequestError(requestType.name(), url, ex, operationResult);
+
+        } finally {
+
+            closeQuietly(clientResponse);
+
+            // The time logged is the time until the response headers arrived, the body is yet to be read.
+            recordOutcome(circuitBreaker, startTimeInMs, operationResult);
+            releasePermit(limiter, startTimeInNanos, operationResult);
+            recordMetrics(requestType, url, startTimeInNanos, operationResult);
+            logRequestMetrics(requestType.name(), url, startTimeInMs, operationResult);
+        }
+
+        return operationResult;
+    }
+
+    /**
+     * This method operates on a REST endpoint by submitting an HTTP operation request against the supplied URL, and
+     * hands the body of a successful response to the supplied consumer in chunks no larger than the stream buffer size.
+     * The connection is released before the method returns.
+     *
+     * @param requestType - the REST operation type to send to the url
+     * @param url - The REST endpoint to submit the REST request to.
+     * @param payload - They payload to provide in the REST request, if applicable
+     * @param headers - The headers that should be passed in the request
+     * @param contentType - The content type of the payload
+     * @param responseType - The expected format of the response.
+     * @param consumer - The consumer of the response body.
+     *
+     * @return The result of the REST request.
+     */
+    protected OperationResult processRequest(RequestType requestType, String url, String payload,
+            Map<String, List<String>> headers, MediaType contentType, MediaType responseType,
+            ResponseChunkConsumer consumer) {
+
+        StreamingOperationResult operationResult =
+                processStreamingRequest(requestType, url, payload, headers, contentType, responseType);
+
+        try (InputStream body = operationResult.getInputStream()) {
+            byte[] buffer = new byte[streamBufferSize];
+            int length;
+            while ((length = body.read(buffer)) != -1) {
+                consumer.accept(buffer, length);
+            }
+        } catch (IOException ex) {
+            logger.error(RestClientMsgs.HTTP_REQUEST_ERROR, requestType.name(), url, ex.getLocalizedMessage());
+            operationResult.setResultCode(500);
+            operationResult
+                    .setFailureCause("Error reading response from AAI with message = " + ex.getLocalizedMessage());
+        } finally {
+            closeQuietly(operationResult);
+        }
+
+        return operationResult;
+    }
+
+    /**
+     * This method operates on a REST endpoint by submitting an HTTP operation request against the supplied URL without
+     * blocking the calling thread. This variant of the method will perform a requested number of retries in the event
+     * that the first request is unsuccessful, following the retry policy of the client or a default exponential
+     * backoff policy if the client has none. The delay between attempts is scheduled rather than slept, so no thread
+     * is held while waiting to retry.
+     *
+     * @param requestType - the REST operation type to send to the url
+     * @param url - The REST endpoint to submit the REST request to.
+     * @param payload - They payload to provide in the REST request, if applicable
+     * @param headers - The headers that should be passed in the request
+     * @param contentType - The content type of the payload
+     * @param responseType - The expected format of the response.
+     * @param numRetries - The maximum number of times to try submitting the request.
+     * @param executor - The executor on which responses are processed.
+     *
+     * @return A future which completes with the result of the REST request.
+     */
+    protected CompletableFuture<OperationResult> processRequestAsync(RequestType requestType, String url,
+            String payload, Map<String, List<String>> headers, MediaType contentType, MediaType responseType,
+            int numRetries, Executor executor) {
+        RetryPolicy policy = retryPolicy != null ? retryPolicy : DEFAULT_RETRY_POLICY;
+        ResponseCache cache = responseCache;
+        if (cache != null) {
+            return processCachedRequestAsync(cache, requestType, url, headers, responseType,
+                    requestHeaders -> processRequestAsync(requestType, url, payload, requestHeaders, contentType,
+                            responseType, policy, numRetries, true, executor));
+        }
+        return processRequestAsync(requestType, url, payload, headers, contentType, responseType, policy, numRetries,
+                true, executor);
+    }
+
+    /**
+     * Submits a request without blocking through the response cache if the client has one, retrying it according to
+     * the retry policy of the client if it has one.
+     */
+    private CompletableFuture<OperationResult> submitRequestAsync(RequestType requestType, String url,
+            String payload, Map<String, List<String>> headers, MediaType contentType, MediaType responseType,
+            Executor executor) {
+        ResponseCache cache = responseCache;
+        if (cache != null) {
+            return processCachedRequestAsync(cache, requestType, url, headers, responseType,
+                    requestHeaders -> submitUncachedRequestAsync(requestType, url, payload, requestHeaders,
+                            contentType, responseType, executor));
+        }
+        return submitUncachedRequestAsync(requestType, url, payload, headers, contentType, responseType, executor);
+    }
+
+    private CompletableFuture<OperationResult> submitUncachedRequestAsync(RequestType requestType, String url,
+            String payload, Map<String, List<String>> headers, MediaType contentType, MediaType responseType,
+            Executor executor) {
+        RetryPolicy policy = retryPolicy;
+        if (policy == null) {
+            recordFirstAttempt();
+            return processRequestAsync(requestType, url, payload, headers, contentType, responseType, executor);
+        }
+        return processRequestAsync(requestType, url, payload, headers, contentType, responseType, policy,
+                Integer.MAX_VALUE, false, executor);
+    }
+
+    private CompletableFuture<OperationResult> processRequestAsync(RequestType requestType, String url,
+            String payload, Map<String, List<String>> headers, MediaType contentType, MediaType responseType,
+            RetryPolicy policy, int maxAttempts, boolean legacyRetries, Executor executor) {
+
+        CompletableFuture<OperationResult> future = new CompletableFuture<>();
+        if (maxAttempts < 1) {
+            future.complete(retriesExhausted(null, 0));
+            return future;
+        }
+        recordFirstAttempt();
+        submitAsyncAttempt(requestType, url, payload, headers, contentType, responseType, policy, 1, maxAttempts,
+                legacyRetries, 0, System.currentTimeMillis(), executor, future);
+        return future;
+    }
+
+    private void submitAsyncAttempt(RequestType requestType, String url, String payload,
+            Map<String, List<String>> headers, MediaType contentType, MediaType responseType, RetryPolicy policy,
+            int attemptNumber, int maxAttempts, boolean legacyRetries, long previousDelayMs, long startTimeInMs,
+            Executor executor, CompletableFuture<OperationResult> future) {
+
+        if (logger.isInfoEnabled()) {
+            logger.info(RestClientMsgs.HTTP_REQUEST_WITH_RETRIES, requestType.toString(), url,
+                    Integer.toString(attemptNumber));
+        }
+
+        processRequestAsync(requestType, url, payload, headers, contentType, responseType, executor)
+                .whenComplete((result, error) -> {
+                    try {
+                        OperationResult attemptResult = result;
+                        if (error != null) {
+                            attemptResult = new OperationResult();
+                            handleRequestError(requestType.name(), url, unwrap(error), attemptResult);
+                        }
+
+                        RetryAttempt attempt = newRetryAttempt(requestType, url, attemptNumber, startTimeInMs,
+                                previousDelayMs, true, attemptResult);
+                        if (!policy.isRetryable(attempt)) {
+                            future.complete(
+                                    attemptsCompleted(requestType, url, startTimeInMs, attemptNumber, attemptResult));
+                            return;
+                        }
+
+                        long delayMs =
+                                attemptNumber < maxAttempts ? policy.getRetryDelay(attempt) : RetryPolicy.NO_RETRY;
+                        if (delayMs == RetryPolicy.NO_RETRY) {
+                            future.complete(attemptsExhausted(requestType, url, startTimeInMs, attemptNumber,
+                                    attemptResult, legacyRetries));
+                            return;
+                        }
+                        if (!acquireRetry(requestType, url, attemptNumber)) {
+                            future.complete(retryBudgetExhausted(attemptResult, attemptNumber));
+                            return;
+                        }
+
+                        logger.info(RestClientMsgs.HTTP_REQUEST_RETRY_SCHEDULED, requestType.toString(), url,
+                                Integer.toString(attemptNumber), Integer.toString(attemptResult.getResultCode()),
+                                Long.toString(delayMs));
+
+                        // Be nice to the target system, but don't hold a thread while we wait.
+                        CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS, executor)
+                                .execute(() -> submitAsyncAttempt(requestType, url, payload, headers, contentType,
+                                        responseType, policy, attemptNumber + 1, maxAttempts, legacyRetries,
+                                        delayMs, startTimeInMs, executor, future));
+                    } catch (RuntimeException e) {
+                        future.completeExceptionally(e);
+                    }
+                });
+    }
+
+    /**
+     * This method operates on a REST endpoint by submitting an HTTP operation request against the supplied URL without
+     * blocking the calling thread. The request is dispatched through the non-blocking API of the transport and the
+     * response is read, logged and converted to an {@link OperationResult} on the supplied executor.
+     *
+     * @param requestType - the REST operation type to send to the url
+     * @param url - The REST endpoint to submit the REST request to.
+     * @param payload - They payload to provide in the REST request, if applicable
+     * @param headers - The headers that should be passed in the request
+     * @param contentType - The content type of the payload
+     * @param responseType - The expected format of the response.
+     * @param executor - The executor on which the response is processed.
+     *
+     * @return A future which completes with the result of the REST request. The future never completes exceptionally,
+     *         errors are reported through the failure cause of the result as they are for synchronous requests.
+     */
+    protected CompletableFuture<OperationResult> processRequestAsync(RequestType requestType, String url,
+            String payload, Map<String, List<String>> headers, MediaType contentType, MediaType responseType,
+            Executor executor) {
+        return sendRequestAsync(requestType, url, payload, headers, contentType, responseType, executor, false, null);
+    }
+
+    /**
+     * Submits a request, handing the future of the transport to the given holder so that the request can be
+     * cancelled. The calling thread is only blocked if it is allowed to wait for a concurrency limiter permit.
+     */
+    private CompletableFuture<OperationResult> sendRequestAsync(RequestType requestType, String url, String payload,
+            Map<String, List<String>> headers, MediaType contentType, MediaType responseType, Executor executor,
+            boolean waitForPermit, AtomicReference<CompletableFuture<TransportResponse>> sent) {
+        LoadBalancer balancer = loadBalancer;
+        if (balancer == null || !LoadBalancer.isServicePath(url)) {
+            return sendToEndpointAsync(requestType, url, payload, headers, contentType, responseType, executor,
+                    waitForPermit, sent);
+        }
+        Endpoint endpoint = balancer.select();
+        long startTimeInNanos = System.nanoTime();
+        CompletableFuture<OperationResult> future;
+        try {
+            future = sendToEndpointAsync(requestType, endpoint.resolve(url), payload, headers, contentType,
+                    responseType, executor, waitForPermit, sent);
+        } catch (RuntimeException e) {
+            balancer.releaseUnused(endpoint);
+            throw e;
+        }
+        return future.whenComplete(
+                (operationResult, error) -> releaseEndpoint(balancer, endpoint, startTimeInNanos, operationResult));
+    }
+
+    private CompletableFuture<OperationResult> sendToEndpointAsync(RequestType requestType, String url,
+            String payload, Map<String, List<String>> headers, MediaType contentType, MediaType responseType,
+            Executor executor, boolean waitForPermit, AtomicReference<CompletableFuture<TransportResponse>> sent) {
+
+        CircuitBreaker circuitBreaker = circuitBreakerFor(url);
+        if (circuitBreaker != null && !circuitBreaker.tryAcquirePermission()) {
+            return CompletableFuture
+                    .completedFuture(rejectRequest(circuitBreaker.getOpenException(), new OperationResult()));
+        }
+        // Unless the caller is prepared to block, as it is for a synchronous request, a request over the limit is
+        // rejected straight away.
+        AdaptiveConcurrencyLimiter limiter = concurrencyLimiterFor(url);
+        if (limiter != null && !(waitForPermit ? limiter.tryAcquire() : limiter.tryAcquire(0))) {
+            return CompletableFuture.completedFuture(rejectRequest(limiter, circuitBreaker, new OperationResult()));
+        }
+        long startTimeInNanos = System.nanoTime();
+
+        long startTimeInMs = System.currentTimeMillis();
+
+        if (logger.isInfoEnabled()) {
+            logger.info(RestClientMsgs.HTTP_REQUEST, requestType.name(), url);
+        }
+
+        // The response is handled on another thread, so carry the caller's logging context across with it.
+        Map<String, String> mdcContext = MDC.getCopyOfContextMap();
+
+        CompletionStage<TransportResponse> responseStage;
+        try {
+            RestTransport transport = getTransport();
+            debugRequest(url, payload, headers, responseType);
+            responseStage = transport.executeAsync(
+                    newTransportRequest(requestType, url, payload, null, headers, contentType, responseType));
+        } catch (Exception ex) {
+            CompletableFuture<TransportResponse> failed = new CompletableFuture<>();
+            failed.completeExceptionally(ex);
+            responseStage = failed;
+        }
+        if (sent != null) {
+            sent.set(responseStage.toCompletableFuture());
+        }
+
+        return responseStage.handleAsync((clientResponse, error) -> {
+            if (error instanceof CancellationException) {
+                return abandonRequest(limiter, circuitBreaker, (CancellationException) error);
+            }
+            Map<String, String> callerContext = MDC.getCopyOfContextMap();
+            setMdcContext(mdcContext);
+
+            OperationResult operationResult = new OperationResult();
+            try {
+                if (error != null) {
+                    throw unwrap(error);
+                }
+
+                populateOperationResult(clientResponse, operationResult);
+
+                if (clientResponse != null) {
+                    debugResponse(operationResult, operationResult.getHeaders());
+                }
+
+            } catch (Exception ex) {
+                handleRequestError(requestType.name(), url, ex, operationResult);
+            } finally {
+                closeQuietly(clientResponse);
+                recordOutcome(circuitBreaker, startTimeInMs, operationResult);
+                releasePermit(limiter, startTimeInNanos, operationResult);
+                recordMetrics(requestType, url, startTimeInNanos, operationResult);
+                logRequestMetrics(requestType.name(), url, startTimeInMs, operationResult);
+                setMdcContext(callerContext);
+            }
+
+            return operationResult;
+        }, executor).toCompletableFuture();
+    }
+
+    /**
+     * Formats a request start time for logging. Safe to call from any number of threads concurrently.
+     */
+    static String formatTimestamp(long epochMillis) {
+        return TIMESTAMP_FORMATTER.format(Instant.ofEpochMilli(epochMillis));
+    }
+
+    private static Exception unwrap(Throwable error) {
+        Throwable cause = error;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause instanceof Exception ? (Exception) cause : new CompletionException(cause);
+    }
+
+    private CompletableFuture<WarmUpResult> openConnections(RestTransport transport, List<String> urls,
+            int connectionsPerHost, long startTimeInMs) {
+        Map<String, AtomicInteger> opened = new LinkedHashMap<>();
+        Map<String, String> failures = new ConcurrentHashMap<>();
+        List<CompletableFuture<Void>> connections = new ArrayList<>();
+        for (String url : urls) {
+            AtomicInteger openedToUrl = new AtomicInteger();
+            opened.put(url, openedToUrl);
+            List<CompletableFuture<TransportResponse>> responses = new ArrayList<>();
+            for (int i = 0; i < connectionsPerHost; i++) {
+                responses.add(openConnection(transport, url));
+            }
+            connections.add(CompletableFuture.allOf(responses.toArray(new CompletableFuture<?>[0]))
+                    .handle((ignored, error) -> {
+                        // Every connection to the URL is open, or has failed, so they can all go back to the pool
+                        for (CompletableFuture<TransportResponse> response : responses) {
+                            try {
+                                closeQuietly(response.join());
+                                openedToUrl.incrementAndGet();
+                            } catch (CompletionException | CancellationException e) {
+                                failures.putIfAbsent(url, String.valueOf(unwrap(e).getLocalizedMessage()));
+                            }
+                        }
+                        return null;
+                    }));
+        }
+
+        return CompletableFuture.allOf(connections.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            long elapsedTimeInMs = System.currentTimeMillis() - startTimeInMs;
+            Map<String, Integer> openedCounts = new LinkedHashMap<>();
+            for (Entry<String, AtomicInteger> entry : opened.entrySet()) {
+                openedCounts.put(entry.getKey(), entry.getValue().get());
+                logger.info(RestClientMsgs.WARM_UP_COMPLETE, String.valueOf(entry.getValue().get()),
+                        String.valueOf(connectionsPerHost), entry.getKey(), String.valueOf(elapsedTimeInMs));
+            }
+            return new WarmUpResult(null, connectionsPerHost, openedCounts, failures, elapsedTimeInMs);
+        });
+    }
+
+    private CompletableFuture<TransportResponse> openConnection(RestTransport transport, String url) {
+        try {
+            return transport.executeAsync(newTransportRequest(RequestType.HEAD, url, null, null,
+                    Collections.emptyMap(), null, MediaType.WILDCARD_TYPE)).toCompletableFuture();
+        } catch (RuntimeException e) {
+            CompletableFuture<TransportResponse> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
+    private static void closeQuietly(AutoCloseable response) {
+        if (response == null) {
+            return;
+        }
+        try {
+            response.close();
+        } catch (Exception e) {
+            logger.debug("Failed to close response: " + e.getLocalizedMessage());
+        }
+    }
+
+    private static void setMdcContext(Map<String, String> context) {
+        if (context == null) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(context);
+        }
+    }
+
+    private CircuitBreaker circuitBreakerFor(String url) {
+        CircuitBreakerRegistry registry = circuitBreakers;
+        return registry != null ? registry.forUrl(url) : null;
+    }
+
+    private AdaptiveConcurrencyLimiter concurrencyLimiterFor(String url) {
+        ConcurrencyLimiterRegistry registry = concurrencyLimiters;
+        return registry != null ? registry.forUrl(url) : null;
+    }
+
+    /**
+     * Fills in the result of a request which the concurrency limiter for its endpoint would not let through, handing
+     * back the permission the circuit breaker gave it.
+     */
+    private static OperationResult rejectRequest(AdaptiveConcurrencyLimiter limiter, CircuitBreaker circuitBreaker,
+            OperationResult operationResult) {
+        if (circuitBreaker != null) {
+            circuitBreaker.releasePermission();
+        }
+        return rejectRequest(limiter.getRejection(), operationResult);
+    }
+
+    /**
+     * Builds the result of a request which was cancelled before its response arrived. The permits it held are handed
+     * back without counting the request for or against the endpoint, as its outcome is unknown.
+     */
+    private static OperationResult abandonRequest(AdaptiveConcurrencyLimiter limiter, CircuitBreaker circuitBreaker,
+            CancellationException cancellation) {
+        if (limiter != null) {
+            limiter.releaseUnused();
+        }
+        if (circuitBreaker != null) {
+            circuitBreaker.releasePermission();
+        }
+        OperationResult operationResult = new OperationResult();
+        operationResult.setFailureCause("The request was cancelled");
+        operationResult.setFailureException(cancellation);
+        return operationResult;
+    }
+
+    /**
+     * Fills in the result of a request which was rejected without being sent.
+     */
+    private static OperationResult rejectRequest(RuntimeException rejection, OperationResult operationResult) {
+        operationResult.setResultCode(503);
+        operationResult.setFailureCause(rejection.getMessage());
+        operationResult.setFailureException(rejection);
+        return operationResult;
+    }
+
+    /**
+     * Reports the outcome of a request to the circuit breaker for its endpoint. Requests which could not be sent or
+     * which got a server error count as failures.
+     */
+    private static void recordOutcome(CircuitBreaker circuitBreaker, long startTimeInMs,
+            OperationResult operationResult) {
+        if (circuitBreaker == null) {
+            return;
+        }
+        long durationMs = System.currentTimeMillis() - startTimeInMs;
+        if (operationResult.getFailureException() != null || operationResult.getResultCode() >= 500) {
+            circuitBreaker.onError(durationMs);
+        } else {
+            circuitBreaker.onSuccess(durationMs);
+        }
+    }
+
+    /**
+     * Returns the permit a request took from the concurrency limiter for its endpoint. Requests which could not be
+     * sent, or which the server throttled or timed out, tell the limiter the endpoint is overloaded.
+     */
+    private static void releasePermit(AdaptiveConcurrencyLimiter limiter, long startTimeInNanos,
+            OperationResult operationResult) {
+        if (limiter == null) {
+            return;
+        }
+        int resultCode = operationResult.getResultCode();
+        limiter.release(System.nanoTime() - startTimeInNanos, operationResult.getFailureException() != null
+                || resultCode == 429 || resultCode == 503 || resultCode == 504);
+    }
+
+    private void recordMetrics(RequestType requestType, String url, long startTimeInNanos,
+            OperationResult operationResult) {
+        RequestMetrics metrics = requestMetrics;
+        if (metrics != null) {
+            metrics.record(requestType, url, operationResult.getResultCode(), System.nanoTime() - startTimeInNanos);
+        }
+    }
+
+    /**
+     * Reports the outcome of a request to the load balancer. Requests which could not be sent or which got a server
+     * error count against the endpoint, while a cancelled request does not count either way.
+     */
+    private static void releaseEndpoint(LoadBalancer balancer, Endpoint endpoint, long startTimeInNanos,
+            OperationResult operationResult) {
+        if (operationResult != null && operationResult.getFailureException() instanceof CancellationException) {
+            balancer.releaseUnused(endpoint);
+            return;
+        }
+        balancer.release(endpoint, System.nanoTime() - startTimeInNanos, operationResult == null
+                || operationResult.getFailureException() != null || operationResult.getResultCode() >= 500);
+    }
+
+    private void handleRequestError(String requestType, String url, Exception ex, OperationResult operationResult) {
+        logger.error(RestClientMsgs.HTTP_REQUEST_ERROR, requestType, url, ex.getLocalizedMessage());
+        operationResult.setResultCode(500);
+        operationResult.setFailureException(ex);
+        operationResult.setFailureCause("Error during GET operation to AAI with message = " + ex.getLocalizedMessage());
+    }
+
+    private void logRequestMetrics(String requestType, String url, long startTimeInMs,
+            OperationResult operationResult) {
+
+        // None of the log lines are built unless something is going to write them out.
+        boolean logMetrics = metricsLogger.isInfoEnabled();
+        boolean logRequest = logger.isInfoEnabled();
+        if (!logMetrics && !logRequest) {
+            return;
+        }
+        String elapsedTimeInMs = Long.toString(System.currentTimeMillis() - startTimeInMs);
+
+        // Not every valid response code is actually represented by the Response.Status
+        // object, so we need to guard against missing codes, otherwise we throw null
+        // pointer exceptions when we try to generate our metrics logs...
+        Response.Status responseStatus = Response.Status.fromStatusCode(operationResult.getResultCode());
+        String responseStatusCodeString = "";
+        if (responseStatus != null) {
+            responseStatusCodeString = responseStatus.toString();
+        }
+        if (logMetrics) {
+            Map<String, String> logFields = new HashMap<String, String>();
+            logFields.put(LogLine.DefinedFields.STATUS_CODE.name(), responseStatusCodeString);
+            logFields.put(LogLine.DefinedFields.RESPONSE_CODE.name(), String.valueOf(operationResult.getResultCode()));
+            // A result held as bytes is not decoded just to be logged
+            logFields.put(LogLine.DefinedFields.RESPONSE_DESCRIPTION.name(), operationResult.peekResult());
+            metricsLogger.info(RestClientMsgs.HTTP_REQUEST_TIME, logFields.toString(), requestType, elapsedTimeInMs,
+                    url);
+        }
+        if (logRequest) {
+            logger.info(RestClientMsgs.HTTP_REQUEST_TIME, requestType, elapsedTimeInMs, url);
+            logger.info(RestClientMsgs.HTTP_RESPONSE, url,
+                    operationResult.getResultCode() + " " + responseStatusCodeString);
+        }
+    }
+
+    /**
+     * This method submits an HTTP PUT request against the supplied URL.
+     *
+     * @param url - The REST endpoint to submit the PUT request to.
+     * @param payload - the payload to send to the supplied URL
+     * @param headers - The headers that should be passed in the request
+     * @param contentType - The content type of the payload
+     * @param responseType - The expected format of the response.
+     *
+     * @return The result of the PUT request.
+     */
+    public OperationResult put(String url, String payload, Map<String, List<String>> headers, MediaType contentType,
+            MediaType responseType) {
+        return submitRequest(RequestType.PUT, url, payload, null, headers, contentType, responseType);
+    }
+
+    /**
+     * This method submits an HTTP POST request against the supplied URL.
+     *
+     * @param url - The REST endpoint to submit the POST request to.
+     * @param payload - the payload to send to the supplied URL
+     * @param headers - The headers that should be passed in the request
+     * @param contentType - The content type of the payload
+     * @param responseType - The expected format of the response.
+     *
+     * @return The result of the POST request.
+     */
+    public OperationResult post(String url, String payload, Map<String, List<String>> headers, MediaType contentType,
+            MediaType responseType) {
+        return submitRequest(RequestType.POST, url, payload, null, headers, contentType, responseType);
+    }
+
+    /**
+     * This method submits an HTTP POST request against the supplied URL, and emulates a PATCH operation by setting a
+     * special header value
+     *
+     * @param url - The REST endpoint to submit the POST request to.
+     * @param payload - the payload to send to the supplied URL
+     * @param headers - The headers that should be passed in the request
+     * @param contentType - The content type of the payload
+     * @param responseType - The expected format of the response.
+     *
+     * @return The result of the PATCH request.
+     */
+    public OperationResult patch(String url, String payload, Map<String, List<String>> headers, MediaType contentType,
+            MediaType responseType) {
+        return submitRequest(RequestType.PATCH, url, payload, null, headers, contentType, responseType);
+    }
+
+    /**
+     * This method submits an HTTP PUT request against the supplied URL, streaming the payload rather than holding it in
+     * memory.
+     *
+     * @param url - The REST endpoint to submit the PUT request to.
+     * @param body - the payload to stream to the supplied URL
+     * @param headers - The headers that should be passed in the request
+     * @param contentType - The content type of the payload
+     * @param responseType - The expected format of the response.
+     *
+     * @return The result of the PUT request.
+     */
+    public OperationResult put(String url, RequestBody body, Map<String, List<String>> headers,
+            MediaType contentType, MediaType responseType) {
+        return submitRequest(RequestType.PUT, url, null, body, headers, contentType, responseType);
+    }
+
+    /**
+     * This method submits an HTTP POST request against the supplied URL, streaming the payload rather than holding it
+     * in memory.
+     *
+     * @param url - The REST endpoint to submit the POST request to.
+     * @param body - the payload to stream to the supplied URL
+     * @param headers - The headers that should be passed in the request
+     * @param contentType - The content type of the payload
+     * @param responseType - The expected format of the response.
+     *
+     * @return The result of the POST request.
+     */
+    public OperationResult post(String url, RequestBody body, Map<String, List<String>> headers,
+            MediaType contentType, MediaType responseType) {
+        return submitRequest(RequestType.POST, url, null, body, headers, contentType, responseType);
+    }
+
+    /**
+     * This method submits an emulated HTTP PATCH request against the supplied URL, streaming the payload rather than
+     * holding it in memory.
+     *
+     * @param url - The REST endpoint to submit the PATCH request to.
+     * @param body - the payload to stream to the supplied URL
+     * @param headers - The headers that should be passed in the request
+     * @param contentType - The content type of the payload
+     * @param responseType - The expected format of the response.
+     *
+     * @return The result of the PATCH request.
+     */
+    public OperationResult patch(String url, RequestBody body, Map<String, List<String>> headers,
+            MediaType contentType, MediaType responseType) {
+        return submitRequest(RequestType.PATCH, url, null, body, headers, contentType, responseType);
+    }
+
+    /**
+     * This method submits an HTTP HEAD request against the supplied URL
+     *
+     * @param url - The REST endpoint to submit the POST request to.
+     * @param headers - The headers that should be passed in the request
+     * @param responseType - The expected format of the response.
+     *
+     * @return The result of the HEAD request.
+     */
+    public OperationResult head(String url, Map<String, List<String>> headers, MediaType responseType) {
+        return submitRequest(RequestType.HEAD, url, null, null, headers, null, responseType);
+    }
+
+    /**
+     * This method submits an HTTP GET request against the supplied URL.
+     *
+     * @param url - The REST endpoint to submit the GET request to.
+     * @param headers - The headers that should be passed in the request
+     * @param responseType - The expected format of the response.
+     *
+     * @return The result of the GET request.
+     */
+    public OperationResult get(String url, Map<String, List<String>> headers, MediaType responseType) {
+        return submitRequest(RequestType.GET, url, null, null, headers, null, responseType);
+    }
+
+    /**
+     * This method submits an HTTP GET request against the supplied URL. This variant of the method will perform a
+     * requested number of retries in the event that the first request is unsuccessful.
+     * 
+     * @param url - The REST endpoint to submit the GET request to.
+     * @param headers - The headers that should be passed in the request
+     * @param responseType - The expected format of the response.
+     * @param numRetries - The number of times to try resubmitting the request in the event of a failure.
+     * 
+     * @return The result of the GET request.
+     */
+    public OperationResult get(String url, Map<String, List<String>> headers, MediaType responseType, int numRetries) {
+        return processRequest(RequestType.GET, url, null, headers, null, responseType, numRetries);
+    }
+
+    /**
+     * This method submits an HTTP DELETE request against the supplied URL.
+     *
+     * @param url - The REST endpoint to submit the DELETE request to.
+     * @param headers - The headers that should be passed in the request
+     * @param responseType - The expected format of the response.
+     *
+     * @return The result of the DELETE request.
+     */
+    public OperationResult delete(String url, Map<String, List<String>> headers, MediaType responseType) {
+        return submitRequest(RequestType.DELETE, url, null, null, headers, null, responseType);
+    }
+
+    /**
+     * This method submits an HTTP GET request against the URL of a request template.
+     *
+     * @param template - The template giving the URL, headers and response type of the request.
+     * @param pathValues - The values of the variables in the template URL, in the order they appear.
+     *
+     * @return The result of the GET request.
+     */
+    public OperationResult get(RequestTemplate template, String... pathValues) {
+        return submitRequest(RequestType.GET, template.expand(pathValues), null, null, template.getHeaders(), null,
+                template.getResponseType());
+    }
+
+    /**
+     * This method submits an HTTP PUT request against the URL of a request template.
+     *
+     * @param template - The template giving the URL, headers and media types of the request.
+     * @param payload - the payload to send to the URL
+     * @param pathValues - The values of the variables in the template URL, in the order they appear.
+     *
+     * @return The result of the PUT request.
+     */
+    public OperationResult put(RequestTemplate template, String payload, String... pathValues) {
+        return submitRequest(RequestType.PUT, template.expand(pathValues), payload, null, template.getHeaders(),
+                template.getContentType(), template.getResponseType());
+    }
+
+    /**
+     * This method submits an HTTP POST request against the URL of a request template.
+     *
+     * @param template - The template giving the URL, headers and media types of the request.
+     * @param payload - the payload to send to the URL
+     * @param pathValues - The values of the variables in the template URL, in the order they appear.
+     *
+     * @return The result of the POST request.
+     */
+    public OperationResult post(RequestTemplate template, String payload, String... pathValues) {
+        return submitRequest(RequestType.POST, template.expand(pathValues), payload, null, template.getHeaders(),
+                template.getContentType(), template.getResponseType());
+    }
+
+    /**
+     * This method submits an HTTP DELETE request against the URL of a request template.
+     *
+     * @param template - The template giving the URL, headers and response type of the request.
+     * @param pathValues - The values of the variables in the template URL, in the order they appear.
+     *
+     * @return The result of the DELETE request.
+     */
+    public OperationResult delete(RequestTemplate template, String... pathValues) {
+        return submitRequest(RequestType.DELETE, template.expand(pathValues), null, null, template.getHeaders(), null,
+                template.getResponseType());
+    }
+
+    /**
+     * This method submits an HTTP GET request against the supplied URL, leaving the response body on the
+     * connection for the caller to stream.
+     *
+     * @param url - The REST endpoint to submit the GET request to.
+     * @param headers - The headers that should be passed in the request
+     * @param responseType - The expected format of the response.
+     *
+     * @return The result of the GET request, which must be closed to release the connection.
+     */
+    public StreamingOperationResult getStream(String url, Map<String, List<String>> headers,
+            MediaType responseType) {
+        return processStreamingRequest(RequestType.GET, url, null, headers, null, responseType);
+    }
+
+    /**
+     * This method submits an HTTP GET request against the supplied URL, and hands the response body to
+     * the supplied consumer in chunks as it is read.
+     *
+     * @param url - The REST endpoint to submit the GET request to.
+     * @param headers - The headers that should be passed in the request
+     * @param responseType - The expected format of the response.
+     * @param consumer - The consumer of the response body.
+     *
+     * @return The result of the GET request, without the response body.
+     */
+    public OperationResult getStream(String url, Map<String, List<String>> headers,
+            MediaType responseType, ResponseChunkConsumer consumer) {
+        return processRequest(RequestType.GET, url, null, headers, null, responseType, consumer);
+    }
+
+    /**
+     * This method submits an HTTP PUT request against the supplied URL, leaving the response body on the
+     * connection for the caller to stream.
+     *
+     * @param url - The REST endpoint to submit the PUT request to.
+     * @param payload - the payload to send to the supplied URL
+     * @param headers - The headers that should be passed in the request
+     * @param contentType - The content type of the payload
+     * @param responseType - The expected format of the response.
+     *
+     * @return The result of the PUT request, which must be closed to release the connection.
+     */
+    public StreamingOperationResult putStream(String url, String payload, Map<String, List<String>> headers,
+            MediaType contentType, MediaType responseType) {
+        return processStreamingRequest(RequestType.PUT, url, payload, headers, contentType, responseType);
+    }
+
+    /**
+     * This method submits an HTTP PUT request against the supplied URL, and hands the response body to
+     * the supplied consumer in chunks as it is read.
+     *
+     * @param url - The REST endpoint to submit the PUT request to.
+     * @param payload - the payload to send to the supplied URL
+     * @param headers - The headers that should be passed in the request
+     * @param contentType - The content type of the payload
+     * @param responseType - The expected format of the response.
+     * @param consumer - The consumer of the response body.
+     *
+     * @return The result of the PUT request, without the response body.
+     */
+    public OperationResult putStream(String url, String payload, Map<String, List<String>> headers,
+            MediaType contentType, MediaType responseType, ResponseChunkConsumer consumer) {
+        return processRequest(RequestType.PUT, url, payload, headers, contentType, responseType, consumer);
+    }
+
+    /**
+     * This method submits an HTTP POST request against the supplied URL, leaving the response body on the
+     * connection for the caller to stream.
+     *
+     * @param url - The REST endpoint to submit the POST request to.
+     * @param payload - the payload to send to the supplied URL
+     * @param headers - The headers that should be passed in the request
+     * @param contentType - The content type of the payload
+     * @param responseType - The expected format of the response.
+     *
+     * @return The result of the POST request, which must be closed to release the connection.
+     */
+    public StreamingOperationResult postStream(String url, String payload, Map<String, List<String>> headers,
+            MediaType contentType, MediaType responseType) {
+        return processStreamingRequest(RequestType.POST, url, payload, headers, contentType, responseType);
+    }
+
+    /**
+     * This method submits an HTTP POST request against the supplied URL, and hands the response body to
+     * the supplied consumer in chunks as it is read.
+     *
+     * @param url - The REST endpoint to submit the POST request to.
+     * @param payload - the payload to send to the supplied URL
+     * @param headers - The headers that should be passed in the request
+     * @param contentType - The content type of the payload
+     * @param responseType - The expected format of the response.
+     * @param consumer - The consumer of the response body.
+     *
+     * @return The result of the POST request, without the response body.
+     */
+    public OperationResult postStream(String url, String payload, Map<String, List<String>> headers,
+            MediaType contentType, MediaType responseType, ResponseChunkConsumer consumer) {
+        return processRequest(RequestType.POST, url, payload, headers, contentType, responseType, consumer);
     }
 
     /**
-     * This method operates on a REST endpoint by submitting an HTTP operation request against the supplied URL. This
-     * variant of the method will perform a requested number of retries in the event that the first request is
-     * unsuccessful.
+     * This method submits an emulated HTTP PATCH request against the supplied URL, leaving the response body on the
+     * connection for the caller to stream.
      *
-     * @param operation - the REST operation type to send to the url
-     * @param url - The REST endpoint to submit the REST request to.
-     * @param payload - They payload to provide in the REST request, if applicable
+     * @param url - The REST endpoint to submit the PATCH request to.
+     * @param payload - the payload to send to the supplied URL
      * @param headers - The headers that should be passed in the request
      * @param contentType - The content type of the payload
      * @param responseType - The expected format of the response.
-     * 
-     * @return The result of the REST request.
+     *
+     * @return The result of the PATCH request, which must be closed to release the connection.
      */
-    protected OperationResult processRequest(RestOperation operation, String url, String payload,
-            Map<String, List<String>> headers, MediaType contentType, MediaType responseType, int numRetries) {
-
-
-        OperationResult result = null;
-
-        long startTimeInMs = System.currentTimeMillis();
-        for (int retryCount = 0; retryCount < numRetries; retryCount++) {
-
-            logger.info(RestClientMsgs.HTTP_REQUEST_WITH_RETRIES, operation.getRequestType().toString(), url,
-                    Integer.toString(retryCount + 1));
-
-            // Submit our query to the AAI.
-            result = processRequest(operation, url, payload, headers, contentType, responseType);
-
-            // If the submission was successful then we're done.
-
-            if (!shouldRetry(result)) {
-
-                logger.info(RestClientMsgs.HTTP_REQUEST_TIME_WITH_RETRIES, operation.getRequestType().toString(), url,
-                        Long.toString(System.currentTimeMillis() - startTimeInMs), Integer.toString(retryCount));
-
-                result.setNumRetries(retryCount);
-
-                return result;
-            }
-
-            // Our submission was unsuccessful...
-            try {
-                // Sleep between re-tries to be nice to the target system.
-                Thread.sleep(50);
-
-            } catch (InterruptedException e) {
-                logger.error(RestClientMsgs.HTTP_REQUEST_INTERRUPTED, url, e.getLocalizedMessage());
-                Thread.currentThread().interrupt();
-                break;
-            }
-        }
-
-        // If we've gotten this far, then we failed all of our retries.
-        if (result == null) {
-            result = new OperationResult();
-        }
-
-        result.setNumRetries(numRetries);
-        result.setResultCode(504);
-        result.setFailureCause("Failed to get a successful result after multiple retries to target server.");
-
-
-        return result;
+    public StreamingOperationResult patchStream(String url, String payload, Map<String, List<String>> headers,
+            MediaType contentType, MediaType responseType) {
+        return processStreamingRequest(RequestType.PATCH, url, payload, headers, contentType, responseType);
     }
 
     /**
-     * This method operates on a REST endpoint by submitting an HTTP operation request against the supplied URL.
+     * This method submits an emulated HTTP PATCH request against the supplied URL, and hands the response body to
+     * the supplied consumer in chunks as it is read.
      *
-     * @param operation - the REST operation type to send to the url
-     * @param url - The REST endpoint to submit the REST request to.
-     * @param payload - They payload to provide in the REST request, if applicable
+     * @param url - The REST endpoint to submit the PATCH request to.
+     * @param payload - the payload to send to the supplied URL
      * @param headers - The headers that should be passed in the request
      * @param contentType - The content type of the payload
      * @param responseType - The expected format of the response.
+     * @param consumer - The consumer of the response body.
      *
-     * @return The result of the REST request.
+     * @return The result of the PATCH request, without the response body.
      */
-    protected OperationResult processRequest(RestOperation operation, String url, String payload,
-            Map<String, List<String>> headers, MediaType contentType, MediaType responseType) {
-
-        Response clientResponse = null;
-        OperationResult operationResult = new OperationResult();
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-
-        String requestType = operation.getRequestType().name();
-
-        // Grab the current time so that we can log how long the
-        // query took once we are done.
-        long startTimeInMs = System.currentTimeMillis();
-        MdcOverride override = new MdcOverride();
-        override.addAttribute(MdcContext.MDC_START_TIME, formatter.format(startTimeInMs));
-
-        logger.info(RestClientMsgs.HTTP_REQUEST, requestType, url);
-
-        try {
-
-            // Get a REST client instance for our request.
-            Client client = getClient();
-
-            // Debug log the request
-            debugRequest(url, payload, headers, responseType);
-
-            // Get a client request builder, and submit our GET request.
-            Builder builder = getClientBuilder(client, url, headers, responseType);
-            clientResponse = operation.processOperation(builder, payload, contentType);
-
-            populateOperationResult(clientResponse, operationResult);
-
-            // Debug log the response
-            if (clientResponse != null) {
-                debugResponse(operationResult, clientResponse.getHeaders());
-            }
-
-        } catch (Exception ex) {
-
-            logger.error(RestClientMsgs.HTTP_REQUEST_ERROR, requestType, url, ex.getLocalizedMessage());
-            operationResult.setResultCode(500);
-            operationResult
-                    .setFailureCause("Error during GET operation to AAI with message = " + ex.getLocalizedMessage());
-
-        } finally {
-
-            if (logger.isDebugEnabled()) {
-                logger.debug(baos.toString());
-            }
+    public OperationResult patchStream(String url, String payload, Map<String, List<String>> headers,
+            MediaType contentType, MediaType responseType, ResponseChunkConsumer consumer) {
+        return processRequest(RequestType.PATCH, url, payload, headers, contentType, responseType, consumer);
+    }
 
-            // Not every valid response code is actually represented by the Response.Status
-            // object, so we need to guard against missing codes, otherwise we throw null
-            // pointer exceptions when we try to generate our metrics logs...
-            Response.Status responseStatus = Response.Status.fromStatusCode(operationResult.getResultCode());
-            String responseStatusCodeString = "";
-            if (responseStatus != null) {
-                responseStatusCodeString = responseStatus.toString();
-            }
-            Map<String, String> logFields = new HashMap<String, String>();
-            logFields.put(LogLine.DefinedFields.STATUS_CODE.name(), responseStatusCodeString);
-            logFields.put(LogLine.DefinedFields.RESPONSE_CODE.name(), String.valueOf(operationResult.getResultCode()));
-            logFields.put(LogLine.DefinedFields.RESPONSE_DESCRIPTION.name(), operationResult.getResult());
-            metricsLogger.info(RestClientMsgs.HTTP_REQUEST_TIME, logFields.toString(), requestType, Long.toString(System.currentTimeMillis() - startTimeInMs), url);
-            logger.info(RestClientMsgs.HTTP_REQUEST_TIME, requestType,
-                    Long.toString(System.currentTimeMillis() - startTimeInMs), url);
-            logger.info(RestClientMsgs.HTTP_RESPONSE, url,
-                    operationResult.getResultCode() + " " + responseStatusCodeString);
-        }
+    /**
+     * This method submits an HTTP DELETE request against the supplied URL, leaving the response body on the
+     * connection for the caller to stream.
+     *
+     * @param url - The REST endpoint to submit the DELETE request to.
+     * @param headers - The headers that should be passed in the request
+     * @param responseType - The expected format of the response.
+     *
+     * @return The result of the DELETE request, which must be closed to release the connection.
+     */
+    public StreamingOperationResult deleteStream(String url, Map<String, List<String>> headers,
+            MediaType responseType) {
+        return processStreamingRequest(RequestType.DELETE, url, null, headers, null, responseType);
+    }
 
-        return operationResult;
+    /**
+     * This method submits an HTTP DELETE request against the supplied URL, and hands the response body to
+     * the supplied consumer in chunks as it is read.
+     *
+     * @param url - The REST endpoint to submit the DELETE request to.
+     * @param headers - The headers that should be passed in the request
+     * @param responseType - The expected format of the response.
+     * @param consumer - The consumer of the response body.
+     *
+     * @return The result of the DELETE request, without the response body.
+     */
+    public OperationResult deleteStream(String url, Map<String, List<String>> headers,
+            MediaType responseType, ResponseChunkConsumer consumer) {
+        return processRequest(RequestType.DELETE, url, null, headers, null, responseType, consumer);
     }
 
     /**
-     * This method submits an HTTP PUT request against the supplied URL.
+     * This method submits an HTTP PUT request against the supplied URL without blocking the calling thread.
      *
      * @param url - The REST endpoint to submit the PUT request to.
      * @param payload - the payload to send to the supplied URL
      * @param headers - The headers that should be passed in the request
      * @param contentType - The content type of the payload
      * @param responseType - The expected format of the response.
+     * @param executor - The executor on which the response is processed.
      *
-     * @return The result of the PUT request.
+     * @return A future which completes with the result of the PUT request.
      */
-    public OperationResult put(String url, String payload, Map<String, List<String>> headers, MediaType contentType,
-            MediaType responseType) {
-        return processRequest(putOp, url, payload, headers, contentType, responseType);
+    public CompletableFuture<OperationResult> putAsync(String url, String payload, Map<String, List<String>> headers,
+            MediaType contentType, MediaType responseType, Executor executor) {
+        return submitRequestAsync(RequestType.PUT, url, payload, headers, contentType, responseType, executor);
     }
 
     /**
-     * This method submits an HTTP POST request against the supplied URL.
+     * This method submits an HTTP POST request against the supplied URL without blocking the calling thread.
      *
      * @param url - The REST endpoint to submit the POST request to.
      * @param payload - the payload to send to the supplied URL
      * @param headers - The headers that should be passed in the request
      * @param contentType - The content type of the payload
      * @param responseType - The expected format of the response.
+     * @param executor - The executor on which the response is processed.
      *
-     * @return The result of the POST request.
+     * @return A future which completes with the result of the POST request.
      */
-    public OperationResult post(String url, String payload, Map<String, List<String>> headers, MediaType contentType,
-            MediaType responseType) {
-        return processRequest(postOp, url, payload, headers, contentType, responseType);
+    public CompletableFuture<OperationResult> postAsync(String url, String payload, Map<String, List<String>> headers,
+            MediaType contentType, MediaType responseType, Executor executor) {
+        return submitRequestAsync(RequestType.POST, url, payload, headers, contentType, responseType, executor);
     }
 
     /**
-     * This method submits an HTTP POST request against the supplied URL, and emulates a PATCH operation by setting a
-     * special header value
+     * This method submits an emulated HTTP PATCH request against the supplied URL without blocking the calling thread.
      *
-     * @param url - The REST endpoint to submit the POST request to.
+     * @param url - The REST endpoint to submit the PATCH request to.
      * @param payload - the payload to send to the supplied URL
      * @param headers - The headers that should be passed in the request
      * @param contentType - The content type of the payload
      * @param responseType - The expected format of the response.
+     * @param executor - The executor on which the response is processed.
      *
-     * @return The result of the PATCH request.
+     * @return A future which completes with the result of the PATCH request.
      */
-    public OperationResult patch(String url, String payload, Map<String, List<String>> headers, MediaType contentType,
-            MediaType responseType) {
-        return processRequest(patchOp, url, payload, headers, contentType, responseType);
+    public CompletableFuture<OperationResult> patchAsync(String url, String payload, Map<String, List<String>> headers,
+            MediaType contentType, MediaType responseType, Executor executor) {
+        return submitRequestAsync(RequestType.PATCH, url, payload, headers, contentType, responseType, executor);
     }
 
     /**
-     * This method submits an HTTP HEAD request against the supplied URL
+     * This method submits an HTTP HEAD request against the supplied URL without blocking the calling thread.
      *
-     * @param url - The REST endpoint to submit the POST request to.
+     * @param url - The REST endpoint to submit the HEAD request to.
      * @param headers - The headers that should be passed in the request
      * @param responseType - The expected format of the response.
+     * @param executor - The executor on which the response is processed.
      *
-     * @return The result of the HEAD request.
+     * @return A future which completes with the result of the HEAD request.
      */
-    public OperationResult head(String url, Map<String, List<String>> headers, MediaType responseType) {
-        return processRequest(headOp, url, null, headers, null, responseType);
+    public CompletableFuture<OperationResult> headAsync(String url, Map<String, List<String>> headers,
+            MediaType responseType, Executor executor) {
+        return submitRequestAsync(RequestType.HEAD, url, null, headers, null, responseType, executor);
     }
 
     /**
-     * This method submits an HTTP GET request against the supplied URL.
+     * This method submits an HTTP GET request against the supplied URL without blocking the calling thread.
      *
      * @param url - The REST endpoint to submit the GET request to.
      * @param headers - The headers that should be passed in the request
      * @param responseType - The expected format of the response.
+     * @param executor - The executor on which the response is processed.
      *
-     * @return The result of the GET request.
+     * @return A future which completes with the result of the GET request.
      */
-    public OperationResult get(String url, Map<String, List<String>> headers, MediaType responseType) {
-        return processRequest(getOp, url, null, headers, null, responseType);
+    public CompletableFuture<OperationResult> getAsync(String url, Map<String, List<String>> headers,
+            MediaType responseType, Executor executor) {
+        return submitRequestAsync(RequestType.GET, url, null, headers, null, responseType, executor);
     }
 
     /**
-     * This method submits an HTTP GET request against the supplied URL. This variant of the method will perform a
-     * requested number of retries in the event that the first request is unsuccessful.
-     * 
+     * This method submits an HTTP GET request against the supplied URL without blocking the calling thread. This
+     * variant of the method will perform a requested number of retries in the event that the first request is
+     * unsuccessful.
+     *
      * @param url - The REST endpoint to submit the GET request to.
      * @param headers - The headers that should be passed in the request
      * @param responseType - The expected format of the response.
      * @param numRetries - The number of times to try resubmitting the request in the event of a failure.
-     * 
-     * @return The result of the GET request.
+     * @param executor - The executor on which the response is processed.
+     *
+     * @return A future which completes with the result of the GET request.
      */
-    public OperationResult get(String url, Map<String, List<String>> headers, MediaType responseType, int numRetries) {
-        return processRequest(getOp, url, null, headers, null, responseType, numRetries);
+    public CompletableFuture<OperationResult> getAsync(String url, Map<String, List<String>> headers,
+            MediaType responseType, int numRetries, Executor executor) {
+        return processRequestAsync(RequestType.GET, url, null, headers, null, responseType, numRetries, executor);
     }
 
     /**
-     * This method submits an HTTP DELETE request against the supplied URL.
+     * This method submits an HTTP DELETE request against the supplied URL without blocking the calling thread.
      *
      * @param url - The REST endpoint to submit the DELETE request to.
      * @param headers - The headers that should be passed in the request
      * @param responseType - The expected format of the response.
+     * @param executor - The executor on which the response is processed.
      *
-     * @return The result of the DELETE request.
+     * @return A future which completes with the result of the DELETE request.
      */
-    public OperationResult delete(String url, Map<String, List<String>> headers, MediaType responseType) {
-        return processRequest(deleteOp, url, null, headers, null, responseType);
+    public CompletableFuture<OperationResult> deleteAsync(String url, Map<String, List<String>> headers,
+            MediaType responseType, Executor executor) {
+        return submitRequestAsync(RequestType.DELETE, url, null, headers, null, responseType, executor);
+    }
+
+    /**
+     * Starts running a batch of independent requests, with up to the configured number in flight at once. The requests
+     * are read as they are sent, and the results are read from the returned batch as they complete.
+     *
+     * @param requests - The requests to send.
+     * @param config - The parallelism, result order and abort threshold of the batch.
+     *
+     * @return The running batch.
+     */
+    public Batch executeBatch(Iterable<BatchRequest> requests, BatchConfig config) {
+        return Batch.start(this, requests.iterator(), config);
+    }
+
+    /**
+     * Starts running a batch of independent requests, with up to the configured number in flight at once. The stream
+     * is consumed as the requests are sent, and the results are read from the returned batch as they complete.
+     *
+     * @param requests - The requests to send.
+     * @param config - The parallelism, result order and abort threshold of the batch.
+     *
+     * @return The running batch.
+     */
+    public Batch executeBatch(Stream<BatchRequest> requests, BatchConfig config) {
+        return Batch.start(this, requests.iterator(), config);
     }
 
     /**
@@ -558,39 +2694,33 @@ public class RestClient {
     }
 
     /**
-     * This method constructs a client request builder that can be used for submitting REST requests to the supplied URL
-     * endpoint.
+     * This method constructs the request handed to the transport for submission to the supplied URL endpoint.
      *
-     * @param client - The REST client we will be using to talk to the server.
+     * @param requestType - The REST operation type to send to the url.
      * @param url - The URL endpoint that our request will be submitted to.
+     * @param payload - The payload to provide in the REST request, if applicable.
+     * @param body - The streamed payload to provide in the REST request, if applicable.
      * @param headers - The headers that should be passed in the request
+     * @param contentType - The content type of the payload.
      * @param responseType - The expected format of the response.
      *
-     * @return A client request builder.
+     * @return A transport request.
      */
-    private Builder getClientBuilder(Client client, String url, Map<String, List<String>> headers,
-            MediaType responseType) {
-
-        WebTarget target = client.target(url);
+    private TransportRequest newTransportRequest(RequestType requestType, String url, String payload,
+            RequestBody body, Map<String, List<String>> headers, MediaType contentType, MediaType responseType) {
 
-        Builder builder = target.request().accept(responseType);
-
-        if (headers != null) {
-            for (Entry<String, List<String>> header : headers.entrySet()) {
-                builder.header(header.getKey(), String.join(";", header.getValue()));
-            }
-
-            // Added additional check to prevent adding duplicate authorization header if client is already sending the
-            // authorization header
-            // AAI-1097 - For AAI calls when Rest authentication mode is selected as SSL_BASIC getting 403 error
-            if (clientBuilder.getAuthenticationMode() == RestAuthenticationMode.SSL_BASIC
-                    && headers.get(Headers.AUTHORIZATION) == null) {
-                builder = builder.header(Headers.AUTHORIZATION, clientBuilder.getBasicAuthenticationCredentials());
-            }
+        String authorization = null;
 
+        // Added additional check to prevent adding duplicate authorization header if client is already sending the
+        // authorization header
+        // AAI-1097 - For AAI calls when Rest authentication mode is selected as SSL_BASIC getting 403 error
+        if (headers != null && clientBuilder.getAuthenticationMode() == RestAuthenticationMode.SSL_BASIC
+                && headers.get(Headers.AUTHORIZATION) == null) {
+            authorization = clientBuilder.getBasicAuthenticationCredentials();
         }
 
-        return builder;
+        return new TransportRequest(requestType, url, payload, body, headers, contentType, responseType,
+                authorization);
     }
 
     private void debugRequest(String url, String payload, Map<String, List<String>> headers, MediaType responseType) {
@@ -620,7 +2750,7 @@ public class RestClient {
 
     }
 
-    private void debugResponse(OperationResult operationResult, MultivaluedMap<String, Object> headers) {
+    private void debugResponse(OperationResult operationResult, MultivaluedMap<String, String> headers) {
 
         if (!logger.isDebugEnabled()) {
             return;
@@ -637,9 +2767,9 @@ public class RestClient {
         }
 
         debugResponse.append("Headers: ");
-        for (Entry<String, List<Object>> header : headers.entrySet()) {
+        for (Entry<String, List<String>> header : headers.entrySet()) {
             debugResponse.append("\n\t").append(header.getKey()).append(":");
-            for (Object headerEntry : header.getValue()) {
+            for (String headerEntry : header.getValue()) {
                 debugResponse.append("\"").append(headerEntry).append("\" ");
             }
         }
@@ -651,9 +2781,23 @@ public class RestClient {
      * This method creates an instance of the low level REST client to use for communicating with the AAI, if one has
      * not already been created, otherwise it returns the already created instance.
      *
-     * @return A {@link Client} instance.
+     * @return A {@link Client} instance, or null if requests are sent with the JDK HTTP client or a custom transport.
      */
     protected Client getClient() throws Exception {
+        return getInitializedClient().getClient();
+    }
+
+    /**
+     * This method returns the transport requests are sent with, creating it and the underlying client if they have not
+     * already been created.
+     *
+     * @return A {@link RestTransport} instance.
+     */
+    protected RestTransport getTransport() throws Exception {
+        return getInitializedClient().getTransport();
+    }
+
+    private InitializedClient getInitializedClient() throws Exception {
 
         /*
          * Attempting a new way of doing non-blocking thread-safe lazy-initialization by using Java 1.8 computeIfAbsent
@@ -665,15 +2809,62 @@ public class RestClient {
          * signature.
          */
 
-        final InitializedClient clientInstance =
-                CLIENT_CACHE.computeIfAbsent(REST_CLIENT_INSTANCE, k -> loggedClientInitialization());
+        // Until the retry time, a failed initialization is reported without trying again.
+        InitializedClient failed = failedInitialization;
+        if (failed != null && System.nanoTime() - initializationRetryNanos < 0) {
+            throw new InstantiationException(failed.getCaughtException().getMessage());
+        }
+
+        InitializedClient clientInstance;
+        RestClientRegistry registry = clientRegistry;
+        if (registry != null && customTransport == null) {
+            String fingerprint = clientFingerprint;
+            if (fingerprint == null) {
+                fingerprint = clientBuilder.getConfigurationFingerprint();
+                clientFingerprint = fingerprint;
+            }
+            clientInstance = registry.acquire(fingerprint, clientFactory);
+        } else {
+            // Looking the client up first saves allocating the initialization lambda on every request once it exists.
+            clientInstance = CLIENT_CACHE.get(REST_CLIENT_INSTANCE);
+            if (clientInstance == null) {
+                clientInstance = CLIENT_CACHE.computeIfAbsent(REST_CLIENT_INSTANCE, k -> loggedClientInitialization());
+            }
+        }
 
         if (clientInstance.getCaughtException() != null) {
+            CLIENT_CACHE.remove(REST_CLIENT_INSTANCE, clientInstance);
+            scheduleInitializationRetry(clientInstance);
             throw new InstantiationException(clientInstance.getCaughtException().getMessage());
         }
+        if (failed != null) {
+            clearInitializationFailure();
+        }
+
+        return clientInstance;
+
+    }
 
-        return clientInstance.getClient();
+    /**
+     * Records a failed initialization, which requests report until the retry delay has passed. Threads which saw the
+     * same failure count it once.
+     */
+    private synchronized void scheduleInitializationRetry(InitializedClient failed) {
+        if (failedInitialization == failed) {
+            return;
+        }
+        long delay = Math.min(initializationRetryMaxDelayMs,
+                initializationRetryMinDelayMs << Math.min(initializationFailures, 20));
+        initializationFailures++;
+        initializationRetryNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay);
+        failedInitialization = failed;
+        logger.error(RestClientMsgs.CLIENT_INITIALIZATION_FAILURE, String.valueOf(failed.getCaughtException()));
+        logger.debug("Building the REST client again in " + delay + " ms");
+    }
 
+    private synchronized void clearInitializationFailure() {
+        failedInitialization = null;
+        initializationFailures = 0;
     }
 
     /**
@@ -689,10 +2880,19 @@ public class RestClient {
             logger.debug(clientBuilder.toString());
         }
 
-        InitializedClient initClient = new InitializedClient();
+        InitializedClient initClient = new InitializedClient(clientBuilder);
 
         try {
-            initClient.setClient(clientBuilder.getClient());
+            if (customTransport != null) {
+                initClient.setTransport(customTransport);
+            } else if (clientBuilder.getTransportEngine() == TransportEngine.JAVA_HTTP_CLIENT) {
+                initClient.setTransport(new JavaHttpClientTransport(clientBuilder.getHttpClient(),
+                        clientBuilder.getReadTimeoutInMs(), clientBuilder.getExecutorService()));
+            } else {
+                Client client = clientBuilder.getClient();
+                initClient.setClient(client);
+                initClient.setTransport(new JerseyTransport(client));
+            }
         } catch (Exception error) {
             initClient.setCaughtException(error);
         }
@@ -704,9 +2904,9 @@ public class RestClient {
 
     /**
      * This method populates the fields of an {@link OperationResult} instance based on the contents of a
-     * {@link Response} received in response to a REST request.
+     * {@link TransportResponse} received in response to a REST request.
      */
-    private void populateOperationResult(Response response, OperationResult opResult) {
+    private void populateOperationResult(TransportResponse response, OperationResult opResult) {
 
         // If we got back a NULL response, then just produce a generic
         // error code and result indicating this.
@@ -721,141 +2921,54 @@ public class RestClient {
 
         if (opResult.wasSuccessful()) {
             if (statusCode != Response.Status.NO_CONTENT.getStatusCode()) {
-                opResult.setResult(response.readEntity(String.class));
+                if (responseBodyMode == ResponseBodyMode.BYTES) {
+                    opResult.setResult(response.readEntityBytes(), response.getCharset());
+                } else {
+                    opResult.setResult(response.readEntity());
+                }
             }
         } else {
-            opResult.setFailureCause(response.readEntity(String.class));
-        }
-
-        opResult.setHeaders(convertHeaderObjectsToString(response.getHeaders()));
-    }
-
-    private MultivaluedMap<String, String> convertHeaderObjectsToString(MultivaluedMap<String, Object> headers) {
-        MultivaluedMap<String, String> result = new MultivaluedHashMap<>();
-        headers.forEach((k, v) -> result.addAll(k, v.stream().map(Object::toString).collect(Collectors.toList())));
-        return result;
-    }
-
-    private class GetRestOperation implements RestOperation {
-        @Override
-        public Response processOperation(Builder builder, String payload, MediaType contentType) {
-            return builder.get();
-        }
-
-        @Override
-        public RequestType getRequestType() {
-            return RequestType.GET;
-        }
-    }
-
-    private class PutRestOperation implements RestOperation {
-        @Override
-        public Response processOperation(Builder builder, String payload, MediaType contentType) {
-            return builder.put(Entity.entity(payload, contentType));
-        }
-
-        @Override
-        public RequestType getRequestType() {
-            return RequestType.PUT;
-        }
-    }
-
-    private class PostRestOperation implements RestOperation {
-        @Override
-        public Response processOperation(Builder builder, String payload, MediaType contentType) {
-            return builder.post(Entity.entity(payload, contentType));
-        }
-
-        @Override
-        public RequestType getRequestType() {
-            return RequestType.POST;
-        }
-    }
-
-    private class DeleteRestOperation implements RestOperation {
-        @Override
-        public Response processOperation(Builder builder, String payload, MediaType contentType) {
-            return builder.delete();
-        }
-
-        @Override
-        public RequestType getRequestType() {
-            return RequestType.DELETE;
-        }
-    }
-
-    private class HeadRestOperation implements RestOperation {
-        @Override
-        public Response processOperation(Builder builder, String payload, MediaType contentType) {
-            return builder.head();
-        }
-
-        @Override
-        public RequestType getRequestType() {
-            return RequestType.HEAD;
-        }
-    }
-
-    private class PatchRestOperation implements RestOperation {
-
-        /**
-         * Technically there is no standarized PATCH operation for the jersey client, but we can use the method-override
-         * approach instead.
-         */
-        @Override
-        public Response processOperation(Builder builder, String payload, MediaType contentType) {
-            builder = builder.header("X-HTTP-Method-Override", "PATCH");
-            return builder.post(Entity.entity(payload, contentType));
-        }
-
-        @Override
-        public RequestType getRequestType() {
-            return RequestType.PATCH;
+            opResult.setFailureCause(response.readEntity());
         }
-    }
-
-
-    /**
-     * Interface used wrap a Jersey REST call using a functional interface.
-     */
-    private interface RestOperation {
-
-        /**
-         * Method used to wrap the functionality of making a REST call out to the endpoint.
-         * 
-         * @param builder the Jersey builder used to make the request
-         * @param payload the request payload
-         * @param contentType the content type of the payload
-         * @return the response from the REST endpoint
-         */
-        public Response processOperation(Builder builder, String payload, MediaType contentType);
-
-        /**
-         * Returns the REST request type.
-         */
-        public RequestType getRequestType();
 
-        /**
-         * The supported REST request types.
-         */
-        public enum RequestType {
-            GET, PUT, POST, DELETE, PATCH, HEAD
-        }
+        opResult.setHeaders(response.getHeaders());
     }
 
     /*
      * An entity to encapsulate an expected result and a potential failure cause when returning from a functional
      * interface during the computeIfAbsent call.
      */
-    private class InitializedClient {
+    static class InitializedClient {
+        private final RestClientBuilder clientBuilder;
         private Client client;
+        private RestTransport transport;
         private Throwable caughtException;
 
-        public InitializedClient() {
+        public InitializedClient(RestClientBuilder clientBuilder) {
+            this.clientBuilder = clientBuilder;
             client = null;
+            transport = null;
             caughtException = null;
         }
 
+        /**
+         * Returns the statistics of the connection pool, which belongs to the builder that built the client.
+         */
+        public ConnectionPoolStats getConnectionPoolStats() {
+            return clientBuilder.getConnectionPoolStats();
+        }
+
+        /**
+         * Closes the Jersey client and its connection pool. The JDK HTTP client releases its connections once it is
+         * no longer referenced.
+         */
+        public void close() {
+            if (client != null) {
+                client.close();
+            }
+            clientBuilder.closeConnectionPool();
+        }
+
         public Client getClient() {
             return client;
         }
@@ -864,6 +2977,14 @@ public class RestClient {
             this.client = client;
         }
 
+        public RestTransport getTransport() {
+            return transport;
+        }
+
+        public void setTransport(RestTransport transport) {
+            this.transport = transport;
+        }
+
         public Throwable getCaughtException() {
             return caughtException;
         }
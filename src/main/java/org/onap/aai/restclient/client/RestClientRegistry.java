@@ -0,0 +1,356 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.client;
+
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import javax.ws.rs.core.MultivaluedMap;
+import org.onap.aai.restclient.client.RestClient.InitializedClient;
+import org.onap.aai.restclient.transport.RestTransport;
+import org.onap.aai.restclient.transport.TransportRequest;
+import org.onap.aai.restclient.transport.TransportResponse;
+
+import com.att.eelf.configuration.EELFLogger;
+import com.att.eelf.configuration.EELFManager;
+
+/**
+ * Shares the underlying HTTP clients, with their SSL contexts and connection pools, between {@link RestClient}s with
+ * the same connection settings. Clients are matched on
+ * {@link org.onap.aai.restclient.rest.RestClientBuilder#getConfigurationFingerprint() the fingerprint} of their
+ * settings when they send their first request, so a gateway talking to several A&AI services with different
+ * certificates or timeouts gets one underlying client for each distinct configuration however many
+ * {@link RestClient}s it builds.
+ *
+ * <p>Each request holds a lease on the underlying client from when it is sent until its response is closed, which for a
+ * streamed response is when the caller closes it. An underlying client which has had no lease for the idle timeout is
+ * closed and dropped, so a client is never closed under a request or stream still using it. The idle clients are
+ * looked for as clients are handed out, at most once in every half of the idle timeout, or straight away by
+ * {@link #evictIdle()}.
+ *
+ * <p>Settings made directly on the Jersey {@code ClientBuilder} are not part of the fingerprint. Clients sharing a
+ * registry should leave it as it comes from {@code ClientBuilder.newBuilder()}.
+ */
+public class RestClientRegistry implements AutoCloseable {
+
+    public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(10);
+
+    private static final RestClientRegistry SHARED = new RestClientRegistry();
+
+    private static EELFLogger logger = EELFManager.getLogger(RestClientRegistry.class.getName());
+
+    private final ConcurrentMap<String, Entry> clients = new ConcurrentHashMap<>();
+    private final long idleTimeoutNanos;
+    private final AtomicLong nextEvictionNanos;
+    private volatile boolean closed;
+
+    /**
+     * Creates a registry which closes clients left idle for the default idle timeout of ten minutes.
+     */
+    public RestClientRegistry() {
+        this(DEFAULT_IDLE_TIMEOUT);
+    }
+
+    /**
+     * Creates a registry which closes clients left idle for the given time.
+     */
+    public RestClientRegistry(Duration idleTimeout) {
+        if (idleTimeout.isNegative() || idleTimeout.isZero()) {
+            throw new IllegalArgumentException("Idle timeout must be positive");
+        }
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.nextEvictionNanos = new AtomicLong(System.nanoTime() + idleTimeoutNanos / 2);
+    }
+
+    /**
+     * Returns the registry shared by the whole JVM, which is never closed.
+     */
+    public static RestClientRegistry shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the number of underlying clients held.
+     */
+    public int size() {
+        return clients.size();
+    }
+
+    /**
+     * Closes and drops every client which has had no request in flight for the idle timeout.
+     *
+     * @return The number of clients closed.
+     */
+    public int evictIdle() {
+        return evictIdle(System.nanoTime());
+    }
+
+    /**
+     * Closes every client held. Requests through this registry fail once it is closed.
+     */
+    @Override
+    public void close() {
+        if (this == SHARED) {
+            throw new UnsupportedOperationException("The shared registry can not be closed");
+        }
+        closed = true;
+        for (Map.Entry<String, Entry> entry : clients.entrySet()) {
+            if (clients.remove(entry.getKey(), entry.getValue())) {
+                entry.getValue().leases.set(Entry.EVICTED);
+                entry.getValue().client.close();
+            }
+        }
+    }
+
+    /**
+     * Returns the client for the given configuration fingerprint, creating it if there is none. A client which fails
+     * to initialize is returned but not kept, so that the next request tries again. The transport of the client takes
+     * a lease for each request, so handing the client out changes nothing shared.
+     */
+    InitializedClient acquire(String fingerprint, Supplier<InitializedClient> factory) {
+        if (closed) {
+            throw new IllegalStateException("The client registry has been closed");
+        }
+        long now = System.nanoTime();
+        long nextEviction = nextEvictionNanos.get();
+        if (now - nextEviction >= 0 && nextEvictionNanos.compareAndSet(nextEviction, now + idleTimeoutNanos / 2)) {
+            evictIdle(now);
+        }
+
+        Entry entry = clients.get(fingerprint);
+        if (entry == null) {
+            entry = clients.computeIfAbsent(fingerprint, k -> new Entry(factory.get(), fingerprint, factory));
+            if (entry.client.getCaughtException() != null) {
+                clients.remove(fingerprint, entry);
+            }
+        }
+        return entry.client;
+    }
+
+    /**
+     * Returns the client for the given configuration fingerprint without creating it or marking it used.
+     */
+    InitializedClient peek(String fingerprint) {
+        Entry entry = clients.get(fingerprint);
+        return entry != null ? entry.client : null;
+    }
+
+    private int evictIdle(long now) {
+        int evicted = 0;
+        for (Map.Entry<String, Entry> entry : clients.entrySet()) {
+            if (entry.getValue().tryEvict(now, idleTimeoutNanos)) {
+                clients.remove(entry.getKey(), entry.getValue());
+                logger.debug("Closing REST client idle for over " + Duration.ofNanos(idleTimeoutNanos));
+                entry.getValue().client.close();
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    private class Entry {
+        /** The lease count of a client which has been closed, on which no more leases can be taken. */
+        private static final int EVICTED = -1;
+
+        private final InitializedClient client;
+        private final AtomicInteger leases = new AtomicInteger();
+        private volatile long idleSinceNanos = System.nanoTime();
+
+        Entry(InitializedClient client, String fingerprint, Supplier<InitializedClient> factory) {
+            this.client = client;
+            if (client.getCaughtException() == null) {
+                client.setTransport(new LeasedTransport(client.getTransport(), this, fingerprint, factory));
+            }
+        }
+
+        boolean tryLease() {
+            while (true) {
+                int current = leases.get();
+                if (current == EVICTED) {
+                    return false;
+                }
+                if (leases.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        void release() {
+            if (leases.decrementAndGet() == 0) {
+                idleSinceNanos = System.nanoTime();
+            }
+        }
+
+        /**
+         * Stops the client being leased again if it has been idle for the given time.
+         */
+        boolean tryEvict(long now, long idleTimeoutNanos) {
+            return leases.get() == 0 && now - idleSinceNanos >= idleTimeoutNanos && leases.compareAndSet(0, EVICTED);
+        }
+    }
+
+    /**
+     * Holds a lease on a shared client for each request from when it is sent until its response is closed. A request
+     * which finds the client already closed is sent with the client which replaced it.
+     */
+    private class LeasedTransport implements RestTransport {
+        private final RestTransport transport;
+        private final Entry entry;
+        private final String fingerprint;
+        private final Supplier<InitializedClient> factory;
+
+        LeasedTransport(RestTransport transport, Entry entry, String fingerprint, Supplier<InitializedClient> factory) {
+            this.transport = transport;
+            this.entry = entry;
+            this.fingerprint = fingerprint;
+            this.factory = factory;
+        }
+
+        @Override
+        public TransportResponse execute(TransportRequest request) throws Exception {
+            if (!entry.tryLease()) {
+                return replacement().execute(request);
+            }
+            TransportResponse response = null;
+            try {
+                response = transport.execute(request);
+                return response != null ? new LeasedResponse(response, entry) : null;
+            } finally {
+                if (response == null) {
+                    entry.release();
+                }
+            }
+        }
+
+        @Override
+        public CompletionStage<TransportResponse> executeAsync(TransportRequest request) {
+            if (!entry.tryLease()) {
+                try {
+                    return replacement().executeAsync(request);
+                } catch (Exception e) {
+                    CompletableFuture<TransportResponse> failed = new CompletableFuture<>();
+                    failed.completeExceptionally(e);
+                    return failed;
+                }
+            }
+            CompletableFuture<TransportResponse> sent;
+            try {
+                sent = transport.executeAsync(request).toCompletableFuture();
+            } catch (RuntimeException e) {
+                entry.release();
+                throw e;
+            }
+
+            CompletableFuture<TransportResponse> leased = new CompletableFuture<>();
+            sent.whenComplete((response, error) -> {
+                if (error != null) {
+                    entry.release();
+                    leased.completeExceptionally(error);
+                } else if (response == null) {
+                    entry.release();
+                    leased.complete(null);
+                } else if (!leased.complete(new LeasedResponse(response, entry))) {
+                    // The request was abandoned before its response arrived
+                    response.close();
+                    entry.release();
+                }
+            });
+            leased.whenComplete((response, error) -> {
+                if (leased.isCancelled()) {
+                    sent.cancel(true);
+                }
+            });
+            return leased;
+        }
+
+        private RestTransport replacement() throws InstantiationException {
+            InitializedClient replacement = acquire(fingerprint, factory);
+            if (replacement.getCaughtException() != null) {
+                throw new InstantiationException(replacement.getCaughtException().getMessage());
+            }
+            return replacement.getTransport();
+        }
+    }
+
+    /**
+     * Releases the lease of its request once closed.
+     */
+    private static class LeasedResponse implements TransportResponse {
+        private final TransportResponse response;
+        private final Entry entry;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        LeasedResponse(TransportResponse response, Entry entry) {
+            this.response = response;
+            this.entry = entry;
+        }
+
+        @Override
+        public int getStatus() {
+            return response.getStatus();
+        }
+
+        @Override
+        public MultivaluedMap<String, String> getHeaders() {
+            return response.getHeaders();
+        }
+
+        @Override
+        public String readEntity() {
+            return response.readEntity();
+        }
+
+        @Override
+        public byte[] readEntityBytes() {
+            return response.readEntityBytes();
+        }
+
+        @Override
+        public InputStream getEntityStream() {
+            return response.getEntityStream();
+        }
+
+        @Override
+        public Charset getCharset() {
+            return response.getCharset();
+        }
+
+        @Override
+        public void close() {
+            try {
+                response.close();
+            } finally {
+                if (closed.compareAndSet(false, true)) {
+                    entry.release();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.client;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import org.onap.aai.restclient.transport.TransportResponse;
+
+/**
+ * The result of a REST request whose response body is streamed to the caller rather than read into a String. When the
+ * request was successful the body is available from {@link #getInputStream()}, and the connection is held until the
+ * result is closed. Callers should therefore always close the result, ideally with a try-with-resources statement:
+ *
+ * <pre>
+ * try (StreamingOperationResult result = restClient.getStream(url, headers, MediaType.APPLICATION_JSON_TYPE)) {
+ *     if (result.wasSuccessful()) {
+ *         parser.parse(result.getInputStream());
+ *     }
+ * }
+ * </pre>
+ *
+ * <p>The body of an unsuccessful response is read in full and reported through {@link #getFailureCause()}, as it is
+ * for the buffered requests, in which case the connection has already been released.
+ */
+public class StreamingOperationResult extends OperationResult implements Closeable {
+
+    private TransportResponse response;
+    private InputStream inputStream;
+
+    public StreamingOperationResult() {
+        super();
+    }
+
+    /**
+     * Returns the response body. The stream is empty if the response had no body or the request failed.
+     */
+    public InputStream getInputStream() {
+        return inputStream != null ? inputStream : InputStream.nullInputStream();
+    }
+
+    /**
+     * Hands the open response to this result, which takes over responsibility for releasing its connection.
+     */
+    void setResponse(TransportResponse response, InputStream inputStream) {
+        this.response = response;
+        this.inputStream = inputStream;
+    }
+
+    /**
+     * Releases the connection held by this result. Any part of the body which has not been read is discarded.
+     */
+    @Override
+    public void close() throws IOException {
+        TransportResponse openResponse = response;
+        response = null;
+        try {
+            if (inputStream != null) {
+                inputStream.close();
+            }
+        } finally {
+            inputStream = null;
+            if (openResponse != null) {
+                openResponse.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.client;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * The outcome of {@link RestClient#warmUp}: whether the underlying client could be built, and how many connections
+ * were opened to each URL.
+ */
+public class WarmUpResult {
+
+    private final Throwable initializationFailure;
+    private final int connectionsPerHost;
+    private final Map<String, Integer> connectionsOpened;
+    private final Map<String, String> failures;
+    private final long elapsedTimeInMs;
+
+    public WarmUpResult(Throwable initializationFailure, int connectionsPerHost, Map<String, Integer> connectionsOpened,
+            Map<String, String> failures, long elapsedTimeInMs) {
+        this.initializationFailure = initializationFailure;
+        this.connectionsPerHost = connectionsPerHost;
+        this.connectionsOpened = Collections.unmodifiableMap(connectionsOpened);
+        this.failures = Collections.unmodifiableMap(failures);
+        this.elapsedTimeInMs = elapsedTimeInMs;
+    }
+
+    /**
+     * Returns true if the client was built and every connection asked for was opened.
+     */
+    public boolean isSuccessful() {
+        if (initializationFailure != null || !failures.isEmpty()) {
+            return false;
+        }
+        for (int opened : connectionsOpened.values()) {
+            if (opened < connectionsPerHost) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the reason the underlying client could not be built, or null if it was built.
+     */
+    public Throwable getInitializationFailure() {
+        return initializationFailure;
+    }
+
+    /**
+     * Returns the number of connections opened to each URL, keyed by URL.
+     */
+    public Map<String, Integer> getConnectionsOpened() {
+        return connectionsOpened;
+    }
+
+    /**
+     * Returns the cause of the first failed connection to each URL which had one, keyed by URL.
+     */
+    public Map<String, String> getFailures() {
+        return failures;
+    }
+
+    /**
+     * Returns how long the warm-up took, in ms.
+     */
+    public long getElapsedTimeInMs() {
+        return elapsedTimeInMs;
+    }
+
+    @Override
+    public String toString() {
+        return "WarmUpResult [successful=" + isSuccessful() + ", initializationFailure=" + initializationFailure
+                + ", connectionsOpened=" + connectionsOpened + ", failures=" + failures + ", elapsedTimeInMs="
+                + elapsedTimeInMs + "]";
+    }
+}
@@ -0,0 +1,31 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.enums;
+
+/**
+ * Circuit Breaker States:
+ * <li>CLOSED - requests are sent, and their outcomes are recorded
+ * <li>OPEN - requests are rejected without being sent, until the breaker has waited long enough to try again
+ * <li>HALF_OPEN - a limited number of trial requests are sent to decide whether to close the breaker or open it again
+ */
+public enum CircuitBreakerState {
+  CLOSED, OPEN, HALF_OPEN
+}
@@ -0,0 +1,31 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.enums;
+
+/**
+ * Load Balanced Endpoint States:
+ * <li>HEALTHY - the endpoint is picked from for requests
+ * <li>EJECTED - the endpoint failed or was far slower than the others, and is left out until its ejection time is up
+ * <li>PROBATION - the endpoint is picked from again, but one more failure ejects it for longer
+ */
+public enum EndpointState {
+  HEALTHY, EJECTED, PROBATION
+}
@@ -57,6 +57,97 @@ public enum RestClientMsgs implements LogMessageEnum {
    */
   HTTP_REQUEST_TIME_WITH_RETRIES,
 
+  /**
+   * Arguments: 
+   *    {0} = HTTP operation 
+   *    {1} - URL 
+   *    {2} - Attempt count. 
+   *    {3} - Response code of the attempt.
+   *    {4} - Delay before the next attempt in ms.
+   */
+  HTTP_REQUEST_RETRY_SCHEDULED,
+
+  /**
+   * Arguments: 
+   *    {0} = HTTP operation 
+   *    {1} - URL 
+   *    {2} - Hedge delay in ms.
+   */
+  HTTP_REQUEST_HEDGED,
+
+  /**
+   * Arguments: 
+   *    {0} = HTTP operation 
+   *    {1} - URL 
+   *    {2} - Attempt count.
+   */
+  HTTP_REQUEST_RETRY_BUDGET_EXHAUSTED,
+
+  /**
+   * Arguments: 
+   *    {0} = Endpoint 
+   *    {1} - Failure rate percentage. 
+   *    {2} - Slow call rate percentage.
+   *    {3} - Time calls are rejected for in ms.
+   */
+  CIRCUIT_BREAKER_OPENED,
+
+  /**
+   * Arguments: 
+   *    {0} = Number of requests completed 
+   *    {1} - Failure rate percentage.
+   */
+  BATCH_ABORTED,
+
+  /**
+   * Arguments: 
+   *    {0} = Key store or trust store file
+   */
+  SSL_MATERIAL_RELOADED,
+
+  /**
+   * Arguments: 
+   *    {0} = Key store or trust store file 
+   *    {1} - Failure cause.
+   */
+  SSL_MATERIAL_LOAD_FAILURE,
+
+  /**
+   * Arguments: 
+   *    {0} = Connections opened 
+   *    {1} = Connections asked for 
+   *    {2} = URL 
+   *    {3} = Elapsed time in ms
+   */
+  WARM_UP_COMPLETE,
+
+  /**
+   * Arguments: 
+   *    {0} = Endpoint 
+   *    {1} = Ejection time in ms 
+   *    {2} = Reason
+   */
+  ENDPOINT_EJECTED,
+
+  /**
+   * Arguments: 
+   *    {0} = Endpoint
+   */
+  ENDPOINT_READMITTED,
+
+  /**
+   * Arguments: 
+   *    {0} = Endpoint 
+   *    {1} - Number of trial calls permitted.
+   */
+  CIRCUIT_BREAKER_HALF_OPENED,
+
+  /**
+   * Arguments: 
+   *    {0} = Endpoint
+   */
+  CIRCUIT_BREAKER_CLOSED,
+
   /**
    * Arguments: 
    *    {0} = HTTP operation 
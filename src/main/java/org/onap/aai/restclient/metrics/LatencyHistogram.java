@@ -0,0 +1,109 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of latencies in microseconds, in the style of an HdrHistogram: values below 256 are counted exactly, and
+ * larger ones in buckets whose width doubles with each power of two, 128 to a power, so that every value is recorded
+ * to within 0.8% of its magnitude. Values up to an hour are tracked; longer ones are counted as an hour.
+ *
+ * <p>Recording a value is a single atomic increment, so it never blocks and never allocates. A snapshot taken with
+ * {@link #getSnapshotAndReset()} zeroes each count as it is copied, so every value recorded at the same time ends up
+ * in either that snapshot or the next one.
+ */
+public final class LatencyHistogram {
+
+    public static final long HIGHEST_TRACKABLE_MICROS = 3_600_000_000L;
+
+    static final int SUB_BUCKET_BITS = 8;
+    static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT / 2;
+    static final int BUCKET_COUNT = indexOf(HIGHEST_TRACKABLE_MICROS) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    /**
+     * Records a latency.
+     *
+     * @param micros - The latency in microseconds. Negative values are counted as 0.
+     */
+    public void record(long micros) {
+        counts.incrementAndGet(indexOf(Math.min(Math.max(micros, 0), HIGHEST_TRACKABLE_MICROS)));
+    }
+
+    /**
+     * Returns a copy of the counts recorded since the histogram was created or last reset.
+     */
+    public LatencySnapshot getSnapshot() {
+        long[] copy = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            copy[i] = counts.get(i);
+        }
+        return new LatencySnapshot(copy);
+    }
+
+    /**
+     * Returns a copy of the counts recorded since the histogram was created or last reset, and resets them.
+     */
+    public LatencySnapshot getSnapshotAndReset() {
+        long[] copy = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            copy[i] = counts.get(i) != 0 ? counts.getAndSet(i, 0) : 0;
+        }
+        return new LatencySnapshot(copy);
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        // Shift the value so that it has as many significant bits as half the sub-buckets
+        int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF_COUNT + (int) (value >>> shift)
+                - SUB_BUCKET_HALF_COUNT;
+    }
+
+    /**
+     * Returns the smallest value counted in the bucket with the given index.
+     */
+    static long lowestValueAt(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF_COUNT + 1;
+        long subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_HALF_COUNT + SUB_BUCKET_HALF_COUNT;
+        return subBucket << shift;
+    }
+
+    /**
+     * Returns the largest value counted in the bucket with the given index.
+     */
+    static long highestValueAt(int index) {
+        return index + 1 < BUCKET_COUNT ? lowestValueAt(index + 1) - 1 : HIGHEST_TRACKABLE_MICROS;
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram [" + getSnapshot() + "]";
+    }
+}
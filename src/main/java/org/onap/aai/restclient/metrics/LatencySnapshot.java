@@ -0,0 +1,132 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.metrics;
+
+/**
+ * The latencies recorded by a {@link LatencyHistogram} at one point in time. Percentiles are reported as the largest
+ * value of the bucket they fall in, so they are never understated. Instances are immutable.
+ */
+public final class LatencySnapshot {
+
+    static final LatencySnapshot EMPTY = new LatencySnapshot(new long[LatencyHistogram.BUCKET_COUNT]);
+
+    private final long[] counts;
+    private final long count;
+
+    LatencySnapshot(long[] counts) {
+        this.counts = counts;
+        long total = 0;
+        for (long bucketCount : counts) {
+            total += bucketCount;
+        }
+        this.count = total;
+    }
+
+    /**
+     * Returns a snapshot holding the latencies of this snapshot and another.
+     */
+    public LatencySnapshot merge(LatencySnapshot other) {
+        long[] merged = counts.clone();
+        for (int i = 0; i < merged.length; i++) {
+            merged[i] += other.counts[i];
+        }
+        return new LatencySnapshot(merged);
+    }
+
+    /**
+     * Returns the number of latencies recorded.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the latency in microseconds which the given percentage of the recorded latencies are at or below, or 0
+     * if none were recorded.
+     *
+     * @param percentile - The percentile, from 0 to 100.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(Math.max(percentile, 0), 100) / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return LatencyHistogram.highestValueAt(i);
+            }
+        }
+        return getMaxMicros();
+    }
+
+    public long getP50Micros() {
+        return getValueAtPercentile(50);
+    }
+
+    public long getP90Micros() {
+        return getValueAtPercentile(90);
+    }
+
+    public long getP99Micros() {
+        return getValueAtPercentile(99);
+    }
+
+    public long getP999Micros() {
+        return getValueAtPercentile(99.9);
+    }
+
+    /**
+     * Returns the largest latency recorded, to the precision of the histogram, or 0 if none were recorded.
+     */
+    public long getMaxMicros() {
+        for (int i = counts.length - 1; i >= 0; i--) {
+            if (counts[i] != 0) {
+                return LatencyHistogram.highestValueAt(i);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the mean latency, taking each latency as the middle of its bucket, or 0 if none were recorded.
+     */
+    public double getMeanMicros() {
+        if (count == 0) {
+            return 0;
+        }
+        double total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                total += counts[i]
+                        * ((LatencyHistogram.lowestValueAt(i) + LatencyHistogram.highestValueAt(i)) / 2.0);
+            }
+        }
+        return total / count;
+    }
+
+    @Override
+    public String toString() {
+        return "LatencySnapshot [count=" + count + ", p50=" + getP50Micros() + ", p99=" + getP99Micros() + ", p999="
+                + getP999Micros() + ", max=" + getMaxMicros() + "]";
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.metrics;
+
+import java.util.Objects;
+import javax.ws.rs.core.Response.Status.Family;
+import org.onap.aai.restclient.enums.RequestType;
+
+/**
+ * Identifies the requests a latency histogram counts: their verb, the endpoint they were sent to, and the class of
+ * their status code. Instances are immutable.
+ */
+public final class MetricKey {
+
+    private final RequestType requestType;
+    private final String endpoint;
+    private final Family statusFamily;
+
+    public MetricKey(RequestType requestType, String endpoint, Family statusFamily) {
+        this.requestType = requestType;
+        this.endpoint = endpoint;
+        this.statusFamily = statusFamily;
+    }
+
+    public RequestType getRequestType() {
+        return requestType;
+    }
+
+    /**
+     * Returns the scheme, host and port the requests were sent to, or null if the URL did not name a host.
+     */
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public Family getStatusFamily() {
+        return statusFamily;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof MetricKey)) {
+            return false;
+        }
+        MetricKey other = (MetricKey) obj;
+        return requestType == other.requestType && Objects.equals(endpoint, other.endpoint)
+                && statusFamily == other.statusFamily;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(requestType, endpoint, statusFamily);
+    }
+
+    @Override
+    public String toString() {
+        return requestType + " " + endpoint + " " + statusFamily;
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.core.Response.Status.Family;
+import org.onap.aai.restclient.enums.RequestType;
+import org.onap.aai.restclient.resilience.Endpoints;
+
+/**
+ * Records the latency of the requests sent by a client, in a {@link LatencyHistogram} for each verb, endpoint and
+ * class of status code. A request which fails without a response is counted as a server error, as its result is.
+ *
+ * <p>For interval reporting, a reporter calls {@link #getSnapshotAndReset()} periodically, which returns the requests
+ * recorded since its last call. {@link #getSnapshot()} returns the requests recorded since the last reset without
+ * resetting anything.
+ */
+public class RequestMetrics {
+
+    private final ConcurrentHashMap<MetricKey, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private volatile long intervalStartMs = System.currentTimeMillis();
+
+    /**
+     * Records a request.
+     *
+     * @param requestType - The verb of the request.
+     * @param url - The URL the request was sent to.
+     * @param statusCode - The status code of the result.
+     * @param latencyNanos - The time from sending the request to receiving the response.
+     */
+    public void record(RequestType requestType, String url, int statusCode, long latencyNanos) {
+        MetricKey key = new MetricKey(requestType, Endpoints.key(url), Family.familyOf(statusCode));
+        LatencyHistogram histogram = histograms.get(key);
+        if (histogram == null) {
+            histogram = histograms.computeIfAbsent(key, k -> new LatencyHistogram());
+        }
+        histogram.record(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+    }
+
+    /**
+     * Returns the requests recorded since the metrics were created or last reset.
+     */
+    public RequestMetricsSnapshot getSnapshot() {
+        return snapshot(false);
+    }
+
+    /**
+     * Returns the requests recorded since the metrics were created or last reset, and resets them.
+     */
+    public RequestMetricsSnapshot getSnapshotAndReset() {
+        return snapshot(true);
+    }
+
+    private RequestMetricsSnapshot snapshot(boolean reset) {
+        long nowMs = System.currentTimeMillis();
+        long startMs = intervalStartMs;
+        if (reset) {
+            intervalStartMs = nowMs;
+        }
+        Map<MetricKey, LatencySnapshot> snapshots = new HashMap<>();
+        for (Map.Entry<MetricKey, LatencyHistogram> histogram : histograms.entrySet()) {
+            LatencySnapshot snapshot =
+                    reset ? histogram.getValue().getSnapshotAndReset() : histogram.getValue().getSnapshot();
+            if (snapshot.getCount() > 0) {
+                snapshots.put(histogram.getKey(), snapshot);
+            }
+        }
+        return new RequestMetricsSnapshot(snapshots, nowMs - startMs);
+    }
+
+    @Override
+    public String toString() {
+        return "RequestMetrics [" + getSnapshot() + "]";
+    }
+}
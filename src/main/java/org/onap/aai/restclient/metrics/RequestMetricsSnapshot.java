@@ -0,0 +1,126 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Map.Entry;
+import javax.ws.rs.core.Response.Status.Family;
+import org.onap.aai.restclient.enums.RequestType;
+
+/**
+ * The requests recorded by {@link RequestMetrics} over an interval, by verb, endpoint and class of status code.
+ * Instances are immutable.
+ */
+public final class RequestMetricsSnapshot {
+
+    private final Map<MetricKey, LatencySnapshot> histograms;
+    private final long intervalMs;
+
+    RequestMetricsSnapshot(Map<MetricKey, LatencySnapshot> histograms, long intervalMs) {
+        this.histograms = Collections.unmodifiableMap(histograms);
+        this.intervalMs = intervalMs;
+    }
+
+    /**
+     * Returns the latencies of each combination of verb, endpoint and status class which saw requests.
+     */
+    public Map<MetricKey, LatencySnapshot> getHistograms() {
+        return histograms;
+    }
+
+    /**
+     * Returns the length of the interval the requests were recorded over.
+     */
+    public long getIntervalMs() {
+        return intervalMs;
+    }
+
+    /**
+     * Returns the latencies of all the requests.
+     */
+    public LatencySnapshot getLatency() {
+        return getLatency(null, null, null);
+    }
+
+    /**
+     * Returns the latencies of the requests matching the given verb, endpoint and status class, any of which may be
+     * null to match all.
+     */
+    public LatencySnapshot getLatency(RequestType requestType, String endpoint, Family statusFamily) {
+        LatencySnapshot merged = LatencySnapshot.EMPTY;
+        for (Entry<MetricKey, LatencySnapshot> histogram : histograms.entrySet()) {
+            MetricKey key = histogram.getKey();
+            if ((requestType == null || requestType == key.getRequestType())
+                    && (endpoint == null || endpoint.equals(key.getEndpoint()))
+                    && (statusFamily == null || statusFamily == key.getStatusFamily())) {
+                merged = merged.merge(histogram.getValue());
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Returns the number of requests recorded.
+     */
+    public long getCount() {
+        long count = 0;
+        for (LatencySnapshot histogram : histograms.values()) {
+            count += histogram.getCount();
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of requests which failed with a server error, or without a response.
+     */
+    public long getErrorCount() {
+        long errors = 0;
+        for (Entry<MetricKey, LatencySnapshot> histogram : histograms.entrySet()) {
+            Family family = histogram.getKey().getStatusFamily();
+            if (family == Family.SERVER_ERROR || family == Family.OTHER) {
+                errors += histogram.getValue().getCount();
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * Returns the share of the requests which failed with a server error or without a response, between 0 and 1.
+     */
+    public double getErrorRate() {
+        long count = getCount();
+        return count > 0 ? (double) getErrorCount() / count : 0;
+    }
+
+    /**
+     * Returns the number of requests per second over the interval.
+     */
+    public double getThroughput() {
+        return intervalMs > 0 ? getCount() * 1000.0 / intervalMs : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "RequestMetricsSnapshot [intervalMs=" + intervalMs + ", count=" + getCount() + ", errorRate="
+                + getErrorRate() + ", latency=" + getLatency() + "]";
+    }
+}
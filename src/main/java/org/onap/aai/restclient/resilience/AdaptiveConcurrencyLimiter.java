@@ -0,0 +1,289 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.resilience;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Caps the number of requests in flight to an endpoint, with a limit which adapts to the latency the endpoint shows,
+ * so that a slow endpoint cannot tie up every thread of the caller and the time requests spend queued stays bounded.
+ *
+ * <p>The limit follows an additive increase, multiplicative decrease scheme. A request which completes normally while
+ * at least half of the limit is in use raises the limit by one. A request which fails to get a response, is throttled
+ * by the server, or completes while the smoothed latency is above the tolerated multiple of the lowest recent latency,
+ * cuts the limit by the backoff ratio, at most once per round trip. The lowest latency is forgotten periodically, so
+ * the limiter adapts when the normal latency of the endpoint changes.
+ *
+ * <p>Every counter is updated with compare-and-set, so taking and returning a permit never blocks. Only a request
+ * which has to wait for a permit takes a lock, to sleep until one is returned.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    /** Weight of the latest sample in the smoothed latency. */
+    private static final double SMOOTHING_FACTOR = 0.1;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double latencyTolerance;
+    private final long minRttWindowNanos;
+    private final long maxWaitNanos;
+    private final LongSupplier nanoClock;
+    private final ConcurrencyLimitExceededException rejection;
+
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    private final AtomicLong minRttNanos = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong minRttExpiresNanos = new AtomicLong();
+    private final AtomicLong smoothedRttNanos = new AtomicLong();
+    private final AtomicLong lastDecreaseNanos = new AtomicLong();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitReleased = lock.newCondition();
+
+    /**
+     * Creates a concurrency limiter.
+     *
+     * @param name - The name of the endpoint the limiter protects.
+     * @param config - The settings of the limiter.
+     */
+    public AdaptiveConcurrencyLimiter(String name, ConcurrencyLimiterConfig config) {
+        this(name, config, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimiter(String name, ConcurrencyLimiterConfig config, LongSupplier nanoClock) {
+        this.name = name;
+        this.minLimit = config.getMinLimit();
+        this.maxLimit = Math.max(config.getMaxLimit(), minLimit);
+        this.backoffRatio = config.getBackoffRatio();
+        this.latencyTolerance = config.getLatencyTolerance();
+        this.minRttWindowNanos = TimeUnit.MILLISECONDS.toNanos(config.getMinRttWindowMs());
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(config.getMaxWaitMs());
+        this.nanoClock = nanoClock;
+        this.rejection = new ConcurrencyLimitExceededException(name);
+        this.limit = new AtomicInteger(Math.min(maxLimit, Math.max(minLimit, config.getInitialLimit())));
+        long now = nanoClock.getAsLong();
+        this.minRttExpiresNanos.set(now);
+        this.lastDecreaseNanos.set(now);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return limit.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Returns the exception describing a request rejected by this limiter. It carries no stack trace, so one instance
+     * is shared by every rejected request.
+     */
+    public ConcurrencyLimitExceededException getRejection() {
+        return rejection;
+    }
+
+    /**
+     * Takes a permit, waiting for up to the configured maximum wait if the limit has been reached.
+     *
+     * @return true if a permit was taken, false if the request must be rejected.
+     */
+    public boolean tryAcquire() {
+        return tryAcquire(maxWaitNanos);
+    }
+
+    /**
+     * Takes a permit, waiting for up to the given time if the limit has been reached. Every permit taken must be
+     * returned with {@link #release(long, boolean)} or {@link #releaseUnused()}.
+     *
+     * @param timeoutNanos - The longest time to wait, or 0 to reject the request straight away.
+     *
+     * @return true if a permit was taken, false if the request must be rejected.
+     */
+    public boolean tryAcquire(long timeoutNanos) {
+        if (tryIncrementInFlight()) {
+            return true;
+        }
+        if (timeoutNanos <= 0) {
+            rejected.increment();
+            return false;
+        }
+
+        long deadline = System.nanoTime() + timeoutNanos;
+        waiting.incrementAndGet();
+        lock.lock();
+        try {
+            while (!tryIncrementInFlight()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    rejected.increment();
+                    return false;
+                }
+                permitReleased.awaitNanos(remaining);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rejected.increment();
+            return false;
+        } finally {
+            lock.unlock();
+            waiting.decrementAndGet();
+        }
+    }
+
+    /**
+     * Returns a permit and adjusts the limit with the outcome of the request it was taken for.
+     *
+     * @param rttNanos - The time the request took.
+     * @param overloaded - Whether the request failed in a way which suggests the endpoint is overloaded.
+     */
+    public void release(long rttNanos, boolean overloaded) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        long now = nanoClock.getAsLong();
+        long smoothedRtt = updateRtt(rttNanos, now);
+
+        int permitsFreed = 1;
+        if (overloaded || smoothedRtt > minRttNanos.get() * latencyTolerance) {
+            decreaseLimit(now, smoothedRtt);
+        } else if (inFlightBefore * 2 >= limit.get() && increaseLimit()) {
+            permitsFreed++;
+        }
+        signalWaiters(permitsFreed);
+    }
+
+    /**
+     * Returns a permit for a request which was never sent, without adjusting the limit.
+     */
+    public void releaseUnused() {
+        inFlight.decrementAndGet();
+        signalWaiters(1);
+    }
+
+    /**
+     * Returns a snapshot of the state of the limiter.
+     */
+    public ConcurrencyLimiterStats getStats() {
+        long minRtt = minRttNanos.get();
+        return new ConcurrencyLimiterStats(name, limit.get(), inFlight.get(), waiting.get(), rejected.sum(),
+                minRtt == Long.MAX_VALUE ? 0 : TimeUnit.NANOSECONDS.toMicros(minRtt),
+                TimeUnit.NANOSECONDS.toMicros(smoothedRttNanos.get()));
+    }
+
+    private boolean tryIncrementInFlight() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Folds a sample into the smoothed latency and the lowest recent latency, returning the smoothed latency.
+     * Concurrent updates may occasionally lose a sample, which the smoothing makes harmless.
+     */
+    private long updateRtt(long rttNanos, long now) {
+        long expires = minRttExpiresNanos.get();
+        if (now - expires >= 0 && minRttExpiresNanos.compareAndSet(expires, now + minRttWindowNanos)) {
+            minRttNanos.set(rttNanos);
+        } else {
+            long minRtt;
+            while (rttNanos < (minRtt = minRttNanos.get()) && !minRttNanos.compareAndSet(minRtt, rttNanos)) {
+                // Lost a race with another sample, try again
+            }
+        }
+
+        long previous = smoothedRttNanos.get();
+        long smoothed = previous == 0 ? rttNanos
+                : (long) (previous + SMOOTHING_FACTOR * (rttNanos - previous));
+        smoothedRttNanos.set(smoothed);
+        return smoothed;
+    }
+
+    private void decreaseLimit(long now, long smoothedRtt) {
+        long lastDecrease = lastDecreaseNanos.get();
+        if (now - lastDecrease < smoothedRtt || !lastDecreaseNanos.compareAndSet(lastDecrease, now)) {
+            // The limit was cut less than a round trip ago, so this sample may reflect the old limit
+            return;
+        }
+        int current;
+        int next;
+        do {
+            current = limit.get();
+            next = Math.max(minLimit, (int) (current * backoffRatio));
+        } while (next != current && !limit.compareAndSet(current, next));
+    }
+
+    /**
+     * Raises the limit by one unless it is already at the maximum, returning whether it was raised.
+     */
+    private boolean increaseLimit() {
+        int current;
+        do {
+            current = limit.get();
+            if (current >= maxLimit) {
+                return false;
+            }
+        } while (!limit.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Wakes one waiting request for each permit which became available, so that a raised limit is used at once
+     * rather than only when the next permit is returned.
+     */
+    private void signalWaiters(int permits) {
+        if (waiting.get() > 0) {
+            lock.lock();
+            try {
+                for (int i = 0; i < permits; i++) {
+                    permitReleased.signal();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveConcurrencyLimiter [name=" + name + ", limit=" + limit.get() + ", inFlight=" + inFlight.get()
+                + "]";
+    }
+}
@@ -0,0 +1,284 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.resilience;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import org.onap.aai.restclient.enums.CircuitBreakerState;
+import org.onap.aai.restclient.logging.RestClientMsgs;
+
+import com.att.eelf.configuration.EELFLogger;
+import com.att.eelf.configuration.EELFManager;
+
+/**
+ * Stops requests from being sent to an endpoint which is failing, or answering too slowly, so that callers fail
+ * straight away instead of each waiting for a timeout.
+ *
+ * <p>While the breaker is {@link CircuitBreakerState#CLOSED} the outcome of every call is recorded in a sliding window
+ * of the most recent calls. Once the window holds enough calls, and the share of them which failed or were slow
+ * reaches its threshold, the breaker opens. An {@link CircuitBreakerState#OPEN} breaker rejects every call until the
+ * wait duration has passed, and then becomes {@link CircuitBreakerState#HALF_OPEN}, letting a few trial calls through.
+ * The breaker closes again if the trial calls stay below the thresholds, and opens again otherwise.
+ *
+ * <p>Asking for permission only reads volatile fields while the breaker is closed or open, so a rejected call costs
+ * no more than a clock read. Outcomes are recorded under a lock, which is never held while waiting on the network.
+ */
+public class CircuitBreaker {
+
+    private static final byte FAILED = 1;
+    private static final byte SLOW = 2;
+
+    /** Standard logger for producing log statements. */
+    private static EELFLogger logger = EELFManager.getLogger(CircuitBreaker.class.getName());
+
+    private final String name;
+    private final float failureRateThreshold;
+    private final float slowCallRateThreshold;
+    private final long slowCallDurationMs;
+    private final int minimumNumberOfCalls;
+    private final long waitDurationInOpenStateMs;
+    private final int permittedCallsInHalfOpenState;
+    private final LongSupplier nanoClock;
+    private final CircuitBreakerOpenException openException;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /** Outcomes of the most recent calls made while closed, guarded by the lock. */
+    private final byte[] outcomes;
+    private int nextOutcome;
+    private int bufferedCalls;
+    private int failedCalls;
+    private int slowCalls;
+
+    /** Outcomes of the trial calls made while half open, guarded by the lock. */
+    private int trialCalls;
+    private int failedTrialCalls;
+    private int slowTrialCalls;
+
+    private volatile CircuitBreakerState state = CircuitBreakerState.CLOSED;
+    private volatile long openUntilNanos;
+    private final AtomicInteger trialPermits = new AtomicInteger();
+    private final LongAdder notPermittedCalls = new LongAdder();
+
+    /**
+     * Creates a circuit breaker.
+     *
+     * @param name - The name of the endpoint the breaker protects, used in log messages.
+     * @param config - The settings of the breaker.
+     */
+    public CircuitBreaker(String name, CircuitBreakerConfig config) {
+        this(name, config, System::nanoTime);
+    }
+
+    CircuitBreaker(String name, CircuitBreakerConfig config, LongSupplier nanoClock) {
+        this.name = name;
+        this.failureRateThreshold = config.getFailureRateThreshold();
+        this.slowCallRateThreshold = config.getSlowCallRateThreshold();
+        this.slowCallDurationMs = config.getSlowCallDurationMs();
+        this.minimumNumberOfCalls = Math.min(config.getMinimumNumberOfCalls(), config.getSlidingWindowSize());
+        this.waitDurationInOpenStateMs = config.getWaitDurationInOpenStateMs();
+        this.permittedCallsInHalfOpenState = config.getPermittedCallsInHalfOpenState();
+        this.outcomes = new byte[config.getSlidingWindowSize()];
+        this.nanoClock = nanoClock;
+        this.openException = new CircuitBreakerOpenException(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public CircuitBreakerState getState() {
+        return state;
+    }
+
+    /**
+     * Returns the exception describing a call rejected by this breaker. It carries no stack trace, so one instance is
+     * shared by every rejected call.
+     */
+    public CircuitBreakerOpenException getOpenException() {
+        return openException;
+    }
+
+    /**
+     * Asks for permission to make a call. Every permitted call must be followed by a call to
+     * {@link #onSuccess(long)} or {@link #onError(long)}.
+     *
+     * @return true if the call may be made, false if it must be rejected.
+     */
+    public boolean tryAcquirePermission() {
+        while (true) {
+            CircuitBreakerState current = state;
+            if (current == CircuitBreakerState.CLOSED) {
+                return true;
+            }
+            if (current == CircuitBreakerState.OPEN) {
+                if (nanoClock.getAsLong() - openUntilNanos < 0) {
+                    notPermittedCalls.increment();
+                    return false;
+                }
+                moveToHalfOpen();
+                continue;
+            }
+            int permits = trialPermits.get();
+            if (permits <= 0) {
+                notPermittedCalls.increment();
+                return false;
+            }
+            if (trialPermits.compareAndSet(permits, permits - 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns a permission which went unused because the call was never made, so that it does not count as a trial
+     * call.
+     */
+    public void releasePermission() {
+        if (state == CircuitBreakerState.HALF_OPEN) {
+            trialPermits.incrementAndGet();
+        }
+    }
+
+    /**
+     * Records a call which succeeded.
+     *
+     * @param durationMs - The time the call took.
+     */
+    public void onSuccess(long durationMs) {
+        record(durationMs, false);
+    }
+
+    /**
+     * Records a call which failed.
+     *
+     * @param durationMs - The time the call took.
+     */
+    public void onError(long durationMs) {
+        record(durationMs, true);
+    }
+
+    /**
+     * Returns a snapshot of the state of the breaker.
+     */
+    public CircuitBreakerStats getStats() {
+        lock.lock();
+        try {
+            return new CircuitBreakerStats(name, state, rate(failedCalls, bufferedCalls),
+                    rate(slowCalls, bufferedCalls), bufferedCalls, failedCalls, slowCalls, notPermittedCalls.sum());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void record(long durationMs, boolean failed) {
+        boolean slow = durationMs >= slowCallDurationMs;
+        lock.lock();
+        try {
+            if (state == CircuitBreakerState.CLOSED) {
+                recordInWindow((byte) ((failed ? FAILED : 0) | (slow ? SLOW : 0)));
+                if (bufferedCalls >= minimumNumberOfCalls && thresholdReached(failedCalls, slowCalls, bufferedCalls)) {
+                    moveToOpen(failedCalls, slowCalls, bufferedCalls);
+                }
+            } else if (state == CircuitBreakerState.HALF_OPEN) {
+                trialCalls++;
+                failedTrialCalls += failed ? 1 : 0;
+                slowTrialCalls += slow ? 1 : 0;
+                if (thresholdReached(failedTrialCalls, slowTrialCalls, permittedCallsInHalfOpenState)) {
+                    moveToOpen(failedTrialCalls, slowTrialCalls, trialCalls);
+                } else if (trialCalls >= permittedCallsInHalfOpenState) {
+                    moveToClosed();
+                }
+            }
+            // Calls which complete while the breaker is open were permitted before it opened, and are ignored.
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void recordInWindow(byte outcome) {
+        if (bufferedCalls == outcomes.length) {
+            byte evicted = outcomes[nextOutcome];
+            failedCalls -= evicted & FAILED;
+            slowCalls -= (evicted & SLOW) >> 1;
+        } else {
+            bufferedCalls++;
+        }
+        outcomes[nextOutcome] = outcome;
+        failedCalls += outcome & FAILED;
+        slowCalls += (outcome & SLOW) >> 1;
+        nextOutcome = (nextOutcome + 1) % outcomes.length;
+    }
+
+    private boolean thresholdReached(int failed, int slow, int calls) {
+        return rate(failed, calls) >= failureRateThreshold || rate(slow, calls) >= slowCallRateThreshold;
+    }
+
+    private static float rate(int count, int calls) {
+        return calls == 0 ? 0 : count * 100.0f / calls;
+    }
+
+    /** Must be called holding the lock. */
+    private void moveToOpen(int failed, int slow, int calls) {
+        openUntilNanos = nanoClock.getAsLong() + TimeUnit.MILLISECONDS.toNanos(waitDurationInOpenStateMs);
+        state = CircuitBreakerState.OPEN;
+        logger.warn(RestClientMsgs.CIRCUIT_BREAKER_OPENED, name, Float.toString(rate(failed, calls)),
+                Float.toString(rate(slow, calls)), Long.toString(waitDurationInOpenStateMs));
+    }
+
+    private void moveToHalfOpen() {
+        lock.lock();
+        try {
+            if (state != CircuitBreakerState.OPEN || nanoClock.getAsLong() - openUntilNanos < 0) {
+                return;
+            }
+            trialCalls = 0;
+            failedTrialCalls = 0;
+            slowTrialCalls = 0;
+            trialPermits.set(permittedCallsInHalfOpenState);
+            state = CircuitBreakerState.HALF_OPEN;
+            logger.info(RestClientMsgs.CIRCUIT_BREAKER_HALF_OPENED, name,
+                    Integer.toString(permittedCallsInHalfOpenState));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Must be called holding the lock. */
+    private void moveToClosed() {
+        Arrays.fill(outcomes, (byte) 0);
+        nextOutcome = 0;
+        bufferedCalls = 0;
+        failedCalls = 0;
+        slowCalls = 0;
+        state = CircuitBreakerState.CLOSED;
+        logger.info(RestClientMsgs.CIRCUIT_BREAKER_CLOSED, name);
+    }
+
+    @Override
+    public String toString() {
+        return "CircuitBreaker [name=" + name + ", state=" + state + "]";
+    }
+}
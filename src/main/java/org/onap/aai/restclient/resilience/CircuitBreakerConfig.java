@@ -0,0 +1,160 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.resilience;
+
+import java.time.Duration;
+
+/**
+ * Settings for the {@link CircuitBreaker}s created by a {@link CircuitBreakerRegistry}. A breaker takes a copy of the
+ * settings when it is created, so changes only apply to endpoints contacted afterwards.
+ */
+public class CircuitBreakerConfig {
+
+    public static final float DEFAULT_FAILURE_RATE_THRESHOLD = 50;
+    public static final float DEFAULT_SLOW_CALL_RATE_THRESHOLD = 100;
+    public static final long DEFAULT_SLOW_CALL_DURATION_MS = 10000;
+    public static final int DEFAULT_SLIDING_WINDOW_SIZE = 100;
+    public static final int DEFAULT_MINIMUM_NUMBER_OF_CALLS = 20;
+    public static final long DEFAULT_WAIT_DURATION_IN_OPEN_STATE_MS = 30000;
+    public static final int DEFAULT_PERMITTED_CALLS_IN_HALF_OPEN_STATE = 5;
+
+    private float failureRateThreshold = DEFAULT_FAILURE_RATE_THRESHOLD;
+    private float slowCallRateThreshold = DEFAULT_SLOW_CALL_RATE_THRESHOLD;
+    private long slowCallDurationMs = DEFAULT_SLOW_CALL_DURATION_MS;
+    private int slidingWindowSize = DEFAULT_SLIDING_WINDOW_SIZE;
+    private int minimumNumberOfCalls = DEFAULT_MINIMUM_NUMBER_OF_CALLS;
+    private long waitDurationInOpenStateMs = DEFAULT_WAIT_DURATION_IN_OPEN_STATE_MS;
+    private int permittedCallsInHalfOpenState = DEFAULT_PERMITTED_CALLS_IN_HALF_OPEN_STATE;
+
+    /**
+     * Sets the percentage of failed calls in the sliding window at which the breaker opens.
+     */
+    public CircuitBreakerConfig failureRateThreshold(float percentage) {
+        this.failureRateThreshold = percentage(percentage, "failure rate threshold");
+        return this;
+    }
+
+    /**
+     * Sets the percentage of slow calls in the sliding window at which the breaker opens.
+     */
+    public CircuitBreakerConfig slowCallRateThreshold(float percentage) {
+        this.slowCallRateThreshold = percentage(percentage, "slow call rate threshold");
+        return this;
+    }
+
+    /**
+     * Sets the time after which a call counts as slow.
+     */
+    public CircuitBreakerConfig slowCallDuration(Duration duration) {
+        this.slowCallDurationMs = positiveMillis(duration, "slow call duration");
+        return this;
+    }
+
+    /**
+     * Sets the number of most recent calls the failure and slow call rates are calculated over.
+     */
+    public CircuitBreakerConfig slidingWindowSize(int size) {
+        this.slidingWindowSize = positive(size, "sliding window size");
+        return this;
+    }
+
+    /**
+     * Sets the number of calls which must be recorded before the rates are acted on.
+     */
+    public CircuitBreakerConfig minimumNumberOfCalls(int calls) {
+        this.minimumNumberOfCalls = positive(calls, "minimum number of calls");
+        return this;
+    }
+
+    /**
+     * Sets how long an open breaker rejects calls before letting trial calls through.
+     */
+    public CircuitBreakerConfig waitDurationInOpenState(Duration duration) {
+        this.waitDurationInOpenStateMs = positiveMillis(duration, "wait duration in open state");
+        return this;
+    }
+
+    /**
+     * Sets the number of trial calls let through by a half open breaker.
+     */
+    public CircuitBreakerConfig permittedCallsInHalfOpenState(int calls) {
+        this.permittedCallsInHalfOpenState = positive(calls, "number of permitted calls in half open state");
+        return this;
+    }
+
+    public float getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+
+    public float getSlowCallRateThreshold() {
+        return slowCallRateThreshold;
+    }
+
+    public long getSlowCallDurationMs() {
+        return slowCallDurationMs;
+    }
+
+    public int getSlidingWindowSize() {
+        return slidingWindowSize;
+    }
+
+    public int getMinimumNumberOfCalls() {
+        return minimumNumberOfCalls;
+    }
+
+    public long getWaitDurationInOpenStateMs() {
+        return waitDurationInOpenStateMs;
+    }
+
+    public int getPermittedCallsInHalfOpenState() {
+        return permittedCallsInHalfOpenState;
+    }
+
+    private static float percentage(float percentage, String name) {
+        if (!(percentage > 0 && percentage <= 100)) {
+            throw new IllegalArgumentException("The " + name + " must be above 0 and at most 100");
+        }
+        return percentage;
+    }
+
+    private static int positive(int value, String name) {
+        if (value < 1) {
+            throw new IllegalArgumentException("The " + name + " must be at least 1");
+        }
+        return value;
+    }
+
+    private static long positiveMillis(Duration duration, String name) {
+        if (duration == null || duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("The " + name + " must be positive");
+        }
+        return duration.toMillis();
+    }
+
+    @Override
+    public String toString() {
+        return "CircuitBreakerConfig [failureRateThreshold=" + failureRateThreshold + ", slowCallRateThreshold="
+                + slowCallRateThreshold + ", slowCallDurationMs=" + slowCallDurationMs + ", slidingWindowSize="
+                + slidingWindowSize + ", minimumNumberOfCalls=" + minimumNumberOfCalls
+                + ", waitDurationInOpenStateMs=" + waitDurationInOpenStateMs + ", permittedCallsInHalfOpenState="
+                + permittedCallsInHalfOpenState + "]";
+    }
+}
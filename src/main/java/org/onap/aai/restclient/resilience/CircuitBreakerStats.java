@@ -0,0 +1,104 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.resilience;
+
+import org.onap.aai.restclient.enums.CircuitBreakerState;
+
+/**
+ * A point-in-time snapshot of a {@link CircuitBreaker}.
+ */
+public class CircuitBreakerStats {
+
+    private final String name;
+    private final CircuitBreakerState state;
+    private final float failureRate;
+    private final float slowCallRate;
+    private final int bufferedCalls;
+    private final int failedCalls;
+    private final int slowCalls;
+    private final long notPermittedCalls;
+
+    public CircuitBreakerStats(String name, CircuitBreakerState state, float failureRate, float slowCallRate,
+            int bufferedCalls, int failedCalls, int slowCalls, long notPermittedCalls) {
+        this.name = name;
+        this.state = state;
+        this.failureRate = failureRate;
+        this.slowCallRate = slowCallRate;
+        this.bufferedCalls = bufferedCalls;
+        this.failedCalls = failedCalls;
+        this.slowCalls = slowCalls;
+        this.notPermittedCalls = notPermittedCalls;
+    }
+
+    /**
+     * Returns the name of the endpoint the breaker protects.
+     */
+    public String getName() {
+        return name;
+    }
+
+    public CircuitBreakerState getState() {
+        return state;
+    }
+
+    /**
+     * Returns the percentage of the calls in the sliding window which failed.
+     */
+    public float getFailureRate() {
+        return failureRate;
+    }
+
+    /**
+     * Returns the percentage of the calls in the sliding window which were slow.
+     */
+    public float getSlowCallRate() {
+        return slowCallRate;
+    }
+
+    /**
+     * Returns the number of calls in the sliding window.
+     */
+    public int getBufferedCalls() {
+        return bufferedCalls;
+    }
+
+    public int getFailedCalls() {
+        return failedCalls;
+    }
+
+    public int getSlowCalls() {
+        return slowCalls;
+    }
+
+    /**
+     * Returns the number of calls rejected since the breaker was created.
+     */
+    public long getNotPermittedCalls() {
+        return notPermittedCalls;
+    }
+
+    @Override
+    public String toString() {
+        return "CircuitBreakerStats [name=" + name + ", state=" + state + ", failureRate=" + failureRate
+                + ", slowCallRate=" + slowCallRate + ", bufferedCalls=" + bufferedCalls + ", failedCalls="
+                + failedCalls + ", slowCalls=" + slowCalls + ", notPermittedCalls=" + notPermittedCalls + "]";
+    }
+}
@@ -0,0 +1,158 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.resilience;
+
+import java.time.Duration;
+
+/**
+ * Settings for the {@link AdaptiveConcurrencyLimiter}s created by a {@link ConcurrencyLimiterRegistry}. A limiter takes
+ * a copy of the settings when it is created, so changes only apply to endpoints contacted afterwards.
+ */
+public class ConcurrencyLimiterConfig {
+
+    public static final int DEFAULT_INITIAL_LIMIT = 20;
+    public static final int DEFAULT_MIN_LIMIT = 1;
+    public static final int DEFAULT_MAX_LIMIT = 200;
+    public static final double DEFAULT_BACKOFF_RATIO = 0.9;
+    public static final double DEFAULT_LATENCY_TOLERANCE = 2.0;
+    public static final long DEFAULT_MIN_RTT_WINDOW_MS = 30000;
+
+    private int initialLimit = DEFAULT_INITIAL_LIMIT;
+    private int minLimit = DEFAULT_MIN_LIMIT;
+    private int maxLimit = DEFAULT_MAX_LIMIT;
+    private double backoffRatio = DEFAULT_BACKOFF_RATIO;
+    private double latencyTolerance = DEFAULT_LATENCY_TOLERANCE;
+    private long minRttWindowMs = DEFAULT_MIN_RTT_WINDOW_MS;
+    private long maxWaitMs = 0;
+
+    /**
+     * Sets the number of concurrent requests allowed before any latency has been observed.
+     */
+    public ConcurrencyLimiterConfig initialLimit(int limit) {
+        this.initialLimit = positive(limit, "initial limit");
+        return this;
+    }
+
+    /**
+     * Sets the number of concurrent requests the limit never drops below.
+     */
+    public ConcurrencyLimiterConfig minLimit(int limit) {
+        this.minLimit = positive(limit, "minimum limit");
+        return this;
+    }
+
+    /**
+     * Sets the number of concurrent requests the limit never grows above.
+     */
+    public ConcurrencyLimiterConfig maxLimit(int limit) {
+        this.maxLimit = positive(limit, "maximum limit");
+        return this;
+    }
+
+    /**
+     * Sets the factor the limit is multiplied by when the endpoint shows signs of overload.
+     */
+    public ConcurrencyLimiterConfig backoffRatio(double ratio) {
+        if (!(ratio > 0 && ratio < 1)) {
+            throw new IllegalArgumentException("The backoff ratio must be between 0 and 1");
+        }
+        this.backoffRatio = ratio;
+        return this;
+    }
+
+    /**
+     * Sets how many times the lowest recent latency the smoothed latency may reach before the endpoint is treated as
+     * overloaded.
+     */
+    public ConcurrencyLimiterConfig latencyTolerance(double tolerance) {
+        if (!(tolerance > 1)) {
+            throw new IllegalArgumentException("The latency tolerance must be greater than 1");
+        }
+        this.latencyTolerance = tolerance;
+        return this;
+    }
+
+    /**
+     * Sets how long the lowest observed latency is remembered for, which lets the limiter adapt when the normal
+     * latency of the endpoint changes.
+     */
+    public ConcurrencyLimiterConfig minRttWindow(Duration window) {
+        if (window == null || window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("The minimum latency window must be positive");
+        }
+        this.minRttWindowMs = window.toMillis();
+        return this;
+    }
+
+    /**
+     * Sets how long a request over the limit waits for another request to finish. With no wait, which is the default,
+     * a request over the limit is rejected straight away.
+     */
+    public ConcurrencyLimiterConfig maxWait(Duration maxWait) {
+        if (maxWait == null || maxWait.isNegative()) {
+            throw new IllegalArgumentException("The maximum wait must not be negative");
+        }
+        this.maxWaitMs = maxWait.toMillis();
+        return this;
+    }
+
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public double getBackoffRatio() {
+        return backoffRatio;
+    }
+
+    public double getLatencyTolerance() {
+        return latencyTolerance;
+    }
+
+    public long getMinRttWindowMs() {
+        return minRttWindowMs;
+    }
+
+    public long getMaxWaitMs() {
+        return maxWaitMs;
+    }
+
+    private static int positive(int value, String name) {
+        if (value < 1) {
+            throw new IllegalArgumentException("The " + name + " must be at least 1");
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrencyLimiterConfig [initialLimit=" + initialLimit + ", minLimit=" + minLimit + ", maxLimit="
+                + maxLimit + ", backoffRatio=" + backoffRatio + ", latencyTolerance=" + latencyTolerance
+                + ", minRttWindowMs=" + minRttWindowMs + ", maxWaitMs=" + maxWaitMs + "]";
+    }
+}
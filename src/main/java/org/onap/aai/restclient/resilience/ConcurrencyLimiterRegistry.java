@@ -0,0 +1,81 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.resilience;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Holds one {@link AdaptiveConcurrencyLimiter} for each endpoint a client talks to, an endpoint being identified by
+ * the scheme, host and port of the URLs sent to it. A registry may be shared by several clients.
+ */
+public class ConcurrencyLimiterRegistry {
+
+    private final ConcurrencyLimiterConfig config;
+    private final ConcurrentMap<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a registry whose limiters use the default settings.
+     */
+    public ConcurrencyLimiterRegistry() {
+        this(new ConcurrencyLimiterConfig());
+    }
+
+    public ConcurrencyLimiterRegistry(ConcurrencyLimiterConfig config) {
+        this.config = config;
+    }
+
+    public ConcurrencyLimiterConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Returns the limiter for the endpoint a URL points to, creating it the first time the endpoint is seen.
+     *
+     * @param url - The URL of a request.
+     *
+     * @return The concurrency limiter, or null if the URL does not name a host.
+     */
+    public AdaptiveConcurrencyLimiter forUrl(String url) {
+        String endpoint = Endpoints.key(url);
+        if (endpoint == null) {
+            return null;
+        }
+        AdaptiveConcurrencyLimiter limiter = limiters.get(endpoint);
+        if (limiter == null) {
+            limiter = limiters.computeIfAbsent(endpoint, key -> new AdaptiveConcurrencyLimiter(key, config));
+        }
+        return limiter;
+    }
+
+    /**
+     * Returns a snapshot of every limiter in the registry, keyed by endpoint.
+     */
+    public Map<String, ConcurrencyLimiterStats> getStats() {
+        Map<String, ConcurrencyLimiterStats> stats = new TreeMap<>();
+        for (AdaptiveConcurrencyLimiter limiter : limiters.values()) {
+            stats.put(limiter.getName(), limiter.getStats());
+        }
+        return stats;
+    }
+}
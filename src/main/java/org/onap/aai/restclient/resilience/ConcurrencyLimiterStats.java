@@ -0,0 +1,102 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.resilience;
+
+/**
+ * A point-in-time snapshot of an {@link AdaptiveConcurrencyLimiter}.
+ */
+public class ConcurrencyLimiterStats {
+
+    private final String name;
+    private final int limit;
+    private final int inFlight;
+    private final int waiting;
+    private final long rejected;
+    private final long minRttMicros;
+    private final long smoothedRttMicros;
+
+    public ConcurrencyLimiterStats(String name, int limit, int inFlight, int waiting, long rejected, long minRttMicros,
+            long smoothedRttMicros) {
+        this.name = name;
+        this.limit = limit;
+        this.inFlight = inFlight;
+        this.waiting = waiting;
+        this.rejected = rejected;
+        this.minRttMicros = minRttMicros;
+        this.smoothedRttMicros = smoothedRttMicros;
+    }
+
+    /**
+     * Returns the name of the endpoint the limiter protects.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the number of requests currently allowed in flight.
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Returns the number of requests currently in flight.
+     */
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * Returns the number of requests currently waiting for a permit.
+     */
+    public int getWaiting() {
+        return waiting;
+    }
+
+    /**
+     * Returns the number of requests rejected since the limiter was created.
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Returns the lowest latency seen in the current window, in microseconds.
+     */
+    public long getMinRttMicros() {
+        return minRttMicros;
+    }
+
+    /**
+     * Returns the smoothed latency of recent requests, in microseconds.
+     */
+    public long getSmoothedRttMicros() {
+        return smoothedRttMicros;
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrencyLimiterStats [name=" + name + ", limit=" + limit + ", inFlight=" + inFlight + ", waiting="
+                + waiting + ", rejected=" + rejected + ", minRttMicros=" + minRttMicros + ", smoothedRttMicros="
+                + smoothedRttMicros + "]";
+    }
+}
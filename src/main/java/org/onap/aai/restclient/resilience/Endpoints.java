@@ -0,0 +1,71 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.resilience;
+
+import java.util.Locale;
+
+/**
+ * Identifies the endpoint a request is sent to, for the resilience features which keep state per endpoint.
+ */
+public final class Endpoints {
+
+    private Endpoints() {}
+
+    /**
+     * Returns the scheme, host and port a URL points to, such as {@code https://aai.onap:8443}. The default port of
+     * the scheme is filled in when the URL has none, so that equivalent URLs map to the same endpoint.
+     *
+     * @param url - The URL of a request.
+     *
+     * @return The endpoint, or null if the URL does not name a host.
+     */
+    public static String key(String url) {
+        if (url == null) {
+            return null;
+        }
+        int schemeEnd = url.indexOf("://");
+        if (schemeEnd <= 0) {
+            return null;
+        }
+        int authorityStart = schemeEnd + 3;
+        int authorityEnd = authorityStart;
+        while (authorityEnd < url.length() && "/?#".indexOf(url.charAt(authorityEnd)) < 0) {
+            authorityEnd++;
+        }
+        int userInfoEnd = url.lastIndexOf('@', authorityEnd - 1);
+        int hostStart = userInfoEnd >= authorityStart ? userInfoEnd + 1 : authorityStart;
+        if (hostStart == authorityEnd) {
+            return null;
+        }
+
+        String scheme = url.substring(0, schemeEnd).toLowerCase(Locale.ROOT);
+        String hostAndPort = url.substring(hostStart, authorityEnd).toLowerCase(Locale.ROOT);
+        int portSeparator = hostAndPort.lastIndexOf(':');
+        if (portSeparator < 0 || portSeparator < hostAndPort.lastIndexOf(']')) {
+            if ("https".equals(scheme)) {
+                hostAndPort += ":443";
+            } else if ("http".equals(scheme)) {
+                hostAndPort += ":80";
+            }
+        }
+        return scheme + "://" + hostAndPort;
+    }
+}
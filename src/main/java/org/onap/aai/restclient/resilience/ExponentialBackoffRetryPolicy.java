@@ -0,0 +1,233 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.resilience;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.core.MultivaluedMap;
+import org.onap.aai.restclient.client.OperationResult;
+import org.onap.aai.restclient.enums.RequestType;
+
+/**
+ * A {@link RetryPolicy} which backs off exponentially between attempts, with decorrelated jitter so that clients which
+ * failed at the same moment do not retry in lock-step.
+ *
+ * <p>Each delay is drawn at random between the base delay and three times the previous delay, and is capped at the
+ * maximum delay. A {@code Retry-After} header on the response stretches the delay to the time the server asked for.
+ * A request is not retried once it has used up its attempts, or if the next attempt would start after the elapsed time
+ * budget has run out.
+ *
+ * <p>Only GET requests are retried by default. PUT, DELETE and HEAD requests are idempotent and can be retried once
+ * {@link #retryIdempotentRequests()} has been called. A request whose payload is streamed from a source which cannot
+ * be read twice is never retried.
+ */
+public class ExponentialBackoffRetryPolicy implements RetryPolicy {
+
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+    public static final long DEFAULT_BASE_DELAY_MS = 50;
+    public static final long DEFAULT_MAX_DELAY_MS = 10000;
+    public static final long DEFAULT_MAX_ELAPSED_TIME_MS = 30000;
+
+    /**
+     * Retries failures to connect or to exchange data with the server, and the status codes which report a server that
+     * is overloaded, restarting or failing transiently.
+     */
+    public static final RetryClassifier DEFAULT_CLASSIFIER = RetryClassifier
+            .statusCodes(408, 429, 500, 502, 503, 504)
+            .or(RetryClassifier.exceptions(IOException.class, ProcessingException.class));
+
+    private static final String RETRY_AFTER_HEADER = "Retry-After";
+
+    private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+    private long baseDelayMs = DEFAULT_BASE_DELAY_MS;
+    private long maxDelayMs = DEFAULT_MAX_DELAY_MS;
+    private long maxElapsedTimeMs = DEFAULT_MAX_ELAPSED_TIME_MS;
+    private boolean honorRetryAfter = true;
+    private RetryClassifier classifier = DEFAULT_CLASSIFIER;
+    private Set<RequestType> retryableRequestTypes = EnumSet.of(RequestType.GET);
+
+    /**
+     * Sets the maximum number of attempts made for a request, including the first one.
+     */
+    public ExponentialBackoffRetryPolicy maxAttempts(int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("The maximum number of attempts must be at least 1");
+        }
+        this.maxAttempts = maxAttempts;
+        return this;
+    }
+
+    /**
+     * Sets the shortest delay between attempts.
+     */
+    public ExponentialBackoffRetryPolicy baseDelay(Duration baseDelay) {
+        this.baseDelayMs = positiveMillis(baseDelay, "base delay");
+        return this;
+    }
+
+    /**
+     * Sets the longest delay between attempts that the policy chooses itself. A longer {@code Retry-After} from the
+     * server is still honored.
+     */
+    public ExponentialBackoffRetryPolicy maxDelay(Duration maxDelay) {
+        this.maxDelayMs = positiveMillis(maxDelay, "maximum delay");
+        return this;
+    }
+
+    /**
+     * Sets the time, measured from the start of the first attempt, after which no further attempt is started.
+     */
+    public ExponentialBackoffRetryPolicy maxElapsedTime(Duration maxElapsedTime) {
+        this.maxElapsedTimeMs = positiveMillis(maxElapsedTime, "maximum elapsed time");
+        return this;
+    }
+
+    /**
+     * Sets whether the delay is stretched to honor a {@code Retry-After} header on the response.
+     */
+    public ExponentialBackoffRetryPolicy honorRetryAfter(boolean honorRetryAfter) {
+        this.honorRetryAfter = honorRetryAfter;
+        return this;
+    }
+
+    /**
+     * Sets the classifier which decides which status codes and exceptions are retried.
+     */
+    public ExponentialBackoffRetryPolicy classifier(RetryClassifier classifier) {
+        if (classifier == null) {
+            throw new IllegalArgumentException("A retry classifier is required");
+        }
+        this.classifier = classifier;
+        return this;
+    }
+
+    /**
+     * Allows the idempotent PUT, DELETE and HEAD requests to be retried as well as GET requests.
+     */
+    public ExponentialBackoffRetryPolicy retryIdempotentRequests() {
+        EnumSet<RequestType> types = EnumSet.copyOf(retryableRequestTypes);
+        types.addAll(Arrays.asList(RequestType.PUT, RequestType.DELETE, RequestType.HEAD));
+        this.retryableRequestTypes = types;
+        return this;
+    }
+
+    /**
+     * Sets the kinds of request which may be retried. POST and PATCH requests are not idempotent, so they should only
+     * be included if the server is known to tolerate the same request being applied twice.
+     */
+    public ExponentialBackoffRetryPolicy retryableRequestTypes(RequestType... requestTypes) {
+        EnumSet<RequestType> types = EnumSet.noneOf(RequestType.class);
+        types.addAll(Arrays.asList(requestTypes));
+        this.retryableRequestTypes = types;
+        return this;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public long getMaxElapsedTimeMs() {
+        return maxElapsedTimeMs;
+    }
+
+    public Set<RequestType> getRetryableRequestTypes() {
+        return EnumSet.copyOf(retryableRequestTypes);
+    }
+
+    @Override
+    public boolean isRetryable(RetryAttempt attempt) {
+        return retryableRequestTypes.contains(attempt.getRequestType()) && attempt.isRepeatable()
+                && classifier.isRetryable(attempt.getResult(), attempt.getError());
+    }
+
+    @Override
+    public long getRetryDelay(RetryAttempt attempt) {
+        if (attempt.getAttemptNumber() >= maxAttempts) {
+            return NO_RETRY;
+        }
+
+        long previousDelayMs = Math.max(baseDelayMs, attempt.getPreviousDelayMs());
+        long upperBoundMs = Math.max(baseDelayMs, Math.min(maxDelayMs, previousDelayMs * 3));
+        long delayMs = baseDelayMs + ThreadLocalRandom.current().nextLong(upperBoundMs - baseDelayMs + 1);
+
+        if (honorRetryAfter) {
+            delayMs = Math.max(delayMs, retryAfterMs(attempt.getResult(), System.currentTimeMillis()));
+        }
+
+        if (attempt.getElapsedTimeMs() + delayMs > maxElapsedTimeMs) {
+            return NO_RETRY;
+        }
+        return delayMs;
+    }
+
+    /**
+     * Returns the delay requested by the {@code Retry-After} header of a response, which holds either a number of
+     * seconds or an HTTP date.
+     *
+     * @param result - The result carrying the response headers.
+     * @param nowMs - The current time.
+     *
+     * @return The requested delay in milliseconds, or 0 if none was requested.
+     */
+    static long retryAfterMs(OperationResult result, long nowMs) {
+        MultivaluedMap<String, String> headers = result != null ? result.getHeaders() : null;
+        String value = headers != null ? headers.getFirst(RETRY_AFTER_HEADER) : null;
+        if (value == null || value.trim().isEmpty()) {
+            return 0;
+        }
+
+        value = value.trim();
+        try {
+            return Math.max(0, Long.parseLong(value) * 1000);
+        } catch (NumberFormatException e) {
+            // Not a number of seconds, so it should be a date
+        }
+        try {
+            long retryAtMs =
+                    ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            return Math.max(0, retryAtMs - nowMs);
+        } catch (DateTimeParseException e) {
+            return 0;
+        }
+    }
+
+    private static long positiveMillis(Duration duration, String name) {
+        if (duration == null || duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("The " + name + " must be positive");
+        }
+        return duration.toMillis();
+    }
+
+    @Override
+    public String toString() {
+        return "ExponentialBackoffRetryPolicy [maxAttempts=" + maxAttempts + ", baseDelayMs=" + baseDelayMs
+                + ", maxDelayMs=" + maxDelayMs + ", maxElapsedTimeMs=" + maxElapsedTimeMs + ", honorRetryAfter="
+                + honorRetryAfter + ", retryableRequestTypes=" + retryableRequestTypes + "]";
+    }
+}
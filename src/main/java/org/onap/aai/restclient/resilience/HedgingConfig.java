@@ -0,0 +1,148 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.resilience;
+
+import java.time.Duration;
+
+/**
+ * Settings for hedging GET requests. A hedged request which has had no response after the hedge delay is sent a second
+ * time, and whichever copy answers first is used.
+ *
+ * <p>The delay is either fixed, or follows a percentile of the recent latency of the client so that only the slowest
+ * requests are hedged. A hedge budget caps the extra requests at a share of the requests sent.
+ */
+public class HedgingConfig {
+
+    public static final double DEFAULT_DELAY_PERCENTILE = 95;
+    public static final long DEFAULT_INITIAL_DELAY_MS = 100;
+    public static final long DEFAULT_MIN_DELAY_MS = 5;
+    /** By default hedges may add at most 5% to the requests sent. */
+    public static final double DEFAULT_MAX_HEDGE_RATIO = 0.05;
+    public static final Duration DEFAULT_BUDGET_WINDOW = Duration.ofSeconds(10);
+
+    private long fixedDelayMs = -1;
+    private double delayPercentile = DEFAULT_DELAY_PERCENTILE;
+    private long initialDelayMs = DEFAULT_INITIAL_DELAY_MS;
+    private long minDelayMs = DEFAULT_MIN_DELAY_MS;
+    private double maxHedgeRatio = DEFAULT_MAX_HEDGE_RATIO;
+    private Duration budgetWindow = DEFAULT_BUDGET_WINDOW;
+
+    /**
+     * Sends the hedge after a fixed delay, rather than one following the recent latency.
+     */
+    public HedgingConfig delay(Duration delay) {
+        if (delay == null || delay.isNegative()) {
+            throw new IllegalArgumentException("The hedge delay must not be negative");
+        }
+        this.fixedDelayMs = delay.toMillis();
+        return this;
+    }
+
+    /**
+     * Sends the hedge once a request has taken longer than the given percentile of recent requests, 95 by default.
+     */
+    public HedgingConfig delayPercentile(double percentile) {
+        if (!(percentile > 0 && percentile < 100)) {
+            throw new IllegalArgumentException("The delay percentile must be between 0 and 100");
+        }
+        this.delayPercentile = percentile;
+        this.fixedDelayMs = -1;
+        return this;
+    }
+
+    /**
+     * Sets the delay used while too few requests have completed for the percentile to be known.
+     */
+    public HedgingConfig initialDelay(Duration delay) {
+        if (delay == null || delay.isNegative()) {
+            throw new IllegalArgumentException("The initial hedge delay must not be negative");
+        }
+        this.initialDelayMs = delay.toMillis();
+        return this;
+    }
+
+    /**
+     * Sets the shortest delay the percentile may bring the hedge delay down to.
+     */
+    public HedgingConfig minDelay(Duration delay) {
+        if (delay == null || delay.isNegative()) {
+            throw new IllegalArgumentException("The minimum hedge delay must not be negative");
+        }
+        this.minDelayMs = delay.toMillis();
+        return this;
+    }
+
+    /**
+     * Sets the number of hedges allowed for each request sent, 0.05 allowing hedging to add 5% to the requests sent.
+     */
+    public HedgingConfig maxHedgeRatio(double ratio) {
+        if (!(ratio >= 0 && ratio <= 1)) {
+            throw new IllegalArgumentException("The hedge ratio must be between 0 and 1");
+        }
+        this.maxHedgeRatio = ratio;
+        return this;
+    }
+
+    /**
+     * Sets the period over which requests and hedges are counted for the hedge budget.
+     */
+    public HedgingConfig budgetWindow(Duration window) {
+        if (window == null || window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("The budget window must be positive");
+        }
+        this.budgetWindow = window;
+        return this;
+    }
+
+    /**
+     * Returns the fixed hedge delay in ms, or -1 if the delay follows the recent latency.
+     */
+    public long getFixedDelayMs() {
+        return fixedDelayMs;
+    }
+
+    public double getDelayPercentile() {
+        return delayPercentile;
+    }
+
+    public long getInitialDelayMs() {
+        return initialDelayMs;
+    }
+
+    public long getMinDelayMs() {
+        return minDelayMs;
+    }
+
+    public double getMaxHedgeRatio() {
+        return maxHedgeRatio;
+    }
+
+    public Duration getBudgetWindow() {
+        return budgetWindow;
+    }
+
+    @Override
+    public String toString() {
+        return "HedgingConfig [fixedDelayMs=" + fixedDelayMs + ", delayPercentile=" + delayPercentile
+                + ", initialDelayMs=" + initialDelayMs + ", minDelayMs=" + minDelayMs + ", maxHedgeRatio="
+                + maxHedgeRatio + ", budgetWindow=" + budgetWindow + "]";
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.resilience;
+
+/**
+ * A point-in-time snapshot of the hedging done by a {@link RequestHedger}.
+ */
+public class HedgingStats {
+
+    private final long requests;
+    private final long hedgesSent;
+    private final long hedgesWon;
+    private final long hedgesRejected;
+    private final long hedgeDelayMicros;
+
+    public HedgingStats(long requests, long hedgesSent, long hedgesWon, long hedgesRejected, long hedgeDelayMicros) {
+        this.requests = requests;
+        this.hedgesSent = hedgesSent;
+        this.hedgesWon = hedgesWon;
+        this.hedgesRejected = hedgesRejected;
+        this.hedgeDelayMicros = hedgeDelayMicros;
+    }
+
+    /**
+     * Returns the number of requests which could have been hedged.
+     */
+    public long getRequests() {
+        return requests;
+    }
+
+    /**
+     * Returns the number of hedges sent.
+     */
+    public long getHedgesSent() {
+        return hedgesSent;
+    }
+
+    /**
+     * Returns the number of hedges which answered before the request they hedged.
+     */
+    public long getHedgesWon() {
+        return hedgesWon;
+    }
+
+    /**
+     * Returns the number of hedges not sent because the hedge budget was used up.
+     */
+    public long getHedgesRejected() {
+        return hedgesRejected;
+    }
+
+    /**
+     * Returns the current hedge delay, in microseconds.
+     */
+    public long getHedgeDelayMicros() {
+        return hedgeDelayMicros;
+    }
+
+    @Override
+    public String toString() {
+        return "HedgingStats [requests=" + requests + ", hedgesSent=" + hedgesSent + ", hedgesWon=" + hedgesWon
+                + ", hedgesRejected=" + hedgesRejected + ", hedgeDelayMicros=" + hedgeDelayMicros + "]";
+    }
+}
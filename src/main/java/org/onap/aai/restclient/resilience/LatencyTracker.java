@@ -0,0 +1,135 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.resilience;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Tracks the distribution of recent request latencies in a histogram of lock-free counters, with four buckets for each
+ * power of two microseconds. A percentile is therefore accurate to within 25%, which is plenty for choosing when to
+ * hedge a request.
+ *
+ * <p>Every so often all the counts are halved, so the histogram follows changes in latency rather than averaging over
+ * the life of the client.
+ */
+class LatencyTracker {
+
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    /** Latencies are capped at 2^40 microseconds, about 12 days. */
+    private static final int MAX_EXPONENT = 39;
+    private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+    private static final long MAX_MICROS = (1L << (MAX_EXPONENT + 1)) - 1;
+
+    /** The percentile is worked out again after this many samples. */
+    private static final int REFRESH_INTERVAL = 32;
+    /** The counts are halved after this many samples. */
+    private static final int DECAY_INTERVAL = 1024;
+
+    private final double percentile;
+    private final int minSamples;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong samples = new AtomicLong();
+
+    private volatile long percentileMicros = -1;
+
+    /**
+     * @param percentile - The percentile to track, between 0 and 100.
+     * @param minSamples - The number of samples needed before the percentile is reported.
+     */
+    LatencyTracker(double percentile, int minSamples) {
+        this.percentile = percentile;
+        this.minSamples = minSamples;
+    }
+
+    void record(long latencyNanos) {
+        long micros = Math.min(MAX_MICROS, Math.max(0, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+        counts.incrementAndGet(bucketIndex(micros));
+
+        long sampleCount = samples.incrementAndGet();
+        if (sampleCount % DECAY_INTERVAL == 0) {
+            decay();
+        }
+        if (sampleCount >= minSamples && (sampleCount % REFRESH_INTERVAL == 0 || percentileMicros < 0)) {
+            percentileMicros = computePercentile();
+        }
+    }
+
+    /**
+     * Returns the tracked percentile of recent latencies in microseconds, or -1 if too few have been recorded.
+     */
+    long getPercentileMicros() {
+        return percentileMicros;
+    }
+
+    static int bucketIndex(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Returns the highest latency in microseconds which falls in the given bucket.
+     */
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long lower = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lower + (1L << shift) - 1;
+    }
+
+    private long computePercentile() {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return -1;
+        }
+        long target = (long) Math.ceil(total * percentile / 100);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= target) {
+                return bucketUpperBound(i);
+            }
+        }
+        return bucketUpperBound(BUCKET_COUNT - 1);
+    }
+
+    private void decay() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long count = counts.get(i);
+            if (count > 1) {
+                counts.addAndGet(i, -(count / 2));
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.resilience;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides when, and whether, a client hedges a request, following a {@link HedgingConfig}.
+ *
+ * <p>The hedger keeps the latency of the responses the client receives, to work out the hedge delay when it follows a
+ * percentile, and a {@link RetryBudget} with no minimum rate which holds the hedges to their share of the requests
+ * sent. One hedger is meant to be shared by every thread using the client.
+ */
+public class RequestHedger {
+
+    /** The number of responses needed before the hedge delay follows the tracked percentile. */
+    private static final int MIN_SAMPLES = 20;
+
+    private final HedgingConfig config;
+    private final long fixedDelayNanos;
+    private final long initialDelayNanos;
+    private final long minDelayNanos;
+    private final LatencyTracker latencies;
+    private final RetryBudget budget;
+
+    private final LongAdder hedgesSent = new LongAdder();
+    private final LongAdder hedgesWon = new LongAdder();
+
+    public RequestHedger(HedgingConfig config) {
+        this.config = config;
+        this.fixedDelayNanos =
+                config.getFixedDelayMs() >= 0 ? TimeUnit.MILLISECONDS.toNanos(config.getFixedDelayMs()) : -1;
+        this.initialDelayNanos = TimeUnit.MILLISECONDS.toNanos(config.getInitialDelayMs());
+        this.minDelayNanos = TimeUnit.MILLISECONDS.toNanos(config.getMinDelayMs());
+        this.latencies = new LatencyTracker(config.getDelayPercentile(), MIN_SAMPLES);
+        this.budget = new RetryBudget(config.getMaxHedgeRatio(), 0, config.getBudgetWindow());
+    }
+
+    public HedgingConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Returns how long to wait for a response before hedging a request.
+     */
+    public long getHedgeDelayNanos() {
+        if (fixedDelayNanos >= 0) {
+            return fixedDelayNanos;
+        }
+        long percentileMicros = latencies.getPercentileMicros();
+        if (percentileMicros < 0) {
+            return initialDelayNanos;
+        }
+        return Math.max(minDelayNanos, TimeUnit.MICROSECONDS.toNanos(percentileMicros));
+    }
+
+    /**
+     * Records a request which may be hedged, adding to the hedge budget.
+     */
+    public void recordRequest() {
+        budget.recordRequest();
+    }
+
+    /**
+     * Takes a hedge from the budget.
+     *
+     * @return true if the hedge may be sent, false if hedging has used up its share of the requests.
+     */
+    public boolean tryAcquireHedge() {
+        if (!budget.tryAcquireRetry()) {
+            return false;
+        }
+        hedgesSent.increment();
+        return true;
+    }
+
+    /**
+     * Records the latency of a response, hedged or not.
+     */
+    public void recordLatency(long latencyNanos) {
+        latencies.record(latencyNanos);
+    }
+
+    /**
+     * Records a hedged request which was answered by the hedge rather than the original request.
+     */
+    public void recordHedgeWon() {
+        hedgesWon.increment();
+    }
+
+    /**
+     * Returns a snapshot of the hedging done so far.
+     */
+    public HedgingStats getStats() {
+        RetryBudgetStats budgetStats = budget.getStats();
+        return new HedgingStats(budgetStats.getTotalRequests(), hedgesSent.sum(), hedgesWon.sum(),
+                budgetStats.getRejectedRetries(), TimeUnit.NANOSECONDS.toMicros(getHedgeDelayNanos()));
+    }
+
+    @Override
+    public String toString() {
+        return "RequestHedger [config=" + config + ", hedgesSent=" + hedgesSent.sum() + ", hedgesWon="
+                + hedgesWon.sum() + "]";
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.resilience;
+
+import org.onap.aai.restclient.client.OperationResult;
+import org.onap.aai.restclient.enums.RequestType;
+
+/**
+ * Describes a completed attempt of a request to a {@link RetryPolicy}.
+ */
+public final class RetryAttempt {
+
+    private final RequestType requestType;
+    private final String url;
+    private final int attemptNumber;
+    private final long elapsedTimeMs;
+    private final long previousDelayMs;
+    private final boolean repeatable;
+    private final OperationResult result;
+    private final Throwable error;
+
+    /**
+     * Creates a description of a completed attempt.
+     *
+     * @param requestType - The REST operation type of the request.
+     * @param url - The URL the request was sent to.
+     * @param attemptNumber - The number of the attempt, starting at 1.
+     * @param elapsedTimeMs - The time since the first attempt of the request started.
+     * @param previousDelayMs - The delay which preceded this attempt, or 0 for the first attempt.
+     * @param repeatable - Whether the payload of the request can be sent again.
+     * @param result - The result of the attempt.
+     * @param error - The exception which caused the attempt to fail, or null if a response was received.
+     */
+    public RetryAttempt(RequestType requestType, String url, int attemptNumber, long elapsedTimeMs,
+            long previousDelayMs, boolean repeatable, OperationResult result, Throwable error) {
+        this.requestType = requestType;
+        this.url = url;
+        this.attemptNumber = attemptNumber;
+        this.elapsedTimeMs = elapsedTimeMs;
+        this.previousDelayMs = previousDelayMs;
+        this.repeatable = repeatable;
+        this.result = result;
+        this.error = error;
+    }
+
+    public RequestType getRequestType() {
+        return requestType;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public int getAttemptNumber() {
+        return attemptNumber;
+    }
+
+    public long getElapsedTimeMs() {
+        return elapsedTimeMs;
+    }
+
+    public long getPreviousDelayMs() {
+        return previousDelayMs;
+    }
+
+    public boolean isRepeatable() {
+        return repeatable;
+    }
+
+    public OperationResult getResult() {
+        return result;
+    }
+
+    public Throwable getError() {
+        return error;
+    }
+}
@@ -0,0 +1,183 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Limits the retries made by a client to a share of the requests it sends, so that a struggling server is not offered
+ * several times its normal load by every caller retrying independently.
+ *
+ * <p>Over a sliding window the budget allows a fixed ratio of retries to first attempts, plus a small number of
+ * retries per second so that a client sending little traffic can still retry. Once the allowance has been used a retry
+ * is refused until enough first attempts have been made, or enough old retries have left the window.
+ *
+ * <p>A budget is meant to be shared by every thread, and every client, talking to the same server. The window is kept
+ * as a ring of buckets holding lock-free counters, so recording a request never blocks. The counts are therefore
+ * approximate: a burst of concurrent retries may overshoot the allowance by a few before it sees them.
+ */
+public class RetryBudget {
+
+    /** By default retries may add at most 10% to the requests sent. */
+    public static final double DEFAULT_RETRY_RATIO = 0.1;
+    public static final int DEFAULT_MIN_RETRIES_PER_SECOND = 1;
+    public static final Duration DEFAULT_WINDOW = Duration.ofSeconds(10);
+
+    private static final int BUCKET_COUNT = 10;
+
+    private final double retryRatio;
+    private final int minRetriesPerSecond;
+    private final long windowMs;
+    private final long bucketMs;
+    private final Bucket[] buckets = new Bucket[BUCKET_COUNT];
+    private final LongSupplier clock;
+
+    private final LongAdder totalRequests = new LongAdder();
+    private final LongAdder totalRetries = new LongAdder();
+    private final LongAdder rejectedRetries = new LongAdder();
+
+    /**
+     * Creates a budget allowing retries of up to 10% of the requests sent over a 10 second window, plus 1 retry per
+     * second.
+     */
+    public RetryBudget() {
+        this(DEFAULT_RETRY_RATIO, DEFAULT_MIN_RETRIES_PER_SECOND, DEFAULT_WINDOW);
+    }
+
+    /**
+     * Creates a retry budget.
+     *
+     * @param retryRatio - The number of retries allowed for each first attempt, 0.1 allowing retries to add 10% to
+     *        the requests sent.
+     * @param minRetriesPerSecond - The number of retries allowed each second regardless of the number of requests.
+     * @param window - The period over which requests and retries are counted.
+     */
+    public RetryBudget(double retryRatio, int minRetriesPerSecond, Duration window) {
+        this(retryRatio, minRetriesPerSecond, window, System::currentTimeMillis);
+    }
+
+    RetryBudget(double retryRatio, int minRetriesPerSecond, Duration window, LongSupplier clock) {
+        if (retryRatio < 0 || Double.isNaN(retryRatio)) {
+            throw new IllegalArgumentException("The retry ratio must not be negative");
+        }
+        if (minRetriesPerSecond < 0) {
+            throw new IllegalArgumentException("The minimum number of retries per second must not be negative");
+        }
+        if (window == null || window.toMillis() < BUCKET_COUNT) {
+            throw new IllegalArgumentException("The window must be at least " + BUCKET_COUNT + " ms");
+        }
+        this.retryRatio = retryRatio;
+        this.minRetriesPerSecond = minRetriesPerSecond;
+        this.bucketMs = window.toMillis() / BUCKET_COUNT;
+        this.windowMs = bucketMs * BUCKET_COUNT;
+        this.clock = clock;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets[i] = new Bucket();
+        }
+    }
+
+    /**
+     * Records the first attempt of a request, which adds to the retries allowed.
+     */
+    public void recordRequest() {
+        bucket(clock.getAsLong()).requests.increment();
+        totalRequests.increment();
+    }
+
+    /**
+     * Takes a retry from the budget if one is available.
+     *
+     * @return true if the request may be retried, false if the budget is exhausted.
+     */
+    public boolean tryAcquireRetry() {
+        long now = clock.getAsLong();
+        long[] counts = windowCounts(now);
+        if (counts[1] >= allowance(counts[0])) {
+            rejectedRetries.increment();
+            return false;
+        }
+        bucket(now).retries.increment();
+        totalRetries.increment();
+        return true;
+    }
+
+    /**
+     * Returns a snapshot of the state of the budget.
+     */
+    public RetryBudgetStats getStats() {
+        long[] counts = windowCounts(clock.getAsLong());
+        return new RetryBudgetStats(counts[0], counts[1], Math.max(0, allowance(counts[0]) - counts[1]),
+                totalRequests.sum(), totalRetries.sum(), rejectedRetries.sum());
+    }
+
+    private long allowance(long requests) {
+        return (long) (requests * retryRatio) + minRetriesPerSecond * windowMs / 1000;
+    }
+
+    /**
+     * Returns the number of first attempts and retries recorded in the window ending now.
+     */
+    private long[] windowCounts(long now) {
+        long oldestStart = bucketStart(now) - windowMs;
+        long requests = 0;
+        long retries = 0;
+        for (Bucket bucket : buckets) {
+            if (bucket.start.get() > oldestStart) {
+                requests += bucket.requests.sum();
+                retries += bucket.retries.sum();
+            }
+        }
+        return new long[] {requests, retries};
+    }
+
+    /**
+     * Returns the bucket for the given time, clearing it first if it last held an older period.
+     */
+    private Bucket bucket(long now) {
+        long start = bucketStart(now);
+        Bucket bucket = buckets[(int) Math.floorMod(start / bucketMs, (long) BUCKET_COUNT)];
+        long current = bucket.start.get();
+        if (current < start && bucket.start.compareAndSet(current, start)) {
+            bucket.requests.reset();
+            bucket.retries.reset();
+        }
+        return bucket;
+    }
+
+    private long bucketStart(long now) {
+        return now - Math.floorMod(now, bucketMs);
+    }
+
+    @Override
+    public String toString() {
+        return "RetryBudget [retryRatio=" + retryRatio + ", minRetriesPerSecond=" + minRetriesPerSecond
+                + ", windowMs=" + windowMs + "]";
+    }
+
+    private static final class Bucket {
+        private final AtomicLong start = new AtomicLong(Long.MIN_VALUE);
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+    }
+}
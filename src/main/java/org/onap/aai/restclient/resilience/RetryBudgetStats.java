@@ -0,0 +1,93 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.resilience;
+
+/**
+ * A point-in-time snapshot of a {@link RetryBudget}.
+ */
+public class RetryBudgetStats {
+
+    private final long requests;
+    private final long retries;
+    private final long availableRetries;
+    private final long totalRequests;
+    private final long totalRetries;
+    private final long rejectedRetries;
+
+    public RetryBudgetStats(long requests, long retries, long availableRetries, long totalRequests,
+            long totalRetries, long rejectedRetries) {
+        this.requests = requests;
+        this.retries = retries;
+        this.availableRetries = availableRetries;
+        this.totalRequests = totalRequests;
+        this.totalRetries = totalRetries;
+        this.rejectedRetries = rejectedRetries;
+    }
+
+    /**
+     * Returns the number of first attempts recorded in the current window.
+     */
+    public long getRequests() {
+        return requests;
+    }
+
+    /**
+     * Returns the number of retries made in the current window.
+     */
+    public long getRetries() {
+        return retries;
+    }
+
+    /**
+     * Returns the number of retries which the budget would currently allow.
+     */
+    public long getAvailableRetries() {
+        return availableRetries;
+    }
+
+    /**
+     * Returns the number of first attempts recorded since the budget was created.
+     */
+    public long getTotalRequests() {
+        return totalRequests;
+    }
+
+    /**
+     * Returns the number of retries made since the budget was created.
+     */
+    public long getTotalRetries() {
+        return totalRetries;
+    }
+
+    /**
+     * Returns the number of retries refused since the budget was created.
+     */
+    public long getRejectedRetries() {
+        return rejectedRetries;
+    }
+
+    @Override
+    public String toString() {
+        return "RetryBudgetStats [requests=" + requests + ", retries=" + retries + ", availableRetries="
+                + availableRetries + ", totalRequests=" + totalRequests + ", totalRetries=" + totalRetries
+                + ", rejectedRetries=" + rejectedRetries + "]";
+    }
+}
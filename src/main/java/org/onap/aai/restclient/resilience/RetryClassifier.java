@@ -0,0 +1,78 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.resilience;
+
+import java.util.Arrays;
+import org.onap.aai.restclient.client.OperationResult;
+
+/**
+ * Decides whether the outcome of an attempt is a transient failure that is worth retrying.
+ */
+@FunctionalInterface
+public interface RetryClassifier {
+
+    /**
+     * Returns true if the outcome of the attempt is worth retrying.
+     *
+     * @param result - The result of the attempt.
+     * @param error - The exception which caused the attempt to fail, or null if a response was received.
+     */
+    boolean isRetryable(OperationResult result, Throwable error);
+
+    /**
+     * Returns a classifier which retries if either this classifier or the other one does.
+     */
+    default RetryClassifier or(RetryClassifier other) {
+        return (result, error) -> isRetryable(result, error) || other.isRetryable(result, error);
+    }
+
+    /**
+     * Returns a classifier which retries responses with any of the given status codes.
+     */
+    static RetryClassifier statusCodes(int... codes) {
+        int[] sorted = codes.clone();
+        Arrays.sort(sorted);
+        return (result, error) -> error == null && result != null
+                && Arrays.binarySearch(sorted, result.getResultCode()) >= 0;
+    }
+
+    /**
+     * Returns a classifier which retries attempts that failed with an exception of any of the given types, or with an
+     * exception caused by one.
+     */
+    @SafeVarargs
+    static RetryClassifier exceptions(Class<? extends Throwable>... types) {
+        Class<?>[] retryable = types.clone();
+        return (result, error) -> {
+            for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+                for (Class<?> type : retryable) {
+                    if (type.isInstance(cause)) {
+                        return true;
+                    }
+                }
+                if (cause.getCause() == cause) {
+                    break;
+                }
+            }
+            return false;
+        };
+    }
+}
@@ -0,0 +1,52 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.resilience;
+
+/**
+ * Decides whether a failed request is submitted again, and how long to wait before doing so.
+ *
+ * <p>A policy is consulted after every attempt. It is shared by all of the requests made through a
+ * {@link org.onap.aai.restclient.client.RestClient}, so it must be safe to call from any number of threads, and any
+ * state belonging to a single request is carried by the {@link RetryAttempt}.
+ */
+public interface RetryPolicy {
+
+    /** Returned by {@link #getRetryDelay(RetryAttempt)} when the request must not be attempted again. */
+    long NO_RETRY = -1L;
+
+    /**
+     * Returns true if the outcome of the attempt is a transient failure which this policy retries for the kind of
+     * request that was made.
+     *
+     * @param attempt - The attempt which has just completed.
+     */
+    boolean isRetryable(RetryAttempt attempt);
+
+    /**
+     * Returns the time to wait before the next attempt of a request whose last attempt was retryable.
+     *
+     * @param attempt - The attempt which has just completed.
+     *
+     * @return The delay in milliseconds, or {@link #NO_RETRY} if the attempts or the time allowed for the request
+     *         have been used up.
+     */
+    long getRetryDelay(RetryAttempt attempt);
+}
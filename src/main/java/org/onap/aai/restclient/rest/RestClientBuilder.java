@@ -20,16 +20,34 @@
  */
 package org.onap.aai.restclient.rest;
 
-import java.io.FileInputStream;
-import java.security.KeyStore;
-import javax.net.ssl.KeyManagerFactory;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLSession;
-import javax.net.ssl.TrustManager;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.ClientBuilder;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.glassfish.jersey.apache.connector.ApacheClientProperties;
+import org.glassfish.jersey.apache.connector.ApacheConnectorProvider;
+import org.glassfish.jersey.client.ClientConfig;
 import org.glassfish.jersey.client.ClientProperties;
 import org.onap.aai.restclient.enums.RestAuthenticationMode;
+import org.onap.aai.restclient.enums.TransportEngine;
 
 /**
  * This is a generic REST Client builder with flexible security validation. Sometimes it's nice to be able to disable
@@ -51,10 +69,21 @@ public class RestClientBuilder {
     public static final String DEFAULT_BASIC_AUTH_USERNAME = "";
     public static final String DEFAULT_BASIC_AUTH_PASSWORD = "";
     public static final String DEFAULT_SSL_PROTOCOL = "TLS";
-
-    private static final String KEYSTORE_ALGORITHM = "SunX509";
-    private static final String KEYSTORE_TYPE = "PKCS12";
-    private static final String TRUST_STORE_PROPERTY = "javax.net.ssl.trustStore";
+    public static final boolean DEFAULT_CONNECTION_POOLING_ENABLED = false;
+    public static final int DEFAULT_MAX_CONNECTIONS_TOTAL = 200;
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_ROUTE = 20;
+    public static final int DEFAULT_CONNECTION_IDLE_TIMEOUT_MS = 60000;
+    public static final int DEFAULT_VALIDATE_AFTER_INACTIVITY_MS = 2000;
+    public static final long DEFAULT_CONNECTION_TIME_TO_LIVE_MS = -1;
+    public static final TransportEngine DEFAULT_TRANSPORT_ENGINE = TransportEngine.JERSEY;
+
+    /** Closes idle and expired pooled connections on behalf of every builder. */
+    private static final ScheduledExecutorService CONNECTION_EVICTOR =
+            Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "rest-client-connection-evictor");
+                thread.setDaemon(true);
+                return thread;
+            });
 
     private final ClientBuilder builder;
 
@@ -68,7 +97,20 @@ public class RestClientBuilder {
     private RestAuthenticationMode authenticationMode;
     private String basicAuthUsername;
     private String basicAuthPassword;
+    /** The encoded Authorization header for the basic credentials, worked out when first needed. */
+    private volatile String basicAuthenticationCredentials;
     private String sslProtocol;
+    private ExecutorService executorService;
+    private boolean connectionPoolingEnabled;
+    private int maxConnectionsTotal;
+    private int maxConnectionsPerRoute;
+    private int connectionIdleTimeoutInMs;
+    private int validateAfterInactivityInMs;
+    private long connectionTimeToLiveInMs;
+    private TransportEngine transportEngine;
+
+    private PoolingHttpClientConnectionManager connectionManager;
+    private ScheduledFuture<?> connectionEviction;
 
     /**
      * Rest Client Builder.
@@ -86,6 +128,13 @@ public class RestClientBuilder {
         basicAuthUsername = DEFAULT_BASIC_AUTH_USERNAME;
         basicAuthPassword = DEFAULT_BASIC_AUTH_PASSWORD;
         sslProtocol = DEFAULT_SSL_PROTOCOL;
+        connectionPoolingEnabled = DEFAULT_CONNECTION_POOLING_ENABLED;
+        maxConnectionsTotal = DEFAULT_MAX_CONNECTIONS_TOTAL;
+        maxConnectionsPerRoute = DEFAULT_MAX_CONNECTIONS_PER_ROUTE;
+        connectionIdleTimeoutInMs = DEFAULT_CONNECTION_IDLE_TIMEOUT_MS;
+        validateAfterInactivityInMs = DEFAULT_VALIDATE_AFTER_INACTIVITY_MS;
+        connectionTimeToLiveInMs = DEFAULT_CONNECTION_TIME_TO_LIVE_MS;
+        transportEngine = DEFAULT_TRANSPORT_ENGINE;
     }
 
     public boolean isValidateServerHostname() {
@@ -158,6 +207,7 @@ public class RestClientBuilder {
 
     public void setBasicAuthUsername(String basicAuthUsername) {
         this.basicAuthUsername = basicAuthUsername;
+        this.basicAuthenticationCredentials = null;
     }
 
     public String getBasicAuthPassword() {
@@ -166,6 +216,7 @@ public class RestClientBuilder {
 
     public void setBasicAuthPassword(String basicAuthPassword) {
         this.basicAuthPassword = basicAuthPassword;
+        this.basicAuthenticationCredentials = null;
     }
 
     public String getSslProtocol() {
@@ -176,6 +227,105 @@ public class RestClientBuilder {
         this.sslProtocol = sslProtocol;
     }
 
+    public ExecutorService getExecutorService() {
+        return executorService;
+    }
+
+    /**
+     * Sets the executor service used by the client for asynchronous requests. When not set, Jersey's default pool is
+     * used.
+     */
+    public void setExecutorService(ExecutorService executorService) {
+        this.executorService = executorService;
+    }
+
+    public boolean isConnectionPoolingEnabled() {
+        return connectionPoolingEnabled;
+    }
+
+    /**
+     * Enables the pooled connector. When enabled the client is built on the Apache HttpClient connector with a pool of
+     * persistent connections, rather than on the default HttpUrlConnection connector.
+     */
+    public void setConnectionPoolingEnabled(boolean connectionPoolingEnabled) {
+        this.connectionPoolingEnabled = connectionPoolingEnabled;
+    }
+
+    public int getMaxConnectionsTotal() {
+        return maxConnectionsTotal;
+    }
+
+    public void setMaxConnectionsTotal(int maxConnectionsTotal) {
+        this.maxConnectionsTotal = maxConnectionsTotal;
+    }
+
+    public int getMaxConnectionsPerRoute() {
+        return maxConnectionsPerRoute;
+    }
+
+    public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+    }
+
+    public int getConnectionIdleTimeoutInMs() {
+        return connectionIdleTimeoutInMs;
+    }
+
+    /**
+     * Sets how long a pooled connection may sit unused before it is closed. Zero or less keeps idle connections open.
+     */
+    public void setConnectionIdleTimeoutInMs(int connectionIdleTimeoutInMs) {
+        this.connectionIdleTimeoutInMs = connectionIdleTimeoutInMs;
+    }
+
+    public int getValidateAfterInactivityInMs() {
+        return validateAfterInactivityInMs;
+    }
+
+    /**
+     * Sets how long a pooled connection may sit unused before it is checked for staleness when next leased.
+     */
+    public void setValidateAfterInactivityInMs(int validateAfterInactivityInMs) {
+        this.validateAfterInactivityInMs = validateAfterInactivityInMs;
+    }
+
+    public long getConnectionTimeToLiveInMs() {
+        return connectionTimeToLiveInMs;
+    }
+
+    /**
+     * Sets the maximum lifetime of a pooled connection, after which it is closed rather than reused. Zero or less
+     * means connections live for as long as the server keeps them open.
+     */
+    public void setConnectionTimeToLiveInMs(long connectionTimeToLiveInMs) {
+        this.connectionTimeToLiveInMs = connectionTimeToLiveInMs;
+    }
+
+    public TransportEngine getTransportEngine() {
+        return transportEngine;
+    }
+
+    /**
+     * Selects the HTTP stack requests are sent with. The connection pooling settings only apply to the Jersey engine;
+     * the JDK engine keeps its own pool of connections and multiplexes requests over HTTP/2 where the server allows.
+     */
+    public void setTransportEngine(TransportEngine transportEngine) {
+        this.transportEngine = transportEngine;
+    }
+
+    /**
+     * Returns a snapshot of the connection pool statistics, or null if connection pooling is disabled or no client has
+     * been built yet.
+     */
+    public ConnectionPoolStats getConnectionPoolStats() {
+        PoolingHttpClientConnectionManager manager = connectionManager;
+        if (manager == null) {
+            return null;
+        }
+        PoolStats stats = manager.getTotalStats();
+        return new ConnectionPoolStats(stats.getLeased(), stats.getAvailable(), stats.getPending(), stats.getMax());
+    }
+
     /**
      * Returns Client configured for SSL
      */
@@ -193,40 +343,37 @@ public class RestClientBuilder {
 
     }
 
-    protected void setupSecureSocketLayerClientConfig(ClientBuilder builder) throws Exception {
-        // Check to see if we need to perform proper validation of
-        // the certificate chains.
-        TrustManager[] trustAllCerts = null;
-        if (truststoreFilename != null) {
-            System.setProperty(TRUST_STORE_PROPERTY, truststoreFilename);
-        } else {
-            throw new IllegalArgumentException("Trust store filename must be set!");
+    /**
+     * Returns a client of the JDK HTTP stack, configured with the same timeouts, executor and SSL settings as the
+     * Jersey client returned by {@link #getClient()}.
+     */
+    public HttpClient getHttpClient() throws Exception {
+        HttpClient.Builder httpClientBuilder = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL);
+        if (connectTimeoutInMs > 0) {
+            httpClientBuilder.connectTimeout(Duration.ofMillis(connectTimeoutInMs));
         }
-
-        // Set up the SSL context, keystore, etc. to use for our connection
-        // to the AAI.
-        SSLContext ctx = SSLContext.getInstance(sslProtocol);
-        KeyManagerFactory kmf = KeyManagerFactory.getInstance(KEYSTORE_ALGORITHM);
-        KeyStore ks = KeyStore.getInstance(KEYSTORE_TYPE);
-
-        char[] pwd = null;
-        if (clientCertPassword != null) {
-            pwd = clientCertPassword.toCharArray();
+        if (executorService != null) {
+            httpClientBuilder.executor(executorService);
         }
 
-        if (clientCertFileName != null) {
-            FileInputStream fin = new FileInputStream(clientCertFileName);
-
-            // Load the keystore and initialize the key manager factory.
-            ks.load(fin, pwd);
-            kmf.init(ks, pwd);
+        switch (authenticationMode) {
+            case SSL_BASIC:
+            case SSL_CERT:
+                // The JDK client has no hostname verifier hook, so host validation is switched off in the trust
+                // managers instead.
+                httpClientBuilder.sslContext(createSslContext(!validateServerHostname));
+                break;
 
-            ctx.init(kmf.getKeyManagers(), trustAllCerts, null);
-        } else {
-            ctx.init(null, trustAllCerts, null);
+            default:
+                break;
         }
 
-        builder.sslContext(ctx);
+        return httpClientBuilder.build();
+    }
+
+    protected void setupSecureSocketLayerClientConfig(ClientBuilder builder) throws Exception {
+        builder.sslContext(createSslContext(false));
 
         // Are we performing validation of the server host name?
         if (!validateServerHostname) {
@@ -234,6 +381,20 @@ public class RestClientBuilder {
         }
     }
 
+    /**
+     * Returns the SSL context to use for our connection to the AAI, shared with every other client that uses the same
+     * certificate, trust store and protocol.
+     *
+     * @param ignoreHostname - true to leave the server host name unchecked in the trust managers
+     */
+    private SSLContext createSslContext(boolean ignoreHostname) throws Exception {
+        if (truststoreFilename == null) {
+            throw new IllegalArgumentException("Trust store filename must be set!");
+        }
+        return SslMaterialCache.getSslContext(clientCertFileName, clientCertPassword, truststoreFilename, sslProtocol,
+                ignoreHostname);
+    }
+
     /**
      * Returns client instance
      *
@@ -242,22 +403,128 @@ public class RestClientBuilder {
     protected Client getClient(boolean useSsl) throws Exception {
 
         // Finally, create and initialize our client...
-        
+
+        if (connectionPoolingEnabled) {
+            // This has to come first as withConfig replaces the configuration held by the builder, so the
+            // properties, filters and features registered on it are copied across.
+            builder.withConfig(new ClientConfig().loadFrom(builder.getConfiguration())
+                    .connectorProvider(new ApacheConnectorProvider()));
+        }
         if (useSsl) {
             setupSecureSocketLayerClientConfig(builder);
         }
+        if (executorService != null) {
+            builder.executorService(executorService);
+        }
         Client client = builder.build();
         client.property(ClientProperties.CONNECT_TIMEOUT, connectTimeoutInMs);
         client.property(ClientProperties.READ_TIMEOUT, readTimeoutInMs);
 
+        if (connectionPoolingEnabled) {
+            client.property(ApacheClientProperties.CONNECTION_MANAGER,
+                    createConnectionManager(client.getSslContext(), client.getHostnameVerifier()));
+        }
+
         // ...and return it to the caller.
         return client;
     }
 
-    public String getBasicAuthenticationCredentials() {
+    /**
+     * Creates the pool of persistent connections used by the Apache connector. The connector does not apply the
+     * client's SSL configuration to a connection manager it is given, so the same SSL context and hostname verifier
+     * are registered with the pool here.
+     */
+    private PoolingHttpClientConnectionManager createConnectionManager(SSLContext sslContext,
+            HostnameVerifier hostnameVerifier) {
+
+        HostnameVerifier verifier =
+                hostnameVerifier != null ? hostnameVerifier : SSLConnectionSocketFactory.getDefaultHostnameVerifier();
+        Registry<ConnectionSocketFactory> socketFactories = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                .register("https", new SSLConnectionSocketFactory(sslContext, verifier)).build();
+
+        PoolingHttpClientConnectionManager manager = new PoolingHttpClientConnectionManager(socketFactories, null,
+                null, null, connectionTimeToLiveInMs, TimeUnit.MILLISECONDS);
+        manager.setMaxTotal(maxConnectionsTotal);
+        manager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+        manager.setValidateAfterInactivity(validateAfterInactivityInMs);
+
+        if (connectionEviction != null) {
+            connectionEviction.cancel(false);
+            connectionEviction = null;
+        }
+        if (connectionIdleTimeoutInMs > 0) {
+            long period = Math.max(connectionIdleTimeoutInMs / 2, 1);
+            connectionEviction = CONNECTION_EVICTOR.scheduleWithFixedDelay(() -> {
+                manager.closeExpiredConnections();
+                manager.closeIdleConnections(connectionIdleTimeoutInMs, TimeUnit.MILLISECONDS);
+            }, period, period, TimeUnit.MILLISECONDS);
+        }
+
+        connectionManager = manager;
+        return manager;
+    }
+
+    /**
+     * Stops evicting idle connections from the connection pool of the last client built and shuts the pool down,
+     * closing every connection in it. Does nothing if connection pooling is disabled or no client has been built.
+     */
+    public void closeConnectionPool() {
+        if (connectionEviction != null) {
+            connectionEviction.cancel(false);
+            connectionEviction = null;
+        }
+        PoolingHttpClientConnectionManager manager = connectionManager;
+        if (manager != null) {
+            manager.shutdown();
+            connectionManager = null;
+        }
+    }
+
+    /**
+     * Returns a digest of every setting which goes into building the underlying client, so that builders with the same
+     * fingerprint build interchangeable clients. The basic credentials are not part of it, as they are sent with each
+     * request rather than held by the client, and neither are any settings made directly on the Jersey
+     * {@link ClientBuilder}.
+     */
+    public String getConfigurationFingerprint() {
+        String configuration = String.join("\n", String.valueOf(transportEngine), String.valueOf(authenticationMode),
+                String.valueOf(validateServerHostname), String.valueOf(validateServerCertChain),
+                String.valueOf(clientCertFileName), String.valueOf(clientCertPassword),
+                String.valueOf(truststoreFilename), String.valueOf(sslProtocol), String.valueOf(connectTimeoutInMs),
+                String.valueOf(readTimeoutInMs), String.valueOf(connectionPoolingEnabled),
+                String.valueOf(maxConnectionsTotal), String.valueOf(maxConnectionsPerRoute),
+                String.valueOf(connectionIdleTimeoutInMs), String.valueOf(validateAfterInactivityInMs),
+                String.valueOf(connectionTimeToLiveInMs),
+                executorService != null ? executorService.getClass().getName() + "@"
+                        + Integer.toHexString(System.identityHashCode(executorService)) : "null");
+        try {
+            // Hashed so that the passwords in the configuration are not held in the clear as a map key
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(configuration.getBytes(StandardCharsets.UTF_8));
+            StringBuilder fingerprint = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                fingerprint.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return fingerprint.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
 
-        String usernameAndPassword = getBasicAuthUsername() + ":" + getBasicAuthPassword();
-        return "Basic " + java.util.Base64.getEncoder().encodeToString(usernameAndPassword.getBytes());
+    /**
+     * Returns the value of the Authorization header for the basic credentials. It is encoded once and reused until the
+     * username or password changes.
+     */
+    public String getBasicAuthenticationCredentials() {
+        String credentials = basicAuthenticationCredentials;
+        if (credentials == null) {
+            String usernameAndPassword = getBasicAuthUsername() + ":" + getBasicAuthPassword();
+            credentials = "Basic " + java.util.Base64.getEncoder().encodeToString(usernameAndPassword.getBytes());
+            basicAuthenticationCredentials = credentials;
+        }
+        return credentials;
     }
 
     /*
@@ -279,8 +546,13 @@ public class RestClientBuilder {
                 + (authenticationMode != null ? "authenticationMode=" + authenticationMode + ", " : "")
                 + (basicAuthUsername != null ? "basicAuthUsername=" + basicAuthUsername + ", " : "")
                 + (basicAuthPassword != null ? "basicAuthPassword="
-                        + java.util.Base64.getEncoder().encodeToString(basicAuthPassword.getBytes()) : "")
-                + "]";
+                        + java.util.Base64.getEncoder().encodeToString(basicAuthPassword.getBytes()) + ", " : "")
+                + "connectionPoolingEnabled=" + connectionPoolingEnabled
+                + (connectionPoolingEnabled ? ", maxConnectionsTotal=" + maxConnectionsTotal
+                        + ", maxConnectionsPerRoute=" + maxConnectionsPerRoute + ", connectionIdleTimeoutInMs="
+                        + connectionIdleTimeoutInMs + ", validateAfterInactivityInMs=" + validateAfterInactivityInMs
+                        + ", connectionTimeToLiveInMs=" + connectionTimeToLiveInMs : "")
+                + ", transportEngine=" + transportEngine + "]";
     }
 
 }
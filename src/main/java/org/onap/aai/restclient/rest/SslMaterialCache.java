@@ -0,0 +1,609 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.rest;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.MessageDigest;
+import java.security.Principal;
+import java.security.PrivateKey;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import javax.net.ssl.KeyManager;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.TrustManagerFactory;
+import javax.net.ssl.X509ExtendedKeyManager;
+import javax.net.ssl.X509ExtendedTrustManager;
+import javax.net.ssl.X509KeyManager;
+import javax.net.ssl.X509TrustManager;
+import org.onap.aai.restclient.logging.RestClientMsgs;
+
+import com.att.eelf.configuration.EELFLogger;
+import com.att.eelf.configuration.EELFManager;
+
+/**
+ * Builds the SSL contexts used by {@link RestClientBuilder} and shares them across the process, so clients with the
+ * same key store, trust store and protocol load the files only once.
+ *
+ * <p>The trust store is handed to the SSL context through its own trust manager rather than the global
+ * {@code javax.net.ssl.trustStore} property, so clients with different trust stores do not affect each other. Its type
+ * and password are still taken from {@code javax.net.ssl.trustStoreType} and {@code javax.net.ssl.trustStorePassword}
+ * when they are set.
+ *
+ * <p>Contexts are cached by a digest of their settings, and only for as long as some client uses them: once every
+ * client holding a context has been discarded, its material is dropped and its files are no longer watched.
+ *
+ * <p>The directories holding the files are watched, and a changed key store or trust store is loaded into the existing
+ * SSL context by swapping the delegate of its key and trust managers. Connections that are already open, pooled or
+ * in use, carry on with the session they negotiated; the next handshake uses the new certificates. If a changed file
+ * cannot be loaded, for example because it is still being written, the previous material is kept and the load is tried
+ * again on the next change.
+ */
+public final class SslMaterialCache {
+
+    private static final String KEYSTORE_ALGORITHM = "SunX509";
+    private static final String KEYSTORE_TYPE = "PKCS12";
+    private static final String TRUST_STORE_TYPE_PROPERTY = "javax.net.ssl.trustStoreType";
+    private static final String TRUST_STORE_PASSWORD_PROPERTY = "javax.net.ssl.trustStorePassword";
+
+    /** How often the watcher drops the material of contexts no longer in use when no file changes wake it. */
+    private static final long EXPUNGE_INTERVAL_MINUTES = 1;
+
+    private static final ConcurrentMap<String, MaterialReference> MATERIALS = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<SSLContext> UNUSED_CONTEXTS = new ReferenceQueue<>();
+    private static final FileWatcher WATCHER = new FileWatcher();
+
+    private static EELFLogger logger = EELFManager.getLogger(SslMaterialCache.class.getName());
+
+    private SslMaterialCache() {}
+
+    /**
+     * Returns the SSL context for the given files, building it on first use.
+     *
+     * @param keystoreFile - PKCS12 file holding the client certificate, or null for no client certificate
+     * @param keystorePassword - password of the client certificate file
+     * @param truststoreFile - trust store holding the certificates of the servers to trust
+     * @param protocol - SSL protocol of the context
+     * @param ignoreHostname - true to validate the server certificate chain but not the server host name
+     */
+    public static SSLContext getSslContext(String keystoreFile, String keystorePassword, String truststoreFile,
+            String protocol, boolean ignoreHostname) throws GeneralSecurityException, IOException {
+        expungeUnusedMaterial();
+        String key = fingerprint(keystoreFile, keystorePassword, truststoreFile, protocol, ignoreHostname);
+        SSLContext context = contextFor(key);
+        if (context != null) {
+            return context;
+        }
+        synchronized (MATERIALS) {
+            context = contextFor(key);
+            if (context == null) {
+                SslMaterial material = new SslMaterial(keystoreFile, keystorePassword, truststoreFile);
+                context = material.newContext(protocol, ignoreHostname);
+                MATERIALS.put(key, new MaterialReference(context, key, material));
+                WATCHER.update();
+            }
+        }
+        return context;
+    }
+
+    /**
+     * Checks every cached key store and trust store for changes now, without waiting for the file watcher. Useful on
+     * file systems which do not report changes.
+     */
+    public static void reload() {
+        expungeUnusedMaterial();
+        for (MaterialReference reference : MATERIALS.values()) {
+            reference.material.reloadIfChanged();
+        }
+    }
+
+    static int size() {
+        expungeUnusedMaterial();
+        return MATERIALS.size();
+    }
+
+    private static SSLContext contextFor(String key) {
+        MaterialReference reference = MATERIALS.get(key);
+        return reference != null ? reference.get() : null;
+    }
+
+    /**
+     * Drops the material of every SSL context which is no longer referenced by any client, and stops watching the
+     * directories only it needed.
+     */
+    private static void expungeUnusedMaterial() {
+        boolean expunged = false;
+        Reference<? extends SSLContext> unused;
+        while ((unused = UNUSED_CONTEXTS.poll()) != null) {
+            MaterialReference reference = (MaterialReference) unused;
+            expunged |= MATERIALS.remove(reference.key, reference);
+        }
+        if (expunged) {
+            WATCHER.update();
+        }
+    }
+
+    /**
+     * Returns a digest of the settings of an SSL context, so that the key store password is not held in the clear as
+     * a map key.
+     */
+    private static String fingerprint(String keystoreFile, String keystorePassword, String truststoreFile,
+            String protocol, boolean ignoreHostname) throws GeneralSecurityException {
+        String settings = String.join("\n", String.valueOf(keystoreFile), String.valueOf(keystorePassword),
+                String.valueOf(truststoreFile), String.valueOf(protocol), String.valueOf(ignoreHostname));
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(settings.getBytes(StandardCharsets.UTF_8));
+        StringBuilder fingerprint = new StringBuilder(digest.length * 2);
+        for (byte b : digest) {
+            fingerprint.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return fingerprint.toString();
+    }
+
+    private static void reload(Path directory) {
+        for (MaterialReference reference : MATERIALS.values()) {
+            if (reference.material.isStoredUnder(directory)) {
+                reference.material.reloadIfChanged();
+            }
+        }
+    }
+
+    private static X509KeyManager loadKeyManager(Path file, char[] password)
+            throws GeneralSecurityException, IOException {
+        KeyStore keyStore = KeyStore.getInstance(KEYSTORE_TYPE);
+        try (InputStream in = Files.newInputStream(file)) {
+            keyStore.load(in, password);
+        }
+        KeyManagerFactory kmf = KeyManagerFactory.getInstance(KEYSTORE_ALGORITHM);
+        kmf.init(keyStore, password);
+        for (KeyManager keyManager : kmf.getKeyManagers()) {
+            if (keyManager instanceof X509KeyManager) {
+                return (X509KeyManager) keyManager;
+            }
+        }
+        throw new GeneralSecurityException("No X509 key manager for " + file);
+    }
+
+    private static X509TrustManager loadTrustManager(Path file) throws GeneralSecurityException, IOException {
+        KeyStore trustStore =
+                KeyStore.getInstance(System.getProperty(TRUST_STORE_TYPE_PROPERTY, KeyStore.getDefaultType()));
+        String password = System.getProperty(TRUST_STORE_PASSWORD_PROPERTY);
+        if (Files.exists(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+                trustStore.load(in, password != null ? password.toCharArray() : null);
+            }
+        } else {
+            // The file may be mounted later; until then no server is trusted.
+            logger.warn(RestClientMsgs.SSL_MATERIAL_LOAD_FAILURE, file.toString(), "file does not exist");
+            trustStore.load(null, null);
+        }
+        TrustManagerFactory tmf = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        tmf.init(trustStore);
+        for (TrustManager trustManager : tmf.getTrustManagers()) {
+            if (trustManager instanceof X509TrustManager) {
+                return (X509TrustManager) trustManager;
+            }
+        }
+        throw new GeneralSecurityException("No X509 trust manager for " + file);
+    }
+
+    /**
+     * Returns the SHA-256 digest of a file, or null if it does not exist. Comparing digests rather than modification
+     * times also catches a file replaced through a symbolic link, as done for mounted Kubernetes secrets.
+     */
+    private static byte[] digest(Path file) throws GeneralSecurityException, IOException {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(file));
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the directory of a file, or if it does not exist yet, its nearest ancestor which does.
+     */
+    private static Path nearestExistingDirectory(Path file) {
+        Path directory = file.getParent();
+        while (directory != null && !Files.isDirectory(directory)) {
+            directory = directory.getParent();
+        }
+        return directory;
+    }
+
+    /**
+     * Refers weakly to an SSL context, so that its material is dropped once no client uses the context. The material
+     * is held strongly, as it is reloaded while the context lives, but it does not refer back to the context.
+     */
+    private static class MaterialReference extends WeakReference<SSLContext> {
+        private final String key;
+        private final SslMaterial material;
+
+        MaterialReference(SSLContext context, String key, SslMaterial material) {
+            super(context, UNUSED_CONTEXTS);
+            this.key = key;
+            this.material = material;
+        }
+    }
+
+    /**
+     * The key and trust managers built for one combination of files, whose delegates are swapped when the files
+     * change.
+     */
+    private static class SslMaterial {
+        private final Path keystoreFile;
+        private final char[] keystorePassword;
+        private final Path truststoreFile;
+        private final ReloadingKeyManager keyManager;
+        private final ReloadingTrustManager trustManager;
+        private byte[] keystoreDigest;
+        private byte[] truststoreDigest;
+
+        SslMaterial(String keystoreFile, String keystorePassword, String truststoreFile)
+                throws GeneralSecurityException, IOException {
+            this.keystoreFile = keystoreFile != null ? Paths.get(keystoreFile).toAbsolutePath() : null;
+            this.keystorePassword = keystorePassword != null ? keystorePassword.toCharArray() : null;
+            this.truststoreFile = Paths.get(truststoreFile).toAbsolutePath();
+
+            if (this.keystoreFile != null) {
+                keystoreDigest = digest(this.keystoreFile);
+                keyManager = new ReloadingKeyManager(loadKeyManager(this.keystoreFile, this.keystorePassword));
+            } else {
+                keyManager = null;
+            }
+            truststoreDigest = digest(this.truststoreFile);
+            trustManager = new ReloadingTrustManager(loadTrustManager(this.truststoreFile));
+        }
+
+        SSLContext newContext(String protocol, boolean ignoreHostname) throws GeneralSecurityException {
+            SSLContext context = SSLContext.getInstance(protocol);
+            context.init(keyManager != null ? new KeyManager[] {keyManager} : null,
+                    new TrustManager[] {ignoreHostname ? new HostnameIgnoringTrustManager(trustManager) : trustManager},
+                    null);
+            return context;
+        }
+
+        boolean isStoredUnder(Path directory) {
+            return truststoreFile.startsWith(directory) || (keystoreFile != null && keystoreFile.startsWith(directory));
+        }
+
+        void addWatchedDirectories(Set<Path> directories) {
+            addNearestExistingDirectory(truststoreFile, directories);
+            if (keystoreFile != null) {
+                addNearestExistingDirectory(keystoreFile, directories);
+            }
+        }
+
+        private static void addNearestExistingDirectory(Path file, Set<Path> directories) {
+            Path directory = nearestExistingDirectory(file);
+            if (directory != null) {
+                directories.add(directory);
+            }
+        }
+
+        synchronized void reloadIfChanged() {
+            if (keystoreFile != null) {
+                try {
+                    byte[] current = digest(keystoreFile);
+                    if (current != null && !Arrays.equals(current, keystoreDigest)) {
+                        keyManager.delegate = loadKeyManager(keystoreFile, keystorePassword);
+                        keystoreDigest = current;
+                        logger.info(RestClientMsgs.SSL_MATERIAL_RELOADED, keystoreFile.toString());
+                    }
+                } catch (GeneralSecurityException | IOException e) {
+                    logger.warn(RestClientMsgs.SSL_MATERIAL_LOAD_FAILURE, keystoreFile.toString(), e.toString());
+                }
+            }
+            try {
+                byte[] current = digest(truststoreFile);
+                if (current != null && !Arrays.equals(current, truststoreDigest)) {
+                    trustManager.delegate = loadTrustManager(truststoreFile);
+                    truststoreDigest = current;
+                    logger.info(RestClientMsgs.SSL_MATERIAL_RELOADED, truststoreFile.toString());
+                }
+            } catch (GeneralSecurityException | IOException e) {
+                logger.warn(RestClientMsgs.SSL_MATERIAL_LOAD_FAILURE, truststoreFile.toString(), e.toString());
+            }
+        }
+    }
+
+    /**
+     * Watches the directories of the cached files on a single daemon thread, started with the first SSL context.
+     * Directories are watched rather than files, as a WatchService cannot watch a single file. Where the directory of a
+     * file does not exist yet, its nearest existing ancestor is watched instead, and the watch moves down to the
+     * directory once it is created.
+     */
+    private static class FileWatcher implements Runnable {
+        private final Map<Path, WatchKey> watched = new HashMap<>();
+        private WatchService watchService;
+
+        /**
+         * Watches the directories the cached material needs, and stops watching those it no longer needs.
+         */
+        synchronized void update() {
+            Set<Path> directories = new HashSet<>();
+            for (MaterialReference reference : MATERIALS.values()) {
+                reference.material.addWatchedDirectories(directories);
+            }
+            Iterator<Map.Entry<Path, WatchKey>> keys = watched.entrySet().iterator();
+            while (keys.hasNext()) {
+                Map.Entry<Path, WatchKey> key = keys.next();
+                if (!directories.contains(key.getKey()) || !key.getValue().isValid()) {
+                    key.getValue().cancel();
+                    keys.remove();
+                }
+            }
+            for (Path directory : directories) {
+                if (!watched.containsKey(directory)) {
+                    watch(directory);
+                }
+            }
+        }
+
+        private void watch(Path directory) {
+            try {
+                if (watchService == null) {
+                    watchService = FileSystems.getDefault().newWatchService();
+                    Thread thread = new Thread(this, "rest-client-ssl-reloader");
+                    thread.setDaemon(true);
+                    thread.start();
+                }
+                watched.put(directory, directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY));
+            } catch (IOException e) {
+                logger.warn(RestClientMsgs.SSL_MATERIAL_LOAD_FAILURE, directory.toString(),
+                        "cannot watch for changes: " + e);
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                WatchKey key;
+                try {
+                    key = watchService.poll(EXPUNGE_INTERVAL_MINUTES, TimeUnit.MINUTES);
+                } catch (InterruptedException | ClosedWatchServiceException e) {
+                    return;
+                }
+                expungeUnusedMaterial();
+                if (key == null) {
+                    continue;
+                }
+                key.pollEvents();
+                key.reset();
+                // A directory created under a watched ancestor may be the one a file is expected in
+                update();
+                reload((Path) key.watchable());
+            }
+        }
+    }
+
+    /**
+     * Key manager whose delegate is replaced when the key store changes.
+     */
+    private static class ReloadingKeyManager extends X509ExtendedKeyManager {
+
+        private volatile X509KeyManager delegate;
+
+        ReloadingKeyManager(X509KeyManager delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String[] getClientAliases(String keyType, Principal[] issuers) {
+            return delegate.getClientAliases(keyType, issuers);
+        }
+
+        @Override
+        public String chooseClientAlias(String[] keyType, Principal[] issuers, Socket socket) {
+            return delegate.chooseClientAlias(keyType, issuers, socket);
+        }
+
+        @Override
+        public String chooseEngineClientAlias(String[] keyType, Principal[] issuers, SSLEngine engine) {
+            X509KeyManager current = delegate;
+            if (current instanceof X509ExtendedKeyManager) {
+                return ((X509ExtendedKeyManager) current).chooseEngineClientAlias(keyType, issuers, engine);
+            }
+            return current.chooseClientAlias(keyType, issuers, null);
+        }
+
+        @Override
+        public String[] getServerAliases(String keyType, Principal[] issuers) {
+            return delegate.getServerAliases(keyType, issuers);
+        }
+
+        @Override
+        public String chooseServerAlias(String keyType, Principal[] issuers, Socket socket) {
+            return delegate.chooseServerAlias(keyType, issuers, socket);
+        }
+
+        @Override
+        public String chooseEngineServerAlias(String keyType, Principal[] issuers, SSLEngine engine) {
+            X509KeyManager current = delegate;
+            if (current instanceof X509ExtendedKeyManager) {
+                return ((X509ExtendedKeyManager) current).chooseEngineServerAlias(keyType, issuers, engine);
+            }
+            return current.chooseServerAlias(keyType, issuers, null);
+        }
+
+        @Override
+        public X509Certificate[] getCertificateChain(String alias) {
+            return delegate.getCertificateChain(alias);
+        }
+
+        @Override
+        public PrivateKey getPrivateKey(String alias) {
+            return delegate.getPrivateKey(alias);
+        }
+    }
+
+    /**
+     * Trust manager whose delegate is replaced when the trust store changes. The standard trust manager is an
+     * X509ExtendedTrustManager, so the host name checks it makes for a socket or engine are kept.
+     */
+    private static class ReloadingTrustManager extends X509ExtendedTrustManager {
+
+        private volatile X509TrustManager delegate;
+
+        ReloadingTrustManager(X509TrustManager delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void checkClientTrusted(X509Certificate[] chain, String authType) throws CertificateException {
+            delegate.checkClientTrusted(chain, authType);
+        }
+
+        @Override
+        public void checkClientTrusted(X509Certificate[] chain, String authType, Socket socket)
+                throws CertificateException {
+            X509TrustManager current = delegate;
+            if (current instanceof X509ExtendedTrustManager) {
+                ((X509ExtendedTrustManager) current).checkClientTrusted(chain, authType, socket);
+            } else {
+                current.checkClientTrusted(chain, authType);
+            }
+        }
+
+        @Override
+        public void checkClientTrusted(X509Certificate[] chain, String authType, SSLEngine engine)
+                throws CertificateException {
+            X509TrustManager current = delegate;
+            if (current instanceof X509ExtendedTrustManager) {
+                ((X509ExtendedTrustManager) current).checkClientTrusted(chain, authType, engine);
+            } else {
+                current.checkClientTrusted(chain, authType);
+            }
+        }
+
+        @Override
+        public void checkServerTrusted(X509Certificate[] chain, String authType) throws CertificateException {
+            delegate.checkServerTrusted(chain, authType);
+        }
+
+        @Override
+        public void checkServerTrusted(X509Certificate[] chain, String authType, Socket socket)
+                throws CertificateException {
+            X509TrustManager current = delegate;
+            if (current instanceof X509ExtendedTrustManager) {
+                ((X509ExtendedTrustManager) current).checkServerTrusted(chain, authType, socket);
+            } else {
+                current.checkServerTrusted(chain, authType);
+            }
+        }
+
+        @Override
+        public void checkServerTrusted(X509Certificate[] chain, String authType, SSLEngine engine)
+                throws CertificateException {
+            X509TrustManager current = delegate;
+            if (current instanceof X509ExtendedTrustManager) {
+                ((X509ExtendedTrustManager) current).checkServerTrusted(chain, authType, engine);
+            } else {
+                current.checkServerTrusted(chain, authType);
+            }
+        }
+
+        @Override
+        public X509Certificate[] getAcceptedIssuers() {
+            return delegate.getAcceptedIssuers();
+        }
+    }
+
+    /**
+     * Delegates the certificate chain checks to a standard trust manager. Extending X509ExtendedTrustManager stops the
+     * SSL engine from adding its own endpoint identification, so the server host name is not checked.
+     */
+    private static class HostnameIgnoringTrustManager extends X509ExtendedTrustManager {
+
+        private final X509TrustManager delegate;
+
+        HostnameIgnoringTrustManager(X509TrustManager delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void checkClientTrusted(X509Certificate[] chain, String authType) throws CertificateException {
+            delegate.checkClientTrusted(chain, authType);
+        }
+
+        @Override
+        public void checkClientTrusted(X509Certificate[] chain, String authType, Socket socket)
+                throws CertificateException {
+            delegate.checkClientTrusted(chain, authType);
+        }
+
+        @Override
+        public void checkClientTrusted(X509Certificate[] chain, String authType, SSLEngine engine)
+                throws CertificateException {
+            delegate.checkClientTrusted(chain, authType);
+        }
+
+        @Override
+        public void checkServerTrusted(X509Certificate[] chain, String authType) throws CertificateException {
+            delegate.checkServerTrusted(chain, authType);
+        }
+
+        @Override
+        public void checkServerTrusted(X509Certificate[] chain, String authType, Socket socket)
+                throws CertificateException {
+            delegate.checkServerTrusted(chain, authType);
+        }
+
+        @Override
+        public void checkServerTrusted(X509Certificate[] chain, String authType, SSLEngine engine)
+                throws CertificateException {
+            delegate.checkServerTrusted(chain, authType);
+        }
+
+        @Override
+        public X509Certificate[] getAcceptedIssuers() {
+            return delegate.getAcceptedIssuers();
+        }
+    }
+}
@@ -0,0 +1,331 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.transport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import org.onap.aai.restclient.client.Headers;
+import org.onap.aai.restclient.client.RequestBody;
+import org.onap.aai.restclient.client.VirtualThreads;
+
+import com.att.eelf.configuration.EELFLogger;
+import com.att.eelf.configuration.EELFManager;
+
+/**
+ * A {@link RestTransport} built on the {@link HttpClient} of the JDK. The client negotiates HTTP/2 where the server
+ * supports it, in which case concurrent requests to a server are multiplexed over a single connection.
+ *
+ * <p>The JDK client has no separate read timeout, so the read timeout is applied as the time allowed for the response
+ * headers to arrive.
+ */
+public class JavaHttpClientTransport implements RestTransport {
+
+    private static EELFLogger logger = EELFManager.getLogger(JavaHttpClientTransport.class.getName());
+
+    private static final String CONTENT_TYPE = "Content-Type";
+    private static final int PIPE_BUFFER_SIZE = 65536;
+
+    /** Writes payloads for transports without an executor of their own, on a virtual thread where supported. */
+    private static final Executor DEFAULT_WRITER_EXECUTOR = VirtualThreads.newThreadPerTaskExecutor();
+
+    private final HttpClient httpClient;
+    private final Duration readTimeout;
+    private final Executor writerExecutor;
+
+    /**
+     * Creates a new transport which writes payloads pushed by a writer on a thread of its own for each request.
+     *
+     * @param httpClient the client to send requests with
+     * @param readTimeoutInMs the time allowed for the response headers to arrive, zero or less for no limit
+     */
+    public JavaHttpClientTransport(HttpClient httpClient, int readTimeoutInMs) {
+        this(httpClient, readTimeoutInMs, null);
+    }
+
+    /**
+     * Creates a new transport.
+     *
+     * @param httpClient the client to send requests with
+     * @param readTimeoutInMs the time allowed for the response headers to arrive, zero or less for no limit
+     * @param writerExecutor the executor which runs writers feeding request payloads, or null for a new virtual
+     *        thread per request where the JVM supports them
+     */
+    public JavaHttpClientTransport(HttpClient httpClient, int readTimeoutInMs, Executor writerExecutor) {
+        this.httpClient = httpClient;
+        this.readTimeout = readTimeoutInMs > 0 ? Duration.ofMillis(readTimeoutInMs) : null;
+        this.writerExecutor = writerExecutor != null ? writerExecutor : DEFAULT_WRITER_EXECUTOR;
+    }
+
+    public HttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    @Override
+    public TransportResponse execute(TransportRequest request) throws IOException, InterruptedException {
+        return new JavaHttpResponse(httpClient.send(newHttpRequest(request), BodyHandlers.ofInputStream()));
+    }
+
+    @Override
+    public CompletionStage<TransportResponse> executeAsync(TransportRequest request) {
+        HttpRequest httpRequest;
+        try {
+            httpRequest = newHttpRequest(request);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return ResponseFutures.cancellable(httpClient.sendAsync(httpRequest, BodyHandlers.ofInputStream()),
+                JavaHttpResponse::new);
+    }
+
+    /**
+     * Sets a header given by the caller. The JDK client sets headers such as Connection, Host and Content-Length
+     * itself and refuses them from the caller, so those are left out of the request rather than failing it.
+     */
+    private static void setHeader(HttpRequest.Builder builder, String name, String value) {
+        try {
+            builder.setHeader(name, value);
+        } catch (IllegalArgumentException e) {
+            logger.debug("Not sending header " + name + ": " + e.getMessage());
+        }
+    }
+
+    private HttpRequest newHttpRequest(TransportRequest request) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(request.getUrl()));
+
+        if (readTimeout != null) {
+            builder.timeout(readTimeout);
+        }
+
+        if (request.getResponseType() != null) {
+            builder.header(Headers.ACCEPT, request.getResponseType().toString());
+        }
+
+        if (request.getHeaders() != null) {
+            for (Entry<String, List<String>> header : request.getHeaders().entrySet()) {
+                setHeader(builder, header.getKey(), TransportRequest.joinHeaderValues(header.getValue()));
+            }
+        }
+
+        if (request.getAuthorization() != null) {
+            builder.setHeader(Headers.AUTHORIZATION, request.getAuthorization());
+        }
+
+        switch (request.getRequestType()) {
+            case GET:
+                builder.GET();
+                break;
+            case PUT:
+                builder.PUT(publisher(request, builder));
+                break;
+            case POST:
+                builder.POST(publisher(request, builder));
+                break;
+            case DELETE:
+                builder.DELETE();
+                break;
+            case HEAD:
+                builder.method("HEAD", BodyPublishers.noBody());
+                break;
+            case PATCH:
+                // Emulated in the same way as on the Jersey transport, so the server sees the same request
+                builder.setHeader("X-HTTP-Method-Override", "PATCH");
+                builder.POST(publisher(request, builder));
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported request type " + request.getRequestType());
+        }
+
+        return builder.build();
+    }
+
+    private BodyPublisher publisher(TransportRequest request, HttpRequest.Builder builder) throws IOException {
+        MediaType contentType = request.getContentType();
+        if (contentType != null) {
+            builder.setHeader(CONTENT_TYPE, contentType.toString());
+        }
+        if (request.getBody() != null) {
+            return publisher(request.getBody());
+        }
+        if (request.getPayload() == null) {
+            return BodyPublishers.noBody();
+        }
+        return BodyPublishers.ofString(request.getPayload(), charsetOf(contentType));
+    }
+
+    /**
+     * Returns a publisher which streams the supplied payload. Payloads of a known length are sent with a
+     * Content-Length header, others with chunked transfer encoding.
+     *
+     * <p>The JDK client subscribes to the publisher again to resend the payload after a 307 or 308 redirect. A
+     * repeatable payload is then written afresh, while any other payload fails the request, as it has already been
+     * consumed.
+     */
+    private BodyPublisher publisher(RequestBody body) throws IOException {
+        if (body.getFile() != null) {
+            return BodyPublishers.ofFile(body.getFile());
+        }
+
+        AtomicBoolean sent = new AtomicBoolean();
+        BodyPublisher publisher = BodyPublishers.ofInputStream(() -> {
+            if (sent.getAndSet(true) && !body.isRepeatable()) {
+                return new FailedStream("The request body is not repeatable and has already been sent");
+            }
+            InputStream in = body.getInputStream();
+            return in != null ? in : writeThroughPipe(body);
+        });
+
+        long contentLength = body.getContentLength();
+        return contentLength >= 0 ? BodyPublishers.fromPublisher(publisher, contentLength) : publisher;
+    }
+
+    /**
+     * The JDK client pulls the payload from a stream, so a payload which is pushed by a writer is fed to it through a
+     * pipe from a task on the writer executor.
+     */
+    private InputStream writeThroughPipe(RequestBody body) {
+        PipedInputStream in = new PipedInputStream(PIPE_BUFFER_SIZE);
+        PipedOutputStream out;
+        try {
+            out = new PipedOutputStream(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        Runnable writer = () -> {
+            try {
+                body.writeTo(out);
+                out.close();
+            } catch (IOException e) {
+                // Closing the reading end makes the request fail rather than send a truncated payload. The writing end
+                // is left open, as closing it would mark the end of the payload.
+                try {
+                    in.close();
+                } catch (IOException ignored) {
+                    // Nothing more can be done
+                }
+            }
+        };
+        try {
+            writerExecutor.execute(writer);
+        } catch (RejectedExecutionException e) {
+            return new FailedStream("No thread is available to write the request body: " + e.getMessage());
+        }
+        return in;
+    }
+
+    /**
+     * Stands in for a payload which cannot be sent, failing the request when the client reads it.
+     */
+    private static class FailedStream extends InputStream {
+        private final String message;
+
+        FailedStream(String message) {
+            this.message = message;
+        }
+
+        @Override
+        public int read() throws IOException {
+            throw new IOException(message);
+        }
+    }
+
+    private static Charset charsetOf(MediaType mediaType) {
+        String charset = mediaType != null ? mediaType.getParameters().get(MediaType.CHARSET_PARAMETER) : null;
+        try {
+            return charset != null ? Charset.forName(charset) : StandardCharsets.UTF_8;
+        } catch (IllegalArgumentException e) {
+            return StandardCharsets.UTF_8;
+        }
+    }
+
+    private static class JavaHttpResponse implements TransportResponse {
+
+        private final HttpResponse<InputStream> response;
+        private MultivaluedMap<String, String> headers;
+
+        JavaHttpResponse(HttpResponse<InputStream> response) {
+            this.response = response;
+        }
+
+        @Override
+        public int getStatus() {
+            return response.statusCode();
+        }
+
+        @Override
+        public MultivaluedMap<String, String> getHeaders() {
+            if (headers == null) {
+                headers = new ResponseHeaders(response.headers().map());
+            }
+            return headers;
+        }
+
+        @Override
+        public String readEntity() {
+            return new String(readEntityBytes(), getCharset());
+        }
+
+        @Override
+        public byte[] readEntityBytes() {
+            try (InputStream body = response.body()) {
+                return body.readAllBytes();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public InputStream getEntityStream() {
+            return response.body();
+        }
+
+        @Override
+        public void close() {
+            try {
+                response.body().close();
+            } catch (IOException e) {
+                // Nothing more can be done to release the connection
+            }
+        }
+    }
+}
@@ -0,0 +1,200 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.transport;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.CompletionStage;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.Invocation.Builder;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.RequestEntityProcessing;
+import org.onap.aai.restclient.client.Headers;
+import org.onap.aai.restclient.client.RequestBody;
+
+/**
+ * A {@link RestTransport} which sends requests through a Jersey {@link Client}.
+ */
+public class JerseyTransport implements RestTransport {
+
+    private final Client client;
+
+    public JerseyTransport(Client client) {
+        this.client = client;
+    }
+
+    public Client getClient() {
+        return client;
+    }
+
+    @Override
+    public TransportResponse execute(TransportRequest request) {
+        Builder builder = newRequestBuilder(request);
+
+        Response response;
+        switch (request.getRequestType()) {
+            case GET:
+                response = builder.get();
+                break;
+            case PUT:
+                response = builder.put(entity(request));
+                break;
+            case POST:
+                response = builder.post(entity(request));
+                break;
+            case DELETE:
+                response = builder.delete();
+                break;
+            case HEAD:
+                response = builder.head();
+                break;
+            case PATCH:
+                response = patch(builder).post(entity(request));
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported request type " + request.getRequestType());
+        }
+
+        return response != null ? new JerseyResponse(response) : null;
+    }
+
+    @Override
+    public CompletionStage<TransportResponse> executeAsync(TransportRequest request) {
+        Builder builder = newRequestBuilder(request);
+
+        CompletionStage<Response> response;
+        switch (request.getRequestType()) {
+            case GET:
+                response = builder.rx().get();
+                break;
+            case PUT:
+                response = builder.rx().put(entity(request));
+                break;
+            case POST:
+                response = builder.rx().post(entity(request));
+                break;
+            case DELETE:
+                response = builder.rx().delete();
+                break;
+            case HEAD:
+                response = builder.rx().head();
+                break;
+            case PATCH:
+                response = patch(builder).rx().post(entity(request));
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported request type " + request.getRequestType());
+        }
+
+        return ResponseFutures.cancellable(response.toCompletableFuture(),
+                r -> r != null ? new JerseyResponse(r) : null);
+    }
+
+    private static Entity<?> entity(TransportRequest request) {
+        RequestBody body = request.getBody();
+        if (body != null) {
+            StreamingOutput output = body::writeTo;
+            return Entity.entity(output, request.getContentType());
+        }
+        return Entity.entity(request.getPayload(), request.getContentType());
+    }
+
+    /**
+     * Technically there is no standarized PATCH operation for the jersey client, but we can use the method-override
+     * approach instead.
+     */
+    private Builder patch(Builder builder) {
+        builder.header("X-HTTP-Method-Override", "PATCH");
+        return builder;
+    }
+
+    /**
+     * This method constructs a client request builder that can be used for submitting REST requests to the supplied URL
+     * endpoint.
+     */
+    private Builder newRequestBuilder(TransportRequest request) {
+
+        Builder builder = client.target(request.getUrl()).request().accept(request.getResponseType());
+
+        if (request.getHeaders() != null) {
+            for (Entry<String, List<String>> header : request.getHeaders().entrySet()) {
+                builder.header(header.getKey(), TransportRequest.joinHeaderValues(header.getValue()));
+            }
+        }
+
+        if (request.getAuthorization() != null) {
+            builder.header(Headers.AUTHORIZATION, request.getAuthorization());
+        }
+
+        if (request.getBody() != null) {
+            // Without this the default connector buffers the whole payload in memory to work out its length
+            builder.property(ClientProperties.REQUEST_ENTITY_PROCESSING, RequestEntityProcessing.CHUNKED);
+        }
+
+        return builder;
+    }
+
+    private static class JerseyResponse implements TransportResponse {
+
+        private final Response response;
+
+        JerseyResponse(Response response) {
+            this.response = response;
+        }
+
+        @Override
+        public int getStatus() {
+            return response.getStatus();
+        }
+
+        @Override
+        public MultivaluedMap<String, String> getHeaders() {
+            // Jersey already holds the received headers as strings keyed case-insensitively, so they are handed out
+            // as they are rather than copied.
+            return response.getStringHeaders();
+        }
+
+        @Override
+        public String readEntity() {
+            return response.readEntity(String.class);
+        }
+
+        @Override
+        public byte[] readEntityBytes() {
+            return response.readEntity(byte[].class);
+        }
+
+        @Override
+        public InputStream getEntityStream() {
+            return response.readEntity(InputStream.class);
+        }
+
+        @Override
+        public void close() {
+            response.close();
+        }
+    }
+}
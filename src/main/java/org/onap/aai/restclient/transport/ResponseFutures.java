@@ -0,0 +1,63 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.transport;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Helpers for the futures handed back by {@link RestTransport#executeAsync(TransportRequest)}.
+ */
+final class ResponseFutures {
+
+    private ResponseFutures() {}
+
+    /**
+     * Wraps the response of an exchange in progress so that cancelling the returned future abandons the exchange. The
+     * exchange is aborted if the underlying client supports it, and a response which still arrives is closed so its
+     * connection goes back to the pool.
+     *
+     * @param sent the future of the exchange
+     * @param wrapper converts the response of the underlying client into a transport response
+     * @return a future which completes with the wrapped response
+     */
+    static <T> CompletableFuture<TransportResponse> cancellable(CompletableFuture<T> sent,
+            Function<? super T, ? extends TransportResponse> wrapper) {
+        CompletableFuture<TransportResponse> response = sent.thenApply(wrapper);
+        response.whenComplete((result, error) -> {
+            if (response.isCancelled()) {
+                sent.cancel(true);
+                sent.thenApply(wrapper).thenAccept(ResponseFutures::closeQuietly);
+            }
+        });
+        return response;
+    }
+
+    private static void closeQuietly(TransportResponse response) {
+        if (response != null) {
+            try {
+                response.close();
+            } catch (Exception e) {
+                // Nothing is waiting for this response any more
+            }
+        }
+    }
+}
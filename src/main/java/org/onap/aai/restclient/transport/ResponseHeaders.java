@@ -0,0 +1,46 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.transport;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.ws.rs.core.AbstractMultivaluedMap;
+
+/**
+ * Response headers keyed by header name, where names are matched case-insensitively as HTTP requires. HTTP/2 servers
+ * send every header name in lower case, so callers looking up a header such as {@code ETag} must not depend on the
+ * case used by the server.
+ */
+public class ResponseHeaders extends AbstractMultivaluedMap<String, String> {
+
+    public ResponseHeaders() {
+        super(new TreeMap<String, List<String>>(String.CASE_INSENSITIVE_ORDER));
+    }
+
+    /**
+     * Creates a copy of the supplied headers.
+     */
+    public ResponseHeaders(Map<String, List<String>> headers) {
+        this();
+        headers.forEach(this::addAll);
+    }
+}
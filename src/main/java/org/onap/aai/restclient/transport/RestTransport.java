@@ -0,0 +1,53 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.transport;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * The service provider interface between the {@link org.onap.aai.restclient.client.RestClient} and the HTTP engine
+ * which actually exchanges requests and responses with the server.
+ *
+ * <p>The client takes care of everything that should behave the same whatever engine is in use: authentication
+ * headers, retries, logging and the population of the {@link org.onap.aai.restclient.client.OperationResult}. A
+ * transport only has to send the request it is given and hand back the raw response.
+ */
+public interface RestTransport {
+
+    /**
+     * Sends a request and waits for the response.
+     *
+     * @param request the request to send
+     * @return the response from the server
+     * @throws Exception if the request could not be sent or no response was received
+     */
+    TransportResponse execute(TransportRequest request) throws Exception;
+
+    /**
+     * Sends a request without blocking the calling thread.
+     *
+     * @param request the request to send
+     * @return a completion stage which completes with the response from the server, or exceptionally if the request
+     *         could not be sent or no response was received. Cancelling its future abandons the request, and a
+     *         response which arrives afterwards is closed by the transport.
+     */
+    CompletionStage<TransportResponse> executeAsync(TransportRequest request);
+}
@@ -0,0 +1,137 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.transport;
+
+import java.util.List;
+import java.util.Map;
+import javax.ws.rs.core.MediaType;
+import org.onap.aai.restclient.client.RequestBody;
+import org.onap.aai.restclient.enums.RequestType;
+
+/**
+ * A request to be sent by a {@link RestTransport}.
+ */
+public class TransportRequest {
+
+    private final RequestType requestType;
+    private final String url;
+    private final String payload;
+    private final RequestBody body;
+    private final Map<String, List<String>> headers;
+    private final MediaType contentType;
+    private final MediaType responseType;
+    private final String authorization;
+
+    /**
+     * Creates a new request.
+     *
+     * @param requestType the HTTP operation
+     * @param url the URL to send the request to
+     * @param payload the request payload, or null if there is none
+     * @param headers the headers supplied by the caller, may be null
+     * @param contentType the content type of the payload
+     * @param responseType the expected format of the response
+     * @param authorization the value of the Authorization header the client requires, or null if none is required
+     */
+    public TransportRequest(RequestType requestType, String url, String payload, Map<String, List<String>> headers,
+            MediaType contentType, MediaType responseType, String authorization) {
+        this(requestType, url, payload, null, headers, contentType, responseType, authorization);
+    }
+
+    /**
+     * Creates a new request, whose payload is either a String or a streamed {@link RequestBody}.
+     *
+     * @param requestType the HTTP operation
+     * @param url the URL to send the request to
+     * @param payload the request payload, or null if there is none or it is streamed
+     * @param body the streamed request payload, or null if there is none or it is a String
+     * @param headers the headers supplied by the caller, may be null
+     * @param contentType the content type of the payload
+     * @param responseType the expected format of the response
+     * @param authorization the value of the Authorization header the client requires, or null if none is required
+     */
+    public TransportRequest(RequestType requestType, String url, String payload, RequestBody body,
+            Map<String, List<String>> headers, MediaType contentType, MediaType responseType, String authorization) {
+        this.requestType = requestType;
+        this.url = url;
+        this.payload = payload;
+        this.body = body;
+        this.headers = headers;
+        this.contentType = contentType;
+        this.responseType = responseType;
+        this.authorization = authorization;
+    }
+
+    public RequestType getRequestType() {
+        return requestType;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    /**
+     * Returns the streamed payload, or null if the payload is a String.
+     */
+    public RequestBody getBody() {
+        return body;
+    }
+
+    /**
+     * Returns the headers supplied by the caller. Multiple values of a header are sent as a single header with the
+     * values separated by semi-colons.
+     */
+    public Map<String, List<String>> getHeaders() {
+        return headers;
+    }
+
+    public MediaType getContentType() {
+        return contentType;
+    }
+
+    public MediaType getResponseType() {
+        return responseType;
+    }
+
+    /**
+     * Returns the value of the Authorization header to send in addition to the caller's headers, or null.
+     */
+    public String getAuthorization() {
+        return authorization;
+    }
+
+    /**
+     * Joins the values of a multi-valued header into the single value sent on the wire.
+     */
+    public static String joinHeaderValues(List<String> values) {
+        return values.size() == 1 ? values.get(0) : String.join(";", values);
+    }
+
+    @Override
+    public String toString() {
+        return "TransportRequest [requestType=" + requestType + ", url=" + url + ", contentType=" + contentType
+                + ", responseType=" + responseType + "]";
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.transport;
+
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+
+/**
+ * A response received by a {@link RestTransport}. The response holds on to the underlying connection until its entity
+ * has been read or it is closed.
+ */
+public interface TransportResponse extends AutoCloseable {
+
+    /**
+     * Returns the HTTP status code.
+     */
+    int getStatus();
+
+    /**
+     * Returns the response headers. Header names are matched case-insensitively.
+     */
+    MultivaluedMap<String, String> getHeaders();
+
+    /**
+     * Reads the whole response entity as a String, decoded using the charset of the response content type or UTF-8
+     * if none is given.
+     */
+    String readEntity();
+
+    /**
+     * Reads the whole response entity as the raw bytes received, without decoding them.
+     */
+    byte[] readEntityBytes();
+
+    /**
+     * Returns the response entity as a stream of raw bytes, which is read straight off the connection without being
+     * buffered in full. The connection is released when the stream is read to the end or closed, or when the response
+     * is closed.
+     */
+    InputStream getEntityStream();
+
+    /**
+     * Returns the charset given by the response content type, or UTF-8 if there is none or it is not supported.
+     */
+    default Charset getCharset() {
+        String contentType = getHeaders().getFirst("Content-Type");
+        try {
+            String charset = contentType != null
+                    ? MediaType.valueOf(contentType).getParameters().get(MediaType.CHARSET_PARAMETER)
+                    : null;
+            return charset != null ? Charset.forName(charset) : StandardCharsets.UTF_8;
+        } catch (IllegalArgumentException e) {
+            return StandardCharsets.UTF_8;
+        }
+    }
+
+    /**
+     * Releases the underlying connection. Any entity which has not been read is discarded.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,194 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.balancer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.onap.aai.restclient.enums.EndpointState;
+import org.onap.aai.restclient.enums.LoadBalancingStrategy;
+
+public class LoadBalancerTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(200);
+
+    private static LoadBalancerConfig config(int endpoints) {
+        String[] urls = new String[endpoints];
+        for (int i = 0; i < endpoints; i++) {
+            urls[i] = "https://aai-" + i + ".aai:8443";
+        }
+        return new LoadBalancerConfig(Arrays.asList(urls));
+    }
+
+    /**
+     * Sends a request through the balancer which is known to be going to the given endpoint.
+     */
+    private static void complete(LoadBalancer balancer, Endpoint endpoint, long latencyNanos, boolean failed) {
+        endpoint.acquire();
+        balancer.release(endpoint, latencyNanos, failed);
+    }
+
+    @Test
+    public void validateServicePaths() {
+        assertTrue(LoadBalancer.isServicePath("/aai/v14/network/pnfs"));
+        assertFalse(LoadBalancer.isServicePath("https://aai.onap:8443/aai/v14/network/pnfs"));
+        assertFalse(LoadBalancer.isServicePath(null));
+    }
+
+    @Test
+    public void validateEndpointResolvesServicePath() {
+        LoadBalancer balancer = new LoadBalancer(new LoadBalancerConfig(Arrays.asList("https://aai.onap:8443/")));
+        assertEquals("https://aai.onap:8443/aai/v14/network/pnfs",
+                balancer.select().resolve("/aai/v14/network/pnfs"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void validateEndpointsMustBeAbsolute() {
+        new LoadBalancerConfig(Arrays.asList("aai.onap:8443"));
+    }
+
+    @Test
+    public void validateLeastOutstandingPrefersIdleEndpoint() {
+        LoadBalancer balancer = new LoadBalancer(config(2));
+
+        Endpoint first = balancer.select();
+        for (int i = 0; i < 20; i++) {
+            Endpoint next = balancer.select();
+            assertNotSame(first, next);
+            balancer.releaseUnused(next);
+        }
+        assertEquals(1, balancer.getStats().stream().mapToInt(EndpointStats::getInFlight).sum());
+    }
+
+    @Test
+    public void validateEwmaPrefersFasterEndpoint() {
+        LoadBalancer balancer = new LoadBalancer(config(2).strategy(LoadBalancingStrategy.EWMA));
+        Endpoint slow = balancer.getEndpoints().get(0);
+        Endpoint fast = balancer.getEndpoints().get(1);
+        complete(balancer, slow, SLOW, false);
+        complete(balancer, fast, FAST, false);
+
+        for (int i = 0; i < 20; i++) {
+            Endpoint next = balancer.select();
+            assertSame(fast, next);
+            balancer.releaseUnused(next);
+        }
+    }
+
+    @Test
+    public void validateConsecutiveFailuresEjectEndpoint() {
+        LoadBalancer balancer = new LoadBalancer(config(3).consecutiveFailures(2));
+        Endpoint failing = balancer.getEndpoints().get(0);
+
+        complete(balancer, failing, FAST, true);
+        assertEquals(EndpointState.HEALTHY, failing.getState());
+        complete(balancer, failing, FAST, true);
+        assertEquals(EndpointState.EJECTED, failing.getState());
+
+        for (int i = 0; i < 50; i++) {
+            Endpoint next = balancer.select();
+            assertNotSame(failing, next);
+            balancer.releaseUnused(next);
+        }
+        assertEquals(1, balancer.getStats().get(0).getEjections());
+        assertEquals(2, balancer.getStats().get(0).getFailures());
+    }
+
+    @Test
+    public void validateSuccessResetsConsecutiveFailures() {
+        LoadBalancer balancer = new LoadBalancer(config(3).consecutiveFailures(2));
+        Endpoint endpoint = balancer.getEndpoints().get(0);
+
+        complete(balancer, endpoint, FAST, true);
+        complete(balancer, endpoint, FAST, false);
+        complete(balancer, endpoint, FAST, true);
+
+        assertEquals(EndpointState.HEALTHY, endpoint.getState());
+    }
+
+    @Test
+    public void validateMaxEjectionPercentKeepsEndpoints() {
+        LoadBalancer balancer = new LoadBalancer(config(2).consecutiveFailures(1));
+        Endpoint first = balancer.getEndpoints().get(0);
+        Endpoint second = balancer.getEndpoints().get(1);
+
+        complete(balancer, first, FAST, true);
+        complete(balancer, second, FAST, true);
+
+        assertEquals(EndpointState.EJECTED, first.getState());
+        assertEquals(EndpointState.HEALTHY, second.getState());
+    }
+
+    @Test
+    public void validateEjectedEndpointReturnsOnProbation() throws Exception {
+        LoadBalancer balancer = new LoadBalancer(
+                config(3).consecutiveFailures(1).baseEjectionTime(Duration.ofMillis(50)).probationRequests(2));
+        Endpoint endpoint = balancer.getEndpoints().get(0);
+
+        complete(balancer, endpoint, FAST, true);
+        assertEquals(EndpointState.EJECTED, endpoint.getState());
+
+        Thread.sleep(60);
+        balancer.releaseUnused(balancer.select());
+        assertEquals(EndpointState.PROBATION, endpoint.getState());
+
+        // A failure on probation ejects the endpoint for twice as long
+        complete(balancer, endpoint, FAST, true);
+        assertEquals(EndpointState.EJECTED, endpoint.getState());
+        Thread.sleep(60);
+        balancer.releaseUnused(balancer.select());
+        assertEquals(EndpointState.EJECTED, endpoint.getState());
+        Thread.sleep(60);
+        balancer.releaseUnused(balancer.select());
+        assertEquals(EndpointState.PROBATION, endpoint.getState());
+
+        complete(balancer, endpoint, FAST, false);
+        assertEquals(EndpointState.PROBATION, endpoint.getState());
+        complete(balancer, endpoint, FAST, false);
+        assertEquals(EndpointState.HEALTHY, endpoint.getState());
+        assertEquals(2, balancer.getStats().get(0).getEjections());
+    }
+
+    @Test
+    public void validateLatencyOutlierIsEjected() {
+        LoadBalancer balancer = new LoadBalancer(
+                config(3).outlierMinRequests(3).minOutlierLatency(Duration.ofMillis(10)).latencyOutlierFactor(3));
+        Endpoint slow = balancer.getEndpoints().get(0);
+        for (int i = 0; i < 3; i++) {
+            complete(balancer, balancer.getEndpoints().get(1), FAST, false);
+            complete(balancer, balancer.getEndpoints().get(2), FAST, false);
+        }
+
+        complete(balancer, slow, SLOW, false);
+        complete(balancer, slow, SLOW, false);
+        assertEquals(EndpointState.HEALTHY, slow.getState());
+        complete(balancer, slow, SLOW, false);
+        assertEquals(EndpointState.EJECTED, slow.getState());
+    }
+}
@@ -0,0 +1,223 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.batch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.core.MediaType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onap.aai.restclient.client.RestClient;
+import org.onap.aai.restclient.enums.BatchOrder;
+import org.onap.aai.restclient.enums.RestAuthenticationMode;
+import org.onap.aai.restclient.enums.TransportEngine;
+
+public class BatchTest {
+
+    private static final Map<String, List<String>> NO_HEADERS = Collections.emptyMap();
+    private static final MediaType JSON = MediaType.APPLICATION_JSON_TYPE;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private String url;
+    private RestClient restClient;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Before
+    public void startServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/pnf", exchange -> {
+            int current = inFlight.incrementAndGet();
+            maxInFlight.accumulateAndGet(current, Math::max);
+            calls.incrementAndGet();
+            try {
+                Thread.sleep(ThreadLocalRandom.current().nextInt(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            inFlight.decrementAndGet();
+            String query = exchange.getRequestURI().getQuery();
+            respond(exchange, query.startsWith("fail") ? 500 : 200, query);
+        });
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+        url = "http://localhost:" + server.getAddress().getPort() + "/pnf?";
+
+        restClient = new RestClient(ClientBuilder.newBuilder()).authenticationMode(RestAuthenticationMode.HTTP_NOAUTH)
+                .transportEngine(TransportEngine.JAVA_HTTP_CLIENT);
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private List<BatchRequest> gets(String prefix, int count) {
+        return IntStream.range(0, count).mapToObj(i -> BatchRequest.get(url + prefix + i, NO_HEADERS, JSON))
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void validateResultsFollowRequestOrder() {
+        Batch batch = restClient.executeBatch(gets("pnf-", 300),
+                new BatchConfig().parallelism(8).order(BatchOrder.ORDERED));
+
+        long expected = 0;
+        for (BatchResult result : batch) {
+            assertEquals(expected, result.getIndex());
+            assertEquals("pnf-" + expected, result.getResult().getResult());
+            expected++;
+        }
+
+        assertEquals(300, expected);
+        assertTrue(maxInFlight.get() <= 8);
+        BatchStats stats = batch.getStats();
+        assertTrue(stats.isDone());
+        assertEquals(300, stats.getSucceeded());
+        assertEquals(0, stats.getInFlight());
+    }
+
+    @Test
+    public void validateResultsInCompletionOrder() {
+        Batch batch = restClient.executeBatch(gets("pnf-", 300).stream(), new BatchConfig().parallelism(16));
+
+        boolean[] seen = new boolean[300];
+        batch.results().forEach(result -> {
+            assertFalse(seen[(int) result.getIndex()]);
+            seen[(int) result.getIndex()] = true;
+        });
+
+        for (boolean result : seen) {
+            assertTrue(result);
+        }
+        assertTrue(maxInFlight.get() <= 16);
+        assertEquals(300, batch.getStats().getCompleted());
+    }
+
+    @Test
+    public void validateBatchAbortsOnFailureRate() {
+        Stream<BatchRequest> requests = IntStream.range(0, 5000)
+                .mapToObj(i -> BatchRequest.get(url + (i % 2 == 0 ? "fail-" : "pnf-") + i, NO_HEADERS, JSON));
+        Batch batch = restClient.executeBatch(requests, new BatchConfig().parallelism(4).abortOnFailureRate(0.25, 20));
+
+        BatchStats stats = batch.awaitCompletion();
+
+        assertTrue(stats.isAborted());
+        assertTrue(stats.isDone());
+        assertTrue(stats.getSubmitted() < 5000);
+        assertEquals(stats.getSubmitted(), calls.get());
+        assertEquals(stats.getSubmitted(), stats.getCompleted());
+        assertTrue(stats.getFailureRate() > 0.25);
+    }
+
+    @Test
+    public void validateFailureReadingRequestsIsRethrown() {
+        Iterator<BatchRequest> requests = IntStream.range(0, 100).mapToObj(i -> {
+            if (i == 10) {
+                throw new IllegalStateException("malformed request " + i);
+            }
+            return BatchRequest.get(url + "pnf-" + i, NO_HEADERS, JSON);
+        }).iterator();
+        Batch batch = Batch.start(restClient, requests, new BatchConfig().order(BatchOrder.ORDERED));
+
+        Iterator<BatchResult> results = batch.iterator();
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i, results.next().getIndex());
+        }
+        try {
+            results.hasNext();
+            fail("Expected the failure reading the requests");
+        } catch (IllegalStateException e) {
+            assertEquals("malformed request 10", e.getMessage());
+        }
+    }
+
+    @Test
+    public void validateCloseStopsTheBatch() {
+        Batch batch = restClient.executeBatch(gets("pnf-", 10000), new BatchConfig().parallelism(2));
+        Iterator<BatchResult> results = batch.iterator();
+        results.next();
+
+        batch.close();
+
+        BatchStats stats = batch.getStats();
+        assertTrue(stats.isDone());
+        assertFalse(stats.isAborted());
+        assertTrue(stats.getSubmitted() < 10000);
+        assertFalse(results.hasNext());
+    }
+
+    @Test(timeout = 30000)
+    public void validateSingleThreadExecutorRunsTheBatch() {
+        ExecutorService executor = Executors.newFixedThreadPool(1);
+        try {
+            Batch batch = restClient.executeBatch(gets("pnf-", 50),
+                    new BatchConfig().parallelism(4).executorService(executor));
+
+            assertEquals(50, batch.awaitCompletion().getSucceeded());
+            assertEquals(1, maxInFlight.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void validateResultsMayOnlyBeReadOnce() {
+        Batch batch = restClient.executeBatch(gets("pnf-", 1), new BatchConfig());
+        batch.iterator();
+        batch.iterator();
+    }
+}
@@ -0,0 +1,160 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import javax.ws.rs.core.MultivaluedMap;
+import org.junit.Test;
+import org.onap.aai.restclient.transport.ResponseHeaders;
+
+public class CachedResponseTest {
+
+    private static final String JSON = "application/json";
+    private static final long NOW = 1000000;
+
+    @Test
+    public void validateMaxAgeMakesResponseFresh() {
+        CachedResponse response =
+                CachedResponse.of(JSON, "{}", null, null, headers("Cache-Control", "max-age=60"), NOW);
+
+        assertTrue(response.isFresh(NOW + 59999));
+        assertFalse(response.isFresh(NOW + 60000));
+        assertFalse(response.hasValidator());
+    }
+
+    @Test
+    public void validateAgeShortensFreshness() {
+        MultivaluedMap<String, String> headers = headers("cache-control", "public, max-age=60");
+        headers.putSingle("Age", "50");
+
+        CachedResponse response = CachedResponse.of(JSON, "{}", null, null, headers, NOW);
+
+        assertTrue(response.isFresh(NOW + 9999));
+        assertFalse(response.isFresh(NOW + 10000));
+    }
+
+    @Test
+    public void validateNoCacheIsStoredButAlwaysRevalidated() {
+        MultivaluedMap<String, String> headers = headers("Cache-Control", "no-cache, max-age=60");
+        headers.putSingle("ETag", "\"v1\"");
+
+        CachedResponse response = CachedResponse.of(JSON, "{}", null, null, headers, NOW);
+
+        assertFalse(response.isFresh(NOW));
+        assertEquals("\"v1\"", response.getEtag());
+    }
+
+    @Test
+    public void validateUncacheableResponses() {
+        assertNull(CachedResponse.of(JSON, "{}", null, null, headers("Cache-Control", "no-store"), NOW));
+        assertNull(CachedResponse.of(JSON, "{}", null, null, headers("Content-Type", JSON), NOW));
+        assertNull(CachedResponse.of(JSON, "{}", null, null, null, NOW));
+    }
+
+    @Test
+    public void validateRevalidationUpdatesHeaders() {
+        MultivaluedMap<String, String> headers = headers("Last-Modified", "Tue, 15 Nov 1994 12:45:26 GMT");
+        headers.putSingle("Content-Type", JSON);
+        CachedResponse response = CachedResponse.of(JSON, null, "{}".getBytes(StandardCharsets.UTF_8),
+                StandardCharsets.UTF_8, headers, NOW);
+        assertFalse(response.isFresh(NOW));
+
+        CachedResponse revalidated = response.revalidated(headers("Cache-Control", "max-age=10"), NOW + 5000);
+
+        assertTrue(revalidated.isFresh(NOW + 14999));
+        assertEquals("Tue, 15 Nov 1994 12:45:26 GMT", revalidated.getLastModified());
+        assertEquals(JSON, revalidated.getHeaders().getFirst("content-type"));
+        assertEquals("{}", new String(revalidated.getResultBytes(), revalidated.getCharset()));
+        assertTrue(revalidated.matches(JSON));
+        assertFalse(revalidated.matches("application/xml"));
+    }
+
+    @Test
+    public void validateCompressedBodyReadsBack() {
+        String json = pnfs(200);
+        CachedResponse response = CachedResponse.of(JSON, json, null, null, headers("ETag", "\"v1\""), NOW);
+
+        CachedResponse compressed = response.compressed(1024);
+
+        assertTrue(compressed.isCompressed());
+        assertTrue(compressed.getWeight() < response.getWeight() / 4);
+        assertEquals(json, compressed.getResult());
+        assertNull(compressed.getResultBytes());
+        assertEquals(json, compressed.revalidated(headers("Cache-Control", "max-age=10"), NOW).getResult());
+        assertSame(compressed, compressed.compressed(0));
+    }
+
+    @Test
+    public void validateCompressedBytesReadBack() {
+        byte[] json = pnfs(200).getBytes(StandardCharsets.UTF_8);
+        CachedResponse response =
+                CachedResponse.of(JSON, null, json, StandardCharsets.UTF_8, headers("ETag", "\"v1\""), NOW);
+
+        CachedResponse compressed = response.compressed(0);
+
+        assertTrue(compressed.isCompressed());
+        assertTrue(Arrays.equals(json, compressed.getResultBytes()));
+        assertNull(compressed.getResult());
+        assertEquals(StandardCharsets.UTF_8, compressed.getCharset());
+    }
+
+    @Test
+    public void validateShortBodiesAreNotCompressed() {
+        CachedResponse response = CachedResponse.of(JSON, "{}", null, null, headers("ETag", "\"v1\""), NOW);
+
+        assertSame(response, response.compressed(1024));
+        assertSame(response, response.compressed(ResponseCacheConfig.NO_COMPRESSION));
+        // Too short to shrink when deflated
+        assertSame(response, response.compressed(0));
+    }
+
+    @Test
+    public void validateMalformedMaxAgeIsIgnored() {
+        CacheControl cacheControl = CacheControl.parse(Arrays.asList("max-age=soon", "no-cache=\"Set-Cookie\""));
+
+        assertEquals(-1, cacheControl.getMaxAgeSeconds());
+        assertTrue(cacheControl.isNoCache());
+        assertFalse(cacheControl.isNoStore());
+        assertEquals(30, CacheControl.parse(Arrays.asList("max-age=\"30\"")).getMaxAgeSeconds());
+    }
+
+    static String pnfs(int count) {
+        StringBuilder json = new StringBuilder("{\"pnf\":[");
+        for (int i = 0; i < count; i++) {
+            json.append(i > 0 ? "," : "").append("{\"pnf-name\":\"pnf-").append(i)
+                    .append("\",\"in-maint\":false,\"resource-version\":\"").append(1500000000000L + i).append("\"}");
+        }
+        return json.append("]}").toString();
+    }
+
+    private static MultivaluedMap<String, String> headers(String name, String value) {
+        MultivaluedMap<String, String> headers = new ResponseHeaders();
+        headers.putSingle(name, value);
+        return headers;
+    }
+}
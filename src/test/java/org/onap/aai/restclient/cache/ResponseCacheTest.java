@@ -0,0 +1,173 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.onap.aai.restclient.transport.ResponseHeaders;
+
+public class ResponseCacheTest {
+
+    @Test
+    public void validateLeastRecentlyUsedEntryIsEvicted() {
+        // 16 segments of one entry each, so the URLs which share a segment evict each other
+        ResponseCache cache = new ResponseCache(16);
+        for (int i = 0; i < 200; i++) {
+            cache.put("https://aai:8443/aai/v14/network/pnfs/pnf/" + i, response());
+        }
+
+        assertEquals(16, cache.size());
+        assertEquals(184, cache.getStats().getEvictions());
+        assertNotNull(cache.get("https://aai:8443/aai/v14/network/pnfs/pnf/199"));
+    }
+
+    @Test
+    public void validateRecentlyReadEntrySurvives() {
+        ResponseCache cache = new ResponseCache(32);
+        String hot = "https://aai:8443/aai/v14/network/pnfs/pnf/hot";
+        CachedResponse response = response();
+        cache.put(hot, response);
+
+        for (int i = 0; i < 200; i++) {
+            cache.put("https://aai:8443/aai/v14/network/pnfs/pnf/" + i, response());
+            assertSame(response, cache.get(hot));
+        }
+
+        assertEquals(32, cache.size());
+    }
+
+    @Test
+    public void validateRemoveAndClear() {
+        ResponseCache cache = new ResponseCache();
+        cache.put("https://aai:8443/a", response());
+        cache.put("https://aai:8443/b", response());
+
+        cache.remove("https://aai:8443/a");
+        assertNull(cache.get("https://aai:8443/a"));
+        assertEquals(1, cache.size());
+
+        cache.clear();
+        assertEquals(0, cache.getStats().getSize());
+    }
+
+    @Test
+    public void validateSizeBoundIsRespected() {
+        long maxBytes = 64 * 1024;
+        ResponseCache cache = new ResponseCache(new ResponseCacheConfig().maxBytes(maxBytes));
+        for (int i = 0; i < 2000; i++) {
+            String url = "https://aai:8443/aai/v14/network/pnfs/pnf/" + i;
+            cache.get(url);
+            cache.put(url, response());
+            assertTrue(cache.getStats().getByteSize() <= maxBytes);
+        }
+
+        ResponseCacheStats stats = cache.getStats();
+        assertTrue(stats.getSize() > 100);
+        assertTrue(stats.getEvictions() > 0);
+        assertEquals(2000, stats.getSize() + stats.getEvictions());
+    }
+
+    @Test
+    public void validateScanDoesNotEvictFrequentlyReadEntries() {
+        ResponseCache cache = new ResponseCache(new ResponseCacheConfig().maxBytes(64 * 1024));
+        List<String> hot = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            hot.add("https://aai:8443/aai/v14/network/pnfs/pnf/hot-" + i);
+        }
+        for (int round = 0; round < 5; round++) {
+            for (String url : hot) {
+                if (cache.get(url) == null) {
+                    cache.put(url, response());
+                }
+            }
+        }
+
+        // A scan over many objects, each read once, while the hot objects are still in use. Four scanned objects
+        // come between reads of hot ones, so each hot object is read again only after some 250 others, more than the
+        // cache holds; a least recently used policy would have evicted all of them by then.
+        for (int i = 0; i < 10000; i++) {
+            String url = "https://aai:8443/aai/v14/network/pnfs/pnf/scan-" + i;
+            cache.get(url);
+            cache.put(url, response());
+            if (i % 4 == 0) {
+                String hotUrl = hot.get((i / 4) % hot.size());
+                if (cache.get(hotUrl) == null) {
+                    cache.put(hotUrl, response());
+                }
+            }
+        }
+
+        for (String url : hot) {
+            assertNotNull(url, cache.get(url));
+        }
+        assertTrue(cache.size() < 250);
+    }
+
+    @Test
+    public void validateLargeBodiesAreCompressed() {
+        ResponseCache cache = new ResponseCache(new ResponseCacheConfig().maxBytes(1024 * 1024));
+        ResponseHeaders headers = new ResponseHeaders();
+        headers.putSingle("ETag", "\"v1\"");
+        String json = CachedResponseTest.pnfs(500);
+        cache.put("https://aai:8443/a", CachedResponse.of("application/json", json, null, null, headers, 0));
+
+        CachedResponse stored = cache.get("https://aai:8443/a");
+        assertTrue(stored.isCompressed());
+        assertEquals(json, stored.getResult());
+        assertTrue(cache.getStats().getByteSize() < json.length() / 4);
+    }
+
+    @Test
+    public void validateReplacingEntryKeepsSizeConsistent() {
+        ResponseCache cache = new ResponseCache(new ResponseCacheConfig().maxBytes(64 * 1024));
+        cache.put("https://aai:8443/a", response());
+        long byteSize = cache.getStats().getByteSize();
+        cache.put("https://aai:8443/a", response());
+        assertEquals(byteSize, cache.getStats().getByteSize());
+
+        cache.remove("https://aai:8443/a");
+        assertEquals(0, cache.getStats().getByteSize());
+        assertEquals(0, cache.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void validateMaxBytesMustBePositive() {
+        new ResponseCacheConfig().maxBytes(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void validateMaxEntriesMustBePositive() {
+        new ResponseCache(0);
+    }
+
+    private static CachedResponse response() {
+        ResponseHeaders headers = new ResponseHeaders();
+        headers.putSingle("ETag", "\"v1\"");
+        return CachedResponse.of("application/json", "{}", null, null, headers, 0);
+    }
+}
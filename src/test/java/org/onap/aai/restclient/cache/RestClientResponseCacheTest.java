@@ -0,0 +1,110 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.onap.aai.restclient.client.OperationResult;
+import org.onap.aai.restclient.client.RestClient;
+import org.onap.aai.restclient.client.StreamingOperationResult;
+import org.onap.aai.restclient.enums.ResponseBodyMode;
+import org.onap.aai.restclient.stub.StubServerTestBase;
+
+/**
+ * Exercises the response cache through a {@link RestClient} on each transport engine.
+ */
+public class RestClientResponseCacheTest extends StubServerTestBase {
+
+    private RestClient restClient;
+    private String url;
+
+    @Before
+    public void setUp() {
+        url = server.url(PNF);
+        restClient = newClient().responseCache(new ResponseCache());
+    }
+
+    @Test
+    public void validateNotModifiedIsAnsweredFromCache() {
+        OperationResult result = restClient.get(url, NO_HEADERS, JSON);
+        assertEquals(200, result.getResultCode());
+        assertFalse(result.isFromCache());
+        String etag = result.getHeaders().getFirst("ETag");
+
+        result = restClient.get(url, NO_HEADERS, JSON);
+        assertEquals(200, result.getResultCode());
+        assertTrue(result.isFromCache());
+        assertEquals(PNF_JSON, result.getResult());
+        assertEquals(etag, result.getHeaders().getFirst("ETag"));
+
+        assertEquals(2, server.getRequestCount());
+        assertEquals(1, server.getStatusCount(304));
+        assertEquals(1, restClient.getResponseCache().getStats().getRevalidations());
+    }
+
+    @Test
+    public void validateFreshResponseIsServedWithoutRequest() {
+        server.cacheControl("max-age=60");
+        restClient.responseBodyMode(ResponseBodyMode.BYTES);
+
+        restClient.get(url, NO_HEADERS, JSON);
+        OperationResult result = restClient.get(url, NO_HEADERS, JSON);
+
+        assertTrue(result.isFromCache());
+        assertEquals(PNF_JSON, result.getResult());
+        assertEquals(1, server.getRequestCount());
+        assertEquals(1, restClient.getResponseCache().getStats().getHits());
+
+        // A successful write to the URL removes the stored response
+        restClient.put(url, PNF_JSON, NO_HEADERS, JSON, JSON);
+        result = restClient.get(url, NO_HEADERS, JSON);
+        assertFalse(result.isFromCache());
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    public void validateAsyncAndStreamedWritesRemoveStoredResponse() throws Exception {
+        server.cacheControl("max-age=60");
+
+        restClient.get(url, NO_HEADERS, JSON);
+        OperationResult result = restClient.getAsync(url, NO_HEADERS, JSON, Runnable::run).get(5, TimeUnit.SECONDS);
+        assertTrue(result.isFromCache());
+        assertEquals(1, server.getRequestCount());
+
+        assertEquals(200, restClient.putAsync(url, PNF_JSON, NO_HEADERS, JSON, JSON, Runnable::run)
+                .get(5, TimeUnit.SECONDS).getResultCode());
+        result = restClient.get(url, NO_HEADERS, JSON);
+        assertFalse(result.isFromCache());
+        assertEquals(3, server.getRequestCount());
+
+        try (StreamingOperationResult streamed = restClient.putStream(url, PNF_JSON, NO_HEADERS, JSON, JSON)) {
+            assertEquals(200, streamed.getResultCode());
+        }
+        result = restClient.get(url, NO_HEADERS, JSON);
+        assertFalse(result.isFromCache());
+        assertEquals(5, server.getRequestCount());
+    }
+}
@@ -22,12 +22,16 @@
  */
 package org.onap.aai.restclient.client;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
 import org.junit.Before;
@@ -99,5 +103,29 @@ public class OperationResultTest {
     assertEquals(opResult.getFailureCause(), "things melting");
     
   }
+  @Test
+  public void validateByteResult() {
+
+    OperationResult opResult = new OperationResult();
+    byte[] body = "r\u00e9sultat".getBytes(StandardCharsets.ISO_8859_1);
+    opResult.setResult(body, StandardCharsets.ISO_8859_1);
+
+    assertSame(body, opResult.getResultBytes());
+    assertNull(opResult.peekResult());
+    assertEquals("r\u00e9sultat", opResult.getResult());
+    assertSame(opResult.getResult(), opResult.getResult());
+
+    ByteBuffer buffer = opResult.getResultBuffer();
+    assertTrue(buffer.isReadOnly());
+    assertEquals(body.length, buffer.remaining());
+
+    opResult.setResult("result");
+    assertArrayEquals("result".getBytes(StandardCharsets.UTF_8), opResult.getResultBytes());
+
+    opResult.setResult(null);
+    assertNull(opResult.getResultBytes());
+    assertNull(opResult.getResultBuffer());
+  }
+
     
 }
@@ -0,0 +1,106 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.client;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.Test;
+
+public class RequestBodyTest {
+
+    private static final byte[] PAYLOAD = "{\"pnf-name\":\"pnf-1\"}".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void validateStreamBody() throws Exception {
+        InputStream in = new ByteArrayInputStream(PAYLOAD);
+        RequestBody body = RequestBody.of(in);
+
+        assertEquals(RequestBody.UNKNOWN_LENGTH, body.getContentLength());
+        assertFalse(body.isRepeatable());
+        assertSame(in, body.getInputStream());
+        assertNull(body.getFile());
+        assertArrayEquals(PAYLOAD, write(body));
+
+        assertEquals(PAYLOAD.length, RequestBody.of(new ByteArrayInputStream(PAYLOAD), PAYLOAD.length)
+                .getContentLength());
+    }
+
+    @Test
+    public void validateFileBody() throws Exception {
+        Path file = Files.createTempFile("request-body", ".json");
+        try {
+            byte[] payload = new byte[3 * 1024 * 1024 + 7];
+            for (int i = 0; i < payload.length; i++) {
+                payload[i] = (byte) i;
+            }
+            Files.write(file, payload);
+
+            RequestBody body = RequestBody.of(file);
+
+            assertEquals(payload.length, body.getContentLength());
+            assertTrue(body.isRepeatable());
+            assertSame(file, body.getFile());
+            assertNull(body.getInputStream());
+            assertArrayEquals(payload, write(body));
+            assertArrayEquals(payload, write(body));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void validateWriterBody() throws Exception {
+        RequestBody body = RequestBody.of(out -> out.write(PAYLOAD));
+
+        assertEquals(RequestBody.UNKNOWN_LENGTH, body.getContentLength());
+        assertFalse(body.isRepeatable());
+        assertNull(body.getFile());
+        assertNull(body.getInputStream());
+        assertArrayEquals(PAYLOAD, write(body));
+    }
+
+    @Test
+    public void validateRepeatableWriterBody() throws Exception {
+        RequestBody body = RequestBody.of(out -> out.write(PAYLOAD), true);
+
+        assertTrue(body.isRepeatable());
+        assertArrayEquals(PAYLOAD, write(body));
+        assertArrayEquals(PAYLOAD, write(body));
+    }
+
+    private static byte[] write(RequestBody body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+        return out.toByteArray();
+    }
+}
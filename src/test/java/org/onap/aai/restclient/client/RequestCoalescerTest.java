@@ -0,0 +1,172 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.ws.rs.core.MediaType;
+import org.junit.After;
+import org.junit.Test;
+import org.onap.aai.restclient.enums.RequestType;
+import org.onap.aai.restclient.transport.ResponseHeaders;
+
+public class RequestCoalescerTest {
+
+    private static final String URL = "https://aai:8443/aai/v14/network/pnfs/pnf/pnf1";
+
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    @After
+    public void shutdown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    public void validateConcurrentCallersShareOneRequest() throws Exception {
+        RequestCoalescer coalescer = new RequestCoalescer();
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger sent = new AtomicInteger();
+
+        Future<OperationResult> leader = callers.submit(() -> coalescer.execute("key", () -> {
+            sent.incrementAndGet();
+            await(release);
+            OperationResult result = new OperationResult(200, "{\"pnf-name\":\"pnf1\"}");
+            result.setHeaders(new ResponseHeaders());
+            return result;
+        }));
+        waitForInFlight(coalescer, 1);
+        Future<OperationResult> follower = callers.submit(() -> coalescer.execute("key", () -> {
+            sent.incrementAndGet();
+            return new OperationResult(500, "sent twice");
+        }));
+        while (coalescer.getStats().getCoalesced() == 0) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+
+        OperationResult leaderResult = leader.get(5, TimeUnit.SECONDS);
+        OperationResult followerResult = follower.get(5, TimeUnit.SECONDS);
+        assertEquals(1, sent.get());
+        assertEquals(200, followerResult.getResultCode());
+        assertEquals(leaderResult.getResult(), followerResult.getResult());
+        assertFalse(leaderResult.isCoalesced());
+        assertTrue(followerResult.isCoalesced());
+        assertNotSame(leaderResult.getHeaders(), followerResult.getHeaders());
+
+        CoalescingStats stats = coalescer.getStats();
+        assertEquals(1, stats.getRequests());
+        assertEquals(1, stats.getCoalesced());
+        assertEquals(0, stats.getInFlight());
+    }
+
+    @Test
+    public void validateFailureIsSharedAndForgotten() throws Exception {
+        RequestCoalescer coalescer = new RequestCoalescer();
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("connection reset");
+
+        Future<OperationResult> leader = callers.submit(() -> coalescer.execute("key", () -> {
+            await(release);
+            throw failure;
+        }));
+        waitForInFlight(coalescer, 1);
+        Future<OperationResult> follower = callers.submit(() -> coalescer.execute("key", () -> null));
+        while (coalescer.getStats().getCoalesced() == 0) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+
+        assertSame(failure, causeOf(leader));
+        assertSame(failure, causeOf(follower));
+        assertEquals(0, coalescer.getStats().getInFlight());
+
+        // The next request is sent again
+        OperationResult result = coalescer.execute("key", () -> new OperationResult(200, "{}"));
+        assertFalse(result.isCoalesced());
+        assertEquals(2, coalescer.getStats().getRequests());
+    }
+
+    @Test
+    public void validateKeyHeadersSeparateRequests() {
+        RequestCoalescer coalescer = new RequestCoalescer("Authorization");
+        MediaType json = MediaType.APPLICATION_JSON_TYPE;
+
+        String alice = coalescer.keyFor(RequestType.GET, URL, json, headers("authorization", "Basic YWxpY2U="));
+        String bob = coalescer.keyFor(RequestType.GET, URL, json, headers("Authorization", "Basic Ym9i"));
+        Map<String, List<String>> transaction = headers("Authorization", "Basic YWxpY2U=");
+        transaction.put("X-TransactionId", Collections.singletonList("42"));
+
+        assertNotEquals(alice, bob);
+        assertEquals(alice, coalescer.keyFor(RequestType.GET, URL, json, transaction));
+        assertNotEquals(alice, coalescer.keyFor(RequestType.GET, URL, MediaType.TEXT_PLAIN_TYPE, transaction));
+        assertNotEquals(alice, coalescer.keyFor(RequestType.HEAD, URL, json, transaction));
+        assertEquals(Arrays.asList("authorization"), coalescer.getKeyHeaders());
+    }
+
+    private static Map<String, List<String>> headers(String name, String value) {
+        Map<String, List<String>> headers = new HashMap<>();
+        headers.put(name, Collections.singletonList(value));
+        return headers;
+    }
+
+    private static void waitForInFlight(RequestCoalescer coalescer, int count) throws InterruptedException {
+        while (coalescer.getStats().getInFlight() < count) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Throwable causeOf(Future<?> future) throws InterruptedException {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("Expected the request to fail");
+            return null;
+        } catch (ExecutionException | TimeoutException e) {
+            return e.getCause();
+        }
+    }
+}
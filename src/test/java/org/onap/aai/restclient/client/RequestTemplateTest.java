@@ -0,0 +1,86 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.client;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+import javax.ws.rs.core.MediaType;
+import org.junit.Test;
+
+public class RequestTemplateTest {
+
+    private static final String PNF_TEMPLATE = "https://aai:8443/aai/v14/network/pnfs/pnf/{pnf-name}";
+
+    @Test
+    public void validateVariablesAreFilledIn() {
+        RequestTemplate template = new RequestTemplate(
+                "https://aai:8443/aai/v14/network/pnfs/pnf/{pnf-name}/p-interfaces/p-interface/{interface-name}");
+
+        assertEquals(Arrays.asList("pnf-name", "interface-name"), template.getVariables());
+        assertEquals("https://aai:8443/aai/v14/network/pnfs/pnf/pnf1/p-interfaces/p-interface/eth0",
+                template.expand("pnf1", "eth0"));
+    }
+
+    @Test
+    public void validateTemplateWithoutVariables() {
+        RequestTemplate template = new RequestTemplate("https://aai:8443/aai/v14/network/pnfs");
+
+        assertEquals(Collections.emptyList(), template.getVariables());
+        assertEquals("https://aai:8443/aai/v14/network/pnfs", template.expand());
+    }
+
+    @Test
+    public void validateValuesAreEncodedAsPathSegments() {
+        RequestTemplate template = new RequestTemplate(PNF_TEMPLATE);
+
+        assertEquals("https://aai:8443/aai/v14/network/pnfs/pnf/a%2Fb%20c%3Fd%C3%A9",
+                template.expand("a/b c?dé"));
+        assertEquals("https://aai:8443/aai/v14/network/pnfs/pnf/pnf-1.a_b~c", template.expand("pnf-1.a_b~c"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void validateWrongNumberOfValuesIsRejected() {
+        new RequestTemplate(PNF_TEMPLATE).expand("pnf1", "pnf2");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void validateUnclosedVariableIsRejected() {
+        new RequestTemplate("https://aai:8443/aai/v14/network/pnfs/pnf/{pnf-name");
+    }
+
+    @Test
+    public void validateHeadersAreJoinedOnce() {
+        RequestTemplate template = new RequestTemplate(PNF_TEMPLATE).header(Headers.FROM_APP_ID, "my-app")
+                .header("txnId", "a", "b").responseType(MediaType.TEXT_PLAIN_TYPE);
+
+        assertEquals(Collections.singletonList("my-app"), template.getHeaders().get(Headers.FROM_APP_ID));
+        assertEquals(Collections.singletonList("a;b"), template.getHeaders().get("txnId"));
+        assertEquals(MediaType.TEXT_PLAIN_TYPE, template.getResponseType());
+        assertEquals(MediaType.APPLICATION_JSON_TYPE, template.getContentType());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void validateHeadersCannotBeModified() {
+        new RequestTemplate(PNF_TEMPLATE).header(Headers.FROM_APP_ID, "my-app").getHeaders().clear();
+    }
+}
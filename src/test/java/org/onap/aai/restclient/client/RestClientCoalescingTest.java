@@ -0,0 +1,63 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.client;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+import org.onap.aai.restclient.stub.LatencyDistribution;
+import org.onap.aai.restclient.stub.StubServerTestBase;
+
+/**
+ * Exercises request coalescing through a {@link RestClient} on each transport engine.
+ */
+public class RestClientCoalescingTest extends StubServerTestBase {
+
+    @Test
+    public void validateConcurrentGetsAreCoalesced() throws Exception {
+        server.latency(LatencyDistribution.fixed(Duration.ofMillis(500)));
+        RestClient restClient = newClient().requestCoalescer(new RequestCoalescer());
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<OperationResult>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(callers.submit(() -> restClient.get(server.url(PNF), NO_HEADERS, JSON)));
+            }
+            int coalesced = 0;
+            for (Future<OperationResult> result : results) {
+                assertEquals(PNF_JSON, result.get().getResult());
+                coalesced += result.get().isCoalesced() ? 1 : 0;
+            }
+
+            assertEquals(1, server.getRequestCount());
+            assertEquals(7, coalesced);
+            assertEquals(0, restClient.getCoalescingStats().getInFlight());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.core.MediaType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onap.aai.restclient.balancer.EndpointStats;
+import org.onap.aai.restclient.balancer.LoadBalancerConfig;
+import org.onap.aai.restclient.enums.EndpointState;
+import org.onap.aai.restclient.enums.RestAuthenticationMode;
+import org.onap.aai.restclient.enums.TransportEngine;
+import org.onap.aai.restclient.stub.AaiStubServer;
+
+public class RestClientLoadBalancingTest {
+
+    private static final Map<String, List<String>> NO_HEADERS = Collections.emptyMap();
+    private static final String PNF = "/aai/v14/network/pnfs/pnf/pnf1";
+
+    private AaiStubServer first;
+    private AaiStubServer second;
+
+    @Before
+    public void setUp() throws Exception {
+        first = new AaiStubServer().document(PNF, "{\"pnf-name\":\"pnf1\"}").start();
+        second = new AaiStubServer().document(PNF, "{\"pnf-name\":\"pnf1\"}").start();
+    }
+
+    @After
+    public void tearDown() {
+        first.close();
+        second.close();
+    }
+
+    private RestClient newClient(LoadBalancerConfig config) {
+        return new RestClient(ClientBuilder.newBuilder()).authenticationMode(RestAuthenticationMode.HTTP_NOAUTH)
+                .transportEngine(TransportEngine.JAVA_HTTP_CLIENT).loadBalancing(config);
+    }
+
+    @Test
+    public void validateServicePathsAreSpreadAcrossEndpoints() throws Exception {
+        RestClient client = newClient(new LoadBalancerConfig(Arrays.asList(first.url(""), second.url(""))));
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals(200, client.get(PNF, NO_HEADERS, MediaType.APPLICATION_JSON_TYPE).getResultCode());
+        }
+        assertEquals(200, client.getAsync(PNF, NO_HEADERS, MediaType.APPLICATION_JSON_TYPE, Runnable::run)
+                .get(10, TimeUnit.SECONDS).getResultCode());
+
+        assertEquals(21, first.getRequestCount() + second.getRequestCount());
+        long completed = 0;
+        for (EndpointStats stats : client.getEndpointStats()) {
+            assertEquals(0, stats.getInFlight());
+            completed += stats.getRequests();
+        }
+        assertEquals(21, completed);
+    }
+
+    @Test
+    public void validateAbsoluteUrlsAreNotBalanced() {
+        RestClient client = newClient(new LoadBalancerConfig(Arrays.asList(second.url(""))));
+
+        assertEquals(200, client.get(first.url(PNF), NO_HEADERS, MediaType.APPLICATION_JSON_TYPE).getResultCode());
+
+        assertEquals(1, first.getRequestCount());
+        assertEquals(0, client.getEndpointStats().get(0).getRequests());
+    }
+
+    @Test
+    public void validateFailingEndpointIsEjected() {
+        String down = second.url("");
+        second.close();
+        RestClient client =
+                newClient(new LoadBalancerConfig(Arrays.asList(first.url(""), down)).consecutiveFailures(2));
+
+        int failures = 0;
+        for (int i = 0; i < 20; i++) {
+            if (client.get(PNF, NO_HEADERS, MediaType.APPLICATION_JSON_TYPE).getResultCode() != 200) {
+                failures++;
+            }
+        }
+
+        assertTrue("failures = " + failures, failures <= 2);
+        assertEquals(EndpointState.EJECTED, client.getEndpointStats().get(1).getState());
+    }
+
+    @Test
+    public void validateWarmUpCoversEveryEndpoint() throws Exception {
+        RestClient client = newClient(new LoadBalancerConfig(Arrays.asList(first.url(""), second.url(""))));
+
+        WarmUpResult result = client.warmUp(Arrays.asList(PNF), 2).get(10, TimeUnit.SECONDS);
+
+        assertTrue(result.toString(), result.isSuccessful());
+        assertEquals(2, first.getRequestCount());
+        assertEquals(2, second.getRequestCount());
+    }
+
+    @Test
+    public void validateNoStatsWithoutLoadBalancing() {
+        assertNull(newClient(null).getEndpointStats());
+    }
+}
@@ -0,0 +1,179 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.core.MediaType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onap.aai.restclient.enums.RequestType;
+import org.onap.aai.restclient.enums.RestAuthenticationMode;
+import org.onap.aai.restclient.enums.TransportEngine;
+import org.onap.aai.restclient.stub.AaiStubServer;
+import org.onap.aai.restclient.transport.RestTransport;
+import org.onap.aai.restclient.transport.TransportRequest;
+import org.onap.aai.restclient.transport.TransportResponse;
+
+public class RestClientRegistryTest {
+
+    private static final Map<String, List<String>> NO_HEADERS = Collections.emptyMap();
+    private static final String PNF = "/aai/v14/network/pnfs/pnf/pnf1";
+
+    private AaiStubServer server;
+    private RestClientRegistry registry;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new AaiStubServer().document(PNF, "{\"pnf-name\":\"pnf1\"}").start();
+        registry = new RestClientRegistry(Duration.ofMillis(50));
+    }
+
+    @After
+    public void tearDown() {
+        registry.close();
+        server.close();
+    }
+
+    private RestClient newClient() {
+        return new RestClient(ClientBuilder.newBuilder()).authenticationMode(RestAuthenticationMode.HTTP_NOAUTH)
+                .transportEngine(TransportEngine.JAVA_HTTP_CLIENT).clientRegistry(registry);
+    }
+
+    private int get(RestClient client) {
+        return client.get(server.url(PNF), NO_HEADERS, MediaType.APPLICATION_JSON_TYPE).getResultCode();
+    }
+
+    @Test
+    public void validateClientsWithSameSettingsShareTransport() throws Exception {
+        RestClient first = newClient().basicAuthUsername("one");
+        RestClient second = newClient().basicAuthUsername("two");
+
+        assertEquals(200, get(first));
+        assertEquals(200, get(second));
+        assertEquals(1, registry.size());
+        assertSame(first.getTransport(), second.getTransport());
+    }
+
+    @Test
+    public void validateClientsWithDifferentSettingsDoNotShare() throws Exception {
+        RestClient first = newClient().readTimeoutMs(1000);
+        RestClient second = newClient().readTimeoutMs(2000);
+
+        assertEquals(200, get(first));
+        assertEquals(200, get(second));
+        assertEquals(2, registry.size());
+        assertNotSame(first.getTransport(), second.getTransport());
+    }
+
+    @Test
+    public void validateIdleClientsAreEvicted() throws Exception {
+        RestClient client = newClient();
+        assertEquals(200, get(client));
+        Object transport = client.getTransport();
+
+        Thread.sleep(100);
+        assertEquals(1, registry.evictIdle());
+        assertEquals(0, registry.size());
+
+        assertEquals(200, get(client));
+        assertNotSame(transport, client.getTransport());
+    }
+
+    @Test
+    public void validateClientInUseIsNotEvicted() throws Exception {
+        try (RestClientRegistry longLived = new RestClientRegistry(Duration.ofMinutes(1))) {
+            RestClient client = newClient().clientRegistry(longLived);
+            assertEquals(200, get(client));
+            assertEquals(0, longLived.evictIdle());
+            assertEquals(1, longLived.size());
+        }
+    }
+
+    @Test
+    public void validateClientWithOpenStreamIsNotEvicted() throws Exception {
+        RestClient client = newClient();
+        try (StreamingOperationResult stream =
+                client.getStream(server.url(PNF), NO_HEADERS, MediaType.APPLICATION_JSON_TYPE)) {
+            assertEquals(200, stream.getResultCode());
+
+            Thread.sleep(100);
+            assertEquals(0, registry.evictIdle());
+            assertEquals(1, registry.size());
+            assertEquals("{\"pnf-name\":\"pnf1\"}",
+                    new String(stream.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+        }
+
+        Thread.sleep(100);
+        assertEquals(1, registry.evictIdle());
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    public void validateRequestAfterEvictionUsesNewClient() throws Exception {
+        RestClient client = newClient();
+        assertEquals(200, get(client));
+        RestTransport evicted = client.getTransport();
+
+        Thread.sleep(100);
+        assertEquals(1, registry.evictIdle());
+
+        // A transport handed out before the eviction sends through the client which replaced it
+        TransportRequest request = new TransportRequest(RequestType.GET, server.url(PNF), null, NO_HEADERS, null,
+                MediaType.APPLICATION_JSON_TYPE, null);
+        try (TransportResponse response = evicted.execute(request)) {
+            assertEquals(200, response.getStatus());
+        }
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    public void validateFailedInitializationIsNotKept() {
+        RestClient client = newClient().authenticationMode(RestAuthenticationMode.SSL_CERT);
+
+        assertEquals(500, get(client));
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    public void validateClosedRegistryFailsRequests() {
+        RestClient client = newClient();
+        assertEquals(200, get(client));
+
+        registry.close();
+        assertEquals(0, registry.size());
+        assertEquals(500, get(client));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void validateSharedRegistryCannotBeClosed() {
+        RestClientRegistry.shared().close();
+    }
+}
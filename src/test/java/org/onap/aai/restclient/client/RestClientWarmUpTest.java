@@ -0,0 +1,138 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.core.MediaType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onap.aai.restclient.enums.RestAuthenticationMode;
+import org.onap.aai.restclient.enums.TransportEngine;
+import org.onap.aai.restclient.stub.AaiStubServer;
+
+public class RestClientWarmUpTest {
+
+    private static final Map<String, List<String>> NO_HEADERS = Collections.emptyMap();
+    private static final String PNF = "/aai/v14/network/pnfs/pnf/pnf1";
+
+    private AaiStubServer server;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new AaiStubServer().document(PNF, "{\"pnf-name\":\"pnf1\"}").start();
+    }
+
+    @After
+    public void tearDown() {
+        server.close();
+    }
+
+    private RestClient newClient() {
+        return new RestClient(ClientBuilder.newBuilder()).authenticationMode(RestAuthenticationMode.HTTP_NOAUTH)
+                .transportEngine(TransportEngine.JAVA_HTTP_CLIENT);
+    }
+
+    @Test
+    public void validateWarmUpOpensConnections() throws Exception {
+        RestClient client = newClient();
+        assertFalse(client.isReady());
+
+        WarmUpResult result = client.warmUp(Arrays.asList(server.url(PNF)), 4).get(10, TimeUnit.SECONDS);
+
+        assertTrue(result.toString(), result.isSuccessful());
+        assertEquals(Integer.valueOf(4), result.getConnectionsOpened().get(server.url(PNF)));
+        assertEquals(4, server.getRequestCount());
+        assertTrue(client.isReady());
+    }
+
+    @Test
+    public void validateWarmUpDoesNotNeedThreadPerConnection() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(1);
+        try {
+            RestClient client = newClient().executorService(executor);
+
+            // Well inside the default read timeout, which each connection used to wait for without a thread of its own
+            WarmUpResult result = client.warmUp(Arrays.asList(server.url(PNF)), 8).get(10, TimeUnit.SECONDS);
+
+            assertTrue(result.toString(), result.isSuccessful());
+            assertEquals(Integer.valueOf(8), result.getConnectionsOpened().get(server.url(PNF)));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void validateWarmUpReportsUnreachableHost() throws Exception {
+        String url = server.url(PNF);
+        server.close();
+
+        WarmUpResult result = newClient().warmUp(Arrays.asList(url), 2).get(10, TimeUnit.SECONDS);
+
+        assertFalse(result.isSuccessful());
+        assertEquals(Integer.valueOf(0), result.getConnectionsOpened().get(url));
+        assertTrue(result.getFailures().containsKey(url));
+    }
+
+    @Test
+    public void validateWarmUpReportsInitializationFailure() throws Exception {
+        RestClient client = newClient().authenticationMode(RestAuthenticationMode.SSL_CERT);
+
+        WarmUpResult result = client.warmUp(Arrays.asList(server.url(PNF)), 2).get(10, TimeUnit.SECONDS);
+
+        assertFalse(result.isSuccessful());
+        assertNotNull(result.getInitializationFailure());
+        assertFalse(client.isReady());
+    }
+
+    @Test
+    public void validateFailedInitializationIsRetriedAfterDelay() throws Exception {
+        // Without a trust store the client can not be built for SSL_CERT
+        RestClient client = newClient().authenticationMode(RestAuthenticationMode.SSL_CERT)
+                .initializationRetryDelayMs(200, 200);
+        assertEquals(500, client.get(server.url(PNF), NO_HEADERS, MediaType.APPLICATION_JSON_TYPE).getResultCode());
+
+        client.authenticationMode(RestAuthenticationMode.HTTP_NOAUTH);
+        assertEquals(500, client.get(server.url(PNF), NO_HEADERS, MediaType.APPLICATION_JSON_TYPE).getResultCode());
+        assertEquals(0, server.getRequestCount());
+
+        Thread.sleep(300);
+        assertEquals(200, client.get(server.url(PNF), NO_HEADERS, MediaType.APPLICATION_JSON_TYPE).getResultCode());
+        assertTrue(client.isReady());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void validateConnectionsPerHostMustBePositive() {
+        newClient().warmUp(Arrays.asList(server.url(PNF)), 0);
+    }
+}
@@ -22,11 +22,26 @@ package org.onap.aai.restclient.client;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import javax.ws.rs.ProcessingException;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.CompletionStageRxInvoker;
+import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.Invocation.Builder;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.MediaType;
@@ -34,12 +49,28 @@ import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.StreamingOutput;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.RequestEntityProcessing;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
+import org.onap.aai.restclient.enums.CircuitBreakerState;
+import org.onap.aai.restclient.enums.RequestType;
+import org.onap.aai.restclient.enums.ResponseBodyMode;
 import org.onap.aai.restclient.enums.RestAuthenticationMode;
+import org.onap.aai.restclient.resilience.AdaptiveConcurrencyLimiter;
+import org.onap.aai.restclient.resilience.CircuitBreakerConfig;
+import org.onap.aai.restclient.resilience.CircuitBreakerRegistry;
+import org.onap.aai.restclient.resilience.ConcurrencyLimiterConfig;
+import org.onap.aai.restclient.resilience.ConcurrencyLimiterRegistry;
+import org.onap.aai.restclient.resilience.ExponentialBackoffRetryPolicy;
+import org.onap.aai.restclient.resilience.RetryBudget;
 import org.onap.aai.restclient.rest.RestClientBuilder;
+import org.onap.aai.restclient.transport.RestTransport;
+import org.onap.aai.restclient.transport.TransportRequest;
+import org.onap.aai.restclient.transport.TransportResponse;
 
 public class RestfulClientTest {
 
@@ -47,11 +78,13 @@ public class RestfulClientTest {
 
     private final MultivaluedMap<String, String> emptyMap = new MultivaluedHashMap<>();
     private final ClientBuilder clientBuilder = ClientBuilder.newBuilder();
+    private final Executor directExecutor = Runnable::run;
 
     private RestClientBuilder mockClientBuilder;
     private Client mockedClient;
     private WebTarget mockedWebTarget;
     private Builder mockedBuilder;
+    private CompletionStageRxInvoker mockedRxInvoker;
     private Response mockedClientResponse;
 
     /**
@@ -63,7 +96,7 @@ public class RestfulClientTest {
     public void init() throws Exception {
         mockedClientResponse = Mockito.mock(Response.class);
         setResponseStatus(Response.Status.OK);
-        Mockito.when(mockedClientResponse.getHeaders()).thenReturn(new MultivaluedHashMap<>());
+        Mockito.when(mockedClientResponse.getStringHeaders()).thenReturn(new MultivaluedHashMap<>());
         Mockito.when(mockedClientResponse.readEntity(String.class)).thenReturn("hello");
 
         mockedBuilder = Mockito.mock(Builder.class);
@@ -74,6 +107,16 @@ public class RestfulClientTest {
         Mockito.when(mockedBuilder.head()).thenReturn(mockedClientResponse);
         Mockito.when(mockedBuilder.accept(Mockito.any(MediaType.class))).thenReturn(mockedBuilder);
 
+        mockedRxInvoker = Mockito.mock(CompletionStageRxInvoker.class);
+        Mockito.when(mockedRxInvoker.get()).thenReturn(CompletableFuture.completedFuture(mockedClientResponse));
+        Mockito.when(mockedRxInvoker.post(Mockito.any()))
+                .thenReturn(CompletableFuture.completedFuture(mockedClientResponse));
+        Mockito.when(mockedRxInvoker.put(Mockito.any()))
+                .thenReturn(CompletableFuture.completedFuture(mockedClientResponse));
+        Mockito.when(mockedRxInvoker.delete()).thenReturn(CompletableFuture.completedFuture(mockedClientResponse));
+        Mockito.when(mockedRxInvoker.head()).thenReturn(CompletableFuture.completedFuture(mockedClientResponse));
+        Mockito.when(mockedBuilder.rx()).thenReturn(mockedRxInvoker);
+
         mockedWebTarget = Mockito.mock(WebTarget.class);
         Mockito.when(mockedWebTarget.request()).thenReturn(mockedBuilder);
 
@@ -333,6 +376,376 @@ public class RestfulClientTest {
         assertNull(result.getFailureCause());
     }
 
+    @Test
+    public void validateSuccessfulGetAsync() throws Exception {
+        OperationResult result = buildClient().getAsync(TEST_URL, emptyMap, MediaType.APPLICATION_JSON_TYPE,
+                directExecutor).get(5, TimeUnit.SECONDS);
+
+        assertEquals(Response.Status.OK.getStatusCode(), result.getResultCode());
+        assertEquals("hello", result.getResult());
+        assertNull(result.getFailureCause());
+    }
+
+    @Test
+    public void validateSuccessfulPutAsync() throws Exception {
+        RestClient restClient = buildClient();
+
+        OperationResult result = restClient.putAsync(TEST_URL, "", emptyMap, MediaType.APPLICATION_JSON_TYPE,
+                MediaType.APPLICATION_JSON_TYPE, directExecutor).get(5, TimeUnit.SECONDS);
+
+        assertEquals(Response.Status.OK.getStatusCode(), result.getResultCode());
+        assertNotNull(result.getResult());
+        assertNull(result.getFailureCause());
+
+        // Repeat the PUT operation, this time with a return code of 204
+        setResponseToNoContent();
+        result = restClient.putAsync(TEST_URL, "", emptyMap, MediaType.APPLICATION_JSON_TYPE,
+                MediaType.APPLICATION_JSON_TYPE, directExecutor).get(5, TimeUnit.SECONDS);
+
+        assertEquals(Response.Status.NO_CONTENT.getStatusCode(), result.getResultCode());
+        assertNull(result.getResult());
+        assertNull(result.getFailureCause());
+    }
+
+    @Test
+    public void validateSuccessfulPostPatchDeleteAndHeadAsync() throws Exception {
+        RestClient restClient = buildClient();
+
+        assertEquals(Response.Status.OK.getStatusCode(),
+                restClient.postAsync(TEST_URL, "", emptyMap, MediaType.APPLICATION_JSON_TYPE,
+                        MediaType.APPLICATION_JSON_TYPE, directExecutor).get().getResultCode());
+        assertEquals(Response.Status.OK.getStatusCode(),
+                restClient.patchAsync(TEST_URL, "", emptyMap, MediaType.APPLICATION_JSON_TYPE,
+                        MediaType.APPLICATION_JSON_TYPE, directExecutor).get().getResultCode());
+        assertEquals(Response.Status.OK.getStatusCode(),
+                restClient.deleteAsync(TEST_URL, emptyMap, MediaType.APPLICATION_JSON_TYPE, directExecutor).get()
+                        .getResultCode());
+        assertEquals(Response.Status.OK.getStatusCode(), restClient
+                .headAsync(TEST_URL, emptyMap, MediaType.APPLICATION_JSON_TYPE, directExecutor).get().getResultCode());
+
+        Mockito.verify(mockedBuilder).header("X-HTTP-Method-Override", "PATCH");
+    }
+
+    @Test
+    public void validateFailedGetAsyncWithThrownException() throws Exception {
+        CompletableFuture<Response> failure = new CompletableFuture<>();
+        failure.completeExceptionally(new ProcessingException("connection refused"));
+        Mockito.when(mockedRxInvoker.get()).thenReturn(failure);
+
+        OperationResult result = buildClient().getAsync(TEST_URL, emptyMap, MediaType.APPLICATION_JSON_TYPE,
+                directExecutor).get(5, TimeUnit.SECONDS);
+
+        assertEquals(500, result.getResultCode());
+        assertNull(result.getResult());
+        assertTrue(result.getFailureCause().contains("connection refused"));
+    }
+
+    @Test
+    public void validateSuccessfulGetAsyncWithRetries() throws Exception {
+        Mockito.when(mockedClientResponse.getStatus()).thenReturn(408).thenReturn(Response.Status.OK.getStatusCode());
+        Mockito.when(mockedClientResponse.readEntity(String.class)).thenReturn("error").thenReturn("ok");
+
+        OperationResult result = buildClient().getAsync(TEST_URL, emptyMap, MediaType.APPLICATION_JSON_TYPE, 3,
+                directExecutor).get(5, TimeUnit.SECONDS);
+
+        assertEquals(Response.Status.OK.getStatusCode(), result.getResultCode());
+        assertEquals("ok", result.getResult());
+        assertEquals(1, result.getNumRetries());
+    }
+
+    @Test
+    public void validateFailedGetAsyncAfterMaxRetries() throws Exception {
+        setResponseStatus(Response.Status.INTERNAL_SERVER_ERROR);
+        Mockito.when(mockedClientResponse.readEntity(String.class)).thenReturn("error");
+
+        OperationResult result = buildClient().getAsync(TEST_URL, emptyMap, MediaType.APPLICATION_JSON_TYPE, 3,
+                directExecutor).get(5, TimeUnit.SECONDS);
+
+        assertEquals(504, result.getResultCode());
+        assertEquals(3, result.getNumRetries());
+        assertNotNull(result.getFailureCause());
+    }
+
+    @Test
+    public void validateSuccessfulPutWithStreamedBody() throws Exception {
+        ArgumentCaptor<Entity<?>> entity = ArgumentCaptor.forClass(Entity.class);
+        Mockito.when(mockedBuilder.put(entity.capture())).thenReturn(mockedClientResponse);
+
+        OperationResult result = buildClient().put(TEST_URL, RequestBody.of(out -> out.write('x')), emptyMap,
+                MediaType.APPLICATION_JSON_TYPE, MediaType.APPLICATION_JSON_TYPE);
+
+        assertEquals(Response.Status.OK.getStatusCode(), result.getResultCode());
+        assertTrue(entity.getValue().getEntity() instanceof StreamingOutput);
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        ((StreamingOutput) entity.getValue().getEntity()).write(written);
+        assertEquals("x", written.toString(StandardCharsets.UTF_8.name()));
+        Mockito.verify(mockedBuilder).property(ClientProperties.REQUEST_ENTITY_PROCESSING,
+                RequestEntityProcessing.CHUNKED);
+    }
+
+    @Test
+    public void validateSuccessfulGetInBytesMode() throws Exception {
+        byte[] body = "hello".getBytes(StandardCharsets.UTF_8);
+        Mockito.when(mockedClientResponse.readEntity(byte[].class)).thenReturn(body);
+
+        OperationResult result = buildClient().responseBodyMode(ResponseBodyMode.BYTES).get(TEST_URL, emptyMap,
+                MediaType.APPLICATION_JSON_TYPE);
+
+        assertEquals(Response.Status.OK.getStatusCode(), result.getResultCode());
+        assertSame(body, result.getResultBytes());
+        Mockito.verify(mockedClientResponse, Mockito.never()).readEntity(String.class);
+        assertEquals("hello", result.getResult());
+    }
+
+    @Test
+    public void validateSuccessfulGetStream() throws Exception {
+        Mockito.when(mockedClientResponse.readEntity(InputStream.class))
+                .thenReturn(new ByteArrayInputStream("hello".getBytes(StandardCharsets.UTF_8)));
+
+        try (StreamingOperationResult result =
+                buildClient().getStream(TEST_URL, emptyMap, MediaType.APPLICATION_JSON_TYPE)) {
+            assertEquals(Response.Status.OK.getStatusCode(), result.getResultCode());
+            assertNull(result.getFailureCause());
+            assertEquals("hello", new String(result.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+            Mockito.verify(mockedClientResponse, Mockito.never()).close();
+        }
+
+        Mockito.verify(mockedClientResponse).close();
+    }
+
+    @Test
+    public void validateStreamedResponseIsHandedOverInChunks() throws Exception {
+        Mockito.when(mockedClientResponse.readEntity(InputStream.class))
+                .thenReturn(new ByteArrayInputStream("hello".getBytes(StandardCharsets.UTF_8)));
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        List<Integer> chunkLengths = new ArrayList<>();
+
+        OperationResult result = buildClient().streamBufferSize(2).postStream(TEST_URL, "", emptyMap,
+                MediaType.APPLICATION_JSON_TYPE, MediaType.APPLICATION_JSON_TYPE, (buffer, length) -> {
+                    chunkLengths.add(length);
+                    body.write(buffer, 0, length);
+                });
+
+        assertEquals(Response.Status.OK.getStatusCode(), result.getResultCode());
+        assertNull(result.getResult());
+        assertEquals("hello", body.toString(StandardCharsets.UTF_8.name()));
+        assertEquals(Arrays.asList(2, 2, 1), chunkLengths);
+        Mockito.verify(mockedClientResponse).close();
+    }
+
+    @Test
+    public void validateFailedGetStream() throws Exception {
+        setResponseStatus(Response.Status.NOT_FOUND);
+        Mockito.when(mockedClientResponse.readEntity(String.class)).thenReturn("RNF");
+
+        StreamingOperationResult result = buildClient().getStream(TEST_URL, emptyMap, MediaType.APPLICATION_JSON_TYPE);
+
+        assertEquals(Response.Status.NOT_FOUND.getStatusCode(), result.getResultCode());
+        assertEquals("RNF", result.getFailureCause());
+        assertEquals(-1, result.getInputStream().read());
+        Mockito.verify(mockedClientResponse).close();
+        Mockito.verify(mockedClientResponse, Mockito.never()).readEntity(InputStream.class);
+    }
+
+    @Test
+    public void validateChunkConsumerFailure() throws Exception {
+        Mockito.when(mockedClientResponse.readEntity(InputStream.class))
+                .thenReturn(new ByteArrayInputStream("hello".getBytes(StandardCharsets.UTF_8)));
+
+        OperationResult result = buildClient().getStream(TEST_URL, emptyMap, MediaType.APPLICATION_JSON_TYPE,
+                (buffer, length) -> {
+                    throw new IOException("disk full");
+                });
+
+        assertEquals(500, result.getResultCode());
+        assertTrue(result.getFailureCause().contains("disk full"));
+        Mockito.verify(mockedClientResponse).close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void validateStreamBufferSizeMustBePositive() {
+        buildClient().streamBufferSize(0);
+    }
+
+    @Test
+    public void validateRequestsAreSentThroughCustomTransport() throws Exception {
+        RestTransport transport = Mockito.mock(RestTransport.class);
+        TransportResponse response = Mockito.mock(TransportResponse.class);
+        Mockito.when(response.getStatus()).thenReturn(Response.Status.OK.getStatusCode());
+        Mockito.when(response.readEntity()).thenReturn("custom");
+        Mockito.when(response.getHeaders()).thenReturn(new MultivaluedHashMap<>());
+        Mockito.when(transport.execute(Mockito.any())).thenReturn(response);
+
+        RestClient restClient = buildClient().transport(transport);
+        OperationResult result = restClient.put(TEST_URL, "payload", emptyMap, MediaType.APPLICATION_JSON_TYPE,
+                MediaType.APPLICATION_JSON_TYPE);
+
+        assertEquals("custom", result.getResult());
+        ArgumentCaptor<TransportRequest> request = ArgumentCaptor.forClass(TransportRequest.class);
+        Mockito.verify(transport).execute(request.capture());
+        assertEquals(RequestType.PUT, request.getValue().getRequestType());
+        assertEquals("payload", request.getValue().getPayload());
+        Mockito.verify(response).close();
+        Mockito.verify(mockedClient, Mockito.never()).target(Mockito.anyString());
+    }
+
+    @Test
+    public void validateGetWithRetriesDoesNotRetryClientErrors() throws Exception {
+        RestTransport transport = transportReturning(400);
+
+        OperationResult result =
+                buildClient().transport(transport).get(TEST_URL, emptyMap, MediaType.APPLICATION_JSON_TYPE, 3);
+
+        assertEquals(400, result.getResultCode());
+        assertEquals(0, result.getNumRetries());
+        Mockito.verify(transport).execute(Mockito.any());
+    }
+
+    @Test
+    public void validateRetryPolicyRetriesIdempotentRequests() throws Exception {
+        RestTransport transport = transportReturning(503, 200);
+        RestClient restClient = buildClient().transport(transport).retryPolicy(
+                new ExponentialBackoffRetryPolicy().retryIdempotentRequests().baseDelay(Duration.ofMillis(1)));
+
+        OperationResult result = restClient.put(TEST_URL, "payload", emptyMap, MediaType.APPLICATION_JSON_TYPE,
+                MediaType.APPLICATION_JSON_TYPE);
+
+        assertEquals(200, result.getResultCode());
+        assertEquals(1, result.getNumRetries());
+        Mockito.verify(transport, Mockito.times(2)).execute(Mockito.any());
+    }
+
+    @Test
+    public void validateRetryPolicyDoesNotRetryPostOrUnrepeatableBodies() throws Exception {
+        RestTransport transport = transportReturning(503);
+        RestClient restClient = buildClient().transport(transport).retryPolicy(new ExponentialBackoffRetryPolicy()
+                .retryableRequestTypes(RequestType.GET, RequestType.PUT).baseDelay(Duration.ofMillis(1)));
+
+        assertEquals(503, restClient.post(TEST_URL, "payload", emptyMap, MediaType.APPLICATION_JSON_TYPE,
+                MediaType.APPLICATION_JSON_TYPE).getResultCode());
+        assertEquals(503, restClient.put(TEST_URL, RequestBody.of(new ByteArrayInputStream(new byte[1])), emptyMap,
+                MediaType.APPLICATION_JSON_TYPE, MediaType.APPLICATION_JSON_TYPE).getResultCode());
+        Mockito.verify(transport, Mockito.times(2)).execute(Mockito.any());
+    }
+
+    @Test
+    public void validateRetryPolicyGivesUpAfterMaxAttempts() throws Exception {
+        RestTransport transport = transportReturning(503);
+        RestClient restClient = buildClient().transport(transport)
+                .retryPolicy(new ExponentialBackoffRetryPolicy().maxAttempts(4).baseDelay(Duration.ofMillis(1)));
+
+        OperationResult result = restClient.get(TEST_URL, emptyMap, MediaType.APPLICATION_JSON_TYPE);
+
+        // The status of the last attempt reaches the caller, rather than the 504 of the legacy retry overloads
+        assertEquals(503, result.getResultCode());
+        assertEquals(3, result.getNumRetries());
+        Mockito.verify(transport, Mockito.times(4)).execute(Mockito.any());
+
+        result = restClient.getAsync(TEST_URL, emptyMap, MediaType.APPLICATION_JSON_TYPE, directExecutor)
+                .get(5, TimeUnit.SECONDS);
+        assertEquals(503, result.getResultCode());
+        assertEquals(3, result.getNumRetries());
+        Mockito.verify(transport, Mockito.times(4)).executeAsync(Mockito.any());
+    }
+
+    @Test
+    public void validateLegacyRetriesReportGatewayTimeoutWhenExhausted() throws Exception {
+        RestTransport transport = transportReturning(503);
+        RestClient restClient = buildClient().transport(transport)
+                .retryPolicy(new ExponentialBackoffRetryPolicy().baseDelay(Duration.ofMillis(1)));
+
+        OperationResult result = restClient.get(TEST_URL, emptyMap, MediaType.APPLICATION_JSON_TYPE, 2);
+
+        assertEquals(504, result.getResultCode());
+        assertEquals(2, result.getNumRetries());
+        Mockito.verify(transport, Mockito.times(2)).execute(Mockito.any());
+    }
+
+    @Test
+    public void validateExhaustedRetryBudgetFailsFast() throws Exception {
+        RestTransport transport = transportReturning(503);
+        RestClient restClient = buildClient().transport(transport)
+                .retryPolicy(new ExponentialBackoffRetryPolicy().baseDelay(Duration.ofMillis(1)))
+                .retryBudget(new RetryBudget(0, 0, Duration.ofSeconds(10)));
+
+        OperationResult result = restClient.get(TEST_URL, emptyMap, MediaType.APPLICATION_JSON_TYPE);
+
+        assertEquals(503, result.getResultCode());
+        assertEquals(0, result.getNumRetries());
+        assertTrue(result.getFailureCause().startsWith("Retry budget exhausted"));
+        Mockito.verify(transport).execute(Mockito.any());
+        assertEquals(1, restClient.getRetryBudgetStats().getRequests());
+        assertEquals(1, restClient.getRetryBudgetStats().getRejectedRetries());
+
+        result = restClient.getAsync(TEST_URL, emptyMap, MediaType.APPLICATION_JSON_TYPE, directExecutor)
+                .get(5, TimeUnit.SECONDS);
+        assertTrue(result.getFailureCause().startsWith("Retry budget exhausted"));
+        assertEquals(2, restClient.getRetryBudgetStats().getRejectedRetries());
+    }
+
+    @Test
+    public void validateOpenCircuitBreakerRejectsRequests() throws Exception {
+        RestTransport transport = transportReturning(503);
+        RestClient restClient = buildClient().transport(transport)
+                .retryPolicy(new ExponentialBackoffRetryPolicy().baseDelay(Duration.ofMillis(1)))
+                .circuitBreakers(new CircuitBreakerRegistry(new CircuitBreakerConfig().minimumNumberOfCalls(2)));
+
+        // The first request and its retry both fail, which opens the breaker before the last retry
+        OperationResult result = restClient.get(TEST_URL + "/network/pnfs", emptyMap, MediaType.APPLICATION_JSON_TYPE);
+        assertEquals(503, result.getResultCode());
+        assertEquals(2, result.getNumRetries());
+        assertTrue(result.getFailureCause().startsWith("Circuit breaker is open for http://localhost:9000"));
+        Mockito.verify(transport, Mockito.times(2)).execute(Mockito.any());
+
+        assertEquals(503, restClient.getAsync(TEST_URL, emptyMap, MediaType.APPLICATION_JSON_TYPE, directExecutor)
+                .get(5, TimeUnit.SECONDS).getResultCode());
+        try (StreamingOperationResult streamed =
+                restClient.getStream(TEST_URL, emptyMap, MediaType.APPLICATION_JSON_TYPE)) {
+            assertEquals(503, streamed.getResultCode());
+        }
+        Mockito.verify(transport, Mockito.times(2)).execute(Mockito.any());
+        Mockito.verify(transport, Mockito.never()).executeAsync(Mockito.any());
+        assertEquals(CircuitBreakerState.OPEN, restClient.getCircuitBreakers().forUrl(TEST_URL).getState());
+    }
+
+    @Test
+    public void validateConcurrencyLimitRejectsRequests() throws Exception {
+        RestTransport transport = transportReturning(200);
+        RestClient restClient = buildClient().transport(transport).concurrencyLimiters(new ConcurrencyLimiterRegistry(
+                new ConcurrencyLimiterConfig().initialLimit(1).minLimit(1).maxLimit(1)));
+        AdaptiveConcurrencyLimiter limiter = restClient.getConcurrencyLimiters().forUrl(TEST_URL);
+
+        assertEquals(200, restClient.get(TEST_URL, emptyMap, MediaType.APPLICATION_JSON_TYPE).getResultCode());
+        assertEquals(0, limiter.getInFlight());
+
+        // Hold the only permit, as a request still in flight would
+        assertTrue(limiter.tryAcquire(0));
+        OperationResult result = restClient.get(TEST_URL, emptyMap, MediaType.APPLICATION_JSON_TYPE);
+        assertEquals(503, result.getResultCode());
+        assertTrue(result.getFailureCause().startsWith("Concurrency limit reached for http://localhost:9000"));
+        assertEquals(503, restClient.getAsync(TEST_URL, emptyMap, MediaType.APPLICATION_JSON_TYPE, directExecutor)
+                .get(5, TimeUnit.SECONDS).getResultCode());
+
+        Mockito.verify(transport, Mockito.times(1)).execute(Mockito.any());
+        Mockito.verify(transport, Mockito.never()).executeAsync(Mockito.any());
+        assertEquals(2, limiter.getStats().getRejected());
+        assertEquals(1, limiter.getInFlight());
+    }
+
+    @Test
+    public void validateRetryPolicyAppliesToAsyncRequests() throws Exception {
+        RestTransport transport = transportReturning(502, 502, 200);
+        RestClient restClient = buildClient().transport(transport)
+                .retryPolicy(new ExponentialBackoffRetryPolicy().baseDelay(Duration.ofMillis(1)));
+
+        OperationResult result = restClient.getAsync(TEST_URL, emptyMap, MediaType.APPLICATION_JSON_TYPE,
+                directExecutor).get(5, TimeUnit.SECONDS);
+
+        assertEquals(200, result.getResultCode());
+        assertEquals(2, result.getNumRetries());
+        Mockito.verify(transport, Mockito.times(3)).executeAsync(Mockito.any());
+    }
+
     @Test
     public void testGetClient() throws Exception {
         RestClientBuilder restClientBuilder = new RestClientBuilder(clientBuilder);
@@ -341,6 +754,32 @@ public class RestfulClientTest {
         assertTrue(restClientBuilder.getClient() instanceof Client);
     }
 
+    /**
+     * Creates a transport whose responses have the given status codes in turn, the last one repeating.
+     */
+    private RestTransport transportReturning(int... statusCodes) throws Exception {
+        RestTransport transport = Mockito.mock(RestTransport.class);
+        List<TransportResponse> responses = new ArrayList<>();
+        for (int statusCode : statusCodes) {
+            TransportResponse response = Mockito.mock(TransportResponse.class);
+            Mockito.when(response.getStatus()).thenReturn(statusCode);
+            Mockito.when(response.readEntity()).thenReturn("status " + statusCode);
+            Mockito.when(response.getHeaders()).thenReturn(new MultivaluedHashMap<>());
+            responses.add(response);
+        }
+        TransportResponse[] rest = responses.subList(1, responses.size()).toArray(new TransportResponse[0]);
+        Mockito.when(transport.execute(Mockito.any())).thenReturn(responses.get(0), rest);
+        List<CompletableFuture<TransportResponse>> futures = new ArrayList<>();
+        for (TransportResponse response : responses) {
+            futures.add(CompletableFuture.completedFuture(response));
+        }
+        @SuppressWarnings("unchecked")
+        CompletableFuture<TransportResponse>[] restFutures =
+                futures.subList(1, futures.size()).toArray(new CompletableFuture[0]);
+        Mockito.when(transport.executeAsync(Mockito.any())).thenReturn(futures.get(0), restFutures);
+        return transport;
+    }
+
     /**
      * Specify the status code of the response object returned by the mocked client
      *
@@ -0,0 +1,178 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.sun.management.UnixOperatingSystemMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onap.aai.restclient.enums.RestAuthenticationMode;
+import org.onap.aai.restclient.stub.AaiStubServer;
+
+/**
+ * Drives a large number of concurrent requests through a single {@link RestClient} against an {@link AaiStubServer},
+ * one virtual thread per request where the JVM supports them.
+ */
+public class VirtualThreadStressTest {
+
+    private static final int REQUEST_COUNT = 10000;
+
+    /** File descriptors left free for the JVM, the JFR recording and the rest of the build. */
+    private static final long RESERVED_DESCRIPTORS = 512;
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private static final String PNFS = "/aai/v14/network/pnfs";
+
+    private AaiStubServer server;
+    private String url;
+
+    @Before
+    public void startServer() throws Exception {
+        server = new AaiStubServer().document(PNFS, "{\"pnf\":[]}").backlog(REQUEST_COUNT).start();
+        url = server.url(PNFS);
+    }
+
+    @After
+    public void stopServer() {
+        server.close();
+    }
+
+    @Test
+    public void validateConcurrentRequestsOnVirtualThreads() throws Exception {
+        RestClient restClient = new RestClient(ClientBuilder.newBuilder())
+                .authenticationMode(RestAuthenticationMode.HTTP_NOAUTH).useVirtualThreads();
+
+        Recording recording = new Recording();
+        recording.enable(PINNED_EVENT).withThreshold(Duration.ZERO);
+        recording.start();
+
+        AtomicInteger successes = new AtomicInteger();
+        AtomicInteger badTimestamps = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(REQUEST_COUNT);
+        Semaphore connections = new Semaphore(maxConnections());
+
+        ExecutorService executor = restClient.getExecutorService();
+        for (int i = 0; i < REQUEST_COUNT; i++) {
+            executor.execute(() -> {
+                try {
+                    long startTime = System.currentTimeMillis();
+                    String timestamp = RestClient.formatTimestamp(startTime);
+                    if (OffsetDateTime.parse(timestamp, DateTimeFormatter.ISO_OFFSET_DATE_TIME).toInstant()
+                            .toEpochMilli() != startTime) {
+                        badTimestamps.incrementAndGet();
+                    }
+
+                    connections.acquireUninterruptibly();
+                    try {
+                        OperationResult result =
+                                restClient.get(url, new MultivaluedHashMap<>(), MediaType.APPLICATION_JSON_TYPE);
+                        if (result.getResultCode() == 200) {
+                            successes.incrementAndGet();
+                        }
+                    } finally {
+                        connections.release();
+                    }
+                } catch (RuntimeException e) {
+                    failures.incrementAndGet();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        assertTrue("requests did not complete in time", done.await(5, TimeUnit.MINUTES));
+        executor.shutdown();
+        recording.stop();
+
+        assertEquals(0, failures.get());
+        assertEquals(0, badTimestamps.get());
+        assertEquals(REQUEST_COUNT, successes.get());
+        assertEquals(new ArrayList<String>(), pinnedInClient(recording));
+    }
+
+    /**
+     * Returns how many requests may be in flight at once. Every request holds a socket at each end of the connection,
+     * so all of them are in flight together when the file descriptor limit of the process allows it. A build agent
+     * with a lower limit runs as many as fit within it rather than failing with "Too many open files".
+     */
+    private static int maxConnections() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (!(os instanceof UnixOperatingSystemMXBean)) {
+            return REQUEST_COUNT;
+        }
+        UnixOperatingSystemMXBean unix = (UnixOperatingSystemMXBean) os;
+        long available = unix.getMaxFileDescriptorCount() - unix.getOpenFileDescriptorCount() - RESERVED_DESCRIPTORS;
+        return (int) Math.max(1, Math.min(REQUEST_COUNT, available / 2));
+    }
+
+    /**
+     * Returns a description of every recorded pinning event which happened while running client code. The event does
+     * not exist before Java 21, so on older JVMs the recording is simply empty.
+     */
+    private List<String> pinnedInClient(Recording recording) throws Exception {
+        Path dump = Files.createTempFile("rest-client-stress", ".jfr");
+        List<String> pinned = new ArrayList<>();
+        try {
+            recording.dump(dump);
+            for (RecordedEvent event : RecordingFile.readAllEvents(dump)) {
+                if (!PINNED_EVENT.equals(event.getEventType().getName()) || event.getStackTrace() == null) {
+                    continue;
+                }
+                for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+                    if (frame.getMethod().getType().getName().startsWith("org.onap.aai.restclient.")) {
+                        pinned.add(event.toString());
+                        break;
+                    }
+                }
+            }
+        } finally {
+            recording.close();
+            Files.deleteIfExists(dump);
+        }
+        return pinned;
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void validateBucketsCoverEveryValue() {
+        long previousHighest = -1;
+        for (int i = 0; i < LatencyHistogram.BUCKET_COUNT; i++) {
+            long lowest = LatencyHistogram.lowestValueAt(i);
+            assertEquals(previousHighest + 1, lowest);
+            assertEquals(i, LatencyHistogram.indexOf(lowest));
+            assertEquals(i, LatencyHistogram.indexOf(LatencyHistogram.highestValueAt(i)));
+            previousHighest = LatencyHistogram.highestValueAt(i);
+        }
+        assertEquals(LatencyHistogram.HIGHEST_TRACKABLE_MICROS, previousHighest);
+    }
+
+    @Test
+    public void validatePercentilesAreWithinPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 100000; micros++) {
+            histogram.record(micros);
+        }
+
+        LatencySnapshot snapshot = histogram.getSnapshot();
+        assertEquals(100000, snapshot.getCount());
+        assertWithin(50000, snapshot.getP50Micros());
+        assertWithin(99000, snapshot.getP99Micros());
+        assertWithin(99900, snapshot.getP999Micros());
+        assertWithin(100000, snapshot.getMaxMicros());
+        assertWithin(50000, (long) snapshot.getMeanMicros());
+        assertTrue(snapshot.getP99Micros() >= 99000);
+    }
+
+    @Test
+    public void validateOutOfRangeValuesAreClamped() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+
+        LatencySnapshot snapshot = histogram.getSnapshot();
+        assertEquals(0, snapshot.getValueAtPercentile(50));
+        assertEquals(LatencyHistogram.HIGHEST_TRACKABLE_MICROS, snapshot.getMaxMicros());
+    }
+
+    @Test
+    public void validateResetLosesNothingRecordedConcurrently() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        ExecutorService writers = Executors.newFixedThreadPool(4);
+        List<Future<?>> done = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            done.add(writers.submit(() -> {
+                for (int j = 0; j < 250000; j++) {
+                    histogram.record(j % 5000);
+                }
+            }));
+        }
+
+        long total = 0;
+        while (!allDone(done)) {
+            total += histogram.getSnapshotAndReset().getCount();
+        }
+        total += histogram.getSnapshotAndReset().getCount();
+        writers.shutdown();
+
+        assertEquals(1000000, total);
+        assertEquals(0, histogram.getSnapshot().getCount());
+    }
+
+    @Test
+    public void validateSnapshotsMerge() {
+        LatencyHistogram fast = new LatencyHistogram();
+        LatencyHistogram slow = new LatencyHistogram();
+        for (int i = 0; i < 99; i++) {
+            fast.record(100);
+        }
+        slow.record(200000);
+
+        LatencySnapshot merged = fast.getSnapshot().merge(slow.getSnapshot());
+
+        assertEquals(100, merged.getCount());
+        assertEquals(100, merged.getP99Micros());
+        assertWithin(200000, merged.getP999Micros());
+    }
+
+    private static boolean allDone(List<Future<?>> futures) throws Exception {
+        for (Future<?> future : futures) {
+            if (!future.isDone()) {
+                return false;
+            }
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        return true;
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(actual + " is not within 1% of " + expected, Math.abs(actual - expected) <= expected / 100);
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.core.Response.Status.Family;
+import org.junit.Test;
+import org.onap.aai.restclient.enums.RequestType;
+
+public class RequestMetricsTest {
+
+    private static final String AAI = "https://aai.onap:8443";
+
+    @Test
+    public void validateRequestsAreKeyedByVerbEndpointAndStatusClass() {
+        RequestMetrics metrics = new RequestMetrics();
+        metrics.record(RequestType.GET, AAI + "/aai/v14/network/pnfs/pnf/pnf1", 200, millis(10));
+        metrics.record(RequestType.GET, "https://AAI.onap:8443/aai/v14/network/pnfs/pnf/pnf2", 200, millis(20));
+        metrics.record(RequestType.GET, AAI + "/aai/v14/network/pnfs/pnf/pnf3", 404, millis(5));
+        metrics.record(RequestType.PUT, AAI + "/aai/v14/network/pnfs/pnf/pnf1", 201, millis(30));
+        metrics.record(RequestType.PUT, "http://aai.onap/aai/v14/network/pnfs/pnf/pnf1", 503, millis(1000));
+
+        RequestMetricsSnapshot snapshot = metrics.getSnapshot();
+
+        assertEquals(4, snapshot.getHistograms().size());
+        assertEquals(2, snapshot.getHistograms().get(new MetricKey(RequestType.GET, AAI, Family.SUCCESSFUL))
+                .getCount());
+        assertEquals(5, snapshot.getCount());
+        assertEquals(1, snapshot.getErrorCount());
+        assertEquals(0.2, snapshot.getErrorRate(), 0.0001);
+        assertEquals(3, snapshot.getLatency(RequestType.GET, null, null).getCount());
+        assertEquals(3, snapshot.getLatency(null, null, Family.SUCCESSFUL).getCount());
+        assertEquals(1, snapshot.getLatency(null, "http://aai.onap:80", null).getCount());
+        assertTrue(snapshot.getLatency().getMaxMicros() >= 1000000);
+    }
+
+    @Test
+    public void validateIntervalSnapshotsReset() throws Exception {
+        RequestMetrics metrics = new RequestMetrics();
+        metrics.record(RequestType.GET, AAI + "/aai/v14/network/pnfs", 200, millis(10));
+        Thread.sleep(5);
+
+        RequestMetricsSnapshot first = metrics.getSnapshotAndReset();
+        metrics.record(RequestType.GET, AAI + "/aai/v14/network/pnfs", 500, millis(10));
+        RequestMetricsSnapshot second = metrics.getSnapshotAndReset();
+
+        assertEquals(1, first.getCount());
+        assertEquals(0, first.getErrorCount());
+        assertTrue(first.getIntervalMs() >= 5);
+        assertTrue(first.getThroughput() > 0);
+        assertEquals(1, second.getCount());
+        assertEquals(1.0, second.getErrorRate(), 0.0001);
+        assertEquals(0, metrics.getSnapshot().getCount());
+    }
+
+    private static long millis(long ms) {
+        return TimeUnit.MILLISECONDS.toNanos(ms);
+    }
+}
@@ -0,0 +1,53 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import javax.ws.rs.core.Response.Status.Family;
+import org.junit.Test;
+import org.onap.aai.restclient.client.RestClient;
+import org.onap.aai.restclient.enums.RequestType;
+import org.onap.aai.restclient.stub.StubServerTestBase;
+
+/**
+ * Exercises the request metrics through a {@link RestClient} on each transport engine.
+ */
+public class RestClientMetricsTest extends StubServerTestBase {
+
+    @Test
+    public void validateRequestMetricsAreRecorded() {
+        RestClient restClient = newClient().requestMetrics(new RequestMetrics());
+
+        restClient.get(server.url(PNF), NO_HEADERS, JSON);
+        restClient.get(server.url(PNF), NO_HEADERS, JSON);
+        restClient.get(server.url("/aai/v14/network/pnfs/pnf/missing"), NO_HEADERS, JSON);
+
+        RequestMetricsSnapshot snapshot = restClient.getRequestMetrics().getSnapshotAndReset();
+        String endpoint = server.url("");
+        assertEquals(3, snapshot.getCount());
+        assertEquals(2, snapshot.getLatency(RequestType.GET, endpoint, Family.SUCCESSFUL).getCount());
+        assertEquals(1, snapshot.getLatency(RequestType.GET, endpoint, Family.CLIENT_ERROR).getCount());
+        assertEquals(0, snapshot.getErrorCount());
+        assertTrue(snapshot.getLatency().getP99Micros() > 0);
+    }
+}
@@ -0,0 +1,228 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.resilience;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final long RTT = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private final ConcurrencyLimiterConfig config =
+            new ConcurrencyLimiterConfig().initialLimit(4).minLimit(2).maxLimit(6).backoffRatio(0.5);
+
+    @Test
+    public void validateLimitGrowsWhileLatencyHolds() {
+        AdaptiveConcurrencyLimiter limiter = newLimiter(config);
+
+        for (int i = 0; i < 10; i++) {
+            fill(limiter, limiter.getLimit());
+            drain(limiter, limiter.getInFlight(), RTT, false);
+        }
+
+        assertEquals(6, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void validateLimitIsNotRaisedWhenMostlyIdle() {
+        AdaptiveConcurrencyLimiter limiter = newLimiter(config);
+
+        for (int i = 0; i < 10; i++) {
+            fill(limiter, 1);
+            drain(limiter, 1, RTT, false);
+        }
+
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    public void validateLimitBacksOffOncePerRoundTrip() {
+        AdaptiveConcurrencyLimiter limiter = newLimiter(config.maxLimit(20).initialLimit(16));
+        nanos.addAndGet(RTT);
+
+        fill(limiter, 4);
+        drain(limiter, 4, RTT, true);
+        assertEquals(8, limiter.getLimit());
+
+        nanos.addAndGet(RTT);
+        fill(limiter, 1);
+        drain(limiter, 1, RTT, true);
+        assertEquals(4, limiter.getLimit());
+
+        nanos.addAndGet(RTT);
+        fill(limiter, 1);
+        drain(limiter, 1, RTT, true);
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    public void validateLimitBacksOffWhenLatencyRises() {
+        AdaptiveConcurrencyLimiter limiter = newLimiter(config);
+        fill(limiter, 1);
+        drain(limiter, 1, RTT, false);
+
+        for (int i = 0; i < 40 && limiter.getLimit() == 4; i++) {
+            nanos.addAndGet(RTT * 10);
+            fill(limiter, 1);
+            drain(limiter, 1, RTT * 10, false);
+        }
+
+        assertEquals(2, limiter.getLimit());
+        ConcurrencyLimiterStats stats = limiter.getStats();
+        assertEquals(10000, stats.getMinRttMicros());
+        assertTrue(stats.getSmoothedRttMicros() > 20000);
+    }
+
+    @Test
+    public void validateRequestsOverTheLimitAreRejected() {
+        AdaptiveConcurrencyLimiter limiter = newLimiter(config);
+        fill(limiter, 4);
+
+        assertFalse(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire(0));
+        assertEquals(2, limiter.getStats().getRejected());
+
+        limiter.releaseUnused();
+        assertTrue(limiter.tryAcquire());
+        assertEquals(4, limiter.getLimit());
+        assertTrue(limiter.getRejection().getMessage().contains("https://aai:8443"));
+    }
+
+    @Test
+    public void validateWaitingRequestGetsReleasedPermit() throws Exception {
+        AdaptiveConcurrencyLimiter limiter =
+                new AdaptiveConcurrencyLimiter("https://aai:8443", config.maxWait(Duration.ofSeconds(10)));
+        fill(limiter, 4);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> waiter = executor.submit(() -> limiter.tryAcquire());
+            while (limiter.getStats().getWaiting() == 0) {
+                Thread.sleep(1);
+            }
+            limiter.releaseUnused();
+
+            assertTrue(waiter.get(10, TimeUnit.SECONDS));
+            assertEquals(4, limiter.getInFlight());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void validateRaisedLimitWakesAnotherWaiter() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = newLimiter(config.maxWait(Duration.ofSeconds(10)));
+        fill(limiter, 4);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Boolean> first = executor.submit(() -> limiter.tryAcquire());
+            Future<Boolean> second = executor.submit(() -> limiter.tryAcquire());
+            while (limiter.getStats().getWaiting() < 2) {
+                Thread.sleep(1);
+            }
+            // Returns one permit and raises the limit by one, so both waiters can proceed
+            limiter.release(RTT, false);
+
+            assertTrue(first.get(5, TimeUnit.SECONDS));
+            assertTrue(second.get(5, TimeUnit.SECONDS));
+            assertEquals(5, limiter.getLimit());
+            assertEquals(5, limiter.getInFlight());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void validateWaitGivesUpAtDeadline() {
+        AdaptiveConcurrencyLimiter limiter = newLimiter(config);
+        fill(limiter, 4);
+
+        assertFalse(limiter.tryAcquire(TimeUnit.MILLISECONDS.toNanos(20)));
+        assertEquals(0, limiter.getStats().getWaiting());
+        assertEquals(1, limiter.getStats().getRejected());
+    }
+
+    @Test
+    public void validateInFlightNeverExceedsLimit() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("https://aai:8443",
+                new ConcurrencyLimiterConfig().initialLimit(8).maxLimit(8).maxWait(Duration.ofSeconds(10)));
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(32);
+
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        try {
+            for (int i = 0; i < 32; i++) {
+                executor.execute(() -> {
+                    try {
+                        for (int j = 0; j < 50; j++) {
+                            if (limiter.tryAcquire()) {
+                                peak.accumulateAndGet(active.incrementAndGet(), Math::max);
+                                active.decrementAndGet();
+                                limiter.release(RTT, false);
+                            }
+                        }
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            assertTrue(done.await(30, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(peak.get() <= 8);
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    private AdaptiveConcurrencyLimiter newLimiter(ConcurrencyLimiterConfig config) {
+        return new AdaptiveConcurrencyLimiter("https://aai:8443", config, nanos::get);
+    }
+
+    private static void fill(AdaptiveConcurrencyLimiter limiter, int permits) {
+        for (int i = 0; i < permits; i++) {
+            assertTrue(limiter.tryAcquire(0));
+        }
+    }
+
+    private static void drain(AdaptiveConcurrencyLimiter limiter, int permits, long rttNanos, boolean overloaded) {
+        for (int i = 0; i < permits; i++) {
+            limiter.release(rttNanos, overloaded);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.resilience;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+import org.onap.aai.restclient.enums.CircuitBreakerState;
+
+public class CircuitBreakerRegistryTest {
+
+    @Test
+    public void validateOneBreakerPerEndpoint() {
+        CircuitBreakerRegistry registry =
+                new CircuitBreakerRegistry(new CircuitBreakerConfig().minimumNumberOfCalls(1));
+
+        CircuitBreaker breaker = registry.forUrl("https://aai.onap:8443/aai/v14/network/pnfs");
+        assertSame(breaker, registry.forUrl("https://aai.onap:8443/aai/v14/cloud-infrastructure"));
+        assertSame(breaker, registry.forUrl("HTTPS://user@AAI.ONAP:8443"));
+        assertNotSame(breaker, registry.forUrl("https://aai.onap:9443/aai/v14"));
+        assertNull(registry.forUrl("aai/v14"));
+
+        breaker.tryAcquirePermission();
+        breaker.onError(5);
+
+        assertEquals(2, registry.getStats().size());
+        assertEquals(CircuitBreakerState.OPEN, registry.getStats().get("https://aai.onap:8443").getState());
+        assertEquals(CircuitBreakerState.CLOSED, registry.getStats().get("https://aai.onap:9443").getState());
+    }
+}
@@ -0,0 +1,172 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.resilience;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+import org.onap.aai.restclient.enums.CircuitBreakerState;
+
+public class CircuitBreakerTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private final CircuitBreakerConfig config = new CircuitBreakerConfig().failureRateThreshold(50)
+            .slowCallRateThreshold(80).slowCallDuration(Duration.ofSeconds(1)).slidingWindowSize(10)
+            .minimumNumberOfCalls(4).waitDurationInOpenState(Duration.ofSeconds(30)).permittedCallsInHalfOpenState(2);
+
+    @Test
+    public void validateBreakerOpensOnFailureRate() {
+        CircuitBreaker breaker = newBreaker();
+
+        call(breaker, true, 10);
+        call(breaker, true, 10);
+        call(breaker, false, 10);
+        assertEquals(CircuitBreakerState.CLOSED, breaker.getState());
+
+        call(breaker, false, 10);
+        assertEquals(CircuitBreakerState.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquirePermission());
+        assertFalse(breaker.tryAcquirePermission());
+
+        CircuitBreakerStats stats = breaker.getStats();
+        assertEquals(50.0f, stats.getFailureRate(), 0.01);
+        assertEquals(2, stats.getNotPermittedCalls());
+        assertTrue(breaker.getOpenException().getMessage().contains("https://aai:8443"));
+    }
+
+    @Test
+    public void validateBreakerOpensOnSlowCallRate() {
+        CircuitBreaker breaker = newBreaker();
+
+        for (int i = 0; i < 4; i++) {
+            call(breaker, false, 1500);
+        }
+
+        assertEquals(CircuitBreakerState.OPEN, breaker.getState());
+        assertEquals(100.0f, breaker.getStats().getSlowCallRate(), 0.01);
+    }
+
+    @Test
+    public void validateOldOutcomesLeaveTheWindow() {
+        CircuitBreaker breaker = newBreaker();
+
+        call(breaker, true, 10);
+        for (int i = 0; i < 9; i++) {
+            call(breaker, false, 10);
+        }
+        assertEquals(10, breaker.getStats().getBufferedCalls());
+        assertEquals(1, breaker.getStats().getFailedCalls());
+
+        // The first failure leaves the window as the next one enters it
+        call(breaker, true, 10);
+        assertEquals(10, breaker.getStats().getBufferedCalls());
+        assertEquals(1, breaker.getStats().getFailedCalls());
+
+        for (int i = 0; i < 3; i++) {
+            call(breaker, true, 10);
+        }
+        assertEquals(CircuitBreakerState.CLOSED, breaker.getState());
+        assertEquals(4, breaker.getStats().getFailedCalls());
+
+        call(breaker, true, 10);
+        assertEquals(CircuitBreakerState.OPEN, breaker.getState());
+    }
+
+    @Test
+    public void validateBreakerClosesAfterSuccessfulTrialCalls() {
+        CircuitBreaker breaker = openBreaker();
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(29));
+        assertFalse(breaker.tryAcquirePermission());
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertTrue(breaker.tryAcquirePermission());
+        assertEquals(CircuitBreakerState.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquirePermission());
+        assertFalse(breaker.tryAcquirePermission());
+
+        breaker.onSuccess(10);
+        assertEquals(CircuitBreakerState.HALF_OPEN, breaker.getState());
+        breaker.onSuccess(10);
+        assertEquals(CircuitBreakerState.CLOSED, breaker.getState());
+        assertEquals(0, breaker.getStats().getBufferedCalls());
+        assertTrue(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    public void validateBreakerReopensAfterFailedTrialCall() {
+        CircuitBreaker breaker = openBreaker();
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        assertTrue(breaker.tryAcquirePermission());
+        breaker.onError(10);
+
+        assertEquals(CircuitBreakerState.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    public void validateRejectionIsCheap() {
+        CircuitBreaker breaker = new CircuitBreaker("https://aai:8443", config);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(breaker.tryAcquirePermission());
+            breaker.onError(10);
+        }
+
+        int calls = 1_000_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < calls; i++) {
+            assertFalse(breaker.tryAcquirePermission());
+        }
+        long nanosPerCall = (System.nanoTime() - start) / calls;
+
+        // Generous enough for a loaded build agent, while still far below a network round trip
+        assertTrue("rejection took " + nanosPerCall + " ns", nanosPerCall < 10_000);
+    }
+
+    private CircuitBreaker newBreaker() {
+        return new CircuitBreaker("https://aai:8443", config, nanos::get);
+    }
+
+    private CircuitBreaker openBreaker() {
+        CircuitBreaker breaker = newBreaker();
+        for (int i = 0; i < 4; i++) {
+            call(breaker, true, 10);
+        }
+        assertEquals(CircuitBreakerState.OPEN, breaker.getState());
+        return breaker;
+    }
+
+    private static void call(CircuitBreaker breaker, boolean failed, long durationMs) {
+        assertTrue(breaker.tryAcquirePermission());
+        if (failed) {
+            breaker.onError(durationMs);
+        } else {
+            breaker.onSuccess(durationMs);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.resilience;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+public class EndpointsTest {
+
+    @Test
+    public void validateKeys() {
+        assertEquals("https://aai.onap:8443", Endpoints.key("https://aai.onap:8443/aai/v14/network/pnfs?depth=0"));
+        assertEquals("https://aai.onap:443", Endpoints.key("HTTPS://AAI.onap/aai/v14"));
+        assertEquals("http://aai.onap:80", Endpoints.key("http://aai.onap"));
+        assertEquals("http://aai.onap:80", Endpoints.key("http://user:pa@ss@aai.onap#top"));
+        assertEquals("http://[::1]:9000", Endpoints.key("http://[::1]:9000/aai"));
+        assertEquals("http://[::1]:80", Endpoints.key("http://[::1]/aai"));
+        assertEquals("ftp://files", Endpoints.key("ftp://files/pnfs"));
+
+        assertNull(Endpoints.key(null));
+        assertNull(Endpoints.key("/aai/v14"));
+        assertNull(Endpoints.key("http:///aai/v14"));
+    }
+}
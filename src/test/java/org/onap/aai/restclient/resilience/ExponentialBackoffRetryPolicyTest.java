@@ -0,0 +1,174 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.resilience;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.core.MultivaluedHashMap;
+import org.junit.Test;
+import org.onap.aai.restclient.client.OperationResult;
+import org.onap.aai.restclient.enums.RequestType;
+
+public class ExponentialBackoffRetryPolicyTest {
+
+    @Test
+    public void validateDefaultClassification() {
+        ExponentialBackoffRetryPolicy policy = new ExponentialBackoffRetryPolicy();
+
+        for (int code : new int[] {408, 429, 500, 502, 503, 504}) {
+            assertTrue("status " + code, policy.isRetryable(attempt(RequestType.GET, 1, result(code), null)));
+        }
+        for (int code : new int[] {200, 201, 204, 400, 401, 403, 404, 409, 412}) {
+            assertFalse("status " + code, policy.isRetryable(attempt(RequestType.GET, 1, result(code), null)));
+        }
+
+        assertTrue(policy.isRetryable(attempt(RequestType.GET, 1, result(500),
+                new ProcessingException(new ConnectException("Connection refused")))));
+        assertTrue(policy.isRetryable(attempt(RequestType.GET, 1, result(500), new IOException("reset"))));
+        assertFalse(policy.isRetryable(attempt(RequestType.GET, 1, result(500), new IllegalStateException("bug"))));
+    }
+
+    @Test
+    public void validateIdempotentRequestsAreOptIn() {
+        ExponentialBackoffRetryPolicy policy = new ExponentialBackoffRetryPolicy();
+
+        for (RequestType requestType : RequestType.values()) {
+            assertEquals(requestType == RequestType.GET,
+                    policy.isRetryable(attempt(requestType, 1, result(503), null)));
+        }
+
+        policy.retryIdempotentRequests();
+
+        assertTrue(policy.isRetryable(attempt(RequestType.PUT, 1, result(503), null)));
+        assertTrue(policy.isRetryable(attempt(RequestType.DELETE, 1, result(503), null)));
+        assertTrue(policy.isRetryable(attempt(RequestType.HEAD, 1, result(503), null)));
+        assertFalse(policy.isRetryable(attempt(RequestType.POST, 1, result(503), null)));
+        assertFalse(policy.isRetryable(attempt(RequestType.PATCH, 1, result(503), null)));
+
+        assertFalse(policy.isRetryable(
+                new RetryAttempt(RequestType.PUT, "http://aai", 1, 0, 0, false, result(503), null)));
+    }
+
+    @Test
+    public void validateCustomClassifier() {
+        ExponentialBackoffRetryPolicy policy = new ExponentialBackoffRetryPolicy().classifier(
+                RetryClassifier.statusCodes(409).or(RetryClassifier.exceptions(IllegalStateException.class)));
+
+        assertTrue(policy.isRetryable(attempt(RequestType.GET, 1, result(409), null)));
+        assertFalse(policy.isRetryable(attempt(RequestType.GET, 1, result(503), null)));
+        assertTrue(policy.isRetryable(attempt(RequestType.GET, 1, result(500), new IllegalStateException("busy"))));
+    }
+
+    @Test
+    public void validateDecorrelatedJitterStaysWithinBounds() {
+        ExponentialBackoffRetryPolicy policy = new ExponentialBackoffRetryPolicy().maxAttempts(100)
+                .baseDelay(Duration.ofMillis(10)).maxDelay(Duration.ofMillis(1000))
+                .maxElapsedTime(Duration.ofHours(1));
+
+        long previousDelayMs = 0;
+        boolean varied = false;
+        for (int attemptNumber = 1; attemptNumber < 100; attemptNumber++) {
+            long delayMs = policy.getRetryDelay(new RetryAttempt(RequestType.GET, "http://aai", attemptNumber, 0,
+                    previousDelayMs, true, result(503), null));
+
+            assertTrue("delay " + delayMs, delayMs >= 10);
+            assertTrue("delay " + delayMs, delayMs <= Math.min(1000, Math.max(10, previousDelayMs) * 3));
+            varied |= delayMs != previousDelayMs;
+            previousDelayMs = delayMs;
+        }
+        assertTrue(varied);
+    }
+
+    @Test
+    public void validateAttemptsAndElapsedTimeBudget() {
+        ExponentialBackoffRetryPolicy policy = new ExponentialBackoffRetryPolicy().maxAttempts(3)
+                .baseDelay(Duration.ofMillis(100)).maxElapsedTime(Duration.ofSeconds(1));
+
+        assertTrue(policy.getRetryDelay(attempt(RequestType.GET, 2, result(503), null)) >= 100);
+        assertEquals(RetryPolicy.NO_RETRY, policy.getRetryDelay(attempt(RequestType.GET, 3, result(503), null)));
+        assertEquals(RetryPolicy.NO_RETRY, policy.getRetryDelay(
+                new RetryAttempt(RequestType.GET, "http://aai", 1, 950, 0, true, result(503), null)));
+    }
+
+    @Test
+    public void validateRetryAfterIsHonored() {
+        ExponentialBackoffRetryPolicy policy = new ExponentialBackoffRetryPolicy();
+
+        OperationResult throttled = result(429);
+        throttled.getHeaders().putSingle("Retry-After", "2");
+        assertEquals(2000, policy.getRetryDelay(attempt(RequestType.GET, 1, throttled, null)));
+
+        throttled.getHeaders().putSingle("Retry-After", "120");
+        assertEquals(RetryPolicy.NO_RETRY, policy.getRetryDelay(attempt(RequestType.GET, 1, throttled, null)));
+
+        assertTrue(policy.honorRetryAfter(false).getRetryDelay(attempt(RequestType.GET, 1, throttled, null)) < 2000);
+    }
+
+    @Test
+    public void validateRetryAfterParsing() {
+        long now = System.currentTimeMillis();
+        OperationResult result = result(503);
+
+        assertEquals(0, ExponentialBackoffRetryPolicy.retryAfterMs(result, now));
+
+        result.getHeaders().putSingle("Retry-After", " 5 ");
+        assertEquals(5000, ExponentialBackoffRetryPolicy.retryAfterMs(result, now));
+
+        String date = DateTimeFormatter.RFC_1123_DATE_TIME
+                .format(ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(30).withNano(0));
+        long delayMs = ExponentialBackoffRetryPolicy.retryAfterMs(result(date), System.currentTimeMillis());
+        assertTrue("delay " + delayMs, delayMs > 28000 && delayMs <= 30000);
+
+        assertEquals(0, ExponentialBackoffRetryPolicy.retryAfterMs(result("Wed, 21 Oct 2015 07:28:00 GMT"), now));
+        assertEquals(0, ExponentialBackoffRetryPolicy.retryAfterMs(result("soon"), now));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void validateMaxAttemptsMustBePositive() {
+        new ExponentialBackoffRetryPolicy().maxAttempts(0);
+    }
+
+    private static RetryAttempt attempt(RequestType requestType, int attemptNumber, OperationResult result,
+            Throwable error) {
+        return new RetryAttempt(requestType, "http://aai", attemptNumber, 0, 0, true, result, error);
+    }
+
+    private static OperationResult result(int resultCode) {
+        OperationResult result = new OperationResult(resultCode, null);
+        result.setHeaders(new MultivaluedHashMap<>());
+        return result;
+    }
+
+    private static OperationResult result(String retryAfter) {
+        OperationResult result = result(503);
+        result.getHeaders().putSingle("Retry-After", retryAfter);
+        return result;
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.resilience;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class RequestHedgerTest {
+
+    @Test
+    public void validateFixedDelay() {
+        RequestHedger hedger = new RequestHedger(new HedgingConfig().delay(Duration.ofMillis(40)));
+
+        for (int i = 0; i < 100; i++) {
+            hedger.recordLatency(TimeUnit.SECONDS.toNanos(1));
+        }
+
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(40), hedger.getHedgeDelayNanos());
+    }
+
+    @Test
+    public void validateDelayFollowsPercentile() {
+        RequestHedger hedger = new RequestHedger(new HedgingConfig().initialDelay(Duration.ofMillis(100)));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), hedger.getHedgeDelayNanos());
+
+        // 95 fast responses and 5 slow ones put the 95th percentile among the fast ones
+        for (int i = 0; i < 95; i++) {
+            hedger.recordLatency(TimeUnit.MILLISECONDS.toNanos(20));
+        }
+        for (int i = 0; i < 5; i++) {
+            hedger.recordLatency(TimeUnit.MILLISECONDS.toNanos(900));
+        }
+        assertWithinBucket(20, hedger.getHedgeDelayNanos());
+
+        for (int i = 0; i < 100; i++) {
+            hedger.recordLatency(TimeUnit.MILLISECONDS.toNanos(900));
+        }
+        assertWithinBucket(900, hedger.getHedgeDelayNanos());
+    }
+
+    @Test
+    public void validateMinDelay() {
+        RequestHedger hedger = new RequestHedger(new HedgingConfig().minDelay(Duration.ofMillis(5)));
+
+        for (int i = 0; i < 100; i++) {
+            hedger.recordLatency(TimeUnit.MICROSECONDS.toNanos(300));
+        }
+
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(5), hedger.getHedgeDelayNanos());
+    }
+
+    @Test
+    public void validateHedgesAreLimitedByBudget() {
+        RequestHedger hedger = new RequestHedger(new HedgingConfig().maxHedgeRatio(0.1));
+
+        hedger.recordRequest();
+        assertFalse(hedger.tryAcquireHedge());
+
+        for (int i = 0; i < 19; i++) {
+            hedger.recordRequest();
+        }
+        assertTrue(hedger.tryAcquireHedge());
+        assertTrue(hedger.tryAcquireHedge());
+        assertFalse(hedger.tryAcquireHedge());
+        hedger.recordHedgeWon();
+
+        HedgingStats stats = hedger.getStats();
+        assertEquals(20, stats.getRequests());
+        assertEquals(2, stats.getHedgesSent());
+        assertEquals(1, stats.getHedgesWon());
+        assertEquals(2, stats.getHedgesRejected());
+    }
+
+    @Test
+    public void validateBucketBounds() {
+        for (long micros : new long[] {0, 1, 3, 4, 7, 8, 9, 10, 1000, 123456, 987654321}) {
+            int index = LatencyTracker.bucketIndex(micros);
+            assertTrue(micros <= LatencyTracker.bucketUpperBound(index));
+            assertTrue(index == 0 || micros > LatencyTracker.bucketUpperBound(index - 1));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void validatePercentileMustBeBelow100() {
+        new HedgingConfig().delayPercentile(100);
+    }
+
+    private static void assertWithinBucket(long expectedMs, long actualNanos) {
+        long actualMs = TimeUnit.NANOSECONDS.toMillis(actualNanos);
+        assertTrue("hedge delay " + actualMs + " ms", actualMs >= expectedMs && actualMs <= expectedMs * 5 / 4);
+    }
+}
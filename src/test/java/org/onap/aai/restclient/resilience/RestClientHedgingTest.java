@@ -0,0 +1,120 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.resilience;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Test;
+import org.onap.aai.restclient.client.OperationResult;
+import org.onap.aai.restclient.client.RestClient;
+import org.onap.aai.restclient.stub.LatencyDistribution;
+import org.onap.aai.restclient.stub.StubServerTestBase;
+
+/**
+ * Exercises request hedging through a {@link RestClient} on each transport engine.
+ */
+public class RestClientHedgingTest extends StubServerTestBase {
+
+    private RestClient restClient;
+    private String url;
+
+    @Before
+    public void setUp() {
+        url = server.url(PNF);
+        restClient = newClient();
+    }
+
+    /**
+     * Delays the first request by half a second and answers the rest straight away.
+     */
+    private static LatencyDistribution slowOnce() {
+        AtomicInteger calls = new AtomicInteger();
+        return () -> calls.getAndIncrement() == 0 ? 500 : 0;
+    }
+
+    @Test
+    public void validateSlowGetIsHedged() {
+        server.latency(slowOnce());
+        restClient.hedging(new HedgingConfig().delay(Duration.ofMillis(50)).maxHedgeRatio(1));
+
+        OperationResult result = restClient.get(url, NO_HEADERS, JSON);
+        assertEquals(200, result.getResultCode());
+        assertTrue(result.isHedged());
+        assertTrue(result.isHedgeWon());
+        assertEquals(2, server.getRequestCount());
+
+        result = restClient.get(url, NO_HEADERS, JSON);
+        assertEquals(200, result.getResultCode());
+        assertFalse(result.isHedged());
+
+        HedgingStats stats = restClient.getHedgingStats();
+        assertEquals(2, stats.getRequests());
+        assertEquals(1, stats.getHedgesSent());
+        assertEquals(1, stats.getHedgesWon());
+    }
+
+    @Test
+    public void validateHedgeBudgetIsRespected() {
+        server.latency(slowOnce());
+        restClient.hedging(new HedgingConfig().delay(Duration.ofMillis(10)).maxHedgeRatio(0));
+
+        OperationResult result = restClient.get(url, NO_HEADERS, JSON);
+
+        assertEquals(200, result.getResultCode());
+        assertFalse(result.isHedged());
+        assertEquals(1, server.getRequestCount());
+        assertEquals(0, restClient.getHedgingStats().getHedgesSent());
+        assertEquals(1, restClient.getHedgingStats().getHedgesRejected());
+    }
+
+    @Test
+    public void validateHedgedGetWaitsForConcurrencyPermit() throws Exception {
+        server.latency(LatencyDistribution.fixed(Duration.ofMillis(300)));
+        restClient.hedging(new HedgingConfig().delay(Duration.ofSeconds(5)).maxHedgeRatio(1))
+                .concurrencyLimiters(new ConcurrencyLimiterRegistry(new ConcurrencyLimiterConfig().initialLimit(1)
+                        .minLimit(1).maxLimit(1).maxWait(Duration.ofSeconds(5))));
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<OperationResult>> results = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                results.add(callers.submit(() -> restClient.get(url, NO_HEADERS, JSON)));
+            }
+
+            for (Future<OperationResult> result : results) {
+                assertEquals(200, result.get(10, TimeUnit.SECONDS).getResultCode());
+            }
+            assertEquals(2, server.getRequestCount());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+}
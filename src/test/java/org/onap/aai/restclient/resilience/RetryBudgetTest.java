@@ -0,0 +1,139 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.resilience;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+
+public class RetryBudgetTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    @Test
+    public void validateRetriesAreLimitedToRatioOfRequests() {
+        RetryBudget budget = new RetryBudget(0.2, 0, Duration.ofSeconds(10), now::get);
+
+        assertFalse(budget.tryAcquireRetry());
+
+        for (int i = 0; i < 50; i++) {
+            budget.recordRequest();
+        }
+        for (int i = 0; i < 10; i++) {
+            assertTrue(budget.tryAcquireRetry());
+        }
+        assertFalse(budget.tryAcquireRetry());
+
+        RetryBudgetStats stats = budget.getStats();
+        assertEquals(50, stats.getRequests());
+        assertEquals(10, stats.getRetries());
+        assertEquals(0, stats.getAvailableRetries());
+        assertEquals(2, stats.getRejectedRetries());
+    }
+
+    @Test
+    public void validateMinimumRetriesPerSecond() {
+        RetryBudget budget = new RetryBudget(0, 2, Duration.ofSeconds(5), now::get);
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(budget.tryAcquireRetry());
+        }
+        assertFalse(budget.tryAcquireRetry());
+    }
+
+    @Test
+    public void validateWindowSlides() {
+        RetryBudget budget = new RetryBudget(0.5, 0, Duration.ofSeconds(10), now::get);
+
+        for (int i = 0; i < 10; i++) {
+            budget.recordRequest();
+        }
+        for (int i = 0; i < 5; i++) {
+            assertTrue(budget.tryAcquireRetry());
+        }
+        assertFalse(budget.tryAcquireRetry());
+
+        // Half way through the window the old requests and retries still count
+        now.addAndGet(5000);
+        budget.recordRequest();
+        budget.recordRequest();
+        assertTrue(budget.tryAcquireRetry());
+        assertFalse(budget.tryAcquireRetry());
+
+        // Once the first batch has left the window only the later requests count
+        now.addAndGet(5500);
+        RetryBudgetStats stats = budget.getStats();
+        assertEquals(2, stats.getRequests());
+        assertEquals(1, stats.getRetries());
+        assertEquals(0, stats.getAvailableRetries());
+
+        now.addAndGet(10000);
+        stats = budget.getStats();
+        assertEquals(0, stats.getRequests());
+        assertEquals(0, stats.getRetries());
+        assertEquals(12, stats.getTotalRequests());
+        assertEquals(6, stats.getTotalRetries());
+    }
+
+    @Test
+    public void validateConcurrentUseStaysNearTheAllowance() throws Exception {
+        RetryBudget budget = new RetryBudget(0.1, 0, Duration.ofMinutes(1));
+        int threads = 8;
+        int requestsPerThread = 10000;
+        AtomicLong granted = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int t = 0; t < threads; t++) {
+                executor.execute(() -> {
+                    for (int i = 0; i < requestsPerThread; i++) {
+                        budget.recordRequest();
+                        if (budget.tryAcquireRetry()) {
+                            granted.incrementAndGet();
+                        }
+                    }
+                    done.countDown();
+                });
+            }
+            assertTrue(done.await(1, TimeUnit.MINUTES));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long allowed = threads * requestsPerThread / 10;
+        assertTrue("granted " + granted.get(), granted.get() <= allowed + threads);
+        assertTrue("granted " + granted.get(), granted.get() >= allowed - threads);
+        assertEquals(granted.get(), budget.getStats().getTotalRetries());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void validateRatioMustNotBeNegative() {
+        new RetryBudget(-0.1, 0, Duration.ofSeconds(10));
+    }
+}
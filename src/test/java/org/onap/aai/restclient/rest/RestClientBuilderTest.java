@@ -25,14 +25,19 @@ package org.onap.aai.restclient.rest;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.ClientRequestFilter;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.onap.aai.restclient.enums.RestAuthenticationMode;
+import org.onap.aai.restclient.enums.TransportEngine;
 
 /**
  * This suite of tests is intended to exercise the functionality of the generice REST client builder.
@@ -70,6 +75,19 @@ public class RestClientBuilderTest {
         assertEquals(restClientBuilder.getAuthenticationMode(), RestClientBuilder.DEFAULT_AUTH_MODE);
         assertEquals(restClientBuilder.getBasicAuthUsername(), RestClientBuilder.DEFAULT_BASIC_AUTH_USERNAME);
         assertEquals(restClientBuilder.getBasicAuthPassword(), RestClientBuilder.DEFAULT_BASIC_AUTH_PASSWORD);
+        assertEquals(restClientBuilder.isConnectionPoolingEnabled(),
+                RestClientBuilder.DEFAULT_CONNECTION_POOLING_ENABLED);
+        assertEquals(restClientBuilder.getMaxConnectionsTotal(), RestClientBuilder.DEFAULT_MAX_CONNECTIONS_TOTAL);
+        assertEquals(restClientBuilder.getMaxConnectionsPerRoute(),
+                RestClientBuilder.DEFAULT_MAX_CONNECTIONS_PER_ROUTE);
+        assertEquals(restClientBuilder.getConnectionIdleTimeoutInMs(),
+                RestClientBuilder.DEFAULT_CONNECTION_IDLE_TIMEOUT_MS);
+        assertEquals(restClientBuilder.getValidateAfterInactivityInMs(),
+                RestClientBuilder.DEFAULT_VALIDATE_AFTER_INACTIVITY_MS);
+        assertEquals(restClientBuilder.getConnectionTimeToLiveInMs(),
+                RestClientBuilder.DEFAULT_CONNECTION_TIME_TO_LIVE_MS);
+        assertNull(restClientBuilder.getConnectionPoolStats());
+        assertEquals(restClientBuilder.getTransportEngine(), RestClientBuilder.DEFAULT_TRANSPORT_ENGINE);
 
         restClientBuilder.setAuthenticationMode(RestAuthenticationMode.UNKNOWN_MODE);
         restClientBuilder.setBasicAuthPassword("password");
@@ -100,6 +118,22 @@ public class RestClientBuilderTest {
 
     }
 
+    @Test
+    public void validateBasicCredentialsFollowChanges() {
+        RestClientBuilder restClientBuilder = new RestClientBuilder(clientBuilder);
+        restClientBuilder.setBasicAuthUsername("username");
+        restClientBuilder.setBasicAuthPassword("password");
+        String credentials = restClientBuilder.getBasicAuthenticationCredentials();
+        assertTrue(credentials == restClientBuilder.getBasicAuthenticationCredentials());
+
+        restClientBuilder.setBasicAuthPassword("changed");
+        assertEquals(generateAuthorizationHeaderValue("username", "changed"),
+                restClientBuilder.getBasicAuthenticationCredentials());
+        restClientBuilder.setBasicAuthUsername("other");
+        assertEquals(generateAuthorizationHeaderValue("other", "changed"),
+                restClientBuilder.getBasicAuthenticationCredentials());
+    }
+
     @Test
     public void validateNoAuthClientCreation() throws Exception {
 
@@ -141,7 +175,7 @@ public class RestClientBuilderTest {
 
         Client client = restClientBuilder.getClient();
         assertNotNull(client.getHostnameVerifier());
-        assertEquals("truststore", System.getProperty("javax.net.ssl.trustStore"));
+        assertNull(System.getProperty("javax.net.ssl.trustStore"));
     }
 
     @Test(expected = IllegalArgumentException.class)
@@ -189,7 +223,7 @@ public class RestClientBuilderTest {
         Client client = restClientBuilder.getClient();
         // TODO
         assertNotNull(client.getHostnameVerifier());
-        assertEquals("truststore", System.getProperty("javax.net.ssl.trustStore"));
+        assertNull(System.getProperty("javax.net.ssl.trustStore"));
     }
 
     @Test
@@ -208,7 +242,7 @@ public class RestClientBuilderTest {
         Client client = restClientBuilder.getClient();
         // TODO
         assertNull(client.getHostnameVerifier());
-        assertEquals("truststore", System.getProperty("javax.net.ssl.trustStore"));
+        assertNull(System.getProperty("javax.net.ssl.trustStore"));
     }
 
     @Test(expected = IllegalArgumentException.class)
@@ -231,6 +265,101 @@ public class RestClientBuilderTest {
 
     }
 
+    @Test
+    public void validatePooledClientCreation() throws Exception {
+
+        RestClientBuilder restClientBuilder = new RestClientBuilder(clientBuilder);
+
+        restClientBuilder.setAuthenticationMode(RestAuthenticationMode.HTTP_NOAUTH);
+        restClientBuilder.setConnectionPoolingEnabled(true);
+        restClientBuilder.setMaxConnectionsTotal(50);
+        restClientBuilder.setMaxConnectionsPerRoute(10);
+        restClientBuilder.setConnectionIdleTimeoutInMs(30000);
+        restClientBuilder.setValidateAfterInactivityInMs(1000);
+        restClientBuilder.setConnectionTimeToLiveInMs(300000);
+
+        Client client = restClientBuilder.getClient();
+        assertNotNull(client);
+
+        ConnectionPoolStats stats = restClientBuilder.getConnectionPoolStats();
+        assertNotNull(stats);
+        assertEquals(50, stats.getMax());
+        assertEquals(0, stats.getLeased());
+        assertEquals(0, stats.getPending());
+        assertTrue(restClientBuilder.toString().contains("maxConnectionsPerRoute=10"));
+    }
+
+    @Test
+    public void validatePooledClientKeepsBuilderConfiguration() throws Exception {
+
+        ClientRequestFilter filter = requestContext -> requestContext.getHeaders().add("X-TransactionId", "txn");
+        clientBuilder.register(filter);
+        clientBuilder.property("custom.property", "value");
+
+        RestClientBuilder restClientBuilder = new RestClientBuilder(clientBuilder);
+        restClientBuilder.setAuthenticationMode(RestAuthenticationMode.HTTP_NOAUTH);
+        restClientBuilder.setConnectionPoolingEnabled(true);
+
+        Client client = restClientBuilder.getClient();
+        assertTrue(client.getConfiguration().isRegistered(filter));
+        assertEquals("value", client.getConfiguration().getProperty("custom.property"));
+        assertNotNull(restClientBuilder.getConnectionPoolStats());
+    }
+
+    @Test
+    public void validatePooledSslClientCreation() throws Exception {
+
+        RestClientBuilder restClientBuilder = new RestClientBuilder(clientBuilder);
+
+        restClientBuilder.setAuthenticationMode(RestAuthenticationMode.SSL_BASIC);
+        restClientBuilder.setTruststoreFilename("truststore");
+        restClientBuilder.setConnectionPoolingEnabled(true);
+
+        Client client = restClientBuilder.getClient();
+        assertNotNull(client.getHostnameVerifier());
+        assertNotNull(restClientBuilder.getConnectionPoolStats());
+    }
+
+    @Test
+    public void validateNoAuthHttpClientCreation() throws Exception {
+
+        RestClientBuilder restClientBuilder = new RestClientBuilder(clientBuilder);
+
+        restClientBuilder.setAuthenticationMode(RestAuthenticationMode.HTTP_NOAUTH);
+        restClientBuilder.setTransportEngine(TransportEngine.JAVA_HTTP_CLIENT);
+        restClientBuilder.setConnectTimeoutInMs(12345);
+
+        HttpClient httpClient = restClientBuilder.getHttpClient();
+        assertEquals(Duration.ofMillis(12345), httpClient.connectTimeout().get());
+        assertTrue(restClientBuilder.toString().contains("transportEngine=JAVA_HTTP_CLIENT"));
+    }
+
+    @Test
+    public void validateSslHttpClientCreation() throws Exception {
+
+        RestClientBuilder restClientBuilder = new RestClientBuilder(clientBuilder);
+
+        restClientBuilder.setAuthenticationMode(RestAuthenticationMode.SSL_BASIC);
+        restClientBuilder.setTruststoreFilename("truststore");
+        restClientBuilder.setValidateServerHostname(false);
+
+        HttpClient httpClient = restClientBuilder.getHttpClient();
+        assertEquals(RestClientBuilder.DEFAULT_SSL_PROTOCOL, httpClient.sslContext().getProtocol());
+        assertNull(System.getProperty("javax.net.ssl.trustStore"));
+        assertSame(httpClient.sslContext(), restClientBuilder.getHttpClient().sslContext());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void validateSslHttpClient_illegalArgumentExceptionWhenTruststoreIsNull() throws Exception {
+
+        RestClientBuilder restClientBuilder = new RestClientBuilder(clientBuilder);
+
+        restClientBuilder.setAuthenticationMode(RestAuthenticationMode.SSL_CERT);
+        restClientBuilder.setTruststoreFilename(null);
+
+        restClientBuilder.getHttpClient();
+    }
+
     @Test
     public void validateSslProtocolConfiguration() throws Exception {
 
@@ -0,0 +1,214 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.rest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsServer;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.KeyStore;
+import java.util.Comparator;
+import java.util.stream.Stream;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SslMaterialCacheTest {
+
+    private static final String PASSWORD = "changeit";
+    private static final long RELOAD_TIMEOUT_MS = 10000;
+    private static final String TRUST_STORE_PASSWORD_PROPERTY = "javax.net.ssl.trustStorePassword";
+
+    private Path directory;
+    private Path serverKeystore;
+    private HttpsServer server;
+    private URI uri;
+    private String trustStorePassword;
+
+    @Before
+    public void startServer() throws Exception {
+        // The certificates of a PKCS12 trust store generated by keytool can only be read with its password
+        trustStorePassword = System.setProperty(TRUST_STORE_PASSWORD_PROPERTY, PASSWORD);
+
+        directory = Files.createTempDirectory("ssl-material");
+        serverKeystore = directory.resolve("server.p12");
+        generateKeystore(serverKeystore);
+
+        server = HttpsServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setHttpsConfigurator(new HttpsConfigurator(serverSslContext(serverKeystore)));
+        server.createContext("/", exchange -> {
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+        uri = URI.create("https://localhost:" + server.getAddress().getPort() + "/");
+    }
+
+    @After
+    public void stopServer() throws IOException {
+        server.stop(0);
+        if (trustStorePassword != null) {
+            System.setProperty(TRUST_STORE_PASSWORD_PROPERTY, trustStorePassword);
+        } else {
+            System.clearProperty(TRUST_STORE_PASSWORD_PROPERTY);
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    public void validateContextIsShared() throws Exception {
+        String truststore = serverKeystore.toString();
+
+        SSLContext context = SslMaterialCache.getSslContext(null, null, truststore, "TLS", false);
+
+        assertSame(context, SslMaterialCache.getSslContext(null, null, truststore, "TLS", false));
+        assertNotSame(context, SslMaterialCache.getSslContext(null, null, truststore, "TLSv1.2", false));
+        assertNotSame(context, SslMaterialCache.getSslContext(null, null, truststore, "TLS", true));
+    }
+
+    @Test
+    public void validateTruststoreIsReloadedWhenChanged() throws Exception {
+        Path truststore = directory.resolve("truststore.p12");
+        SSLContext context = SslMaterialCache.getSslContext(null, null, truststore.toString(), "TLS", false);
+        assertEquals(-1, send(context));
+
+        // Replace the file the way a mounted secret is updated, so the watcher sees a single complete file
+        Path staged = directory.resolve("truststore.tmp");
+        Files.copy(serverKeystore, staged);
+        Files.move(staged, truststore, StandardCopyOption.ATOMIC_MOVE);
+
+        long deadline = System.currentTimeMillis() + RELOAD_TIMEOUT_MS;
+        while (send(context) != 200) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("trust store was not reloaded");
+            }
+            Thread.sleep(50);
+        }
+        assertSame(context, SslMaterialCache.getSslContext(null, null, truststore.toString(), "TLS", false));
+    }
+
+    @Test
+    public void validateUnreadableTruststoreKeepsPreviousMaterial() throws Exception {
+        Path truststore = directory.resolve("truststore.p12");
+        Files.copy(serverKeystore, truststore);
+        SSLContext context = SslMaterialCache.getSslContext(null, null, truststore.toString(), "TLS", false);
+        assertEquals(200, send(context));
+
+        Files.write(truststore, "not a keystore".getBytes(StandardCharsets.UTF_8));
+        SslMaterialCache.reload();
+
+        assertEquals(200, send(context));
+    }
+
+    @Test
+    public void validateTruststoreInMissingDirectoryIsLoadedOnceCreated() throws Exception {
+        Path truststore = directory.resolve("certs").resolve("truststore.p12");
+        SSLContext context = SslMaterialCache.getSslContext(null, null, truststore.toString(), "TLS", false);
+        assertEquals(-1, send(context));
+
+        // Mount the directory with the trust store already in it
+        Path staged = Files.createDirectory(directory.resolve("staged"));
+        Files.copy(serverKeystore, staged.resolve("truststore.p12"));
+        Files.move(staged, truststore.getParent(), StandardCopyOption.ATOMIC_MOVE);
+
+        long deadline = System.currentTimeMillis() + RELOAD_TIMEOUT_MS;
+        while (send(context) != 200) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("trust store was not loaded");
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    @Test
+    public void validateUnusedContextIsDropped() throws Exception {
+        SSLContext context =
+                SslMaterialCache.getSslContext(null, null, directory.resolve("unused.p12").toString(), "TLS", false);
+        int cached = SslMaterialCache.size();
+        assertNotNull(context);
+        context = null;
+
+        long deadline = System.currentTimeMillis() + RELOAD_TIMEOUT_MS;
+        while (SslMaterialCache.size() >= cached) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("unused SSL context was not dropped");
+            }
+            System.gc();
+            Thread.sleep(50);
+        }
+    }
+
+    /**
+     * Sends a request on a new connection, and returns the status code or -1 if the handshake failed.
+     */
+    private int send(SSLContext context) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder().sslContext(context).build();
+        try {
+            return client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.discarding())
+                    .statusCode();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static void generateKeystore(Path keystore) throws Exception {
+        String keytool = System.getProperty("java.home") + File.separator + "bin" + File.separator + "keytool";
+        Process process = new ProcessBuilder(keytool, "-genkeypair", "-alias", "localhost", "-keyalg", "RSA",
+                "-keysize", "2048", "-validity", "2", "-dname", "CN=localhost", "-ext",
+                "SAN=dns:localhost,ip:127.0.0.1", "-storetype", "PKCS12", "-keystore", keystore.toString(),
+                "-storepass", PASSWORD, "-keypass", PASSWORD).inheritIO().start();
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException("keytool failed to create " + keystore);
+        }
+    }
+
+    private static SSLContext serverSslContext(Path keystore) throws Exception {
+        KeyStore ks = KeyStore.getInstance("PKCS12");
+        try (InputStream in = Files.newInputStream(keystore)) {
+            ks.load(in, PASSWORD.toCharArray());
+        }
+        KeyManagerFactory kmf = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        kmf.init(ks, PASSWORD.toCharArray());
+        SSLContext ctx = SSLContext.getInstance("TLS");
+        ctx.init(kmf.getKeyManagers(), null, null);
+        return ctx;
+    }
+}
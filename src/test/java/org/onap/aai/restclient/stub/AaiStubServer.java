@@ -0,0 +1,484 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.stub;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsParameters;
+import com.sun.net.httpserver.HttpsServer;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManagerFactory;
+import org.onap.aai.restclient.client.VirtualThreads;
+
+/**
+ * An A&AI stand-in for load tests, which runs in the test JVM and answers with canned or generated A&AI-shaped JSON.
+ *
+ * <p>Every request first goes through the fault injection of the server, in this order:
+ * <ul>
+ * <li>A request beyond the concurrency limit is throttled with a 429 and a {@code Retry-After} header.</li>
+ * <li>The request waits for a time drawn from the latency distribution.</li>
+ * <li>The first of every given number of requests fails with the error status, if an error interval is set.</li>
+ * <li>The error rate decides whether it fails with the error status.</li>
+ * </ul>
+ * The settings can be changed while the server runs, so that a test can move it from healthy to a brownout and back.
+ *
+ * <p>A GET of a document or collection carries an ETag, and a GET whose {@code If-None-Match} matches it gets a 304.
+ * It also carries a {@code Cache-Control} header if one has been set.
+ * A collection is paged when the request gives the A&AI {@code resultIndex} and {@code resultSize} parameters, with
+ * the totals in the {@code total-results} and {@code total-pages} response headers. A PUT stores its body as the
+ * document at its path and a DELETE removes it.
+ *
+ * <p>A secure server presents a self-signed certificate for localhost, which is generated with keytool into a PKCS12
+ * keystore. The same keystore serves the client as its trust store and as its client certificate, which the server
+ * asks for but does not require.
+ *
+ * <pre>
+ * try (AaiStubServer server = new AaiStubServer().collection("/aai/v14/network/pnfs", "pnf", 500)
+ *         .latency(LatencyDistribution.logNormal(Duration.ofMillis(20), Duration.ofMillis(400)))
+ *         .errorRate(0.02, 503).throttle(64, 1).start()) {
+ *     restClient.get(server.url("/aai/v14/network/pnfs?resultIndex=1&amp;resultSize=100"), headers, type);
+ * }
+ * </pre>
+ */
+public class AaiStubServer implements AutoCloseable {
+
+    public static final String RESULT_INDEX_PARAM = "resultIndex";
+    public static final String RESULT_SIZE_PARAM = "resultSize";
+    public static final String TOTAL_RESULTS_HEADER = "total-results";
+    public static final String TOTAL_PAGES_HEADER = "total-pages";
+    public static final String KEYSTORE_PASSWORD = "changeit";
+
+    private static final String JSON = "application/json";
+    private static final long FIRST_RESOURCE_VERSION = 1500000000000L;
+
+    private final ConcurrentMap<String, String> documents = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Collection> collections = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, AtomicLong> statusCounts = new ConcurrentHashMap<>();
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong intervalCount = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile LatencyDistribution latency = LatencyDistribution.none();
+    private volatile double errorRate;
+    private volatile int errorInterval;
+    private volatile int errorStatus = 503;
+    private volatile int maxConcurrentRequests = Integer.MAX_VALUE;
+    private volatile int retryAfterSeconds;
+    private volatile String cacheControl;
+
+    private boolean secure;
+    private int backlog;
+    private HttpServer server;
+    private ExecutorService executor;
+    private Path keystore;
+
+    /**
+     * Serves the given JSON document at a path, replacing anything already served there.
+     */
+    public AaiStubServer document(String path, String json) {
+        collections.remove(path);
+        documents.put(path, json);
+        return this;
+    }
+
+    /**
+     * Serves a generated collection of A&AI objects of the given type at a path, such as {@code "pnf"}, which gives
+     * {@code {"pnf":[{"pnf-name":"pnf-0","in-maint":false,"resource-version":"..."},...]}}.
+     */
+    public AaiStubServer collection(String path, String objectType, int size) {
+        documents.remove(path);
+        collections.put(path, new Collection(objectType, size));
+        return this;
+    }
+
+    /**
+     * Sets the distribution each request's delay is drawn from.
+     */
+    public AaiStubServer latency(LatencyDistribution latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /**
+     * Fails the given share of requests, from 0 to 1, with the given status code.
+     */
+    public AaiStubServer errorRate(double rate, int status) {
+        if (rate < 0 || rate > 1) {
+            throw new IllegalArgumentException("Error rate must be between 0 and 1");
+        }
+        this.errorStatus = status;
+        this.errorRate = rate;
+        return this;
+    }
+
+    /**
+     * Fails the first of every given number of requests with the given status code, so that with an interval of 2
+     * every other request fails and each request is retried exactly once. An interval of 0 turns this off.
+     */
+    public AaiStubServer errorInterval(int interval, int status) {
+        if (interval < 0) {
+            throw new IllegalArgumentException("Error interval must not be negative");
+        }
+        this.errorStatus = status;
+        this.errorInterval = interval;
+        return this;
+    }
+
+    /**
+     * Answers requests beyond the given number in progress with a 429 which asks the client to retry after the given
+     * number of seconds.
+     */
+    public AaiStubServer throttle(int maxConcurrentRequests, int retryAfterSeconds) {
+        if (maxConcurrentRequests < 1) {
+            throw new IllegalArgumentException("Concurrency limit must be at least 1");
+        }
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        return this;
+    }
+
+    /**
+     * Stops throttling requests.
+     */
+    public AaiStubServer unthrottled() {
+        this.maxConcurrentRequests = Integer.MAX_VALUE;
+        return this;
+    }
+
+    /**
+     * Sends the given {@code Cache-Control} header, such as {@code "max-age=60"}, with every GET of a document or
+     * collection, or none if null.
+     */
+    public AaiStubServer cacheControl(String cacheControl) {
+        this.cacheControl = cacheControl;
+        return this;
+    }
+
+    /**
+     * Serves HTTPS rather than plain HTTP. Takes effect when the server is started.
+     */
+    public AaiStubServer secure() {
+        this.secure = true;
+        return this;
+    }
+
+    /**
+     * Sets the number of connections the server queues before refusing them, rather than the system default. Takes
+     * effect when the server is started.
+     */
+    public AaiStubServer backlog(int backlog) {
+        this.backlog = backlog;
+        return this;
+    }
+
+    /**
+     * Starts the server on a free local port. Each request is handled on its own virtual thread where the JVM supports
+     * them, so a long latency does not hold up other requests.
+     */
+    public AaiStubServer start() throws IOException {
+        InetSocketAddress address = new InetSocketAddress("localhost", 0);
+        if (secure) {
+            keystore = createKeystore();
+            HttpsServer httpsServer = HttpsServer.create(address, backlog);
+            httpsServer.setHttpsConfigurator(new HttpsConfigurator(serverSslContext(keystore)) {
+                @Override
+                public void configure(HttpsParameters params) {
+                    params.setWantClientAuth(true);
+                }
+            });
+            server = httpsServer;
+        } else {
+            server = HttpServer.create(address, backlog);
+        }
+        server.createContext("/", this::handle);
+        executor = VirtualThreads.newThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.start();
+        return this;
+    }
+
+    /**
+     * Returns the URL of a path, which may include a query, on this server.
+     */
+    public String url(String path) {
+        String scheme = server instanceof HttpsServer ? "https" : "http";
+        return scheme + "://localhost:" + server.getAddress().getPort() + path;
+    }
+
+    /**
+     * Returns the keystore holding the certificate of a secure server, or null for a plain HTTP server.
+     */
+    public String getKeystore() {
+        return keystore != null ? keystore.toString() : null;
+    }
+
+    /**
+     * Returns the number of requests received, including those which were throttled or failed on purpose.
+     */
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * Returns the number of responses sent with the given status code.
+     */
+    public long getStatusCount(int status) {
+        AtomicLong count = statusCounts.get(status);
+        return count != null ? count.get() : 0;
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+        if (keystore != null) {
+            try {
+                Files.deleteIfExists(keystore);
+                Files.deleteIfExists(keystore.getParent());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] requestBody = in.readAllBytes();
+
+            if (inFlight.incrementAndGet() > maxConcurrentRequests) {
+                exchange.getResponseHeaders().add("Retry-After", Integer.toString(retryAfterSeconds));
+                send(exchange, 429, error("SVC3009", "Too many requests"));
+                return;
+            }
+
+            long delayMs = latency.nextDelayMs();
+            if (delayMs > 0) {
+                Thread.sleep(delayMs);
+            }
+
+            int interval = errorInterval;
+            if (interval > 0 && intervalCount.getAndIncrement() % interval == 0) {
+                send(exchange, errorStatus, error("SVC3002", "Injected failure"));
+                return;
+            }
+
+            double rate = errorRate;
+            if (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate) {
+                send(exchange, errorStatus, error("SVC3002", "Injected failure"));
+                return;
+            }
+
+            route(exchange, new String(requestBody, StandardCharsets.UTF_8));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    private void route(HttpExchange exchange, String requestBody) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        switch (exchange.getRequestMethod()) {
+            case "GET":
+                String body = render(exchange, path);
+                if (body == null) {
+                    send(exchange, 404, error("ERR.5.4.6114", "Node Not Found"));
+                    return;
+                }
+                String etag = "\"" + Integer.toHexString(body.hashCode()) + "\"";
+                exchange.getResponseHeaders().add("ETag", etag);
+                String directives = cacheControl;
+                if (directives != null) {
+                    exchange.getResponseHeaders().add("Cache-Control", directives);
+                }
+                if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                    send(exchange, 304, null);
+                } else {
+                    send(exchange, 200, body);
+                }
+                return;
+
+            case "PUT":
+                collections.remove(path);
+                send(exchange, documents.put(path, requestBody) == null ? 201 : 200, null);
+                return;
+
+            case "DELETE":
+                boolean removed = documents.remove(path) != null | collections.remove(path) != null;
+                send(exchange, removed ? 204 : 404, removed ? null : error("ERR.5.4.6114", "Node Not Found"));
+                return;
+
+            default:
+                boolean known = documents.containsKey(path) || collections.containsKey(path);
+                send(exchange, known ? 200 : 404, known ? null : error("ERR.5.4.6114", "Node Not Found"));
+        }
+    }
+
+    /**
+     * Returns the body of a GET of the given path, or null if nothing is served there.
+     */
+    private String render(HttpExchange exchange, String path) {
+        String document = documents.get(path);
+        if (document != null) {
+            return document;
+        }
+        Collection collection = collections.get(path);
+        if (collection == null) {
+            return null;
+        }
+
+        String query = exchange.getRequestURI().getQuery();
+        int resultIndex = queryParameter(query, RESULT_INDEX_PARAM);
+        int resultSize = queryParameter(query, RESULT_SIZE_PARAM);
+        if (resultIndex < 1 || resultSize < 1) {
+            return collection.render(0, collection.size);
+        }
+
+        int totalPages = (collection.size + resultSize - 1) / resultSize;
+        exchange.getResponseHeaders().add(TOTAL_RESULTS_HEADER, Integer.toString(collection.size));
+        exchange.getResponseHeaders().add(TOTAL_PAGES_HEADER, Integer.toString(totalPages));
+        long from = (long) (resultIndex - 1) * resultSize;
+        return from < collection.size
+                ? collection.render((int) from, (int) Math.min(collection.size, from + resultSize))
+                : collection.render(0, 0);
+    }
+
+    private static int queryParameter(String query, String name) {
+        if (query == null) {
+            return -1;
+        }
+        for (String parameter : query.split("&")) {
+            int equals = parameter.indexOf('=');
+            if (equals > 0 && parameter.substring(0, equals).equals(name)) {
+                try {
+                    return Integer.parseInt(parameter.substring(equals + 1));
+                } catch (NumberFormatException e) {
+                    return -1;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private void send(HttpExchange exchange, int status, String body) throws IOException {
+        statusCounts.computeIfAbsent(status, s -> new AtomicLong()).incrementAndGet();
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", JSON);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Path createKeystore() throws IOException {
+        Path dir = Files.createTempDirectory("aai-stub-server");
+        Path keystore = dir.resolve("localhost.p12");
+        String keytool = System.getProperty("java.home") + File.separator + "bin" + File.separator + "keytool";
+        Process process = new ProcessBuilder(keytool, "-genkeypair", "-alias", "localhost", "-keyalg", "RSA",
+                "-keysize", "2048", "-validity", "2", "-dname", "CN=localhost", "-ext",
+                "SAN=dns:localhost,ip:127.0.0.1", "-storetype", "PKCS12", "-keystore", keystore.toString(),
+                "-storepass", KEYSTORE_PASSWORD, "-keypass", KEYSTORE_PASSWORD).inheritIO().start();
+        try {
+            if (process.waitFor() != 0) {
+                throw new IOException("keytool failed to create " + keystore);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted creating " + keystore, e);
+        }
+        return keystore;
+    }
+
+    private static SSLContext serverSslContext(Path keystore) throws IOException {
+        try (InputStream in = new FileInputStream(keystore.toFile())) {
+            KeyStore ks = KeyStore.getInstance("PKCS12");
+            ks.load(in, KEYSTORE_PASSWORD.toCharArray());
+            KeyManagerFactory kmf = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+            kmf.init(ks, KEYSTORE_PASSWORD.toCharArray());
+            TrustManagerFactory tmf = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+            tmf.init(ks);
+            SSLContext ctx = SSLContext.getInstance("TLS");
+            ctx.init(kmf.getKeyManagers(), tmf.getTrustManagers(), null);
+            return ctx;
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Cannot load " + keystore, e);
+        }
+    }
+
+    private static String error(String messageId, String text) {
+        return "{\"requestError\":{\"serviceException\":{\"messageId\":\"" + messageId + "\",\"text\":\"" + text
+                + "\",\"variables\":[]}}}";
+    }
+
+    /**
+     * A generated collection of A&AI objects of one type.
+     */
+    private static class Collection {
+        private final String objectType;
+        private final int size;
+
+        Collection(String objectType, int size) {
+            this.objectType = objectType;
+            this.size = size;
+        }
+
+        String render(int from, int to) {
+            StringBuilder json = new StringBuilder().append("{\"").append(objectType).append("\":[");
+            for (int i = from; i < to; i++) {
+                if (i > from) {
+                    json.append(',');
+                }
+                json.append("{\"").append(objectType).append("-name\":\"").append(objectType).append('-').append(i)
+                        .append("\",\"in-maint\":false,\"resource-version\":\"").append(FIRST_RESOURCE_VERSION + i)
+                        .append("\"}");
+            }
+            return json.append("]}").toString();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.stub;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.core.MediaType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onap.aai.restclient.client.OperationResult;
+import org.onap.aai.restclient.client.RestClient;
+import org.onap.aai.restclient.enums.RestAuthenticationMode;
+import org.onap.aai.restclient.enums.TransportEngine;
+import org.onap.aai.restclient.resilience.CircuitBreakerConfig;
+import org.onap.aai.restclient.resilience.CircuitBreakerRegistry;
+
+public class AaiStubServerTest {
+
+    private static final Map<String, List<String>> NO_HEADERS = Collections.emptyMap();
+    private static final String PNFS = "/aai/v14/network/pnfs";
+    private static final String PNF = "/aai/v14/network/pnfs/pnf/pnf1";
+
+    private AaiStubServer server;
+    private RestClient restClient;
+
+    @Before
+    public void startServer() throws Exception {
+        server = new AaiStubServer().collection(PNFS, "pnf", 25).document(PNF, "{\"pnf-name\":\"pnf1\"}").start();
+        restClient = new RestClient(ClientBuilder.newBuilder()).authenticationMode(RestAuthenticationMode.HTTP_NOAUTH)
+                .transportEngine(TransportEngine.JAVA_HTTP_CLIENT);
+    }
+
+    @After
+    public void stopServer() {
+        server.close();
+    }
+
+    @Test
+    public void validateDocumentIsServedWithEtag() {
+        OperationResult result = restClient.get(server.url(PNF), NO_HEADERS, MediaType.APPLICATION_JSON_TYPE);
+        assertEquals(200, result.getResultCode());
+        assertEquals("{\"pnf-name\":\"pnf1\"}", result.getResult());
+
+        String etag = result.getHeaders().getFirst("ETag");
+        OperationResult notModified = restClient.get(server.url(PNF),
+                Collections.singletonMap("If-None-Match", Collections.singletonList(etag)),
+                MediaType.APPLICATION_JSON_TYPE);
+        assertEquals(304, notModified.getResultCode());
+    }
+
+    @Test
+    public void validateCollectionIsPaged() {
+        OperationResult page = restClient.get(server.url(PNFS + "?resultIndex=3&resultSize=10"), NO_HEADERS,
+                MediaType.APPLICATION_JSON_TYPE);
+
+        assertEquals(200, page.getResultCode());
+        assertEquals("25", page.getHeaders().getFirst(AaiStubServer.TOTAL_RESULTS_HEADER));
+        assertEquals("3", page.getHeaders().getFirst(AaiStubServer.TOTAL_PAGES_HEADER));
+        assertTrue(page.getResult().startsWith("{\"pnf\":[{\"pnf-name\":\"pnf-20\""));
+        assertTrue(page.getResult().contains("\"pnf-name\":\"pnf-24\""));
+        assertTrue(!page.getResult().contains("\"pnf-name\":\"pnf-19\""));
+
+        OperationResult all = restClient.get(server.url(PNFS), NO_HEADERS, MediaType.APPLICATION_JSON_TYPE);
+        assertTrue(all.getResult().contains("\"pnf-name\":\"pnf-0\""));
+        assertTrue(all.getResult().contains("\"pnf-name\":\"pnf-24\""));
+    }
+
+    @Test
+    public void validatePutStoresAndDeleteRemovesDocument() {
+        String url = server.url("/aai/v14/network/pnfs/pnf/pnf2");
+        assertEquals(404, restClient.get(url, NO_HEADERS, MediaType.APPLICATION_JSON_TYPE).getResultCode());
+
+        OperationResult put = restClient.put(url, "{\"pnf-name\":\"pnf2\"}", NO_HEADERS,
+                MediaType.APPLICATION_JSON_TYPE, MediaType.APPLICATION_JSON_TYPE);
+        assertEquals(201, put.getResultCode());
+        assertEquals("{\"pnf-name\":\"pnf2\"}",
+                restClient.get(url, NO_HEADERS, MediaType.APPLICATION_JSON_TYPE).getResult());
+
+        assertEquals(204, restClient.delete(url, NO_HEADERS, MediaType.APPLICATION_JSON_TYPE).getResultCode());
+        assertEquals(404, restClient.get(url, NO_HEADERS, MediaType.APPLICATION_JSON_TYPE).getResultCode());
+    }
+
+    @Test
+    public void validateLatencyIsInjected() {
+        server.latency(LatencyDistribution.fixed(Duration.ofMillis(200)));
+
+        long start = System.nanoTime();
+        restClient.get(server.url(PNF), NO_HEADERS, MediaType.APPLICATION_JSON_TYPE);
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(200).toNanos());
+    }
+
+    @Test
+    public void validateLogNormalLatencyHasRequestedMedian() {
+        LatencyDistribution latency = LatencyDistribution.logNormal(Duration.ofMillis(20), Duration.ofMillis(400));
+        int belowMedian = 0;
+        int aboveP99 = 0;
+        for (int i = 0; i < 10000; i++) {
+            long delayMs = latency.nextDelayMs();
+            belowMedian += delayMs < 20 ? 1 : 0;
+            aboveP99 += delayMs > 400 ? 1 : 0;
+        }
+        assertTrue("below median " + belowMedian, belowMedian > 4500 && belowMedian < 5500);
+        assertTrue("above p99 " + aboveP99, aboveP99 > 50 && aboveP99 < 150);
+    }
+
+    @Test
+    public void validateErrorsAreInjected() {
+        server.errorRate(1, 503);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(503, restClient.get(server.url(PNF), NO_HEADERS, MediaType.APPLICATION_JSON_TYPE)
+                    .getResultCode());
+        }
+
+        server.errorRate(0, 503);
+        assertEquals(200, restClient.get(server.url(PNF), NO_HEADERS, MediaType.APPLICATION_JSON_TYPE)
+                .getResultCode());
+        assertEquals(5, server.getStatusCount(503));
+        assertEquals(6, server.getRequestCount());
+    }
+
+    @Test
+    public void validateErrorIntervalFailsEveryOtherRequest() {
+        server.errorInterval(2, 503);
+        for (int i = 0; i < 6; i++) {
+            assertEquals(i % 2 == 0 ? 503 : 200,
+                    restClient.get(server.url(PNF), NO_HEADERS, MediaType.APPLICATION_JSON_TYPE).getResultCode());
+        }
+
+        server.errorInterval(0, 503);
+        assertEquals(200, restClient.get(server.url(PNF), NO_HEADERS, MediaType.APPLICATION_JSON_TYPE)
+                .getResultCode());
+        assertEquals(3, server.getStatusCount(503));
+    }
+
+    @Test
+    public void validateRequestsOverLimitAreThrottled() throws Exception {
+        server.throttle(1, 2).latency(LatencyDistribution.fixed(Duration.ofMillis(500)));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            CompletableFuture<OperationResult> slow = CompletableFuture.supplyAsync(
+                    () -> restClient.get(server.url(PNF), NO_HEADERS, MediaType.APPLICATION_JSON_TYPE), executor);
+            Thread.sleep(100);
+            OperationResult throttled = restClient.get(server.url(PNF), NO_HEADERS, MediaType.APPLICATION_JSON_TYPE);
+
+            assertEquals(429, throttled.getResultCode());
+            assertEquals("2", throttled.getHeaders().getFirst("Retry-After"));
+            assertEquals(200, slow.get().getResultCode());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void validateBrownoutOpensCircuitBreaker() {
+        restClient.circuitBreakers(new CircuitBreakerRegistry(new CircuitBreakerConfig().slidingWindowSize(10)
+                .minimumNumberOfCalls(10).waitDurationInOpenState(Duration.ofMinutes(1))));
+        server.errorRate(1, 503);
+
+        for (int i = 0; i < 20; i++) {
+            restClient.get(server.url(PNF), NO_HEADERS, MediaType.APPLICATION_JSON_TYPE);
+        }
+
+        // Once the breaker opens, requests stop reaching the server
+        assertEquals(10, server.getRequestCount());
+    }
+}
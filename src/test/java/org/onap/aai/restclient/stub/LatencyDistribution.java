@@ -0,0 +1,79 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.stub;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Chooses how long the {@link AaiStubServer} waits before answering each request.
+ */
+@FunctionalInterface
+public interface LatencyDistribution {
+
+    /** z-score of the 99th percentile of the standard normal distribution. */
+    double P99_Z_SCORE = 2.3263;
+
+    /**
+     * Returns the delay for the next request in milliseconds.
+     */
+    long nextDelayMs();
+
+    /**
+     * Answers every request straight away.
+     */
+    static LatencyDistribution none() {
+        return () -> 0;
+    }
+
+    /**
+     * Delays every request by the same time.
+     */
+    static LatencyDistribution fixed(Duration delay) {
+        long delayMs = delay.toMillis();
+        return () -> delayMs;
+    }
+
+    /**
+     * Delays each request by a time chosen uniformly between the two bounds.
+     */
+    static LatencyDistribution uniform(Duration min, Duration max) {
+        long minMs = min.toMillis();
+        long maxMs = max.toMillis();
+        if (maxMs < minMs) {
+            throw new IllegalArgumentException("Maximum latency must not be less than the minimum");
+        }
+        return () -> minMs + ThreadLocalRandom.current().nextLong(maxMs - minMs + 1);
+    }
+
+    /**
+     * Delays each request by a log-normally distributed time with the given median and 99th percentile, which gives
+     * the long tail of a real server.
+     */
+    static LatencyDistribution logNormal(Duration median, Duration p99) {
+        double medianMs = median.toMillis();
+        if (medianMs <= 0 || p99.toMillis() < medianMs) {
+            throw new IllegalArgumentException("Median latency must be positive and no more than the 99th percentile");
+        }
+        double sigma = Math.log(p99.toMillis() / medianMs) / P99_Z_SCORE;
+        return () -> Math.round(medianMs * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian()));
+    }
+}
@@ -0,0 +1,81 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.stub;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.core.MediaType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.onap.aai.restclient.client.RestClient;
+import org.onap.aai.restclient.enums.RestAuthenticationMode;
+import org.onap.aai.restclient.enums.TransportEngine;
+
+/**
+ * A base for tests which drive a {@link RestClient} feature end to end. Each test runs once on every
+ * {@link TransportEngine}, against an {@link AaiStubServer} which serves a single PNF.
+ */
+@RunWith(Parameterized.class)
+public abstract class StubServerTestBase {
+
+    protected static final Map<String, List<String>> NO_HEADERS = Collections.emptyMap();
+    protected static final MediaType JSON = MediaType.APPLICATION_JSON_TYPE;
+    protected static final String PNF = "/aai/v14/network/pnfs/pnf/pnf1";
+    protected static final String PNF_JSON = "{\"pnf-name\":\"pnf1\"}";
+
+    @Parameter
+    public TransportEngine engine;
+
+    protected AaiStubServer server;
+
+    @Parameters(name = "{0}")
+    public static Collection<Object[]> engines() {
+        return Arrays.stream(TransportEngine.values()).map(engine -> new Object[] {engine})
+                .collect(Collectors.toList());
+    }
+
+    @Before
+    public void startServer() throws Exception {
+        server = new AaiStubServer().document(PNF, PNF_JSON).start();
+    }
+
+    @After
+    public void stopServer() {
+        server.close();
+    }
+
+    /**
+     * Returns a client without authentication which sends its requests on the engine under test.
+     */
+    protected RestClient newClient() {
+        return new RestClient(ClientBuilder.newBuilder()).authenticationMode(RestAuthenticationMode.HTTP_NOAUTH)
+                .transportEngine(engine);
+    }
+}
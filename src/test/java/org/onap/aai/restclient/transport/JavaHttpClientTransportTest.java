@@ -0,0 +1,397 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2017-2018 AT&T Intellectual Property. All rights reserved.
+ * Copyright © 2017-2018 Amdocs
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.restclient.transport;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onap.aai.restclient.client.OperationResult;
+import org.onap.aai.restclient.client.RequestBody;
+import org.onap.aai.restclient.client.RequestTemplate;
+import org.onap.aai.restclient.client.RestClient;
+import org.onap.aai.restclient.client.StreamingOperationResult;
+import org.onap.aai.restclient.enums.RequestType;
+import org.onap.aai.restclient.enums.ResponseBodyMode;
+import org.onap.aai.restclient.enums.RestAuthenticationMode;
+import org.onap.aai.restclient.enums.TransportEngine;
+
+/**
+ * Exercises the JDK HTTP client transport against a local HTTP server which echoes each request back in the response.
+ */
+public class JavaHttpClientTransportTest {
+
+    private static final Map<String, List<String>> NO_HEADERS = Collections.emptyMap();
+    private static final int LARGE_BODY_SIZE = 4000000;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private String url;
+    private RestClient restClient;
+
+    @Before
+    public void startServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/echo", this::echo);
+        server.createContext("/large", exchange -> {
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                byte[] chunk = new byte[1000];
+                for (int i = 0; i < LARGE_BODY_SIZE / chunk.length; i++) {
+                    out.write(chunk);
+                }
+            }
+        });
+        server.createContext("/missing", exchange -> respond(exchange, 404, "not found"));
+        server.createContext("/redirect", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.getResponseHeaders().add("Location", "/echo");
+            respond(exchange, 307, "");
+        });
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+        url = "http://localhost:" + server.getAddress().getPort();
+
+        restClient = new RestClient(ClientBuilder.newBuilder()).authenticationMode(RestAuthenticationMode.HTTP_NOAUTH)
+                .transportEngine(TransportEngine.JAVA_HTTP_CLIENT);
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private void echo(HttpExchange exchange) throws IOException {
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("X-Method", exchange.getRequestMethod());
+        exchange.getResponseHeaders().add("X-Override",
+                String.valueOf(exchange.getRequestHeaders().getFirst("X-HTTP-Method-Override")));
+        exchange.getResponseHeaders().add("X-Txn-Id", String.valueOf(exchange.getRequestHeaders().getFirst("txnId")));
+        exchange.getResponseHeaders().add("X-Accept", String.valueOf(exchange.getRequestHeaders().getFirst("Accept")));
+        exchange.getResponseHeaders().add("X-Content-Type",
+                String.valueOf(exchange.getRequestHeaders().getFirst("Content-Type")));
+        exchange.getResponseHeaders().add("X-Content-Length",
+                String.valueOf(exchange.getRequestHeaders().getFirst("Content-Length")));
+        exchange.getResponseHeaders().add("X-Transfer-Encoding",
+                String.valueOf(exchange.getRequestHeaders().getFirst("Transfer-Encoding")));
+        exchange.getResponseHeaders().add("X-Authorization",
+                String.valueOf(exchange.getRequestHeaders().getFirst("Authorization")));
+        exchange.getResponseHeaders().add("Content-Type", MediaType.TEXT_PLAIN);
+        respond(exchange, 200, body);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        if ("HEAD".equals(exchange.getRequestMethod())) {
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+            return;
+        }
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Test
+    public void validateGet() {
+        OperationResult result = restClient.get(url + "/echo", NO_HEADERS, MediaType.APPLICATION_JSON_TYPE);
+
+        assertEquals(200, result.getResultCode());
+        assertEquals("", result.getResult());
+        assertNull(result.getFailureCause());
+        assertEquals("GET", result.getHeaders().getFirst("X-Method"));
+        assertEquals(MediaType.APPLICATION_JSON, result.getHeaders().getFirst("X-Accept"));
+    }
+
+    @Test
+    public void validateRequestTemplate() {
+        RequestTemplate template = new RequestTemplate(url + "/echo/pnfs/pnf/{pnf-name}").header("txnId", "a", "b")
+                .contentType(MediaType.TEXT_PLAIN_TYPE);
+
+        OperationResult result = restClient.put(template, "{\"pnf\":1}", "pnf 1");
+
+        assertEquals(200, result.getResultCode());
+        assertEquals("{\"pnf\":1}", result.getResult());
+        assertEquals("PUT", result.getHeaders().getFirst("X-Method"));
+        assertEquals("a;b", result.getHeaders().getFirst("X-Txn-Id"));
+        assertEquals(MediaType.TEXT_PLAIN, result.getHeaders().getFirst("X-Content-Type"));
+        assertEquals(MediaType.APPLICATION_JSON, result.getHeaders().getFirst("X-Accept"));
+        assertEquals("GET", restClient.get(template, "pnf1").getHeaders().getFirst("X-Method"));
+    }
+
+    @Test
+    public void validateResponseHeadersAreCaseInsensitive() {
+        OperationResult result = restClient.get(url + "/echo", NO_HEADERS, MediaType.APPLICATION_JSON_TYPE);
+
+        assertEquals("GET", result.getHeaders().getFirst("x-method"));
+        assertEquals("GET", result.getHeaders().getFirst("X-METHOD"));
+    }
+
+    @Test
+    public void validatePutAndPostSendThePayload() {
+        OperationResult result = restClient.put(url + "/echo", "{\"pnf\":1}", NO_HEADERS,
+                MediaType.APPLICATION_JSON_TYPE, MediaType.APPLICATION_JSON_TYPE);
+        assertEquals(200, result.getResultCode());
+        assertEquals("{\"pnf\":1}", result.getResult());
+        assertEquals("PUT", result.getHeaders().getFirst("X-Method"));
+        assertEquals(MediaType.APPLICATION_JSON, result.getHeaders().getFirst("X-Content-Type"));
+
+        result = restClient.post(url + "/echo", "{\"pnf\":2}", NO_HEADERS, MediaType.APPLICATION_JSON_TYPE,
+                MediaType.APPLICATION_JSON_TYPE);
+        assertEquals("{\"pnf\":2}", result.getResult());
+        assertEquals("POST", result.getHeaders().getFirst("X-Method"));
+    }
+
+    @Test
+    public void validateBytesMode() {
+        String payload = "{\"pnf-name\":\"caf\u00e9\"}";
+
+        OperationResult result = restClient.responseBodyMode(ResponseBodyMode.BYTES).put(url + "/echo", payload,
+                NO_HEADERS, MediaType.APPLICATION_JSON_TYPE, MediaType.APPLICATION_JSON_TYPE);
+
+        assertEquals(200, result.getResultCode());
+        assertArrayEquals(payload.getBytes(StandardCharsets.UTF_8), result.getResultBytes());
+        assertEquals(payload, result.getResult());
+    }
+
+    @Test
+    public void validateStreamedRequestBodies() throws Exception {
+        Path file = Files.createTempFile("request-body", ".json");
+        try {
+            Files.write(file, "{\"source\":\"file\"}".getBytes(StandardCharsets.UTF_8));
+            OperationResult result = restClient.put(url + "/echo", RequestBody.of(file), NO_HEADERS,
+                    MediaType.APPLICATION_JSON_TYPE, MediaType.APPLICATION_JSON_TYPE);
+            assertEquals("{\"source\":\"file\"}", result.getResult());
+            assertEquals("17", result.getHeaders().getFirst("X-Content-Length"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        byte[] stream = "{\"source\":\"stream\"}".getBytes(StandardCharsets.UTF_8);
+        OperationResult result = restClient.post(url + "/echo", RequestBody.of(new ByteArrayInputStream(stream)),
+                NO_HEADERS, MediaType.APPLICATION_JSON_TYPE, MediaType.APPLICATION_JSON_TYPE);
+        assertEquals("{\"source\":\"stream\"}", result.getResult());
+        assertEquals("chunked", result.getHeaders().getFirst("X-Transfer-Encoding"));
+
+        result = restClient.patch(url + "/echo",
+                RequestBody.of(out -> out.write("{\"source\":\"writer\"}".getBytes(StandardCharsets.UTF_8))),
+                NO_HEADERS, MediaType.APPLICATION_JSON_TYPE, MediaType.APPLICATION_JSON_TYPE);
+        assertEquals("{\"source\":\"writer\"}", result.getResult());
+        assertEquals("PATCH", result.getHeaders().getFirst("X-Override"));
+    }
+
+    @Test
+    public void validateFailingWriterFailsTheRequest() {
+        OperationResult result = restClient.post(url + "/echo", RequestBody.of(out -> {
+            out.write('{');
+            throw new IOException("source unavailable");
+        }), NO_HEADERS, MediaType.APPLICATION_JSON_TYPE, MediaType.APPLICATION_JSON_TYPE);
+
+        assertEquals(500, result.getResultCode());
+    }
+
+    @Test
+    public void validateWriterRunsOnClientExecutor() {
+        ExecutorService executor = Executors.newCachedThreadPool(task -> new Thread(task, "client-executor"));
+        try {
+            restClient.executorService(executor);
+            AtomicReference<String> writerThread = new AtomicReference<>();
+
+            OperationResult result = restClient.put(url + "/echo", RequestBody.of(out -> {
+                writerThread.set(Thread.currentThread().getName());
+                out.write("{}".getBytes(StandardCharsets.UTF_8));
+            }), NO_HEADERS, MediaType.APPLICATION_JSON_TYPE, MediaType.APPLICATION_JSON_TYPE);
+
+            assertEquals(200, result.getResultCode());
+            assertEquals("client-executor", writerThread.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void validateRepeatableBodyIsResentAfterRedirect() {
+        AtomicInteger writes = new AtomicInteger();
+        OperationResult result = restClient.put(url + "/redirect", RequestBody.of(out -> {
+            writes.incrementAndGet();
+            out.write("{\"pnf\":1}".getBytes(StandardCharsets.UTF_8));
+        }, true), NO_HEADERS, MediaType.APPLICATION_JSON_TYPE, MediaType.APPLICATION_JSON_TYPE);
+
+        assertEquals(200, result.getResultCode());
+        assertEquals("{\"pnf\":1}", result.getResult());
+        assertEquals(2, writes.get());
+    }
+
+    @Test
+    public void validateOneShotBodyFailsOnRedirect() {
+        AtomicInteger writes = new AtomicInteger();
+        OperationResult result = restClient.put(url + "/redirect", RequestBody.of(out -> {
+            writes.incrementAndGet();
+            out.write("{\"pnf\":1}".getBytes(StandardCharsets.UTF_8));
+        }), NO_HEADERS, MediaType.APPLICATION_JSON_TYPE, MediaType.APPLICATION_JSON_TYPE);
+
+        assertEquals(500, result.getResultCode());
+        assertEquals(1, writes.get());
+
+        byte[] stream = "{\"pnf\":1}".getBytes(StandardCharsets.UTF_8);
+        result = restClient.put(url + "/redirect", RequestBody.of(new ByteArrayInputStream(stream)), NO_HEADERS,
+                MediaType.APPLICATION_JSON_TYPE, MediaType.APPLICATION_JSON_TYPE);
+        assertEquals(500, result.getResultCode());
+    }
+
+    @Test
+    public void validatePatchIsEmulatedWithMethodOverride() {
+        OperationResult result = restClient.patch(url + "/echo", "{}", NO_HEADERS, MediaType.APPLICATION_JSON_TYPE,
+                MediaType.APPLICATION_JSON_TYPE);
+
+        assertEquals(200, result.getResultCode());
+        assertEquals("POST", result.getHeaders().getFirst("X-Method"));
+        assertEquals("PATCH", result.getHeaders().getFirst("X-Override"));
+    }
+
+    @Test
+    public void validateDeleteAndHead() {
+        OperationResult result = restClient.delete(url + "/echo", NO_HEADERS, MediaType.APPLICATION_JSON_TYPE);
+        assertEquals(200, result.getResultCode());
+        assertEquals("DELETE", result.getHeaders().getFirst("X-Method"));
+
+        result = restClient.head(url + "/echo", NO_HEADERS, MediaType.APPLICATION_JSON_TYPE);
+        assertEquals(200, result.getResultCode());
+        assertEquals("HEAD", result.getHeaders().getFirst("X-Method"));
+    }
+
+    @Test
+    public void validateMultivaluedHeaderIsJoined() {
+        MultivaluedMap<String, String> headers = new MultivaluedHashMap<>();
+        headers.add("txnId", "123");
+        headers.add("txnId", "456");
+
+        OperationResult result = restClient.get(url + "/echo", headers, MediaType.APPLICATION_JSON_TYPE);
+
+        assertEquals("123;456", result.getHeaders().getFirst("X-Txn-Id"));
+    }
+
+    @Test
+    public void validateRestrictedHeadersAreLeftOut() {
+        MultivaluedMap<String, String> headers = new MultivaluedHashMap<>();
+        headers.add("Connection", "close");
+        headers.add("Host", "aai.example.com");
+        headers.add("Content-Length", "5");
+        headers.add("Expect", "100-continue");
+        headers.add("Upgrade", "h2c");
+        headers.add("txnId", "123");
+
+        OperationResult result = restClient.put(url + "/echo", "{\"pnf\":1}", headers, MediaType.APPLICATION_JSON_TYPE,
+                MediaType.APPLICATION_JSON_TYPE);
+
+        assertEquals(200, result.getResultCode());
+        assertEquals("{\"pnf\":1}", result.getResult());
+        assertEquals("123", result.getHeaders().getFirst("X-Txn-Id"));
+        assertEquals("9", result.getHeaders().getFirst("X-Content-Length"));
+    }
+
+    @Test
+    public void validateFailureResponse() {
+        OperationResult result = restClient.get(url + "/missing", NO_HEADERS, MediaType.APPLICATION_JSON_TYPE);
+
+        assertEquals(404, result.getResultCode());
+        assertEquals("not found", result.getFailureCause());
+        assertNull(result.getResult());
+    }
+
+    @Test
+    public void validateGetAsync() throws Exception {
+        OperationResult result = restClient.getAsync(url + "/echo", NO_HEADERS, MediaType.APPLICATION_JSON_TYPE,
+                Runnable::run).get(5, TimeUnit.SECONDS);
+
+        assertEquals(200, result.getResultCode());
+        assertEquals("GET", result.getHeaders().getFirst("X-Method"));
+    }
+
+    @Test
+    public void validateLargeResponseIsStreamedInBoundedChunks() {
+        int[] totals = new int[2];
+
+        OperationResult result = restClient.streamBufferSize(4096).getStream(url + "/large", NO_HEADERS,
+                MediaType.APPLICATION_JSON_TYPE, (buffer, length) -> {
+                    totals[0] += length;
+                    totals[1] = Math.max(totals[1], length);
+                });
+
+        assertEquals(200, result.getResultCode());
+        assertEquals(LARGE_BODY_SIZE, totals[0]);
+        assertTrue(totals[1] <= 4096);
+    }
+
+    @Test
+    public void validateStreamedResponse() throws Exception {
+        try (StreamingOperationResult result =
+                restClient.getStream(url + "/echo", NO_HEADERS, MediaType.APPLICATION_JSON_TYPE)) {
+            assertEquals(200, result.getResultCode());
+            assertEquals("GET", result.getHeaders().getFirst("X-Method"));
+            assertEquals(0, result.getInputStream().readAllBytes().length);
+        }
+    }
+
+    @Test
+    public void validateAuthorizationHeaderIsSent() throws Exception {
+        RestTransport transport = new JavaHttpClientTransport(HttpClient.newHttpClient(), 5000);
+        TransportRequest request = new TransportRequest(RequestType.GET, url + "/echo", null,
+                Collections.singletonMap("X-FromAppId", Arrays.asList("test")), null, MediaType.TEXT_PLAIN_TYPE,
+                "Basic dXNlcm5hbWU6cGFzc3dvcmQ=");
+
+        try (TransportResponse response = transport.execute(request)) {
+            assertEquals(200, response.getStatus());
+            assertEquals("Basic dXNlcm5hbWU6cGFzc3dvcmQ=", response.getHeaders().getFirst("X-Authorization"));
+            assertEquals("", response.readEntity());
+        }
+    }
+}